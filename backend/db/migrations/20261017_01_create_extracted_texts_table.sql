@@ -0,0 +1,21 @@
+-- ============================================================
+-- Migration: Create extracted texts table
+-- Date: 2026-10-17
+-- Depends on: 20260214_create_documents_table.sql
+-- Description: Stores text extracted from uploaded documents, keyed by the
+--              SHA-256 hash of the file content. Filled at upload time so
+--              generation requests no longer re-download and re-parse files.
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS pb_extracted_texts (
+    content_hash    VARCHAR(64)     PRIMARY KEY,
+    text_content    TEXT            NOT NULL,
+    char_count      INTEGER         NOT NULL,
+    created_at      TIMESTAMP       NOT NULL DEFAULT NOW()
+);
+
+-- Link each document to its content hash (nullable for rows uploaded before this migration)
+ALTER TABLE pb_documents
+    ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_pb_documents_content_hash ON pb_documents(content_hash);
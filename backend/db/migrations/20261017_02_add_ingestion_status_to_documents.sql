@@ -0,0 +1,15 @@
+-- ============================================================
+-- Migration: Add ingestion status to documents
+-- Date: 2026-10-17
+-- Depends on: 20260214_create_documents_table.sql
+-- Description: Uploads are now stored, hashed and extracted asynchronously.
+--              Tracks pipeline status, current stage and failure reason.
+--              Existing rows were stored synchronously and are COMPLETED.
+-- ============================================================
+
+ALTER TABLE pb_documents
+    ADD COLUMN IF NOT EXISTS ingestion_status VARCHAR(20) NOT NULL DEFAULT 'COMPLETED',
+    ADD COLUMN IF NOT EXISTS ingestion_stage  VARCHAR(20),
+    ADD COLUMN IF NOT EXISTS ingestion_error  VARCHAR(1000);
+
+CREATE INDEX IF NOT EXISTS idx_pb_documents_ingestion_status ON pb_documents(ingestion_status);
@@ -0,0 +1,25 @@
+-- ============================================================
+-- Migration: Unique content hash per user
+-- Date: 2026-10-17
+-- Depends on: 20260222_add_user_id_to_existing_tables.sql, 20261017_01_create_extracted_texts_table.sql, 20261017_02_add_ingestion_status_to_documents.sql
+-- Description: Uploads are de-duplicated per user by SHA-256 content hash.
+--              A repeat upload returns the existing document instead of
+--              storing the file again. Failed uploads do not hold the slot.
+-- ============================================================
+
+-- Keep the hash on the oldest copy only; later duplicates stay readable
+-- but no longer claim the (user_id, content_hash) slot.
+UPDATE pb_documents d
+SET content_hash = NULL
+WHERE d.content_hash IS NOT NULL
+  AND EXISTS (
+      SELECT 1 FROM pb_documents o
+      WHERE o.user_id = d.user_id
+        AND o.content_hash = d.content_hash
+        AND o.ingestion_status <> 'FAILED'
+        AND o.id < d.id
+  );
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_pb_documents_user_content_hash
+    ON pb_documents(user_id, content_hash)
+    WHERE content_hash IS NOT NULL AND ingestion_status <> 'FAILED';
@@ -0,0 +1,38 @@
+-- ============================================================
+-- Migration: Create generation jobs table
+-- Date: 2026-10-17
+-- Depends on: 20260222_create_users_table.sql
+-- Description: Durable queue for AI generation requests (smart resume and
+--              cover letter). Workers claim QUEUED jobs whose run_after has
+--              passed with FOR UPDATE SKIP LOCKED; RUNNING jobs renew
+--              locked_at as a lease so a crashed instance's jobs are re-queued.
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS pb_generation_jobs (
+    id              BIGSERIAL       PRIMARY KEY,
+    user_id         BIGINT          NOT NULL REFERENCES pb_users(id),
+    job_type        VARCHAR(50)     NOT NULL,
+    status          VARCHAR(20)     NOT NULL DEFAULT 'QUEUED',
+    payload         JSONB           NOT NULL,
+    result          JSONB,
+    resource_id     BIGINT,
+    error           VARCHAR(1000),
+    attempts        INT             NOT NULL DEFAULT 0,
+    max_attempts    INT             NOT NULL DEFAULT 3,
+    run_after       TIMESTAMP       NOT NULL DEFAULT NOW(),
+    locked_by       VARCHAR(100),
+    locked_at       TIMESTAMP,
+    completed_at    TIMESTAMP,
+    created_at      TIMESTAMP       NOT NULL DEFAULT NOW(),
+    updated_at      TIMESTAMP       NOT NULL DEFAULT NOW()
+);
+
+-- Claim query: next due QUEUED jobs in order
+CREATE INDEX IF NOT EXISTS idx_pb_generation_jobs_queued
+    ON pb_generation_jobs(run_after, id) WHERE status = 'QUEUED';
+
+-- Lease recovery: RUNNING jobs by lease age
+CREATE INDEX IF NOT EXISTS idx_pb_generation_jobs_running
+    ON pb_generation_jobs(locked_at) WHERE status = 'RUNNING';
+
+CREATE INDEX IF NOT EXISTS idx_pb_generation_jobs_user_id ON pb_generation_jobs(user_id);
@@ -0,0 +1,15 @@
+-- ============================================================
+-- Migration: Add HR validation status to smart resumes
+-- Date: 2026-10-17
+-- Depends on: 20260220_create_smart_resume_tables.sql
+-- Description: HR validation now runs in the background after the resume is
+--              saved. Tracks whether it is still PENDING, COMPLETED or FAILED.
+--              NULL for resumes generated before this change.
+--              validation_requested_at is when the pending validation was
+--              queued; validations still pending long after it were lost with
+--              their instance and are re-queued at startup.
+-- ============================================================
+
+ALTER TABLE pb_smart_generated_resumes
+    ADD COLUMN IF NOT EXISTS validation_status VARCHAR(20),
+    ADD COLUMN IF NOT EXISTS validation_requested_at TIMESTAMP;
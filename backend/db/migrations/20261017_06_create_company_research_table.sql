@@ -0,0 +1,15 @@
+-- ============================================================
+-- Migration: Create company research table
+-- Date: 2026-10-17
+-- Depends on: none
+-- Description: Company research (web-search agent output) shared across users,
+--              keyed by normalised company domain or name. Entries older than
+--              app.company-research.cache.ttl are ignored and overwritten.
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS pb_company_research (
+    company_key     VARCHAR(255)    PRIMARY KEY,
+    research        JSONB           NOT NULL,
+    search_calls    INTEGER         NOT NULL DEFAULT 0,
+    researched_at   TIMESTAMP       NOT NULL DEFAULT NOW()
+);
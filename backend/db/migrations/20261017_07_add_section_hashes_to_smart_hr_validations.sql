@@ -0,0 +1,12 @@
+-- ============================================================
+-- Migration: Add section hashes to smart HR validations
+-- Date: 2026-10-17
+-- Depends on: 20260220_create_smart_resume_tables.sql
+-- Description: SHA-256 hash of each resume section the validation scored, in
+--              section order. After an edit, sections whose hash changed are
+--              re-scored and the scores of the others carried forward.
+--              NULL for validations stored before this change (fully re-validated).
+-- ============================================================
+
+ALTER TABLE pb_smart_hr_validations
+    ADD COLUMN IF NOT EXISTS section_hashes JSONB;
@@ -0,0 +1,15 @@
+-- ============================================================
+-- Migration: Add batch ID to generation jobs
+-- Date: 2026-10-17
+-- Depends on: 20261017_04_create_generation_jobs_table.sql
+-- Description: Jobs queued together by a batch generation request share a
+--              batch_id, so the batch's progress can be read and streamed and
+--              workers can cap how many jobs of one batch run at a time.
+--              NULL for single jobs.
+-- ============================================================
+
+ALTER TABLE pb_generation_jobs
+    ADD COLUMN IF NOT EXISTS batch_id VARCHAR(36);
+
+CREATE INDEX IF NOT EXISTS idx_pb_generation_jobs_batch_id
+    ON pb_generation_jobs(batch_id) WHERE batch_id IS NOT NULL;
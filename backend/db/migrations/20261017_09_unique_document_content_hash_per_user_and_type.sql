@@ -0,0 +1,16 @@
+-- ============================================================
+-- Migration: Unique content hash per user and document type
+-- Date: 2026-10-17
+-- Depends on: 20261017_03_unique_document_content_hash_per_user.sql
+-- Description: De-duplication now also matches the document type, so the
+--              same file uploaded as a resume and as a cover letter is two
+--              documents (sharing one extracted text by hash). Replaces the
+--              (user_id, content_hash) index with (user_id, document_type,
+--              content_hash).
+-- ============================================================
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_pb_documents_user_type_content_hash
+    ON pb_documents(user_id, document_type, content_hash)
+    WHERE content_hash IS NOT NULL AND ingestion_status <> 'FAILED';
+
+DROP INDEX IF EXISTS uq_pb_documents_user_content_hash;
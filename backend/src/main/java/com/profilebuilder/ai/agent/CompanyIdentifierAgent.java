@@ -0,0 +1,20 @@
+package com.profilebuilder.ai.agent;
+
+import com.profilebuilder.ai.dto.CompanyIdentityOutput;
+import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.UserMessage;
+
+/**
+ * Company identifier agent. Names the hiring company of a job description
+ * without web search, so cached company research can be looked up before
+ * running the (tool-using) company research agent.
+ * Wired to the mini model via manual bean registration in AiConfig.
+ */
+public interface CompanyIdentifierAgent {
+
+    /** Agent name in metrics. */
+    String NAME = "company-identifier";
+
+    @SystemMessage(fromResource = "prompts/company-identifier-system.txt")
+    CompanyIdentityOutput identifyCompany(@UserMessage String jdText);
+}
@@ -10,6 +10,9 @@ import dev.langchain4j.service.UserMessage;
  * services, and tech stack.
  */
 public interface CompanyResearchAgent {
+
+    /** Agent name in metrics. */
+    String NAME = "company-research";
     @SystemMessage(fromResource = "prompts/company-research-system.txt")
     CompanyResearchOutput researchCompany(@UserMessage String inputJson);
 }
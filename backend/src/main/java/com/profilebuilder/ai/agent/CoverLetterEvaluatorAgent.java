@@ -9,6 +9,10 @@ import dev.langchain4j.service.UserMessage;
  * JD and provides improvement suggestions.
  */
 public interface CoverLetterEvaluatorAgent {
+
+    /** Agent name in token budgets and metrics. */
+    String NAME = "cover-letter-evaluator";
+
     @SystemMessage(fromResource = "prompts/cover-letter-evaluator-system.txt")
     CoverLetterEvaluationOutput evaluateCoverLetter(@UserMessage String inputJson);
 }
@@ -10,6 +10,10 @@ import dev.langchain4j.service.UserMessage;
  * and company research.
  */
 public interface CoverLetterGeneratorAgent {
+
+    /** Agent name in token budgets and metrics. */
+    String NAME = "cover-letter-generator";
+
     @SystemMessage(fromResource = "prompts/cover-letter-generator-system.txt")
     CoverLetterOutput generateCoverLetter(@UserMessage String inputJson);
 }
@@ -0,0 +1,19 @@
+package com.profilebuilder.ai.agent;
+
+import com.profilebuilder.ai.dto.HrRevalidationOutput;
+import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.UserMessage;
+
+/**
+ * HR re-validator agent. Re-scores only the criteria affected by edited resume
+ * sections, given the previous scores and the before/after of those sections.
+ * Wired to gpt-5-mini via manual bean registration in AiConfig.
+ */
+public interface HrRevalidatorAgent {
+
+    /** Agent name in token budgets and metrics. */
+    String NAME = "hr-revalidator";
+
+    @SystemMessage(fromResource = "prompts/hr-revalidator-system.txt")
+    HrRevalidationOutput revalidateResume(@UserMessage String inputJson);
+}
@@ -11,6 +11,9 @@ import dev.langchain4j.service.UserMessage;
  */
 public interface HrValidatorAgent {
 
+    /** Agent name in token budgets and metrics. */
+    String NAME = "hr-validator";
+
     @SystemMessage(fromResource = "prompts/hr-validator-system.txt")
     HrValidationOutput validateResume(@UserMessage String inputJson);
 }
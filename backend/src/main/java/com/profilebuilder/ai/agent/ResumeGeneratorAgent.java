@@ -10,6 +10,9 @@ import dev.langchain4j.service.UserMessage;
  */
 public interface ResumeGeneratorAgent {
 
+    /** Agent name in token budgets and metrics. */
+    String NAME = "resume-generator";
+
     @SystemMessage(fromResource = "prompts/resume-generator-system.txt")
     SmartResumeOutput generateResume(@UserMessage String inputJson);
 }
@@ -0,0 +1,18 @@
+package com.profilebuilder.ai.agent;
+
+import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.TokenStream;
+import dev.langchain4j.service.UserMessage;
+
+/**
+ * Streaming variant of {@link ResumeGeneratorAgent}. Same prompt and output schema,
+ * but the JSON is delivered token by token. Wired to the streaming ChatModel in AiConfig.
+ */
+public interface ResumeGeneratorStreamingAgent {
+
+    /** Agent name in metrics. */
+    String NAME = "resume-generator-streaming";
+
+    @SystemMessage(fromResource = "prompts/resume-generator-system.txt")
+    TokenStream generateResume(@UserMessage String inputJson);
+}
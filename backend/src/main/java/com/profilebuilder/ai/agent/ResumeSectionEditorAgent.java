@@ -0,0 +1,18 @@
+package com.profilebuilder.ai.agent;
+
+import com.profilebuilder.ai.dto.ResumeSectionEditOutput;
+import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.UserMessage;
+
+/**
+ * Resume section editor agent. Applies HR recommendations to the resume sections
+ * they target and returns only those sections. Wired to main ChatModel in AiConfig.
+ */
+public interface ResumeSectionEditorAgent {
+
+    /** Agent name in token budgets and metrics. */
+    String NAME = "resume-section-editor";
+
+    @SystemMessage(fromResource = "prompts/resume-section-editor-system.txt")
+    ResumeSectionEditOutput editSections(@UserMessage String inputJson);
+}
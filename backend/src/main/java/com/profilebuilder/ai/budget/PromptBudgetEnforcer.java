@@ -0,0 +1,226 @@
+package com.profilebuilder.ai.budget;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profilebuilder.exception.PromptTooLargeException;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.TokenCountEstimator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps agent inputs within per-agent token budgets, counted locally with the model's tokenizer.
+ * <p>
+ * {@link #fit} serialises the user message, counts it together with the agent's system prompt
+ * and, when the total exceeds the budget, trims the message's trimmable fields (see
+ * {@link PromptFields}) lowest priority first. Compaction is deterministic: the same input always
+ * yields the same message. Inputs that cannot be brought within budget are rejected with
+ * {@link PromptTooLargeException} before any model call.
+ * <p>
+ * Per call, records the input tokens sent ({@code pb.ai.prompt.tokens}), the tokens removed
+ * ({@code pb.ai.prompt.tokens.trimmed}) and the outcome ({@code pb.ai.prompt.budget}), tagged by agent.
+ */
+public class PromptBudgetEnforcer {
+
+    private static final Logger log = LoggerFactory.getLogger(PromptBudgetEnforcer.class);
+
+    /** Re-serialise and re-count at most this many times per field; JSON escaping shifts counts slightly. */
+    private static final int MAX_TRIM_PASSES = 3;
+
+    /**
+     * Token budget of one agent: the model's tokenizer, the maximum input tokens per call
+     * (system prompt plus user message) and the classpath resource of the system prompt.
+     */
+    public record Budget(String agent, TokenCountEstimator estimator, int maxInputTokens,
+                         String systemPromptResource) {}
+
+    private record AgentBudget(Budget budget, int systemPromptTokens,
+                               DistributionSummary inputTokens, DistributionSummary trimmedTokens,
+                               Counter within, Counter compacted, Counter rejected) {}
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, AgentBudget> budgets = new HashMap<>();
+
+    public PromptBudgetEnforcer(ObjectMapper objectMapper, MeterRegistry meterRegistry, List<Budget> budgets) {
+        this.objectMapper = objectMapper;
+        for (Budget budget : budgets) {
+            String agent = budget.agent();
+            SystemMessage systemMessage = SystemMessage.from(readResource(budget.systemPromptResource()));
+            this.budgets.put(agent, new AgentBudget(
+                    budget,
+                    budget.estimator().estimateTokenCountInMessages(List.of(systemMessage)),
+                    DistributionSummary.builder("pb.ai.prompt.tokens")
+                            .description("Input tokens per agent call (system prompt + user message), counted locally")
+                            .baseUnit("tokens")
+                            .tag("agent", agent)
+                            .register(meterRegistry),
+                    DistributionSummary.builder("pb.ai.prompt.tokens.trimmed")
+                            .description("Input tokens removed per agent call to fit the token budget")
+                            .baseUnit("tokens")
+                            .tag("agent", agent)
+                            .register(meterRegistry),
+                    outcomeCounter(meterRegistry, agent, "within"),
+                    outcomeCounter(meterRegistry, agent, "compacted"),
+                    outcomeCounter(meterRegistry, agent, "rejected")));
+        }
+    }
+
+    /**
+     * Returns the JSON user message for {@code agent}, compacted to the agent's token budget.
+     *
+     * @throws PromptTooLargeException if the fixed fields, plus trimmable fields at their floors,
+     *                                 exceed the budget
+     */
+    public String fit(String agent, PromptFields fields) throws JsonProcessingException {
+        AgentBudget agentBudget = budgets.get(agent);
+        if (agentBudget == null) {
+            throw new IllegalStateException("No token budget configured for agent " + agent);
+        }
+        long start = System.nanoTime();
+        TokenCountEstimator estimator = agentBudget.budget().estimator();
+        int maxTokens = agentBudget.budget().maxInputTokens();
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (PromptFields.Field field : fields.fields()) {
+            values.put(field.name(), field.value());
+        }
+        String message = objectMapper.writeValueAsString(values);
+        int originalTokens = count(agentBudget, message);
+        int tokens = originalTokens;
+
+        if (tokens > maxTokens) {
+            List<PromptFields.Field> trimOrder = fields.fields().stream()
+                    .filter(PromptFields.Field::trimmable)
+                    .sorted(Comparator.comparingInt(PromptFields.Field::trimPriority))
+                    .toList();
+            for (PromptFields.Field field : trimOrder) {
+                for (int pass = 0; pass < MAX_TRIM_PASSES && tokens > maxTokens; pass++) {
+                    Object current = values.get(field.name());
+                    Object trimmed = trim(current, tokens - maxTokens, field.floorTokens(), estimator);
+                    if (trimmed.equals(current)) {
+                        break;
+                    }
+                    values.put(field.name(), trimmed);
+                    message = objectMapper.writeValueAsString(values);
+                    tokens = count(agentBudget, message);
+                }
+                if (tokens <= maxTokens) {
+                    break;
+                }
+            }
+        }
+
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        if (tokens > maxTokens) {
+            agentBudget.rejected().increment();
+            log.warn("Input for {} rejected: {} tokens after compaction, budget {} ({} µs)",
+                    agent, tokens, maxTokens, micros);
+            throw new PromptTooLargeException(
+                    "The selected documents and job description are too long to process together. "
+                            + "Please select fewer or shorter documents.");
+        }
+        agentBudget.inputTokens().record(tokens);
+        agentBudget.trimmedTokens().record(originalTokens - tokens);
+        if (tokens < originalTokens) {
+            agentBudget.compacted().increment();
+            log.warn("Input for {} compacted from {} to {} tokens to fit budget {} ({} µs)",
+                    agent, originalTokens, tokens, maxTokens, micros);
+        } else {
+            agentBudget.within().increment();
+            log.debug("Input for {}: {} tokens, budget {} ({} µs)", agent, tokens, maxTokens, micros);
+        }
+        return message;
+    }
+
+    // ── Compaction ───────────────────────────────────────────
+
+    @SuppressWarnings("unchecked")
+    private static Object trim(Object value, int excessTokens, int floorTokens, TokenCountEstimator estimator) {
+        if (value instanceof String text) {
+            int total = estimator.estimateTokenCountInText(text);
+            int target = Math.max(floorTokens, total - excessTokens);
+            return target < total ? head(text, target, estimator) : text;
+        }
+        List<String> texts = new ArrayList<>((List<String>) value);
+        int[] counts = texts.stream().mapToInt(estimator::estimateTokenCountInText).toArray();
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        int toRemove = total - Math.max(floorTokens, total - excessTokens);
+        // later documents are the least relevant: shorten or drop them first
+        for (int i = texts.size() - 1; i >= 0 && toRemove > 0; i--) {
+            if (counts[i] <= toRemove) {
+                texts.remove(i);
+                toRemove -= counts[i];
+            } else {
+                texts.set(i, head(texts.get(i), counts[i] - toRemove, estimator));
+                toRemove = 0;
+            }
+        }
+        return List.copyOf(texts);
+    }
+
+    /**
+     * Leading lines of {@code text} that fit in {@code maxTokens}. A line that does not fit
+     * completely is cut proportionally to its token count.
+     */
+    private static String head(String text, int maxTokens, TokenCountEstimator estimator) {
+        StringBuilder out = new StringBuilder();
+        int remaining = maxTokens;
+        for (String line : text.split("\n")) {
+            int lineTokens = estimator.estimateTokenCountInText(line) + 1;
+            if (lineTokens <= remaining) {
+                out.append(line).append('\n');
+                remaining -= lineTokens;
+                continue;
+            }
+            int chars = (int) ((long) line.length() * remaining / lineTokens);
+            if (chars > 0) {
+                out.append(line, 0, chars);
+            }
+            break;
+        }
+        return out.toString().strip();
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    /** Tokens of the whole call; the system prompt is counted once, at startup. */
+    private static int count(AgentBudget agentBudget, String message) {
+        return agentBudget.systemPromptTokens()
+                + agentBudget.budget().estimator().estimateTokenCountInMessage(UserMessage.from(message));
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String agent, String outcome) {
+        return Counter.builder("pb.ai.prompt.budget")
+                .description("Agent calls by token budget outcome")
+                .tag("agent", agent)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String readResource(String path) {
+        try (var in = new ClassPathResource(path).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read system prompt " + path, e);
+        }
+    }
+}
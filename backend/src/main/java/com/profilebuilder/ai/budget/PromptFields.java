@@ -0,0 +1,49 @@
+package com.profilebuilder.ai.budget;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Named fields of an agent's JSON user message, in message order.
+ * <p>
+ * Fixed fields are always sent unchanged. Trimmable fields may be shortened by
+ * {@link PromptBudgetEnforcer} when the message exceeds the agent's token budget: the field
+ * with the lowest {@code trimPriority} is trimmed first, never below {@code floorTokens}.
+ * Texts lose lines from the end; lists of texts lose content from their last element first.
+ */
+public final class PromptFields {
+
+    record Field(String name, Object value, int trimPriority, int floorTokens) {
+
+        boolean trimmable() {
+            return trimPriority > 0;
+        }
+    }
+
+    private final List<Field> fields = new ArrayList<>();
+
+    public PromptFields fixed(String name, Object value) {
+        fields.add(new Field(name, value, 0, 0));
+        return this;
+    }
+
+    public PromptFields trimmable(String name, String text, int trimPriority, int floorTokens) {
+        return addTrimmable(name, text != null ? text : "", trimPriority, floorTokens);
+    }
+
+    public PromptFields trimmable(String name, List<String> texts, int trimPriority, int floorTokens) {
+        return addTrimmable(name, List.copyOf(texts), trimPriority, floorTokens);
+    }
+
+    List<Field> fields() {
+        return fields;
+    }
+
+    private PromptFields addTrimmable(String name, Object value, int trimPriority, int floorTokens) {
+        if (trimPriority < 1) {
+            throw new IllegalArgumentException("trimPriority must be positive: " + trimPriority);
+        }
+        fields.add(new Field(name, value, trimPriority, floorTokens));
+        return this;
+    }
+}
@@ -0,0 +1,16 @@
+package com.profilebuilder.ai.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * AI output DTO for the company identifier agent.
+ * Both fields are null when the company cannot be determined.
+ */
+@Data
+@NoArgsConstructor
+public class CompanyIdentityOutput {
+
+    private String companyName;
+    private String companyDomain;
+}
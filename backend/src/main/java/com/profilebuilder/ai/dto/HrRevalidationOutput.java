@@ -0,0 +1,25 @@
+package com.profilebuilder.ai.dto;
+
+import com.profilebuilder.model.dto.RecommendationItem;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * AI output DTO for the HR re-validator agent.
+ * Only the re-scored criteria are present; a score the reply omits stays null.
+ */
+@Data
+@NoArgsConstructor
+public class HrRevalidationOutput {
+
+    private Double keywordMatchScore;           // 0.0 - 1.0
+    private Double experienceRelevanceScore;    // 0.0 - 1.0
+    private Double skillsAlignmentScore;        // 0.0 - 1.0
+    private Double resumeQualityScore;          // 0.0 - 1.0
+    private Double educationFitScore;           // 0.0 - 1.0
+    private List<String> gaps;
+    private List<String> strengths;
+    private List<RecommendationItem> recommendations;
+}
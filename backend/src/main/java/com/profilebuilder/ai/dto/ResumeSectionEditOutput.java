@@ -0,0 +1,18 @@
+package com.profilebuilder.ai.dto;
+
+import com.profilebuilder.ai.dto.SmartResumeOutput.ResumeSection;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * AI output DTO for the resume section editor agent.
+ * The edited sections, in the order they were sent.
+ */
+@Data
+@NoArgsConstructor
+public class ResumeSectionEditOutput {
+
+    private List<ResumeSection> sections;
+}
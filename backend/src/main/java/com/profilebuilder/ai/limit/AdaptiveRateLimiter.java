@@ -0,0 +1,148 @@
+package com.profilebuilder.ai.limit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests-per-minute and tokens-per-minute limiter for one model, as two token buckets that
+ * refill continuously over a minute. Starts from configured limits and adapts to OpenAI's
+ * {@code x-ratelimit-*} response headers: the advertised limits become the bucket capacities
+ * and the advertised remaining quota caps what is available locally. A 429 empties both buckets.
+ * <p>
+ * Not thread-safe; {@link ModelGovernor} calls it under its lock.
+ */
+class AdaptiveRateLimiter {
+
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /** Continuously refilling bucket holding up to {@code capacity} units per minute. */
+    static final class Bucket {
+
+        private double capacity;
+        private double available;
+        private long refilledAt;
+
+        Bucket(double capacity, long now) {
+            this.capacity = capacity;
+            this.available = capacity;
+            this.refilledAt = now;
+        }
+
+        private void refill(long now) {
+            if (now > refilledAt) {
+                available = Math.min(capacity, available + (now - refilledAt) * capacity / WINDOW_NANOS);
+                refilledAt = now;
+            }
+        }
+
+        /** Wait until {@code amount} is available; amounts above capacity need a full bucket. */
+        long nanosUntil(double amount, long now) {
+            refill(now);
+            double needed = Math.min(amount, capacity) - available;
+            return needed <= 0 ? 0 : (long) Math.ceil(needed * WINDOW_NANOS / capacity);
+        }
+
+        void take(double amount, long now) {
+            refill(now);
+            available -= amount;
+        }
+
+        /** Returns an over-estimate, or charges an under-estimate, once actual usage is known. */
+        void adjust(double delta, long now) {
+            refill(now);
+            available = Math.min(capacity, available - delta);
+        }
+
+        void observe(Double limit, Double remaining, long now) {
+            refill(now);
+            if (limit != null && limit > 0) {
+                capacity = limit;
+                available = Math.min(available, capacity);
+            }
+            if (remaining != null) {
+                available = Math.min(available, remaining);
+            }
+        }
+
+        void drain(long now) {
+            refill(now);
+            available = Math.min(available, 0);
+        }
+
+        double available(long now) {
+            refill(now);
+            return available;
+        }
+    }
+
+    private final Bucket requests;
+    private final Bucket tokens;
+
+    AdaptiveRateLimiter(long requestsPerMinute, long tokensPerMinute, long now) {
+        this.requests = new Bucket(requestsPerMinute, now);
+        this.tokens = new Bucket(tokensPerMinute, now);
+    }
+
+    /** Nanoseconds until a call estimated at {@code tokenCount} tokens may start; 0 if it may start now. */
+    long nanosUntilAvailable(long tokenCount, long now) {
+        return Math.max(requests.nanosUntil(1, now), tokens.nanosUntil(tokenCount, now));
+    }
+
+    void consume(long tokenCount, long now) {
+        requests.take(1, now);
+        tokens.take(tokenCount, now);
+    }
+
+    /** Corrects the token bucket by {@code actual - estimated} once a response reports its usage. */
+    void settle(long estimatedTokens, long actualTokens, long now) {
+        tokens.adjust(actualTokens - estimatedTokens, now);
+    }
+
+    void update(Map<String, List<String>> headers, long now) {
+        if (headers == null || headers.isEmpty()) {
+            return;
+        }
+        requests.observe(number(headers, "x-ratelimit-limit-requests"),
+                number(headers, "x-ratelimit-remaining-requests"), now);
+        tokens.observe(number(headers, "x-ratelimit-limit-tokens"),
+                number(headers, "x-ratelimit-remaining-tokens"), now);
+    }
+
+    /** The provider rejected a call with 429: stop issuing calls until the buckets refill. */
+    void throttle(long now) {
+        requests.drain(now);
+        tokens.drain(now);
+    }
+
+    double availableRequests(long now) {
+        return requests.available(now);
+    }
+
+    double availableTokens(long now) {
+        return tokens.available(now);
+    }
+
+    // ── Header parsing ───────────────────────────────────────
+
+    private static Double number(Map<String, List<String>> headers, String name) {
+        String value = header(headers, name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String header(Map<String, List<String>> headers, String name) {
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            if (name.equalsIgnoreCase(entry.getKey()) && entry.getValue() != null && !entry.getValue().isEmpty()) {
+                return entry.getValue().get(0);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,121 @@
+package com.profilebuilder.ai.limit;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * The user on whose behalf model calls on the current thread are made. {@link ModelGovernor}
+ * queues waiting calls per caller so that one user's burst cannot starve the others.
+ * Calls made outside a caller scope share the {@value #SYSTEM} lane.
+ * <p>
+ * Also carries the agent making the calls, which tags the model call metrics.
+ */
+public final class AiCallContext {
+
+    static final String SYSTEM = "system";
+
+    private static final ThreadLocal<String> CALLER = new ThreadLocal<>();
+    private static final ThreadLocal<String> AGENT = new ThreadLocal<>();
+
+    private AiCallContext() {
+    }
+
+    /** Runs {@code action} with model calls attributed to {@code userId}. */
+    public static <T> T callAs(Long userId, Supplier<T> action) {
+        return with(CALLER, userId != null ? "user:" + userId : null, action);
+    }
+
+    /** Runs {@code task} with model calls attributed to {@code userId}. */
+    public static void runAs(Long userId, Runnable task) {
+        callAs(userId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /** Runs {@code action} with model calls attributed to {@code agent}. */
+    public static <T> T callAsAgent(String agent, Supplier<T> action) {
+        return with(AGENT, agent, action);
+    }
+
+    /** Runs {@code task} with model calls attributed to {@code agent}. */
+    public static void runAsAgent(String agent, Runnable task) {
+        callAsAgent(agent, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /** Returns {@code target} with the model calls of each of its methods attributed to {@code agent}. */
+    public static <T> T forAgent(Class<T> agentType, String agent, T target) {
+        Object proxy = Proxy.newProxyInstance(agentType.getClassLoader(), new Class<?>[]{agentType},
+                (self, method, args) -> {
+                    String previous = AGENT.get();
+                    AGENT.set(agent);
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        restore(AGENT, previous);
+                    }
+                });
+        return agentType.cast(proxy);
+    }
+
+    /** Binds the current caller and agent to {@code task}, for work handed to another thread. */
+    public static Runnable wrap(Runnable task) {
+        Supplier<Void> work = wrap(() -> {
+            task.run();
+            return null;
+        });
+        return work::get;
+    }
+
+    /** Binds the current caller and agent to {@code work}, for work handed to another thread. */
+    public static <T> Supplier<T> wrap(Supplier<T> work) {
+        String caller = CALLER.get();
+        String agent = AGENT.get();
+        return () -> with(CALLER, caller, () -> with(AGENT, agent, work));
+    }
+
+    /** Executor running tasks on {@code executor} with the current caller and agent bound. */
+    public static Executor wrap(Executor executor) {
+        String caller = CALLER.get();
+        String agent = AGENT.get();
+        return task -> executor.execute(() -> with(CALLER, caller, () -> with(AGENT, agent, () -> {
+            task.run();
+            return null;
+        })));
+    }
+
+    static String caller() {
+        String caller = CALLER.get();
+        return caller != null ? caller : SYSTEM;
+    }
+
+    /** The agent making model calls on the current thread, or null outside an agent scope. */
+    public static String agent() {
+        return AGENT.get();
+    }
+
+    private static <T> T with(ThreadLocal<String> slot, String value, Supplier<T> action) {
+        String previous = slot.get();
+        slot.set(value);
+        try {
+            return action.get();
+        } finally {
+            restore(slot, previous);
+        }
+    }
+
+    private static void restore(ThreadLocal<String> slot, String previous) {
+        if (previous != null) {
+            slot.set(previous);
+        } else {
+            slot.remove();
+        }
+    }
+}
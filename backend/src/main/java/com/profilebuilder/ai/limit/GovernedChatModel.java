@@ -0,0 +1,57 @@
+package com.profilebuilder.ai.limit;
+
+import dev.langchain4j.exception.RateLimitException;
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+import java.util.Set;
+
+/**
+ * {@link ChatModel} decorator that admits every call through the model's {@link ModelGovernor}
+ * (bulkhead, rate limits, fair queue) before delegating. Request parameters, capabilities and
+ * listeners remain those of the delegate.
+ */
+public class GovernedChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final ModelGovernor governor;
+
+    public GovernedChatModel(ChatModel delegate, ModelGovernor governor) {
+        this.delegate = delegate;
+        this.governor = governor;
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        ModelGovernor.Permit permit = governor.acquire(chatRequest);
+        ChatResponse response = null;
+        try {
+            response = delegate.chat(chatRequest);
+            return response;
+        } catch (RateLimitException e) {
+            governor.rateLimited();
+            throw e;
+        } finally {
+            permit.release(response);
+        }
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return delegate.defaultRequestParameters();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return delegate.provider();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+}
@@ -0,0 +1,129 @@
+package com.profilebuilder.ai.limit;
+
+import dev.langchain4j.exception.RateLimitException;
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.CompleteToolCall;
+import dev.langchain4j.model.chat.response.PartialResponse;
+import dev.langchain4j.model.chat.response.PartialResponseContext;
+import dev.langchain4j.model.chat.response.PartialThinking;
+import dev.langchain4j.model.chat.response.PartialThinkingContext;
+import dev.langchain4j.model.chat.response.PartialToolCall;
+import dev.langchain4j.model.chat.response.PartialToolCallContext;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+
+import java.util.Set;
+
+/**
+ * {@link StreamingChatModel} decorator sharing a {@link ModelGovernor} with the blocking client
+ * of the same model. Admission blocks the calling thread until the stream may start; the permit
+ * is held until the stream completes or fails. A rejected admission is reported to the handler.
+ */
+public class GovernedStreamingChatModel implements StreamingChatModel {
+
+    private final StreamingChatModel delegate;
+    private final ModelGovernor governor;
+
+    public GovernedStreamingChatModel(StreamingChatModel delegate, ModelGovernor governor) {
+        this.delegate = delegate;
+        this.governor = governor;
+    }
+
+    @Override
+    public void chat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+        ModelGovernor.Permit permit;
+        try {
+            permit = governor.acquire(chatRequest);
+        } catch (RuntimeException e) {
+            handler.onError(e);
+            return;
+        }
+        try {
+            delegate.chat(chatRequest, new ReleasingHandler(handler, permit));
+        } catch (RuntimeException e) {
+            permit.release(null);
+            throw e;
+        }
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return delegate.defaultRequestParameters();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return delegate.provider();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    /** Forwards every callback and releases the permit when the stream ends. */
+    private final class ReleasingHandler implements StreamingChatResponseHandler {
+
+        private final StreamingChatResponseHandler handler;
+        private final ModelGovernor.Permit permit;
+
+        ReleasingHandler(StreamingChatResponseHandler handler, ModelGovernor.Permit permit) {
+            this.handler = handler;
+            this.permit = permit;
+        }
+
+        @Override
+        public void onPartialResponse(String partialResponse) {
+            handler.onPartialResponse(partialResponse);
+        }
+
+        @Override
+        public void onPartialResponse(PartialResponse partialResponse, PartialResponseContext context) {
+            handler.onPartialResponse(partialResponse, context);
+        }
+
+        @Override
+        public void onPartialThinking(PartialThinking partialThinking) {
+            handler.onPartialThinking(partialThinking);
+        }
+
+        @Override
+        public void onPartialThinking(PartialThinking partialThinking, PartialThinkingContext context) {
+            handler.onPartialThinking(partialThinking, context);
+        }
+
+        @Override
+        public void onPartialToolCall(PartialToolCall partialToolCall) {
+            handler.onPartialToolCall(partialToolCall);
+        }
+
+        @Override
+        public void onPartialToolCall(PartialToolCall partialToolCall, PartialToolCallContext context) {
+            handler.onPartialToolCall(partialToolCall, context);
+        }
+
+        @Override
+        public void onCompleteToolCall(CompleteToolCall completeToolCall) {
+            handler.onCompleteToolCall(completeToolCall);
+        }
+
+        @Override
+        public void onCompleteResponse(ChatResponse completeResponse) {
+            permit.release(completeResponse);
+            handler.onCompleteResponse(completeResponse);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (error instanceof RateLimitException) {
+                governor.rateLimited();
+            }
+            permit.release(null);
+            handler.onError(error);
+        }
+    }
+}
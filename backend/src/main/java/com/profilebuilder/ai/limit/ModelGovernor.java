@@ -0,0 +1,335 @@
+package com.profilebuilder.ai.limit;
+
+import com.profilebuilder.exception.AiCapacityExceededException;
+import dev.langchain4j.model.TokenCountEstimator;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.openai.OpenAiChatResponseMetadata;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for one model, shared by its blocking and streaming clients.
+ * <p>
+ * A call may start when a bulkhead permit is free (at most {@code maxConcurrency} calls in
+ * flight) and the {@link AdaptiveRateLimiter} has room for one more request and its estimated
+ * tokens (prompt tokens counted locally plus an output reserve). Calls that cannot start wait in
+ * one FIFO lane per caller ({@link AiCallContext}); lanes are served round-robin, so a user with
+ * many queued calls does not delay other users' calls. A call fails fast with
+ * {@link AiCapacityExceededException}, without queuing, when the queue is full or the rate limits
+ * cannot admit it within the queue timeout, and fails when the timeout expires while waiting.
+ * <p>
+ * Calls made outside a caller scope all share the system lane, so they are counted by agent in
+ * {@code pb.ai.model.unattributed} and logged once per agent: user requests should bind their
+ * user with {@link AiCallContext#callAs} and run off the request thread.
+ * <p>
+ * Meters, tagged by model: {@code pb.ai.model.queue.wait} (by outcome), {@code pb.ai.model.queue.size},
+ * {@code pb.ai.model.in.flight}, {@code pb.ai.model.rate.limit.available}, {@code pb.ai.model.throttled}
+ * and {@code pb.ai.model.unattributed}.
+ */
+public class ModelGovernor {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelGovernor.class);
+
+    private final String model;
+    private final int maxConcurrency;
+    private final int maxQueued;
+    private final long queueTimeoutNanos;
+    private final TokenCountEstimator estimator;
+    private final int outputTokenReserve;
+    private final AdaptiveRateLimiter limiter;
+    /** Monotonic nanosecond time; {@link System#nanoTime()} outside tests. */
+    private final LongSupplier clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Waiting calls per caller; iteration order is the round-robin order. */
+    private final LinkedHashMap<String, ArrayDeque<Waiter>> lanes = new LinkedHashMap<>();
+    private int queued;
+    private int inFlight;
+
+    private final Timer acquiredTimer;
+    private final Timer queueFullTimer;
+    private final Timer rateLimitedTimer;
+    private final Timer timeoutTimer;
+    private final Counter throttled;
+    private final MeterRegistry meterRegistry;
+    /** Agents already warned about for calls outside a caller scope. */
+    private final Set<String> unattributedAgents = ConcurrentHashMap.newKeySet();
+
+    public ModelGovernor(String model, int maxConcurrency, long requestsPerMinute, long tokensPerMinute,
+                         int maxQueued, Duration queueTimeout, TokenCountEstimator estimator,
+                         int outputTokenReserve, MeterRegistry meterRegistry) {
+        this(model, maxConcurrency, requestsPerMinute, tokensPerMinute, maxQueued, queueTimeout, estimator,
+                outputTokenReserve, meterRegistry, System::nanoTime);
+    }
+
+    ModelGovernor(String model, int maxConcurrency, long requestsPerMinute, long tokensPerMinute,
+                  int maxQueued, Duration queueTimeout, TokenCountEstimator estimator,
+                  int outputTokenReserve, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.model = model;
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.estimator = estimator;
+        this.outputTokenReserve = outputTokenReserve;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.limiter = new AdaptiveRateLimiter(requestsPerMinute, tokensPerMinute, clock.getAsLong());
+
+        this.acquiredTimer = waitTimer(meterRegistry, "acquired");
+        this.queueFullTimer = waitTimer(meterRegistry, "queue_full");
+        this.rateLimitedTimer = waitTimer(meterRegistry, "rate_limited");
+        this.timeoutTimer = waitTimer(meterRegistry, "timeout");
+        this.throttled = Counter.builder("pb.ai.model.throttled")
+                .description("Model calls rejected by the provider with 429")
+                .tag("model", model)
+                .register(meterRegistry);
+        Gauge.builder("pb.ai.model.queue.size", this, g -> g.queued)
+                .description("Model calls waiting for admission")
+                .tag("model", model)
+                .register(meterRegistry);
+        Gauge.builder("pb.ai.model.in.flight", this, g -> g.inFlight)
+                .description("Model calls in flight")
+                .tag("model", model)
+                .register(meterRegistry);
+        Gauge.builder("pb.ai.model.rate.limit.available", this, g -> g.available(true))
+                .description("Locally tracked rate limit headroom")
+                .tag("model", model)
+                .tag("limit", "requests")
+                .register(meterRegistry);
+        Gauge.builder("pb.ai.model.rate.limit.available", this, g -> g.available(false))
+                .description("Locally tracked rate limit headroom")
+                .tag("model", model)
+                .tag("limit", "tokens")
+                .register(meterRegistry);
+    }
+
+    /** An admitted call. Release exactly once, with the response if there is one. */
+    public final class Permit {
+
+        private final long estimatedTokens;
+        private boolean released;
+
+        private Permit(long estimatedTokens) {
+            this.estimatedTokens = estimatedTokens;
+        }
+
+        public void release(ChatResponse response) {
+            lock.lock();
+            try {
+                if (released) {
+                    return;
+                }
+                released = true;
+                inFlight--;
+                long now = clock.getAsLong();
+                if (response != null) {
+                    TokenUsage usage = response.tokenUsage();
+                    if (usage != null && usage.totalTokenCount() != null) {
+                        limiter.settle(estimatedTokens, usage.totalTokenCount(), now);
+                    }
+                    if (response.metadata() instanceof OpenAiChatResponseMetadata metadata
+                            && metadata.rawHttpResponse() != null) {
+                        limiter.update(metadata.rawHttpResponse().headers(), now);
+                    }
+                }
+                dispatch(now);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Waiter {
+
+        final long tokens;
+        final Condition granted;
+        boolean admitted;
+
+        Waiter(long tokens, Condition granted) {
+            this.tokens = tokens;
+            this.granted = granted;
+        }
+    }
+
+    /**
+     * Blocks until {@code request} may be sent, then returns its permit.
+     *
+     * @throws AiCapacityExceededException if the call cannot start within the queue timeout
+     */
+    public Permit acquire(ChatRequest request) {
+        long tokens = estimateTokens(request);
+        String caller = AiCallContext.caller();
+        if (AiCallContext.SYSTEM.equals(caller)) {
+            countUnattributed();
+        }
+        long start = clock.getAsLong();
+        long deadline = start + queueTimeoutNanos;
+
+        lock.lock();
+        try {
+            if (queued == 0 && inFlight < maxConcurrency && limiter.nanosUntilAvailable(tokens, start) == 0) {
+                admit(tokens, start);
+                acquiredTimer.record(clock.getAsLong() - start, TimeUnit.NANOSECONDS);
+                return new Permit(tokens);
+            }
+            if (queued >= maxQueued) {
+                throw reject(queueFullTimer, start, "queue full (" + queued + " waiting)");
+            }
+            long limiterWait = limiter.nanosUntilAvailable(tokens, start);
+            if (limiterWait > queueTimeoutNanos) {
+                throw reject(rateLimitedTimer, start,
+                        "rate limit frees up in " + TimeUnit.NANOSECONDS.toMillis(limiterWait) + " ms");
+            }
+
+            Waiter waiter = new Waiter(tokens, lock.newCondition());
+            lanes.computeIfAbsent(caller, k -> new ArrayDeque<>()).addLast(waiter);
+            queued++;
+            try {
+                while (!waiter.admitted) {
+                    long now = clock.getAsLong();
+                    long remaining = deadline - now;
+                    if (remaining <= 0) {
+                        dequeue(caller, waiter);
+                        throw reject(timeoutTimer, start, "no capacity within "
+                                + TimeUnit.NANOSECONDS.toMillis(queueTimeoutNanos) + " ms");
+                    }
+                    // wake up when the rate limit should have refilled, if that comes before a release
+                    long refill = limiter.nanosUntilAvailable(waiter.tokens, now);
+                    waiter.granted.awaitNanos(refill > 0 ? Math.min(remaining, refill) : remaining);
+                    if (!waiter.admitted) {
+                        dispatch(clock.getAsLong());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (waiter.admitted) {
+                    new Permit(tokens).release(null);
+                } else {
+                    dequeue(caller, waiter);
+                }
+                throw new AiCapacityExceededException("Interrupted while waiting for " + model + " capacity");
+            }
+            acquiredTimer.record(clock.getAsLong() - start, TimeUnit.NANOSECONDS);
+            return new Permit(tokens);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The provider answered 429 despite local limiting: pause all calls until the buckets refill. */
+    public void rateLimited() {
+        throttled.increment();
+        lock.lock();
+        try {
+            limiter.throttle(clock.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+        log.warn("{} returned 429; pausing calls until the rate limit refills", model);
+    }
+
+    private void countUnattributed() {
+        String agent = Objects.requireNonNullElse(AiCallContext.agent(), "unknown");
+        Counter.builder("pb.ai.model.unattributed")
+                .description("Model calls made outside a caller scope, queued in the shared system lane")
+                .tag("model", model)
+                .tag("agent", agent)
+                .register(meterRegistry)
+                .increment();
+        if (unattributedAgents.add(agent)) {
+            log.warn("{} call by agent {} on thread {} has no caller bound and shares the system lane",
+                    model, agent, Thread.currentThread().getName());
+        }
+    }
+
+    // ── Internals (lock held) ────────────────────────────────
+
+    private void admit(long tokens, long now) {
+        inFlight++;
+        limiter.consume(tokens, now);
+    }
+
+    /** Admits waiting calls round-robin across callers while permits and rate limits allow. */
+    private void dispatch(long now) {
+        while (inFlight < maxConcurrency && queued > 0) {
+            Iterator<Map.Entry<String, ArrayDeque<Waiter>>> it = lanes.entrySet().iterator();
+            Map.Entry<String, ArrayDeque<Waiter>> lane = it.next();
+            Waiter head = lane.getValue().peekFirst();
+            if (limiter.nanosUntilAvailable(head.tokens, now) > 0) {
+                // keep the turn: skipping to smaller calls would starve large ones
+                return;
+            }
+            lane.getValue().pollFirst();
+            it.remove();
+            if (!lane.getValue().isEmpty()) {
+                lanes.put(lane.getKey(), lane.getValue());
+            }
+            queued--;
+            admit(head.tokens, now);
+            head.admitted = true;
+            head.granted.signal();
+        }
+    }
+
+    private void dequeue(String caller, Waiter waiter) {
+        ArrayDeque<Waiter> lane = lanes.get(caller);
+        if (lane != null && lane.remove(waiter)) {
+            queued--;
+            if (lane.isEmpty()) {
+                lanes.remove(caller);
+            }
+        }
+        // the removed call may have been the head blocking the others
+        dispatch(clock.getAsLong());
+    }
+
+    private AiCapacityExceededException reject(Timer timer, long start, String reason) {
+        timer.record(clock.getAsLong() - start, TimeUnit.NANOSECONDS);
+        log.warn("{} call rejected: {}", model, reason);
+        return new AiCapacityExceededException(model + " is at capacity: " + reason);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    private long estimateTokens(ChatRequest request) {
+        int output = request.maxOutputTokens() != null ? request.maxOutputTokens() : outputTokenReserve;
+        return (long) estimator.estimateTokenCountInMessages(request.messages()) + output;
+    }
+
+    private double available(boolean requests) {
+        lock.lock();
+        try {
+            long now = clock.getAsLong();
+            return requests ? limiter.availableRequests(now) : limiter.availableTokens(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Timer waitTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("pb.ai.model.queue.wait")
+                .description("Time model calls waited for admission")
+                .tag("model", model)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,133 @@
+package com.profilebuilder.ai.metrics;
+
+import com.profilebuilder.ai.limit.AiCallContext;
+import dev.langchain4j.model.chat.listener.ChatModelErrorContext;
+import dev.langchain4j.model.chat.listener.ChatModelListener;
+import dev.langchain4j.model.chat.listener.ChatModelRequestContext;
+import dev.langchain4j.model.chat.listener.ChatModelResponseContext;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.openai.OpenAiTokenUsage;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ChatModelListener} recording every model call, registered on the blocking and
+ * streaming OpenAI clients. Calls are tagged by the model named in the request, by agent (from
+ * {@link AiCallContext#agent()}, {@value #UNKNOWN} outside an agent scope) and by outcome
+ * ({@code success}, {@code error}, or {@code cancelled} when the calling thread was
+ * interrupted, e.g. a losing hedge).
+ * <p>
+ * Meters, SLO-ready (exported at {@code /actuator/prometheus} with {@code .} as {@code _}):
+ * <ul>
+ *   <li>{@code pb.ai.model.call} — timer with a percentile histogram: provider latency of one call,
+ *       including the client's own retries but not the governor's queue wait
+ *       ({@code pb.ai.model.queue.wait}); for a stream, until the last token. Latency SLO:
+ *       {@code histogram_quantile} over {@code pb_ai_model_call_seconds_bucket};
+ *       availability SLO: {@code outcome="error"} over all calls;</li>
+ *   <li>{@code pb.ai.model.tokens} — counter by {@code type}: {@code input}, {@code output},
+ *       and {@code cached} (the part of the input served from the provider's prompt cache);</li>
+ *   <li>{@code pb.ai.model.errors} — counter of failed calls by {@code exception} class.</li>
+ * </ul>
+ * Retries are counted where they happen: {@code pb.ai.agent.hedges} and {@code pb.ai.agent.fallbacks}
+ * for re-sent agent requests, {@code pb.jobs.retries} for re-queued generation jobs.
+ */
+public class AiCallMetrics implements ChatModelListener {
+
+    static final String UNKNOWN = "unknown";
+
+    private static final String START = "pb.start";
+    private static final String AGENT = "pb.agent";
+
+    private final MeterRegistry meterRegistry;
+
+    public AiCallMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onRequest(ChatModelRequestContext context) {
+        // the response of a stream arrives on another thread, so resolve the agent here
+        context.attributes().put(START, System.nanoTime());
+        String agent = AiCallContext.agent();
+        context.attributes().put(AGENT, agent != null ? agent : UNKNOWN);
+    }
+
+    @Override
+    public void onResponse(ChatModelResponseContext context) {
+        String agent = agent(context.attributes());
+        String model = model(context.chatRequest());
+        record(context.attributes(), agent, model, "success");
+
+        TokenUsage usage = context.chatResponse().tokenUsage();
+        if (usage == null) {
+            return;
+        }
+        count(agent, model, "input", usage.inputTokenCount());
+        count(agent, model, "output", usage.outputTokenCount());
+        if (usage instanceof OpenAiTokenUsage openAiUsage && openAiUsage.inputTokensDetails() != null) {
+            count(agent, model, "cached", openAiUsage.inputTokensDetails().cachedTokens());
+        }
+    }
+
+    @Override
+    public void onError(ChatModelErrorContext context) {
+        String agent = agent(context.attributes());
+        String model = model(context.chatRequest());
+        boolean cancelled = Thread.currentThread().isInterrupted();
+        record(context.attributes(), agent, model, cancelled ? "cancelled" : "error");
+        if (!cancelled) {
+            Counter.builder("pb.ai.model.errors")
+                    .description("Failed model calls by exception type")
+                    .tag("agent", agent)
+                    .tag("model", model)
+                    .tag("exception", context.error().getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private void record(Map<Object, Object> attributes, String agent, String model, String outcome) {
+        if (!(attributes.get(START) instanceof Long start)) {
+            return;
+        }
+        Timer.builder("pb.ai.model.call")
+                .description("Model call latency by agent, model and outcome")
+                .tag("agent", agent)
+                .tag("model", model)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(100))
+                .maximumExpectedValue(Duration.ofMinutes(3))
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void count(String agent, String model, String type, Integer tokens) {
+        if (tokens == null || tokens <= 0) {
+            return;
+        }
+        Counter.builder("pb.ai.model.tokens")
+                .description("Tokens consumed by model calls, by type (input, output, cached input)")
+                .tag("agent", agent)
+                .tag("model", model)
+                .tag("type", type)
+                .register(meterRegistry)
+                .increment(tokens);
+    }
+
+    private static String agent(Map<Object, Object> attributes) {
+        return attributes.get(AGENT) instanceof String agent ? agent : UNKNOWN;
+    }
+
+    private static String model(ChatRequest request) {
+        return request.modelName() != null ? request.modelName() : UNKNOWN;
+    }
+}
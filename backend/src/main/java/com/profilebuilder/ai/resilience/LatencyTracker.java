@@ -0,0 +1,34 @@
+package com.profilebuilder.ai.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of the most recent successful calls, for percentile-based hedge delays.
+ */
+class LatencyTracker {
+
+    private final long[] samples;
+    private int count;
+    private int next;
+
+    LatencyTracker(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /** The {@code percentile} (0..1) of recorded latencies, or -1 with fewer than {@code minSamples}. */
+    synchronized long percentile(double percentile, int minSamples) {
+        if (count < minSamples || count == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+}
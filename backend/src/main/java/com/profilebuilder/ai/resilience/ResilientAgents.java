@@ -0,0 +1,303 @@
+package com.profilebuilder.ai.resilience;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.profilebuilder.ai.limit.AiCallContext;
+import com.profilebuilder.ai.tool.CountingWebSearchEngine;
+import com.profilebuilder.exception.AiCircuitOpenException;
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.exception.LangChain4jException;
+import dev.langchain4j.exception.RetriableException;
+import dev.langchain4j.exception.TimeoutException;
+import dev.langchain4j.exception.UnresolvedModelServerException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Wraps agent proxies in a resilience layer bounding their tail latency:
+ * <ul>
+ *   <li>a per-agent deadline; a call that has not answered in time fails with a {@link TimeoutException};</li>
+ *   <li>optional hedging: when the first request has not answered after the agent's recent p95 latency
+ *       (but at least the minimum hedge delay), an identical second request is sent and the first answer wins;</li>
+ *   <li>a circuit breaker over the primary model's provider and transport failures and timeouts
+ *       (local rejections such as admission control do not count);</li>
+ *   <li>an optional fallback agent (the same agent on the mini model), used when the primary fails,
+ *       times out or its circuit is open. The fallback gets its own deadline and is not hedged.</li>
+ * </ul>
+ * Requests run on the generation executor, on behalf of the calling user and as the agent
+ * ({@link AiCallContext}); web searches made by tool-using agents count towards the caller's
+ * {@link CountingWebSearchEngine#countCalls} scope.
+ * <p>
+ * Meters, tagged by agent: {@code pb.ai.agent.latency} (by route and outcome), {@code pb.ai.agent.hedges},
+ * {@code pb.ai.agent.fallbacks} (by reason) and {@code pb.ai.agent.circuit.state}
+ * (0 closed, 1 half-open, 2 open).
+ */
+public class ResilientAgents {
+
+    private static final Logger log = LoggerFactory.getLogger(ResilientAgents.class);
+
+    private static final int LATENCY_SAMPLES = 100;
+
+    /** Hedging and circuit breaker settings shared by all agents. */
+    public record Settings(double hedgePercentile, Duration hedgeMinDelay, int hedgeMinSamples,
+                           int breakerWindow, int breakerMinimumCalls, double breakerFailureRateThreshold,
+                           Duration breakerOpenDuration) {}
+
+    /** Per-agent policy: the deadline of one call and whether slow calls are hedged. */
+    public record AgentPolicy(String agent, Duration timeout, boolean hedge) {}
+
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final Settings settings;
+
+    public ResilientAgents(ExecutorService executor, MeterRegistry meterRegistry, Settings settings) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.settings = settings;
+    }
+
+    /**
+     * Returns {@code primary} wrapped according to {@code policy}.
+     *
+     * @param fallback the same agent on another model, or null for none
+     */
+    public <T> T wrap(Class<T> agentType, AgentPolicy policy, T primary, T fallback) {
+        Object proxy = Proxy.newProxyInstance(agentType.getClassLoader(), new Class<?>[]{agentType},
+                new ResilientInvocation(agentType, policy, primary, fallback));
+        return agentType.cast(proxy);
+    }
+
+    private record Result(Object value, boolean hedgeWon, long attemptNanos) {}
+
+    private final class ResilientInvocation implements InvocationHandler {
+
+        private final Class<?> agentType;
+        private final AgentPolicy policy;
+        private final Object primary;
+        private final Object fallback;
+        private final long timeoutNanos;
+        private final CircuitBreaker breaker;
+        private final LatencyTracker latencies = new LatencyTracker(LATENCY_SAMPLES);
+        private final Counter hedges;
+
+        ResilientInvocation(Class<?> agentType, AgentPolicy policy, Object primary, Object fallback) {
+            this.agentType = agentType;
+            this.policy = policy;
+            this.primary = primary;
+            this.fallback = fallback;
+            this.timeoutNanos = policy.timeout().toNanos();
+            this.breaker = new CircuitBreaker(settings.breakerWindow(), settings.breakerMinimumCalls(),
+                    settings.breakerFailureRateThreshold(), settings.breakerOpenDuration().toNanos());
+            this.hedges = Counter.builder("pb.ai.agent.hedges")
+                    .description("Hedged second requests sent for slow agent calls")
+                    .tag("agent", policy.agent())
+                    .register(meterRegistry);
+            Gauge.builder("pb.ai.agent.circuit.state", breaker, b -> b.state().ordinal())
+                    .description("Circuit breaker state of the agent's primary model: 0 closed, 1 half-open, 2 open")
+                    .tag("agent", policy.agent())
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "Resilient" + agentType.getSimpleName();
+                };
+            }
+            long start = System.nanoTime();
+            if (!breaker.tryAcquire(start)) {
+                if (fallback == null) {
+                    throw new AiCircuitOpenException(
+                            policy.agent() + " is temporarily unavailable after repeated failures");
+                }
+                return callFallback(method, args, "circuit_open", null);
+            }
+
+            try {
+                Result result = call(primary, method, args, start, policy.hedge());
+                breaker.onSuccess();
+                latencies.record(result.attemptNanos());
+                record(result.hedgeWon() ? "hedge" : "primary", "success", start);
+                return result.value();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                breaker.onIgnored();
+                throw new LangChain4jException("Interrupted while waiting for " + policy.agent(), e);
+            } catch (RuntimeException e) {
+                boolean timedOut = e instanceof TimeoutException;
+                record("primary", timedOut ? "timeout" : "failure", start);
+                if (!isProviderFailure(e)) {
+                    breaker.onIgnored();
+                } else if (breaker.onFailure(System.nanoTime())) {
+                    log.warn("Circuit opened for {} after repeated failures", policy.agent());
+                }
+                if (fallback == null) {
+                    throw e;
+                }
+                return callFallback(method, args, timedOut ? "timeout" : "failure", e);
+            }
+        }
+
+        private Object callFallback(Method method, Object[] args, String reason, RuntimeException primaryError) {
+            Counter.builder("pb.ai.agent.fallbacks")
+                    .description("Agent calls served by the fallback model")
+                    .tag("agent", policy.agent())
+                    .tag("reason", reason)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} falling back to the mini model ({}){}", policy.agent(), reason,
+                    primaryError != null ? ": " + primaryError.getMessage() : "");
+            long start = System.nanoTime();
+            try {
+                Object value = call(fallback, method, args, start, false).value();
+                record("fallback", "success", start);
+                return value;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new LangChain4jException("Interrupted while waiting for " + policy.agent(), e);
+            } catch (RuntimeException e) {
+                record("fallback", e instanceof TimeoutException ? "timeout" : "failure", start);
+                if (primaryError != null) {
+                    e.addSuppressed(primaryError);
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Calls {@code target} on the executor and waits until the deadline; with {@code hedge},
+         * sends a second request once the hedge delay has passed and returns the first answer.
+         */
+        private Result call(Object target, Method method, Object[] args, long start, boolean hedge)
+                throws InterruptedException {
+            long deadline = start + timeoutNanos;
+            long hedgeDelay = hedge ? hedgeDelayNanos() : -1;
+            Supplier<Object> request = CountingWebSearchEngine.wrap(AiCallContext.wrap(
+                    () -> AiCallContext.callAsAgent(policy.agent(), () -> invokeTarget(target, method, args))));
+            CompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+            List<Future<Object>> attempts = new ArrayList<>(2);
+            long[] startedAt = new long[2];
+            attempts.add(completion.submit(request::get));
+            startedAt[0] = start;
+            int finished = 0;
+            RuntimeException failure = null;
+            try {
+                while (true) {
+                    boolean canHedge = hedgeDelay >= 0 && attempts.size() == 1 && failure == null;
+                    long until = canHedge ? Math.min(deadline, start + hedgeDelay) : deadline;
+                    Future<Object> done = completion.poll(Math.max(0, until - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        long now = System.nanoTime();
+                        if (now - deadline >= 0) {
+                            throw new TimeoutException(policy.agent() + " did not answer within "
+                                    + policy.timeout().toMillis() + " ms");
+                        }
+                        if (canHedge && now - (start + hedgeDelay) >= 0) {
+                            startedAt[1] = now;
+                            attempts.add(completion.submit(request::get));
+                            hedges.increment();
+                        }
+                        continue;
+                    }
+                    finished++;
+                    int index = attempts.indexOf(done);
+                    try {
+                        Object value = done.get();
+                        return new Result(value, index == 1, System.nanoTime() - startedAt[index]);
+                    } catch (ExecutionException e) {
+                        failure = unwrap(e.getCause());
+                        if (finished == attempts.size()) {
+                            throw failure;
+                        }
+                        // the other attempt may still succeed
+                    }
+                }
+            } finally {
+                for (Future<Object> attempt : attempts) {
+                    attempt.cancel(true);
+                }
+            }
+        }
+
+        /** The recent p95 (configurable) latency, at least the minimum delay; -1 until enough samples. */
+        private long hedgeDelayNanos() {
+            long percentile = latencies.percentile(settings.hedgePercentile(), settings.hedgeMinSamples());
+            return percentile < 0 ? -1 : Math.max(percentile, settings.hedgeMinDelay().toNanos());
+        }
+
+        private void record(String route, String outcome, long start) {
+            Timer.builder("pb.ai.agent.latency")
+                    .description("Agent call latency by serving route (primary, hedge, fallback) and outcome")
+                    .tag("agent", policy.agent())
+                    .tag("route", route)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw unwrap(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Failures of the provider or of the connection to it: timeouts (the client's or the agent
+     * deadline), rate limits, server errors and transport errors. Local rejections, such as
+     * admission control ({@code AiCapacityExceededException}), an oversized prompt or an
+     * unparseable answer, and 4xx request errors other than 408 and 429 say nothing about
+     * the model's health.
+     */
+    private static boolean isProviderFailure(RuntimeException error) {
+        if (error instanceof HttpException http) {
+            int status = http.statusCode();
+            return status == 408 || status == 429 || status >= 500;
+        }
+        if (error instanceof RetriableException || error instanceof UnresolvedModelServerException) {
+            return true;
+        }
+        for (Throwable cause = error.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException && !(cause instanceof JacksonException)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        if (error instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (error instanceof Error e) {
+            throw e;
+        }
+        return new LangChain4jException(error);
+    }
+}
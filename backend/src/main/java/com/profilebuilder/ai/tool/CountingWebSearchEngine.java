@@ -0,0 +1,69 @@
+package com.profilebuilder.ai.tool;
+
+import dev.langchain4j.web.search.WebSearchEngine;
+import dev.langchain4j.web.search.WebSearchRequest;
+import dev.langchain4j.web.search.WebSearchResults;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Counts web search calls made by tool-using agents, in total ({@code pb.websearch.requests})
+ * and per call site through {@link #countCalls}. Agent tools run on the calling thread,
+ * so a thread-local scope attributes searches to the agent invocation that made them;
+ * agent calls handed to another thread carry the scope along with {@link #wrap}.
+ */
+public class CountingWebSearchEngine implements WebSearchEngine {
+
+    private static final ThreadLocal<AtomicInteger> SCOPE = new ThreadLocal<>();
+
+    private final WebSearchEngine delegate;
+    private final Counter requests;
+
+    public CountingWebSearchEngine(WebSearchEngine delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.requests = Counter.builder("pb.websearch.requests")
+                .description("Web searches issued by AI agents")
+                .register(meterRegistry);
+    }
+
+    /** Result of {@link #countCalls}: the action's value and the searches it made. */
+    public record Counted<T>(T value, int searchCalls) {}
+
+    /**
+     * Runs {@code action} and counts the web searches it makes on this thread.
+     */
+    public static <T> Counted<T> countCalls(Supplier<T> action) {
+        AtomicInteger calls = new AtomicInteger();
+        T value = with(calls, action);
+        return new Counted<>(value, calls.get());
+    }
+
+    /** Binds the current counting scope to {@code work}, for work handed to another thread. */
+    public static <T> Supplier<T> wrap(Supplier<T> work) {
+        AtomicInteger calls = SCOPE.get();
+        return () -> with(calls, work);
+    }
+
+    private static <T> T with(AtomicInteger calls, Supplier<T> action) {
+        AtomicInteger previous = SCOPE.get();
+        SCOPE.set(calls);
+        try {
+            return action.get();
+        } finally {
+            SCOPE.set(previous);
+        }
+    }
+
+    @Override
+    public WebSearchResults search(WebSearchRequest webSearchRequest) {
+        requests.increment();
+        AtomicInteger calls = SCOPE.get();
+        if (calls != null) {
+            calls.incrementAndGet();
+        }
+        return delegate.search(webSearchRequest);
+    }
+}
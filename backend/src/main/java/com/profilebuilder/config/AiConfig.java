@@ -1,28 +1,62 @@
 package com.profilebuilder.config;
 
 import com.profilebuilder.ai.agent.ResumeGeneratorAgent;
+import com.profilebuilder.ai.agent.ResumeGeneratorStreamingAgent;
+import com.profilebuilder.ai.agent.ResumeSectionEditorAgent;
+import com.profilebuilder.ai.agent.HrRevalidatorAgent;
 import com.profilebuilder.ai.agent.HrValidatorAgent;
+import com.profilebuilder.ai.agent.CompanyIdentifierAgent;
 import com.profilebuilder.ai.agent.CompanyResearchAgent;
 import com.profilebuilder.ai.agent.CoverLetterGeneratorAgent;
 import com.profilebuilder.ai.agent.CoverLetterEvaluatorAgent;
+import com.profilebuilder.ai.budget.PromptBudgetEnforcer;
+import com.profilebuilder.ai.budget.PromptBudgetEnforcer.Budget;
+import com.profilebuilder.ai.limit.AiCallContext;
+import com.profilebuilder.ai.limit.GovernedChatModel;
+import com.profilebuilder.ai.limit.GovernedStreamingChatModel;
+import com.profilebuilder.ai.limit.ModelGovernor;
+import com.profilebuilder.ai.metrics.AiCallMetrics;
+import com.profilebuilder.ai.resilience.ResilientAgents;
+import com.profilebuilder.ai.resilience.ResilientAgents.AgentPolicy;
+import com.profilebuilder.ai.tool.CountingWebSearchEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.model.TokenCountEstimator;
 import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
 import org.springframework.beans.factory.annotation.Qualifier;
 import dev.langchain4j.model.openai.OpenAiChatModel;
+import dev.langchain4j.model.openai.OpenAiStreamingChatModel;
+import dev.langchain4j.model.openai.OpenAiTokenCountEstimator;
 import dev.langchain4j.service.AiServices;
 import dev.langchain4j.web.search.WebSearchEngine;
 import dev.langchain4j.web.search.WebSearchTool;
 import dev.langchain4j.web.search.tavily.TavilyWebSearchEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
 /**
  * LangChain4j AI configuration.
  */
 @Configuration
 public class AiConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(AiConfig.class);
+
+    /** Tokenizer used when jtokkit does not know a configured model name. */
+    private static final String FALLBACK_TOKENIZER_MODEL = "gpt-4o";
+
     @Value("${app.tavily.api-key}")
     private String tavilyApiKey;
 
@@ -41,11 +75,107 @@ public class AiConfig {
     @Value("${app.ai.mini-model.temperature:0.5}")
     private double miniTemperature;
 
+    @Value("${app.ai.main-model.max-concurrency:8}")
+    private int mainMaxConcurrency;
+
+    @Value("${app.ai.main-model.requests-per-minute:500}")
+    private long mainRequestsPerMinute;
+
+    @Value("${app.ai.main-model.tokens-per-minute:40000}")
+    private long mainTokensPerMinute;
+
+    @Value("${app.ai.mini-model.max-concurrency:16}")
+    private int miniMaxConcurrency;
+
+    @Value("${app.ai.mini-model.requests-per-minute:500}")
+    private long miniRequestsPerMinute;
+
+    @Value("${app.ai.mini-model.tokens-per-minute:200000}")
+    private long miniTokensPerMinute;
+
+    @Value("${app.ai.admission.queue-timeout:30s}")
+    private Duration admissionQueueTimeout;
+
+    @Value("${app.ai.admission.max-queued:100}")
+    private int admissionMaxQueued;
+
+    @Value("${app.ai.admission.output-token-reserve:2000}")
+    private int outputTokenReserve;
+
+    @Value("${app.ai.resilience.fallback-to-mini:true}")
+    private boolean fallbackToMini;
+
+    @Value("${app.ai.resilience.timeout.resume-generator:90s}")
+    private Duration resumeGeneratorTimeout;
+
+    @Value("${app.ai.resilience.timeout.resume-section-editor:45s}")
+    private Duration resumeSectionEditorTimeout;
+
+    @Value("${app.ai.resilience.timeout.hr-validator:45s}")
+    private Duration hrValidatorTimeout;
+
+    @Value("${app.ai.resilience.timeout.hr-revalidator:30s}")
+    private Duration hrRevalidatorTimeout;
+
+    @Value("${app.ai.resilience.timeout.cover-letter-generator:60s}")
+    private Duration coverLetterGeneratorTimeout;
+
+    @Value("${app.ai.resilience.timeout.cover-letter-evaluator:30s}")
+    private Duration coverLetterEvaluatorTimeout;
+
+    @Value("${app.ai.resilience.timeout.company-research:120s}")
+    private Duration companyResearchTimeout;
+
+    @Value("${app.ai.stream-timeout:3m}")
+    private Duration streamTimeout;
+
+    @Value("${app.ai.resilience.hedged-agents:}")
+    private String[] hedgedAgents;
+
+    @Value("${app.ai.resilience.hedge.percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${app.ai.resilience.hedge.min-delay:5s}")
+    private Duration hedgeMinDelay;
+
+    @Value("${app.ai.resilience.hedge.min-samples:20}")
+    private int hedgeMinSamples;
+
+    @Value("${app.ai.resilience.circuit-breaker.window:20}")
+    private int breakerWindow;
+
+    @Value("${app.ai.resilience.circuit-breaker.minimum-calls:10}")
+    private int breakerMinimumCalls;
+
+    @Value("${app.ai.resilience.circuit-breaker.failure-rate-threshold:0.5}")
+    private double breakerFailureRateThreshold;
+
+    @Value("${app.ai.resilience.circuit-breaker.open-duration:30s}")
+    private Duration breakerOpenDuration;
+
+    @Value("${app.ai.token-budget.resume-generator:32000}")
+    private int resumeGeneratorTokenBudget;
+
+    @Value("${app.ai.token-budget.resume-section-editor:16000}")
+    private int resumeSectionEditorTokenBudget;
+
+    @Value("${app.ai.token-budget.hr-validator:16000}")
+    private int hrValidatorTokenBudget;
+
+    @Value("${app.ai.token-budget.hr-revalidator:8000}")
+    private int hrRevalidatorTokenBudget;
+
+    @Value("${app.ai.token-budget.cover-letter-generator:16000}")
+    private int coverLetterGeneratorTokenBudget;
+
+    @Value("${app.ai.token-budget.cover-letter-evaluator:12000}")
+    private int coverLetterEvaluatorTokenBudget;
+
     @Bean
-    WebSearchEngine webSearchEngine() {
-        return TavilyWebSearchEngine.builder()
+    WebSearchEngine webSearchEngine(MeterRegistry meterRegistry) {
+        return new CountingWebSearchEngine(TavilyWebSearchEngine.builder()
                 .apiKey(tavilyApiKey)
-                .build();
+                .build(), meterRegistry);
     }
 
     @Bean
@@ -53,62 +183,242 @@ public class AiConfig {
         return WebSearchTool.from(webSearchEngine);
     }
 
+    /**
+     * Admission control (bulkhead, adaptive rate limits, fair queue) for the main model,
+     * shared by its blocking and streaming clients.
+     */
+    @Bean("mainModelGovernor")
+    ModelGovernor mainModelGovernor(MeterRegistry meterRegistry) {
+        checkTokenBucket(mainModelName, mainTokensPerMinute);
+        return new ModelGovernor(mainModelName, mainMaxConcurrency, mainRequestsPerMinute, mainTokensPerMinute,
+                admissionMaxQueued, admissionQueueTimeout, tokenCountEstimator(mainModelName),
+                outputTokenReserve, meterRegistry);
+    }
+
+    @Bean("miniModelGovernor")
+    ModelGovernor miniModelGovernor(MeterRegistry meterRegistry) {
+        checkTokenBucket(miniModelName, miniTokensPerMinute);
+        return new ModelGovernor(miniModelName, miniMaxConcurrency, miniRequestsPerMinute, miniTokensPerMinute,
+                admissionMaxQueued, admissionQueueTimeout, tokenCountEstimator(miniModelName),
+                outputTokenReserve, meterRegistry);
+    }
+
+    /**
+     * Latency, token and error metrics of every model call, tagged by agent and model.
+     */
+    @Bean
+    AiCallMetrics aiCallMetrics(MeterRegistry meterRegistry) {
+        return new AiCallMetrics(meterRegistry);
+    }
+
     @Bean
     @Primary
-    ChatModel chatModel() {
-        return OpenAiChatModel.builder()
+    ChatModel chatModel(@Qualifier("mainModelGovernor") ModelGovernor governor, AiCallMetrics aiCallMetrics) {
+        return new GovernedChatModel(OpenAiChatModel.builder()
                 .apiKey(openaiApiKey)
                 .modelName(mainModelName)
                 .temperature(mainTemperature)
+                .timeout(httpTimeout())
                 .logRequests(true)
                 .logResponses(true)
-                .build();
+                .listeners(List.of(aiCallMetrics))
+                .build(), governor);
     }
 
     @Bean("miniChatModel")
-    ChatModel miniChatModel() {
-        return OpenAiChatModel.builder()
+    ChatModel miniChatModel(@Qualifier("miniModelGovernor") ModelGovernor governor, AiCallMetrics aiCallMetrics) {
+        return new GovernedChatModel(OpenAiChatModel.builder()
                 .apiKey(openaiApiKey)
                 .modelName(miniModelName)
                 .temperature(miniTemperature)
+                .timeout(httpTimeout())
                 .logRequests(true)
                 .logResponses(true)
-                .build();
+                .listeners(List.of(aiCallMetrics))
+                .build(), governor);
     }
 
+    /**
+     * Streaming counterpart of the main model, used for incremental resume generation.
+     */
     @Bean
-    ResumeGeneratorAgent resumeGeneratorAgent(ChatModel chatModel) {
-        return AiServices.builder(ResumeGeneratorAgent.class)
-                .chatModel(chatModel)
-                .build();
+    StreamingChatModel streamingChatModel(@Qualifier("mainModelGovernor") ModelGovernor governor,
+                                          AiCallMetrics aiCallMetrics) {
+        return new GovernedStreamingChatModel(OpenAiStreamingChatModel.builder()
+                .apiKey(openaiApiKey)
+                .modelName(mainModelName)
+                .temperature(mainTemperature)
+                .responseFormat("json_object")
+                .timeout(streamTimeout)
+                .logRequests(true)
+                .logResponses(true)
+                .listeners(List.of(aiCallMetrics))
+                .build(), governor);
     }
 
+    /**
+     * Per-agent input token budgets, counted locally with each agent's model tokenizer.
+     */
     @Bean
-    HrValidatorAgent hrValidatorAgent(@Qualifier("miniChatModel") ChatModel miniModel) {
-        return AiServices.builder(HrValidatorAgent.class)
-                .chatModel(miniModel)
-                .build();
+    PromptBudgetEnforcer promptBudgetEnforcer(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        TokenCountEstimator mainTokenizer = tokenCountEstimator(mainModelName);
+        TokenCountEstimator miniTokenizer = tokenCountEstimator(miniModelName);
+        return new PromptBudgetEnforcer(objectMapper, meterRegistry, List.of(
+                new Budget(ResumeGeneratorAgent.NAME, mainTokenizer, resumeGeneratorTokenBudget,
+                        "prompts/resume-generator-system.txt"),
+                new Budget(ResumeSectionEditorAgent.NAME, mainTokenizer, resumeSectionEditorTokenBudget,
+                        "prompts/resume-section-editor-system.txt"),
+                new Budget(HrValidatorAgent.NAME, miniTokenizer, hrValidatorTokenBudget,
+                        "prompts/hr-validator-system.txt"),
+                new Budget(HrRevalidatorAgent.NAME, miniTokenizer, hrRevalidatorTokenBudget,
+                        "prompts/hr-revalidator-system.txt"),
+                new Budget(CoverLetterGeneratorAgent.NAME, mainTokenizer, coverLetterGeneratorTokenBudget,
+                        "prompts/cover-letter-generator-system.txt"),
+                new Budget(CoverLetterEvaluatorAgent.NAME, miniTokenizer, coverLetterEvaluatorTokenBudget,
+                        "prompts/cover-letter-evaluator-system.txt")));
     }
 
+    /**
+     * Deadlines, hedging, circuit breaking and mini-model fallback for the generation,
+     * validation and company research agents.
+     */
     @Bean
-    CompanyResearchAgent companyResearchAgent(ChatModel chatModel, WebSearchTool webSearchTool) {
-        return AiServices.builder(CompanyResearchAgent.class)
-                .chatModel(chatModel)
-                .tools(webSearchTool)
-                .build();
+    ResilientAgents resilientAgents(@Qualifier("generationExecutor") ExecutorService generationExecutor,
+                                    MeterRegistry meterRegistry) {
+        return new ResilientAgents(generationExecutor, meterRegistry, new ResilientAgents.Settings(
+                hedgePercentile, hedgeMinDelay, hedgeMinSamples,
+                breakerWindow, breakerMinimumCalls, breakerFailureRateThreshold, breakerOpenDuration));
     }
 
     @Bean
-    CoverLetterGeneratorAgent coverLetterGeneratorAgent(ChatModel chatModel) {
-        return AiServices.builder(CoverLetterGeneratorAgent.class)
-                .chatModel(chatModel)
+    ResumeGeneratorAgent resumeGeneratorAgent(ChatModel chatModel, @Qualifier("miniChatModel") ChatModel miniModel,
+                                              ResilientAgents resilientAgents) {
+        return resilientAgents.wrap(ResumeGeneratorAgent.class,
+                policy(ResumeGeneratorAgent.NAME, resumeGeneratorTimeout),
+                agent(ResumeGeneratorAgent.class, chatModel),
+                fallbackToMini ? agent(ResumeGeneratorAgent.class, miniModel) : null);
+    }
+
+    @Bean
+    ResumeSectionEditorAgent resumeSectionEditorAgent(ChatModel chatModel,
+                                                      @Qualifier("miniChatModel") ChatModel miniModel,
+                                                      ResilientAgents resilientAgents) {
+        return resilientAgents.wrap(ResumeSectionEditorAgent.class,
+                policy(ResumeSectionEditorAgent.NAME, resumeSectionEditorTimeout),
+                agent(ResumeSectionEditorAgent.class, chatModel),
+                fallbackToMini ? agent(ResumeSectionEditorAgent.class, miniModel) : null);
+    }
+
+    @Bean
+    ResumeGeneratorStreamingAgent resumeGeneratorStreamingAgent(StreamingChatModel streamingChatModel) {
+        return AiServices.builder(ResumeGeneratorStreamingAgent.class)
+                .streamingChatModel(streamingChatModel)
                 .build();
     }
 
     @Bean
-    CoverLetterEvaluatorAgent coverLetterEvaluatorAgent(@Qualifier("miniChatModel") ChatModel miniModel) {
-        return AiServices.builder(CoverLetterEvaluatorAgent.class)
-                .chatModel(miniModel)
+    HrValidatorAgent hrValidatorAgent(@Qualifier("miniChatModel") ChatModel miniModel,
+                                      ResilientAgents resilientAgents) {
+        return resilientAgents.wrap(HrValidatorAgent.class,
+                policy(HrValidatorAgent.NAME, hrValidatorTimeout),
+                agent(HrValidatorAgent.class, miniModel), null);
+    }
+
+    @Bean
+    HrRevalidatorAgent hrRevalidatorAgent(@Qualifier("miniChatModel") ChatModel miniModel,
+                                          ResilientAgents resilientAgents) {
+        return resilientAgents.wrap(HrRevalidatorAgent.class,
+                policy(HrRevalidatorAgent.NAME, hrRevalidatorTimeout),
+                agent(HrRevalidatorAgent.class, miniModel), null);
+    }
+
+    /**
+     * Never hedged: a second request would repeat the agent's paid web searches.
+     * The deadline covers the whole tool-calling loop, not a single model request.
+     */
+    @Bean
+    CompanyResearchAgent companyResearchAgent(ChatModel chatModel, WebSearchTool webSearchTool,
+                                              ResilientAgents resilientAgents) {
+        return resilientAgents.wrap(CompanyResearchAgent.class,
+                new AgentPolicy(CompanyResearchAgent.NAME, companyResearchTimeout, false),
+                AiServices.builder(CompanyResearchAgent.class)
+                        .chatModel(chatModel)
+                        .tools(webSearchTool)
+                        .build(),
+                null);
+    }
+
+    @Bean
+    CompanyIdentifierAgent companyIdentifierAgent(@Qualifier("miniChatModel") ChatModel miniModel) {
+        return AiCallContext.forAgent(CompanyIdentifierAgent.class, CompanyIdentifierAgent.NAME,
+                agent(CompanyIdentifierAgent.class, miniModel));
+    }
+
+    @Bean
+    CoverLetterGeneratorAgent coverLetterGeneratorAgent(ChatModel chatModel,
+                                                        @Qualifier("miniChatModel") ChatModel miniModel,
+                                                        ResilientAgents resilientAgents) {
+        return resilientAgents.wrap(CoverLetterGeneratorAgent.class,
+                policy(CoverLetterGeneratorAgent.NAME, coverLetterGeneratorTimeout),
+                agent(CoverLetterGeneratorAgent.class, chatModel),
+                fallbackToMini ? agent(CoverLetterGeneratorAgent.class, miniModel) : null);
+    }
+
+    @Bean
+    CoverLetterEvaluatorAgent coverLetterEvaluatorAgent(@Qualifier("miniChatModel") ChatModel miniModel,
+                                                        ResilientAgents resilientAgents) {
+        return resilientAgents.wrap(CoverLetterEvaluatorAgent.class,
+                policy(CoverLetterEvaluatorAgent.NAME, coverLetterEvaluatorTimeout),
+                agent(CoverLetterEvaluatorAgent.class, miniModel), null);
+    }
+
+    /**
+     * Fails startup when a model's tokens-per-minute bucket cannot hold the largest call an agent
+     * may send it (token budget plus output reserve): such a call would never be admitted.
+     * Every budget is checked against both models, since the mini model serves fallbacks.
+     */
+    private void checkTokenBucket(String modelName, long tokensPerMinute) {
+        int largestCall = IntStream.of(resumeGeneratorTokenBudget, resumeSectionEditorTokenBudget,
+                        hrValidatorTokenBudget, hrRevalidatorTokenBudget,
+                        coverLetterGeneratorTokenBudget, coverLetterEvaluatorTokenBudget)
+                .max()
+                .orElseThrow() + outputTokenReserve;
+        if (tokensPerMinute < largestCall) {
+            throw new IllegalStateException("Tokens per minute of model '" + modelName + "' (" + tokensPerMinute
+                    + ") is below the largest agent call (" + largestCall
+                    + " tokens: token budget plus output reserve); raise it or lower app.ai.token-budget.*");
+        }
+    }
+
+    /**
+     * HTTP timeout of the blocking clients: the longest agent deadline, so that the deadline,
+     * not the client's default (60s), bounds each call. The mini model also serves the main-model
+     * agents as their fallback, so both clients use it.
+     */
+    private Duration httpTimeout() {
+        return Stream.of(resumeGeneratorTimeout, resumeSectionEditorTimeout, hrValidatorTimeout,
+                        hrRevalidatorTimeout, coverLetterGeneratorTimeout, coverLetterEvaluatorTimeout,
+                        companyResearchTimeout)
+                .max(Duration::compareTo)
+                .orElseThrow();
+    }
+
+    private AgentPolicy policy(String agent, Duration timeout) {
+        return new AgentPolicy(agent, timeout, Arrays.asList(hedgedAgents).contains(agent));
+    }
+
+    private static <T> T agent(Class<T> agentType, ChatModel model) {
+        return AiServices.builder(agentType)
+                .chatModel(model)
                 .build();
     }
+
+    private static TokenCountEstimator tokenCountEstimator(String modelName) {
+        try {
+            return new OpenAiTokenCountEstimator(modelName);
+        } catch (IllegalArgumentException e) {
+            log.info("No tokenizer registered for model '{}', counting tokens as {}", modelName, FALLBACK_TOKENIZER_MODEL);
+            return new OpenAiTokenCountEstimator(FALLBACK_TOKENIZER_MODEL);
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package com.profilebuilder.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executors for blocking background work that must not run on Tomcat request threads.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${app.extraction.max-concurrency:4}")
+    private int extractionMaxConcurrency;
+
+    @Value("${app.extraction.pdf-parallelism:0}")
+    private int pdfParallelism;
+
+    @Value("${app.storage.io-threads:8}")
+    private int storageIoThreads;
+
+    @Value("${app.ingestion.workers:4}")
+    private int ingestionWorkers;
+
+    @Value("${app.ingestion.queue-capacity:100}")
+    private int ingestionQueueCapacity;
+
+    @Value("${app.jobs.workers:4}")
+    private int jobWorkers;
+
+    @Value("${app.ai.hr-validation.workers:4}")
+    private int hrValidationWorkers;
+
+    @Value("${app.ai.hr-validation.queue-capacity:200}")
+    private int hrValidationQueueCapacity;
+
+    /**
+     * Bounded pool of virtual threads for per-document fetch + text extraction.
+     * The pool size caps concurrent S3 reads and PDF parses across all requests.
+     */
+    @Bean(name = "documentExtractionExecutor", destroyMethod = "shutdown")
+    ExecutorService documentExtractionExecutor() {
+        return Executors.newFixedThreadPool(extractionMaxConcurrency,
+                Thread.ofVirtual().name("doc-extract-", 0).factory());
+    }
+
+    /**
+     * Fork-join pool for page-parallel PDF text extraction (CPU-bound).
+     * A parallelism of 0 means one worker per available processor.
+     */
+    @Bean(name = "pdfExtractionPool", destroyMethod = "shutdown")
+    ForkJoinPool pdfExtractionPool() {
+        int parallelism = pdfParallelism > 0 ? pdfParallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Worker pool for the upload ingestion pipeline (store, hash, extract).
+     * The queue is bounded and overflow is rejected, so upload bursts are
+     * throttled here instead of tying up request threads.
+     */
+    @Bean(name = "ingestionExecutor", destroyMethod = "shutdown")
+    ExecutorService ingestionExecutor() {
+        return new ThreadPoolExecutor(ingestionWorkers, ingestionWorkers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(ingestionQueueCapacity),
+                Thread.ofVirtual().name("doc-ingest-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Platform threads that run AsynchronousFileChannel I/O for local document storage.
+     */
+    @Bean(name = "storageIoExecutor", destroyMethod = "shutdown")
+    ExecutorService storageIoExecutor() {
+        return Executors.newFixedThreadPool(storageIoThreads,
+                Thread.ofPlatform().name("storage-io-", 0).daemon().factory());
+    }
+
+    /**
+     * Virtual thread per task for streaming generation requests, which wait on document
+     * extraction and the HR validator after the HTTP request thread has been released.
+     */
+    @Bean(name = "generationExecutor", destroyMethod = "shutdown")
+    ExecutorService generationExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("generation-", 0).factory());
+    }
+
+    /**
+     * Worker pool for queued generation jobs. The job dispatcher never hands it more
+     * jobs than it has workers; waiting jobs stay in pb_generation_jobs.
+     */
+    @Bean(name = "generationJobExecutor", destroyMethod = "shutdownNow")
+    ExecutorService generationJobExecutor() {
+        return Executors.newFixedThreadPool(jobWorkers, Thread.ofVirtual().name("generation-job-", 0).factory());
+    }
+
+    /**
+     * Worker pool for background HR validation of generated resumes. Overflow is rejected;
+     * the resume is then left without a validation rather than delaying generation.
+     */
+    @Bean(name = "hrValidationExecutor", destroyMethod = "shutdown")
+    ExecutorService hrValidationExecutor() {
+        return new ThreadPoolExecutor(hrValidationWorkers, hrValidationWorkers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(hrValidationQueueCapacity),
+                Thread.ofVirtual().name("hr-validation-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -1,27 +1,113 @@
 package com.profilebuilder.config;
 
+import com.profilebuilder.storage.S3DiskCache;
+import com.profilebuilder.storage.S3DocumentStorage;
+import com.profilebuilder.storage.StorageMetrics;
 import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
 
 /**
- * AWS S3 configuration. Creates S3Client bean only when app.s3.bucket-name is set.
- * When not set (local dev), DocumentService falls back to local filesystem.
+ * AWS S3 configuration. Creates the S3AsyncClient and S3 document storage only when
+ * app.s3.bucket-name is set. When not set (local dev), documents are stored on the local filesystem.
+ * Setting app.s3.endpoint points the clients at an S3-compatible stand-in (e.g. MinIO, LocalStack).
  */
 @Configuration
+@ConditionalOnExpression("!'${app.s3.bucket-name:}'.isBlank()")
 public class S3Config {
 
     @Value("${app.s3.region:us-east-1}")
     private String region;
 
-    @Bean
-    @ConditionalOnProperty(name = "app.s3.bucket-name", matchIfMissing = false)
-    public S3Client s3Client() {
-        return S3Client.builder()
+    @Value("${app.s3.bucket-name}")
+    private String bucketName;
+
+    @Value("${app.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${app.s3.path-style-access:false}")
+    private boolean pathStyleAccess;
+
+    @Value("${app.storage.cache.dir:${java.io.tmpdir}/pb-s3-cache}")
+    private String cacheDir;
+
+    @Value("${app.storage.cache.max-size:512MB}")
+    private DataSize cacheMaxSize;
+
+    @Value("${app.storage.cache.revalidate-after:10m}")
+    private Duration cacheRevalidateAfter;
+
+    @Value("${app.s3.multipart.threshold:16MB}")
+    private DataSize multipartThreshold;
+
+    @Value("${app.s3.multipart.part-size:8MB}")
+    private DataSize multipartPartSize;
+
+    /**
+     * Non-blocking S3 client. Uploads above the threshold are sent as a multipart
+     * upload whose parts are transferred in parallel.
+     */
+    @Bean(destroyMethod = "close")
+    public S3AsyncClient s3AsyncClient() {
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
                 .region(Region.of(region))
-                .build();
+                .forcePathStyle(pathStyleAccess)
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(multipartThreshold.toBytes())
+                        .minimumPartSizeInBytes(multipartPartSize.toBytes())
+                        .build());
+        if (StringUtils.hasText(endpoint)) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Signs direct-to-S3 upload URLs handed out to clients.
+     */
+    @Bean(destroyMethod = "close")
+    public S3Presigner s3Presigner() {
+        S3Presigner.Builder builder = S3Presigner.builder()
+                .region(Region.of(region))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(pathStyleAccess)
+                        .build());
+        if (StringUtils.hasText(endpoint)) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public S3DocumentStorage s3DocumentStorage(S3AsyncClient s3AsyncClient, S3Presigner s3Presigner,
+                                               StorageMetrics storageMetrics) {
+        return new S3DocumentStorage(s3AsyncClient, s3Presigner, bucketName, storageMetrics);
+    }
+
+    /**
+     * Local disk read-through cache for S3 documents, so regenerating against the
+     * same resume does not GET it from S3 every time.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public S3DiskCache s3DiskCache(S3DocumentStorage s3DocumentStorage, MeterRegistry meterRegistry) {
+        return new S3DiskCache(s3DocumentStorage, Path.of(cacheDir), cacheMaxSize.toBytes(),
+                cacheRevalidateAfter, meterRegistry);
     }
 }
@@ -1,9 +1,14 @@
 package com.profilebuilder.controller;
 
 import com.profilebuilder.model.dto.CoverLetterResponse;
+import com.profilebuilder.model.dto.GenerationJobResponse;
 import com.profilebuilder.model.entity.User;
+import com.profilebuilder.model.enums.GenerationJobType;
 import com.profilebuilder.service.CoverLetterGenerationService;
-import com.profilebuilder.service.JdExtractionService;
+import com.profilebuilder.service.GenerationJobService;
+import com.profilebuilder.service.GenerationJobService.CoverLetterEvaluatePayload;
+import com.profilebuilder.service.GenerationJobService.CoverLetterGeneratePayload;
+import com.profilebuilder.service.JdFileStagingService;
 import com.profilebuilder.util.FileValidationUtil;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -11,6 +16,9 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * REST controller for cover letter generation endpoints.
  * Uses a two-agent AI pipeline: company researcher + cover letter generator.
@@ -21,30 +29,35 @@ import org.springframework.web.multipart.MultipartFile;
 @PreAuthorize("hasAnyRole('PREMIUM','ADMIN')")
 public class CoverLetterController {
 
-    private final JdExtractionService jdExtractionService;
+    private final JdFileStagingService jdFileStagingService;
     private final CoverLetterGenerationService coverLetterGenerationService;
+    private final GenerationJobService generationJobService;
 
-    public CoverLetterController(JdExtractionService jdExtractionService,
-                                  CoverLetterGenerationService coverLetterGenerationService) {
-        this.jdExtractionService = jdExtractionService;
+    public CoverLetterController(JdFileStagingService jdFileStagingService,
+                                  CoverLetterGenerationService coverLetterGenerationService,
+                                  GenerationJobService generationJobService) {
+        this.jdFileStagingService = jdFileStagingService;
         this.coverLetterGenerationService = coverLetterGenerationService;
+        this.generationJobService = generationJobService;
     }
 
     /**
      * POST /api/cover-letter/generate
-     * Accepts a JD file (PDF or PNG), a resume doc ID, and a master cover letter doc ID.
+     * Accepts a JD file (PDF or PNG), a resume doc ID, and a master cover letter doc ID and queues
+     * cover letter generation. The JD is stored with the job and its text extracted by the job worker.
+     * Returns 202 with the job; the cover letter is its result.
      */
     @PostMapping("/generate")
-    public ResponseEntity<CoverLetterResponse> generate(
+    public CompletableFuture<ResponseEntity<GenerationJobResponse>> generate(
             @RequestParam("jdFile") MultipartFile jdFile,
             @RequestParam("resumeDocId") Long resumeDocId,
             @RequestParam("coverLetterDocId") Long coverLetterDocId,
             @AuthenticationPrincipal User user) {
 
         FileValidationUtil.validateJdFile(jdFile);
-        String jdText = jdExtractionService.extractText(jdFile);
-        CoverLetterResponse response = coverLetterGenerationService.generate(jdText, resumeDocId, coverLetterDocId, user.getId());
-        return ResponseEntity.ok(response);
+        return jdFileStagingService.stage(jdFile, user.getId(), staged ->
+                accepted(generationJobService.enqueue(GenerationJobType.COVER_LETTER_GENERATE, user.getId(),
+                        new CoverLetterGeneratePayload(null, staged, resumeDocId, coverLetterDocId))));
     }
 
     /**
@@ -61,13 +74,19 @@ public class CoverLetterController {
 
     /**
      * POST /api/cover-letter/{id}/evaluate
-     * Runs the evaluator agent on an existing cover letter and persists the result.
+     * Queues the evaluator agent on an existing cover letter; the evaluated cover letter is the job result.
      */
     @PostMapping("/{id}/evaluate")
-    public ResponseEntity<CoverLetterResponse> evaluate(
+    public ResponseEntity<GenerationJobResponse> evaluate(
             @PathVariable Long id,
             @AuthenticationPrincipal User user) {
 
-        return ResponseEntity.ok(coverLetterGenerationService.evaluate(id, user.getId()));
+        coverLetterGenerationService.verifyOwnership(id, user.getId());
+        return accepted(generationJobService.enqueue(GenerationJobType.COVER_LETTER_EVALUATE, user.getId(),
+                new CoverLetterEvaluatePayload(id)));
+    }
+
+    private static ResponseEntity<GenerationJobResponse> accepted(GenerationJobResponse job) {
+        return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.id())).body(job);
     }
 }
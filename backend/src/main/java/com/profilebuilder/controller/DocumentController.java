@@ -1,9 +1,15 @@
 package com.profilebuilder.controller;
 
+import com.profilebuilder.model.dto.DocumentStatusResponse;
 import com.profilebuilder.model.dto.DocumentUploadResponse;
+import com.profilebuilder.model.dto.UploadUrlRequest;
+import com.profilebuilder.model.dto.UploadUrlResponse;
 import com.profilebuilder.model.entity.User;
 import com.profilebuilder.model.enums.DocumentType;
+import com.profilebuilder.service.DirectUploadService;
+import com.profilebuilder.service.DocumentIngestionService;
 import com.profilebuilder.service.DocumentService;
+import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -11,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for document upload and retrieval.
@@ -21,13 +28,21 @@ import java.util.List;
 public class DocumentController {
 
     private final DocumentService documentService;
+    private final DocumentIngestionService documentIngestionService;
+    private final DirectUploadService directUploadService;
 
-    public DocumentController(DocumentService documentService) {
+    public DocumentController(DocumentService documentService,
+                              DocumentIngestionService documentIngestionService,
+                              DirectUploadService directUploadService) {
         this.documentService = documentService;
+        this.documentIngestionService = documentIngestionService;
+        this.directUploadService = directUploadService;
     }
 
     /**
-     * Upload a document (PDF or Word).
+     * Upload a document (PDF or Word). The file is staged and processed
+     * asynchronously; poll {@code GET /{id}/status} for progress.
+     * Re-uploading a file the user already has returns the existing document with 200.
      */
     @PostMapping("/upload")
     public ResponseEntity<DocumentUploadResponse> uploadDocument(
@@ -35,10 +50,38 @@ public class DocumentController {
             @RequestParam("documentType") DocumentType documentType,
             @AuthenticationPrincipal User user) {
 
-        DocumentUploadResponse response = documentService.uploadDocument(file, documentType, user.getId());
+        DocumentIngestionService.Submission submission =
+                documentIngestionService.submit(file, documentType, user.getId());
+        HttpStatus status = submission.duplicate() ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(submission.document());
+    }
+
+    /**
+     * Start a direct-to-S3 upload: returns a pre-signed PUT URL and a pending document.
+     */
+    @PostMapping("/upload-url")
+    public ResponseEntity<UploadUrlResponse> createUploadUrl(
+            @Valid @RequestBody UploadUrlRequest request,
+            @AuthenticationPrincipal User user) {
+
+        UploadUrlResponse response = directUploadService.createUploadUrl(request, user.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Finish a direct-to-S3 upload once the client has PUT the file.
+     * Verifies the object and queues text extraction; the request thread is released
+     * while S3 answers the HEAD request.
+     */
+    @PostMapping("/{id}/finalize")
+    public CompletableFuture<ResponseEntity<DocumentUploadResponse>> finalizeUpload(
+            @PathVariable Long id,
+            @AuthenticationPrincipal User user) {
+
+        return directUploadService.finalizeUpload(id, user.getId())
+                .thenApply(response -> ResponseEntity.status(HttpStatus.ACCEPTED).body(response));
+    }
+
     /**
      * List all documents for the authenticated user, optionally filtered by type.
      */
@@ -62,4 +105,16 @@ public class DocumentController {
         DocumentUploadResponse document = documentService.getDocumentById(id, user.getId());
         return ResponseEntity.ok(document);
     }
+
+    /**
+     * Get the ingestion status of an uploaded document, with per-stage progress.
+     */
+    @GetMapping("/{id}/status")
+    public ResponseEntity<DocumentStatusResponse> getDocumentStatus(
+            @PathVariable Long id,
+            @AuthenticationPrincipal User user) {
+
+        DocumentStatusResponse status = documentIngestionService.getStatus(id, user.getId());
+        return ResponseEntity.ok(status);
+    }
 }
@@ -0,0 +1,88 @@
+package com.profilebuilder.controller;
+
+import com.profilebuilder.model.dto.GenerationBatchResponse;
+import com.profilebuilder.model.dto.GenerationJobResponse;
+import com.profilebuilder.model.entity.User;
+import com.profilebuilder.service.GenerationJobService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+/**
+ * REST controller for background generation jobs queued by the smart resume
+ * and cover letter endpoints. All endpoints are scoped to the authenticated user.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+public class GenerationJobController {
+
+    private final GenerationJobService generationJobService;
+    private final Duration streamTimeout;
+    private final Duration batchStreamTimeout;
+
+    public GenerationJobController(GenerationJobService generationJobService,
+                                   @Value("${app.jobs.stream-timeout:6m}") Duration streamTimeout,
+                                   @Value("${app.jobs.batch.stream-timeout:30m}") Duration batchStreamTimeout) {
+        this.generationJobService = generationJobService;
+        this.streamTimeout = streamTimeout;
+        this.batchStreamTimeout = batchStreamTimeout;
+    }
+
+    /**
+     * GET /api/jobs/{id}
+     * Returns the job's status, and its result once it has succeeded.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<GenerationJobResponse> getJob(
+            @PathVariable Long id,
+            @AuthenticationPrincipal User user) {
+
+        return ResponseEntity.ok(generationJobService.getJob(id, user.getId()));
+    }
+
+    /**
+     * GET /api/jobs/{id}/events
+     * Streams the job's status as Server-Sent Events until it succeeds or fails, or until
+     * {@code app.jobs.stream-timeout}, shortly before which the current status is sent once more.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamJob(
+            @PathVariable Long id,
+            @AuthenticationPrincipal User user) {
+
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        generationJobService.streamJob(id, user.getId(), emitter);
+        return emitter;
+    }
+
+    /**
+     * GET /api/jobs/batches/{batchId}
+     * Returns the progress of a batch and the status of each of its jobs.
+     */
+    @GetMapping("/batches/{batchId}")
+    public ResponseEntity<GenerationBatchResponse> getBatch(
+            @PathVariable String batchId,
+            @AuthenticationPrincipal User user) {
+
+        return ResponseEntity.ok(generationJobService.getBatch(batchId, user.getId()));
+    }
+
+    /**
+     * GET /api/jobs/batches/{batchId}/events
+     * Streams each job's status as {@code item} events, then a {@code complete} summary.
+     */
+    @GetMapping(value = "/batches/{batchId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBatch(
+            @PathVariable String batchId,
+            @AuthenticationPrincipal User user) {
+
+        SseEmitter emitter = new SseEmitter(batchStreamTimeout.toMillis());
+        generationJobService.streamBatch(batchId, user.getId(), emitter);
+        return emitter;
+    }
+}
@@ -2,13 +2,23 @@ package com.profilebuilder.controller;
 
 import com.profilebuilder.ai.dto.SmartResumeOutput;
 import com.profilebuilder.model.dto.ApplyRecommendationsRequest;
+import com.profilebuilder.model.dto.GenerationBatchResponse;
+import com.profilebuilder.model.dto.GenerationJobResponse;
 import com.profilebuilder.model.dto.SmartGeneratedResumeResponse;
 import com.profilebuilder.model.entity.User;
+import com.profilebuilder.model.enums.GenerationJobType;
+import com.profilebuilder.service.GenerationJobService;
+import com.profilebuilder.service.GenerationJobService.ApplyRecommendationsPayload;
+import com.profilebuilder.service.GenerationJobService.SmartResumeGeneratePayload;
+import com.profilebuilder.service.GenerationJobService.SmartResumeRegeneratePayload;
+import com.profilebuilder.service.JdFileStagingService;
+import com.profilebuilder.service.SmartResumeBatchService;
 import com.profilebuilder.service.SmartResumeDocxService;
+import com.profilebuilder.service.SmartResumeGenerationService;
+import com.profilebuilder.service.SmartResumeStreamingService;
 import com.profilebuilder.util.FileValidationUtil;
 import jakarta.validation.Valid;
-import com.profilebuilder.service.JdExtractionService;
-import com.profilebuilder.service.SmartResumeGenerationService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -16,8 +26,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for smart resume generation endpoints.
@@ -28,32 +42,82 @@ import java.util.List;
 @RequestMapping("/api/smart-resume")
 public class SmartResumeController {
 
-    private final JdExtractionService jdExtractionService;
+    private final JdFileStagingService jdFileStagingService;
     private final SmartResumeGenerationService smartResumeGenerationService;
     private final SmartResumeDocxService smartResumeDocxService;
+    private final SmartResumeStreamingService smartResumeStreamingService;
+    private final GenerationJobService generationJobService;
+    private final SmartResumeBatchService smartResumeBatchService;
+    private final Duration streamTimeout;
 
-    public SmartResumeController(JdExtractionService jdExtractionService,
+    public SmartResumeController(JdFileStagingService jdFileStagingService,
                                  SmartResumeGenerationService smartResumeGenerationService,
-                                 SmartResumeDocxService smartResumeDocxService) {
-        this.jdExtractionService = jdExtractionService;
+                                 SmartResumeDocxService smartResumeDocxService,
+                                 SmartResumeStreamingService smartResumeStreamingService,
+                                 GenerationJobService generationJobService,
+                                 SmartResumeBatchService smartResumeBatchService,
+                                 @Value("${app.ai.stream-timeout:3m}") Duration streamTimeout) {
+        this.jdFileStagingService = jdFileStagingService;
         this.smartResumeGenerationService = smartResumeGenerationService;
         this.smartResumeDocxService = smartResumeDocxService;
+        this.smartResumeStreamingService = smartResumeStreamingService;
+        this.generationJobService = generationJobService;
+        this.smartResumeBatchService = smartResumeBatchService;
+        this.streamTimeout = streamTimeout;
     }
 
     /**
      * POST /api/smart-resume/generate
-     * Accepts a JD file (PDF or PNG) and a list of document IDs to generate a smart resume.
+     * Accepts a JD file (PDF or PNG) and a list of document IDs and queues smart resume generation.
+     * The JD is stored with the job and its text extracted by the job worker.
+     * Returns 202 with the job; poll /api/jobs/{id} or stream /api/jobs/{id}/events for the result.
      */
     @PostMapping("/generate")
-    public ResponseEntity<SmartGeneratedResumeResponse> generate(
+    public CompletableFuture<ResponseEntity<GenerationJobResponse>> generate(
+            @RequestParam("jdFile") MultipartFile jdFile,
+            @RequestParam("documentIds") List<Long> documentIds,
+            @AuthenticationPrincipal User user) {
+
+        FileValidationUtil.validateJdFile(jdFile);
+        return jdFileStagingService.stage(jdFile, user.getId(), staged ->
+                accepted(generationJobService.enqueue(GenerationJobType.SMART_RESUME_GENERATE, user.getId(),
+                        new SmartResumeGeneratePayload(null, staged, documentIds))));
+    }
+
+    /**
+     * POST /api/smart-resume/generate/batch
+     * Queues one generation per JD file against {@code documentIds}, or, with a single JD file,
+     * one generation per entry of {@code documentSets} (a JSON array of document ID arrays).
+     * Returns 202 with the batch; poll /api/jobs/batches/{batchId} or stream
+     * /api/jobs/batches/{batchId}/events for per-item progress.
+     */
+    @PostMapping("/generate/batch")
+    public CompletableFuture<ResponseEntity<GenerationBatchResponse>> generateBatch(
+            @RequestParam("jdFiles") List<MultipartFile> jdFiles,
+            @RequestParam(value = "documentIds", required = false) List<Long> documentIds,
+            @RequestParam(value = "documentSets", required = false) String documentSets,
+            @AuthenticationPrincipal User user) {
+
+        return smartResumeBatchService.submit(jdFiles, documentIds, documentSets, user.getId())
+                .thenApply(batch -> ResponseEntity.accepted()
+                        .location(URI.create("/api/jobs/batches/" + batch.batchId())).body(batch));
+    }
+
+    /**
+     * POST /api/smart-resume/generate/stream
+     * Same inputs as /generate, but streams the resume as Server-Sent Events: personal info and
+     * each section as soon as they are generated, then the saved resume with its HR validation.
+     */
+    @PostMapping(value = "/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter generateStream(
             @RequestParam("jdFile") MultipartFile jdFile,
             @RequestParam("documentIds") List<Long> documentIds,
             @AuthenticationPrincipal User user) {
 
         FileValidationUtil.validateJdFile(jdFile);
-        String jdText = jdExtractionService.extractText(jdFile);
-        SmartGeneratedResumeResponse response = smartResumeGenerationService.generate(jdText, documentIds, user.getId());
-        return ResponseEntity.ok(response);
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        smartResumeStreamingService.generateStreaming(jdFile, documentIds, user.getId(), emitter);
+        return emitter;
     }
 
     /**
@@ -68,30 +132,47 @@ public class SmartResumeController {
         return ResponseEntity.ok(smartResumeGenerationService.getSmartResume(id, user.getId()));
     }
 
+    /**
+     * GET /api/smart-resume/{id}/validation/events
+     * Server-Sent Event notification sent once the resume's background HR validation has finished.
+     */
+    @GetMapping(value = "/{id}/validation/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamValidation(
+            @PathVariable Long id,
+            @AuthenticationPrincipal User user) {
+
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        smartResumeStreamingService.streamValidation(id, user.getId(), emitter);
+        return emitter;
+    }
+
     /**
      * POST /api/smart-resume/{id}/regenerate
-     * Re-runs the AI pipeline for an existing smart resume using the same JD and documents.
+     * Queues a re-run of the AI pipeline for an existing smart resume using the same JD and documents.
      */
     @PostMapping("/{id}/regenerate")
-    public ResponseEntity<SmartGeneratedResumeResponse> regenerate(
+    public ResponseEntity<GenerationJobResponse> regenerate(
             @PathVariable Long id,
             @AuthenticationPrincipal User user) {
 
-        return ResponseEntity.ok(smartResumeGenerationService.regenerate(id, user.getId()));
+        smartResumeGenerationService.verifyOwnership(id, user.getId());
+        return accepted(generationJobService.enqueue(GenerationJobType.SMART_RESUME_REGENERATE, user.getId(),
+                new SmartResumeRegeneratePayload(id)));
     }
 
     /**
      * POST /api/smart-resume/{id}/apply-recommendations
-     * Applies selected HR recommendations and re-generates the resume.
+     * Queues applying selected HR recommendations and re-generating the resume.
      */
     @PostMapping("/{id}/apply-recommendations")
-    public ResponseEntity<SmartGeneratedResumeResponse> applyRecommendations(
+    public ResponseEntity<GenerationJobResponse> applyRecommendations(
             @PathVariable Long id,
             @RequestBody @Valid ApplyRecommendationsRequest request,
             @AuthenticationPrincipal User user) {
 
-        return ResponseEntity.ok(
-                smartResumeGenerationService.applyRecommendations(id, request.getRecommendations(), user.getId()));
+        smartResumeGenerationService.verifyOwnership(id, user.getId());
+        return accepted(generationJobService.enqueue(GenerationJobType.SMART_RESUME_APPLY_RECOMMENDATIONS,
+                user.getId(), new ApplyRecommendationsPayload(id, request.getRecommendations())));
     }
 
     /**
@@ -114,4 +195,8 @@ public class SmartResumeController {
         headers.setContentDisposition(ContentDisposition.attachment().filename(filename).build());
         return ResponseEntity.ok().headers(headers).body(docxBytes);
     }
+
+    private static ResponseEntity<GenerationJobResponse> accepted(GenerationJobResponse job) {
+        return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.id())).body(job);
+    }
 }
@@ -0,0 +1,16 @@
+package com.profilebuilder.exception;
+
+import dev.langchain4j.exception.LangChain4jException;
+
+/**
+ * Thrown when a model call cannot start within the admission deadline: the model's
+ * concurrency bulkhead and queue are full, or its rate limits leave no room in time.
+ * Raised before any request is sent. Mapped to HTTP 503 by GlobalExceptionHandler;
+ * background jobs retry it like other transient AI failures.
+ */
+public class AiCapacityExceededException extends LangChain4jException {
+
+    public AiCapacityExceededException(String message) {
+        super(message);
+    }
+}
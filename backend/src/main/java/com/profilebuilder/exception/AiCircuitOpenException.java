@@ -0,0 +1,15 @@
+package com.profilebuilder.exception;
+
+import dev.langchain4j.exception.LangChain4jException;
+
+/**
+ * Thrown when an agent's circuit breaker is open and no fallback model is configured,
+ * so the call is refused without contacting the provider. Handled as an AI service
+ * failure (HTTP 503) by GlobalExceptionHandler.
+ */
+public class AiCircuitOpenException extends LangChain4jException {
+
+    public AiCircuitOpenException(String message) {
+        super(message);
+    }
+}
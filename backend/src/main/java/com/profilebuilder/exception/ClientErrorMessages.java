@@ -0,0 +1,46 @@
+package com.profilebuilder.exception;
+
+import dev.langchain4j.exception.LangChain4jException;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Client-facing messages for failures reported outside the request thread
+ * (SSE streams, background jobs). Mirrors the messages of {@link GlobalExceptionHandler}.
+ */
+public final class ClientErrorMessages {
+
+    public static final String GENERIC = "An unexpected error occurred. Please try again later.";
+
+    /** A bounded executor (uploads, generation, validation, extraction) rejected the work. */
+    public static final String SERVER_BUSY = "The server is busy. Please try again shortly.";
+
+    private ClientErrorMessages() {
+    }
+
+    public static String of(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof AiCapacityExceededException) {
+                return "The AI service is busy. Please try again shortly.";
+            }
+            if (t instanceof LangChain4jException) {
+                return "The AI service is temporarily unavailable. Please try again later.";
+            }
+        }
+        if (error instanceof RejectedExecutionException) {
+            return SERVER_BUSY;
+        }
+        if (error instanceof ResourceNotFoundException
+                || error instanceof DocumentNotReadyException
+                || error instanceof InvalidFileException
+                || error instanceof PromptTooLargeException
+                || error instanceof IllegalArgumentException) {
+            return error.getMessage();
+        }
+        return GENERIC;
+    }
+}
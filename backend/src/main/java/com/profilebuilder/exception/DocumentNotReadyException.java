@@ -0,0 +1,12 @@
+package com.profilebuilder.exception;
+
+/**
+ * Thrown when a document is used before its ingestion pipeline has finished.
+ * Mapped to HTTP 409 by GlobalExceptionHandler.
+ */
+public class DocumentNotReadyException extends RuntimeException {
+
+    public DocumentNotReadyException(String message) {
+        super(message);
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.web.multipart.support.MissingServletRequestPartExcept
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Global exception handler for REST API errors.
@@ -74,6 +75,13 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage());
     }
 
+    // ── 409 Conflict ─────────────────────────────────────────
+
+    @ExceptionHandler(DocumentNotReadyException.class)
+    public ResponseEntity<Map<String, Object>> handleDocumentNotReady(DocumentNotReadyException ex) {
+        return buildResponse(HttpStatus.CONFLICT, "Document Not Ready", ex.getMessage());
+    }
+
     // ── 413 Payload Too Large ────────────────────────────────
 
     @ExceptionHandler(MaxUploadSizeExceededException.class)
@@ -82,8 +90,19 @@ public class GlobalExceptionHandler {
                 "Maximum upload size exceeded. Limit is 2MB.");
     }
 
+    @ExceptionHandler(PromptTooLargeException.class)
+    public ResponseEntity<Map<String, Object>> handlePromptTooLarge(PromptTooLargeException ex) {
+        return buildResponse(HttpStatus.PAYLOAD_TOO_LARGE, "Input Too Large", ex.getMessage());
+    }
+
     // ── 503 Service Unavailable ─────────────────────────────
 
+    @ExceptionHandler(AiCapacityExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleAiCapacityExceeded(AiCapacityExceededException ex) {
+        return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, "AI Service Busy",
+                "The AI service is busy. Please try again shortly.");
+    }
+
     @ExceptionHandler(dev.langchain4j.exception.LangChain4jException.class)
     public ResponseEntity<Map<String, Object>> handleAiServiceError(
             dev.langchain4j.exception.LangChain4jException ex) {
@@ -91,6 +110,11 @@ public class GlobalExceptionHandler {
                 "The AI service is temporarily unavailable. Please try again later.");
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, Object>> handleRejectedExecution(RejectedExecutionException ex) {
+        return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, "Server Busy", ClientErrorMessages.SERVER_BUSY);
+    }
+
     // ── 500 Internal Server Error (true server errors only) ──
 
     @ExceptionHandler(FileStorageException.class)
@@ -0,0 +1,12 @@
+package com.profilebuilder.exception;
+
+/**
+ * Thrown when an agent input exceeds its token budget even after compaction.
+ * Raised locally, before any model call. Mapped to HTTP 413 by GlobalExceptionHandler.
+ */
+public class PromptTooLargeException extends RuntimeException {
+
+    public PromptTooLargeException(String message) {
+        super(message);
+    }
+}
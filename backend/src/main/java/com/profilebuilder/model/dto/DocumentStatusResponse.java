@@ -0,0 +1,26 @@
+package com.profilebuilder.model.dto;
+
+import com.profilebuilder.model.enums.IngestionStage;
+import com.profilebuilder.model.enums.IngestionStatus;
+
+import java.util.List;
+
+/**
+ * Ingestion pipeline status of an uploaded document, with per-stage progress.
+ */
+public record DocumentStatusResponse(
+        Long id,
+        IngestionStatus status,
+        List<StageProgress> stages,
+        String error) {
+
+    /** Progress of a single pipeline stage. */
+    public record StageProgress(IngestionStage stage, StageState state) {}
+
+    public enum StageState {
+        PENDING,
+        RUNNING,
+        DONE,
+        FAILED
+    }
+}
@@ -1,37 +1,39 @@
 package com.profilebuilder.model.dto;
 
 import com.profilebuilder.model.enums.DocumentType;
+import com.profilebuilder.model.enums.IngestionStatus;
 
 import java.time.LocalDateTime;
 
 /**
- * DTO returned after a successful document upload.
+ * DTO returned after a document upload is accepted, and by the document listing endpoints.
+ * The storage location is server-side only and is never exposed to clients.
  */
 public class DocumentUploadResponse {
 
     private Long id;
     private String fileName;
     private String originalName;
-    private String filePath;
     private String fileType;
     private DocumentType documentType;
     private Long fileSize;
     private LocalDateTime createdAt;
+    private IngestionStatus status;
 
     public DocumentUploadResponse() {
     }
 
-    public DocumentUploadResponse(Long id, String fileName, String originalName, String filePath,
+    public DocumentUploadResponse(Long id, String fileName, String originalName,
             String fileType, DocumentType documentType, Long fileSize,
-            LocalDateTime createdAt) {
+            LocalDateTime createdAt, IngestionStatus status) {
         this.id = id;
         this.fileName = fileName;
         this.originalName = originalName;
-        this.filePath = filePath;
         this.fileType = fileType;
         this.documentType = documentType;
         this.fileSize = fileSize;
         this.createdAt = createdAt;
+        this.status = status;
     }
 
     // ── Getters & Setters ────────────────────────────────────
@@ -60,14 +62,6 @@ public class DocumentUploadResponse {
         this.originalName = originalName;
     }
 
-    public String getFilePath() {
-        return filePath;
-    }
-
-    public void setFilePath(String filePath) {
-        this.filePath = filePath;
-    }
-
     public String getFileType() {
         return fileType;
     }
@@ -99,4 +93,12 @@ public class DocumentUploadResponse {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public IngestionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(IngestionStatus status) {
+        this.status = status;
+    }
 }
@@ -0,0 +1,22 @@
+package com.profilebuilder.model.dto;
+
+import java.util.List;
+
+/**
+ * Progress of a batch of generation jobs queued by one request: counts by status and
+ * each job, in submission order.
+ */
+public record GenerationBatchResponse(
+        String batchId,
+        int total,
+        int queued,
+        int running,
+        int succeeded,
+        int failed,
+        List<GenerationJobResponse> items) {
+
+    /** Whether every job of the batch has succeeded or failed. */
+    public boolean isComplete() {
+        return succeeded + failed == total;
+    }
+}
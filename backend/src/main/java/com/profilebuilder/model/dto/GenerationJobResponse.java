@@ -0,0 +1,28 @@
+package com.profilebuilder.model.dto;
+
+import com.profilebuilder.model.enums.GenerationJobStatus;
+import com.profilebuilder.model.enums.GenerationJobType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Status of a background generation job. {@code result} holds the endpoint's usual
+ * response body (smart resume or cover letter) once the job has SUCCEEDED, and
+ * {@code resourceId} the ID of the resource it created or updated. {@code batchId}
+ * is set for jobs queued by a batch request.
+ */
+public record GenerationJobResponse(
+        Long id,
+        String batchId,
+        GenerationJobType type,
+        GenerationJobStatus status,
+        int attempts,
+        int maxAttempts,
+        LocalDateTime nextAttemptAt,
+        Long resourceId,
+        Map<String, Object> result,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime completedAt) {
+}
@@ -1,6 +1,7 @@
 package com.profilebuilder.model.dto;
 
 import com.profilebuilder.ai.dto.SmartResumeOutput;
+import com.profilebuilder.model.enums.HrValidationStatus;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -17,7 +18,9 @@ public class SmartGeneratedResumeResponse {
 
     private Long id;
     private SmartResumeOutput resumeContent;
-    private HrValidationResponse validation; // nullable — null if HR Validator failed
+    private HrValidationResponse validation; // nullable — null while pending or if HR Validator failed
+    private HrValidationStatus validationStatus;
+    private AtsKeywordMatchResponse atsKeywordMatch; // local keyword scan, available without HR validation
     private LocalDateTime createdAt;
 
     // ── Nested DTO ───────────────────────────────────────────
@@ -39,4 +42,17 @@ public class SmartGeneratedResumeResponse {
         private List<String> strengths;
         private List<RecommendationItem> recommendations;
     }
+
+    /**
+     * Deterministic keyword coverage of the resume against the JD terms.
+     * coverage is null when no term was recognised in the JD.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class AtsKeywordMatchResponse {
+
+        private Double coverage;            // 0.0 - 1.0
+        private List<String> matchedTerms;
+        private List<String> missingTerms;
+    }
 }
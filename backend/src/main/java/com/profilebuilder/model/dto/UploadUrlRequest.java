@@ -0,0 +1,30 @@
+package com.profilebuilder.model.dto;
+
+import com.profilebuilder.model.enums.DocumentType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Request body for POST /api/documents/upload-url.
+ */
+public record UploadUrlRequest(
+
+        @NotBlank(message = "File name is required")
+        String fileName,
+
+        @NotBlank(message = "Content type is required")
+        String contentType,
+
+        @NotNull(message = "File size is required")
+        @Positive(message = "File size must be positive")
+        Long fileSize,
+
+        @NotNull(message = "Document type is required")
+        DocumentType documentType,
+
+        @NotBlank(message = "SHA-256 hash is required")
+        @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "SHA-256 hash must be 64 hex characters")
+        String sha256
+) {}
@@ -0,0 +1,20 @@
+package com.profilebuilder.model.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Pre-signed direct-to-S3 upload issued for a pending document.
+ * The client sends the file with {@code method} to {@code uploadUrl} using exactly
+ * {@code headers}, then calls POST /api/documents/{documentId}/finalize.
+ * When {@code duplicate} is true the user already has this file: {@code documentId} is the
+ * existing document, there is no upload URL and nothing needs to be sent.
+ */
+public record UploadUrlResponse(
+        Long documentId,
+        boolean duplicate,
+        String uploadUrl,
+        String method,
+        Map<String, String> headers,
+        Instant expiresAt
+) {}
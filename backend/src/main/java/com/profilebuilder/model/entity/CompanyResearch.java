@@ -0,0 +1,38 @@
+package com.profilebuilder.model.entity;
+
+import com.profilebuilder.ai.dto.CompanyResearchOutput;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Company research shared across users, keyed by a normalised company key
+ * ({@code domain:acme.com} or {@code name:acme}). One research result is stored
+ * under each of its keys.
+ */
+@Entity
+@Table(name = "pb_company_research")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CompanyResearch {
+
+    @Id
+    @Column(name = "company_key", length = 255)
+    private String companyKey;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "research", nullable = false, columnDefinition = "jsonb")
+    private CompanyResearchOutput research;
+
+    @Column(name = "search_calls", nullable = false)
+    private int searchCalls;
+
+    @Column(name = "researched_at", nullable = false)
+    private LocalDateTime researchedAt;
+}
@@ -1,6 +1,8 @@
 package com.profilebuilder.model.entity;
 
 import com.profilebuilder.model.enums.DocumentType;
+import com.profilebuilder.model.enums.IngestionStage;
+import com.profilebuilder.model.enums.IngestionStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -49,6 +51,20 @@ public class Document {
     @Column(name = "user_id")
     private Long userId;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ingestion_status", nullable = false, length = 20)
+    private IngestionStatus ingestionStatus = IngestionStatus.COMPLETED;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ingestion_stage", length = 20)
+    private IngestionStage ingestionStage;
+
+    @Column(name = "ingestion_error", length = 1000)
+    private String ingestionError;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
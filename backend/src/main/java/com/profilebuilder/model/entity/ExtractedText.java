@@ -0,0 +1,35 @@
+package com.profilebuilder.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Text extracted from an uploaded document, keyed by the SHA-256 hash of the file content.
+ * Identical files share a single row regardless of which document references them.
+ */
+@Entity
+@Table(name = "pb_extracted_texts")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ExtractedText {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "text_content", nullable = false, columnDefinition = "TEXT")
+    private String textContent;
+
+    @Column(name = "char_count", nullable = false)
+    private Integer charCount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
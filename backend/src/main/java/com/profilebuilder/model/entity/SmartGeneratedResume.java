@@ -1,5 +1,6 @@
 package com.profilebuilder.model.entity;
 
+import com.profilebuilder.model.enums.HrValidationStatus;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -39,6 +40,13 @@ public class SmartGeneratedResume {
     @Column(name = "user_id")
     private Long userId;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "validation_status", length = 20)
+    private HrValidationStatus validationStatus;
+
+    @Column(name = "validation_requested_at")
+    private LocalDateTime validationRequestedAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -57,6 +57,11 @@ public class SmartHrValidation {
     @Column(name = "recommendations", columnDefinition = "jsonb")
     private List<RecommendationItem> recommendations;
 
+    /** Hash of each resume section this validation scored, in section order. */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "section_hashes", columnDefinition = "jsonb")
+    private List<String> sectionHashes;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
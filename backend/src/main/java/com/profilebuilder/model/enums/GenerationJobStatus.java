@@ -0,0 +1,15 @@
+package com.profilebuilder.model.enums;
+
+/**
+ * Lifecycle of a queued AI generation job.
+ */
+public enum GenerationJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
@@ -0,0 +1,12 @@
+package com.profilebuilder.model.enums;
+
+/**
+ * AI pipelines that run as background generation jobs.
+ */
+public enum GenerationJobType {
+    SMART_RESUME_GENERATE,
+    SMART_RESUME_REGENERATE,
+    SMART_RESUME_APPLY_RECOMMENDATIONS,
+    COVER_LETTER_GENERATE,
+    COVER_LETTER_EVALUATE
+}
@@ -0,0 +1,11 @@
+package com.profilebuilder.model.enums;
+
+/**
+ * State of the HR validation of a smart resume. Validation is best-effort and may
+ * run after the resume has been returned, so a resume can exist without one.
+ */
+public enum HrValidationStatus {
+    PENDING,
+    COMPLETED,
+    FAILED
+}
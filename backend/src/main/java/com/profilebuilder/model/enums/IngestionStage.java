@@ -0,0 +1,10 @@
+package com.profilebuilder.model.enums;
+
+/**
+ * Ordered stages of the document ingestion pipeline.
+ */
+public enum IngestionStage {
+    STORE,
+    HASH,
+    EXTRACT
+}
@@ -0,0 +1,11 @@
+package com.profilebuilder.model.enums;
+
+/**
+ * Lifecycle of an uploaded document in the ingestion pipeline.
+ */
+public enum IngestionStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,18 @@
+package com.profilebuilder.repository;
+
+import com.profilebuilder.model.entity.CompanyResearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for {@link CompanyResearch} entries, keyed by company key.
+ */
+@Repository
+public interface CompanyResearchRepository extends JpaRepository<CompanyResearch, String> {
+
+    List<CompanyResearch> findByCompanyKeyInAndResearchedAtAfter(Collection<String> companyKeys, LocalDateTime cutoff);
+}
@@ -2,9 +2,12 @@ package com.profilebuilder.repository;
 
 import com.profilebuilder.model.entity.Document;
 import com.profilebuilder.model.enums.DocumentType;
+import com.profilebuilder.model.enums.IngestionStage;
+import com.profilebuilder.model.enums.IngestionStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,5 +23,19 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
 
     List<Document> findByUserIdAndDocumentType(Long userId, DocumentType documentType);
 
+    List<Document> findByUserIdAndIngestionStatusNot(Long userId, IngestionStatus status);
+
+    List<Document> findByUserIdAndDocumentTypeAndIngestionStatusNot(
+            Long userId, DocumentType documentType, IngestionStatus status);
+
     Optional<Document> findByIdAndUserId(Long id, Long userId);
+
+    List<Document> findAllByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    List<Document> findByIngestionStatusIn(Collection<IngestionStatus> statuses);
+
+    List<Document> findByIngestionStatusAndIngestionStage(IngestionStatus status, IngestionStage stage);
+
+    Optional<Document> findFirstByUserIdAndDocumentTypeAndContentHashAndIngestionStatusNot(
+            Long userId, DocumentType documentType, String contentHash, IngestionStatus status);
 }
@@ -0,0 +1,12 @@
+package com.profilebuilder.repository;
+
+import com.profilebuilder.model.entity.ExtractedText;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for {@link ExtractedText} entities, keyed by content hash.
+ */
+@Repository
+public interface ExtractedTextRepository extends JpaRepository<ExtractedText, String> {
+}
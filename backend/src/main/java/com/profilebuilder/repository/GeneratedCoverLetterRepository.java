@@ -10,4 +10,6 @@ import java.util.Optional;
 public interface GeneratedCoverLetterRepository extends JpaRepository<GeneratedCoverLetter, Long> {
 
     Optional<GeneratedCoverLetter> findByIdAndUserId(Long id, Long userId);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
 }
@@ -0,0 +1,70 @@
+package com.profilebuilder.repository;
+
+import com.profilebuilder.model.entity.GenerationJob;
+import com.profilebuilder.model.enums.GenerationJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for {@link GenerationJob} entities.
+ */
+@Repository
+public interface GenerationJobRepository extends JpaRepository<GenerationJob, Long> {
+
+    Optional<GenerationJob> findByIdAndUserId(Long id, Long userId);
+
+    List<GenerationJob> findByBatchIdAndUserIdOrderById(String batchId, Long userId);
+
+    boolean existsByBatchIdAndStatusIn(String batchId, Collection<GenerationJobStatus> statuses);
+
+    /**
+     * Locks up to {@code limit} due QUEUED jobs, skipping rows already locked by another
+     * worker. Jobs of a batch are only claimed while fewer than {@code batchConcurrency}
+     * of its jobs are RUNNING. Must run inside a transaction; the lock is held until it commits.
+     */
+    @Query(value = """
+            SELECT * FROM pb_generation_jobs
+            WHERE id IN (
+                SELECT due.id FROM (
+                    SELECT q.id, q.batch_id,
+                           ROW_NUMBER() OVER (PARTITION BY q.batch_id ORDER BY q.run_after, q.id) AS batch_rank
+                    FROM pb_generation_jobs q
+                    WHERE q.status = 'QUEUED' AND q.run_after <= :now
+                ) due
+                WHERE due.batch_id IS NULL
+                   OR due.batch_rank + (SELECT COUNT(*) FROM pb_generation_jobs r
+                                        WHERE r.batch_id = due.batch_id AND r.status = 'RUNNING')
+                      <= :batchConcurrency
+            )
+            ORDER BY run_after, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<GenerationJob> lockDueJobs(@Param("now") LocalDateTime now, @Param("limit") int limit,
+                                    @Param("batchConcurrency") int batchConcurrency);
+
+    /**
+     * Locks RUNNING jobs whose lease has not been renewed since {@code cutoff}.
+     */
+    @Query(value = """
+            SELECT * FROM pb_generation_jobs
+            WHERE status = 'RUNNING' AND locked_at < :cutoff
+            ORDER BY id
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<GenerationJob> lockExpiredLeases(@Param("cutoff") LocalDateTime cutoff);
+
+    /** Renews the lease of the given running jobs held by {@code workerId}. */
+    @Modifying
+    @Query("UPDATE GenerationJob j SET j.lockedAt = :now "
+            + "WHERE j.id IN :ids AND j.lockedBy = :workerId AND j.status = com.profilebuilder.model.enums.GenerationJobStatus.RUNNING")
+    int renewLeases(@Param("ids") List<Long> ids, @Param("workerId") String workerId, @Param("now") LocalDateTime now);
+}
@@ -1,13 +1,50 @@
 package com.profilebuilder.repository;
 
 import com.profilebuilder.model.entity.SmartGeneratedResume;
+import com.profilebuilder.model.enums.HrValidationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SmartGeneratedResumeRepository extends JpaRepository<SmartGeneratedResume, Long> {
 
     Optional<SmartGeneratedResume> findByIdAndUserId(Long id, Long userId);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Sets the validation status only if the resume content is still the one that was validated,
+     * so a background validation never lands on a resume that has since been regenerated.
+     */
+    @Modifying
+    @Query("UPDATE SmartGeneratedResume r SET r.validationStatus = :status "
+            + "WHERE r.id = :id AND r.resumeContent = :resumeContent")
+    int updateValidationStatusIfContent(@Param("id") Long id,
+                                        @Param("resumeContent") String resumeContent,
+                                        @Param("status") HrValidationStatus status);
+
+    /** Resumes whose validation was queued before {@code cutoff} and is still pending. */
+    @Query("SELECT r FROM SmartGeneratedResume r "
+            + "WHERE r.validationStatus = com.profilebuilder.model.enums.HrValidationStatus.PENDING "
+            + "AND (r.validationRequestedAt IS NULL OR r.validationRequestedAt < :cutoff)")
+    List<SmartGeneratedResume> findStalePendingValidations(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Takes over a stale pending validation by moving its request time to {@code now};
+     * returns 0 when another instance took it over (or it finished) first.
+     */
+    @Modifying
+    @Query("UPDATE SmartGeneratedResume r SET r.validationRequestedAt = :now "
+            + "WHERE r.id = :id AND r.validationStatus = com.profilebuilder.model.enums.HrValidationStatus.PENDING "
+            + "AND (r.validationRequestedAt IS NULL OR r.validationRequestedAt < :cutoff)")
+    int claimStaleValidation(@Param("id") Long id,
+                             @Param("cutoff") LocalDateTime cutoff,
+                             @Param("now") LocalDateTime now);
 }
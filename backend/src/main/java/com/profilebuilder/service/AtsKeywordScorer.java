@@ -0,0 +1,222 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.ai.dto.SmartResumeOutput;
+import com.profilebuilder.ai.dto.SmartResumeOutput.ResumeSection;
+import com.profilebuilder.ai.dto.SmartResumeOutput.SectionEntry;
+import com.profilebuilder.util.AhoCorasick;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic, in-process ATS keyword scoring of a smart resume against its job description.
+ * <p>
+ * The JD terms are the bundled skill dictionary entries ({@code ats/skill-terms.txt}) found in
+ * the JD (the longest one where they overlap, e.g. "Spring Boot" rather than "Spring"), plus
+ * technical-looking tokens mined from it that are not part of those entries: acronyms, CamelCase
+ * names, names with {@code + # .} or digits. An Aho-Corasick automaton over all their spellings scans the resume's
+ * titles, subtitles and bullets in one pass; coverage is the fraction of JD terms found.
+ * Texts are compared after Unicode normalisation, lower-casing and HTML tag removal, with
+ * {@code - _ /} read as spaces. Meter: {@code pb.ats.keyword.score} (scoring time).
+ */
+@Service
+public class AtsKeywordScorer {
+
+    private static final String DICTIONARY = "ats/skill-terms.txt";
+    private static final int MAX_MINED_TERMS = 50;
+
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern SPACES = Pattern.compile("[\\s\\-_/]+");
+    private static final Pattern TOKEN = Pattern.compile("[A-Za-z][A-Za-z0-9+#.]*[A-Za-z0-9+#]");
+    /** Upper-case and dotted tokens of JD boilerplate that are not skills. */
+    private static final Set<String> NOT_TERMS = Set.of(
+            "us", "usa", "uk", "eu", "eeo", "eoe", "ada", "hr", "it", "or", "and", "the", "pto", "llc", "inc",
+            "ceo", "cto", "cfo", "coo", "vp", "wfh", "faq", "tbd", "asap", "est", "pst", "cst", "mst", "utc",
+            "ote", "dei", "fte", "id", "am", "pm", "ok", "ii", "iii", "iv", "401k", "e.g", "i.e", "etc", "u.s");
+
+    /** JD coverage of a resume; {@code coverage} is null when no term was recognised in the JD. */
+    public record Result(Double coverage, List<String> matchedTerms, List<String> missingTerms) {}
+
+    /** A JD term: its display form and normalised spellings. */
+    private record Term(String display, List<String> spellings) {}
+
+    private final List<Term> dictionaryTerms = new ArrayList<>();
+    private final Map<String, Integer> dictionarySpellings = new HashMap<>();
+    private final int[] spellingTerm;
+    private final AhoCorasick dictionary;
+    private final Timer scoreTimer;
+
+    public AtsKeywordScorer(MeterRegistry meterRegistry) {
+        List<String> spellings = new ArrayList<>();
+        List<Integer> terms = new ArrayList<>();
+        for (String line : readDictionary().split("\n")) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] forms = line.split("\\|");
+            List<String> normalised = new ArrayList<>();
+            for (String form : forms) {
+                String spelling = normalize(form).strip();
+                if (!spelling.isEmpty() && dictionarySpellings.putIfAbsent(spelling, dictionaryTerms.size()) == null) {
+                    normalised.add(spelling);
+                    spellings.add(spelling);
+                    terms.add(dictionaryTerms.size());
+                }
+            }
+            if (!normalised.isEmpty()) {
+                dictionaryTerms.add(new Term(forms[0].strip(), normalised));
+            }
+        }
+        this.spellingTerm = terms.stream().mapToInt(Integer::intValue).toArray();
+        this.dictionary = new AhoCorasick(spellings);
+        this.scoreTimer = Timer.builder("pb.ats.keyword.score")
+                .description("Local ATS keyword scoring time (JD term extraction and resume scan)")
+                .register(meterRegistry);
+    }
+
+    /** Scores the keyword coverage of {@code resume} against {@code jdText}. */
+    public Result score(SmartResumeOutput resume, String jdText) {
+        return scoreTimer.record(() -> {
+            List<Term> jdTerms = jdTerms(jdText != null ? jdText : "");
+            if (jdTerms.isEmpty()) {
+                return new Result(null, List.of(), List.of());
+            }
+
+            List<String> spellings = new ArrayList<>();
+            List<Integer> owners = new ArrayList<>();
+            for (int t = 0; t < jdTerms.size(); t++) {
+                for (String spelling : jdTerms.get(t).spellings()) {
+                    spellings.add(spelling);
+                    owners.add(t);
+                }
+            }
+            BitSet found = new BitSet(jdTerms.size());
+            new AhoCorasick(spellings).scan(resumeText(resume), (s, start, end) -> found.set(owners.get(s)));
+
+            List<String> matched = new ArrayList<>();
+            List<String> missing = new ArrayList<>();
+            for (int t = 0; t < jdTerms.size(); t++) {
+                (found.get(t) ? matched : missing).add(jdTerms.get(t).display());
+            }
+            double coverage = Math.round(100.0 * matched.size() / jdTerms.size()) / 100.0;
+            return new Result(coverage, matched, missing);
+        });
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /** Dictionary terms found in the JD, then mined terms, keyed by normalised display form. */
+    private List<Term> jdTerms(String jdText) {
+        // matches arrive by end position: a later match starting earlier covers previous ones
+        List<int[]> matches = new ArrayList<>();
+        dictionary.scan(normalize(jdText), (s, start, end) -> {
+            while (!matches.isEmpty() && matches.get(matches.size() - 1)[1] >= start) {
+                matches.remove(matches.size() - 1);
+            }
+            if (matches.isEmpty() || matches.get(matches.size() - 1)[2] <= start) {
+                matches.add(new int[]{spellingTerm[s], start, end});
+            }
+        });
+        Map<String, Term> terms = new LinkedHashMap<>();
+        Set<String> termWords = new HashSet<>();
+        for (int[] match : matches) {
+            Term term = dictionaryTerms.get(match[0]);
+            if (terms.putIfAbsent(term.spellings().get(0), term) == null) {
+                term.spellings().forEach(spelling -> termWords.addAll(List.of(spelling.split(" "))));
+            }
+        }
+
+        int mined = 0;
+        for (String line : jdText.split("\n")) {
+            // all-caps lines are headings, whose words would pass for acronyms
+            boolean heading = line.chars().noneMatch(Character::isLowerCase);
+            Matcher matcher = TOKEN.matcher(line);
+            while (matcher.find() && mined < MAX_MINED_TERMS) {
+                String token = matcher.group();
+                if (!looksTechnical(token, heading)) {
+                    continue;
+                }
+                // TOKEN is ASCII without separators, which normalize() would only lower-case
+                String spelling = token.toLowerCase(Locale.ROOT);
+                if (NOT_TERMS.contains(spelling) || dictionarySpellings.containsKey(spelling)
+                        || termWords.contains(spelling) || terms.containsKey(spelling)) {
+                    continue;
+                }
+                terms.put(spelling, new Term(token, List.of(spelling)));
+                mined++;
+            }
+        }
+        return new ArrayList<>(terms.values());
+    }
+
+    /** Acronyms, CamelCase names, and names with {@code + # .} or digits (C++, Node.js, EC2). */
+    private static boolean looksTechnical(String token, boolean heading) {
+        if (token.indexOf('+') >= 0 || token.indexOf('#') >= 0 || token.indexOf('.') >= 0
+                || token.chars().anyMatch(Character::isDigit)) {
+            return true;
+        }
+        boolean hasLower = token.chars().anyMatch(Character::isLowerCase);
+        if (!hasLower) {
+            return !heading && token.length() >= 2 && token.length() <= 6;
+        }
+        return token.substring(1).chars().anyMatch(Character::isUpperCase);
+    }
+
+    /** Titles, subtitles and bullets of every entry, separated so that terms cannot span fields. */
+    private static String resumeText(SmartResumeOutput resume) {
+        StringBuilder text = new StringBuilder();
+        if (resume != null && resume.getSections() != null) {
+            for (ResumeSection section : resume.getSections()) {
+                if (section.getEntries() == null) {
+                    continue;
+                }
+                for (SectionEntry entry : section.getEntries()) {
+                    append(text, entry.getTitle());
+                    append(text, entry.getSubtitle());
+                    if (entry.getBullets() != null) {
+                        entry.getBullets().forEach(bullet -> append(text, bullet));
+                    }
+                }
+            }
+        }
+        return normalize(text.toString());
+    }
+
+    private static void append(StringBuilder text, String field) {
+        if (field != null && !field.isEmpty()) {
+            text.append(field).append(" | ");
+        }
+    }
+
+    private static String normalize(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalized = HTML_TAG.matcher(normalized).replaceAll(" ");
+        return SPACES.matcher(normalized).replaceAll(" ");
+    }
+
+    private static String readDictionary() {
+        try (var in = new ClassPathResource(DICTIONARY).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read ATS term dictionary " + DICTIONARY, e);
+        }
+    }
+}
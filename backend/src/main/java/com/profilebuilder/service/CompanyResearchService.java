@@ -0,0 +1,341 @@
+package com.profilebuilder.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profilebuilder.ai.agent.CompanyIdentifierAgent;
+import com.profilebuilder.ai.agent.CompanyResearchAgent;
+import com.profilebuilder.ai.dto.CompanyIdentityOutput;
+import com.profilebuilder.ai.dto.CompanyResearchOutput;
+import com.profilebuilder.ai.tool.CountingWebSearchEngine;
+import com.profilebuilder.ai.tool.CountingWebSearchEngine.Counted;
+import com.profilebuilder.model.entity.CompanyResearch;
+import com.profilebuilder.repository.CompanyResearchRepository;
+import com.profilebuilder.util.HashUtil;
+import com.profilebuilder.util.LruCache;
+import dev.langchain4j.exception.LangChain4jException;
+import dev.langchain4j.exception.TimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Company research shared across users. Before running the tool-using research agent,
+ * the hiring company is resolved from the JD with a single mini-model call (memoised per
+ * JD text) into normalised keys ({@code domain:acme.com}, {@code name:acme}). Research found
+ * under any key and younger than the TTL is reused, from an in-memory LRU or from
+ * pb_company_research, so cache hits skip the agent and its web searches entirely.
+ * Concurrent misses for the same company share one agent run; requests waiting on
+ * another's run give up after the research agent's deadline.
+ */
+@Service
+public class CompanyResearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(CompanyResearchService.class);
+
+    private static final Set<String> LEGAL_SUFFIXES = Set.of(
+            "inc", "incorporated", "llc", "llp", "lp", "ltd", "limited", "corp", "corporation",
+            "co", "company", "plc", "gmbh", "ag", "sa", "sas", "bv", "nv", "srl", "pty", "oy", "ab", "as");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^a-z0-9]+");
+
+    private final CompanyIdentifierAgent companyIdentifierAgent;
+    private final CompanyResearchAgent companyResearchAgent;
+    private final CompanyResearchRepository companyResearchRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration researchTimeout;
+    private final LruCache<String, CompanyResearch> memoryCache;
+    private final LruCache<String, List<String>> keysByJd;
+    private final Map<String, CompletableFuture<CompanyResearch>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter coalescedHits;
+    private final Counter missCounter;
+    private final Counter searchesSaved;
+
+    public CompanyResearchService(CompanyIdentifierAgent companyIdentifierAgent,
+                                  CompanyResearchAgent companyResearchAgent,
+                                  CompanyResearchRepository companyResearchRepository,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.company-research.cache.ttl:7d}") Duration ttl,
+                                  @Value("${app.company-research.cache.max-entries:1000}") long maxEntries,
+                                  @Value("${app.company-research.cache.jd-keys-max-entries:5000}") long maxJdKeys,
+                                  @Value("${app.ai.resilience.timeout.company-research:120s}") Duration researchTimeout) {
+        this.companyIdentifierAgent = companyIdentifierAgent;
+        this.companyResearchAgent = companyResearchAgent;
+        this.companyResearchRepository = companyResearchRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.researchTimeout = researchTimeout;
+        this.memoryCache = new LruCache<>(maxEntries, entry -> 1);
+        this.keysByJd = new LruCache<>(maxJdKeys, keys -> 1);
+
+        this.memoryHits = requests(meterRegistry, "hit", "memory");
+        this.databaseHits = requests(meterRegistry, "hit", "database");
+        this.coalescedHits = requests(meterRegistry, "hit", "in-flight");
+        this.missCounter = requests(meterRegistry, "miss", "agent");
+        Gauge.builder("pb.company.research.cache.hit.ratio", this, CompanyResearchService::hitRatio)
+                .description("Share of company research requests served without running the research agent")
+                .register(meterRegistry);
+        FunctionCounter.builder("pb.company.research.cache.evictions", memoryCache, LruCache::evictionCount)
+                .register(meterRegistry);
+        Gauge.builder("pb.company.research.cache.size", memoryCache, LruCache::size).register(meterRegistry);
+        this.searchesSaved = Counter.builder("pb.company.research.searches.saved")
+                .description("Web searches not issued thanks to company research cache hits")
+                .register(meterRegistry);
+    }
+
+    private static Counter requests(MeterRegistry registry, String result, String source) {
+        return Counter.builder("pb.company.research.cache.requests")
+                .tag("result", result)
+                .tag("source", source)
+                .register(registry);
+    }
+
+    /**
+     * Returns company research for the hiring company of the JD, from the cache when possible.
+     * The result may be unidentified (blank company name); such results are never cached.
+     */
+    public CompanyResearchOutput research(String jdText) {
+        List<String> keys = resolveKeys(jdText);
+        if (keys.isEmpty()) {
+            recordMiss();
+            return runAgent(jdText).value();
+        }
+
+        Optional<CompanyResearch> cached = lookup(keys);
+        if (cached.isPresent()) {
+            return recordHit(cached.get(), keys);
+        }
+
+        CompletableFuture<CompanyResearch> mine = new CompletableFuture<>();
+        CompletableFuture<CompanyResearch> existing = inFlight.putIfAbsent(keys.get(0), mine);
+        if (existing != null) {
+            CompanyResearch shared = awaitShared(existing, keys.get(0));
+            coalescedHits.increment();
+            hits.incrementAndGet();
+            searchesSaved.increment(shared.getSearchCalls());
+            return shared.getResearch();
+        }
+
+        try {
+            recordMiss();
+            Counted<CompanyResearchOutput> counted = runAgent(jdText);
+            CompanyResearch entry = entry(keys.get(0), counted.value(), counted.searchCalls());
+            if (isIdentified(counted.value())) {
+                store(keys, entry);
+            }
+            mine.complete(entry);
+            return counted.value();
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(keys.get(0), mine);
+        }
+    }
+
+    /**
+     * Waits for the research another request is running. The other run is bounded by the
+     * agent's deadline, so waiting longer than that means it is stuck (e.g. storing its result).
+     */
+    private CompanyResearch awaitShared(CompletableFuture<CompanyResearch> existing, String key) {
+        try {
+            return existing.get(researchTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (java.util.concurrent.TimeoutException e) {
+            throw new TimeoutException("Company research for " + key + " running for another request"
+                    + " did not finish within " + researchTimeout.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LangChain4jException("Interrupted while waiting for company research for " + key, e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new CompletionException(e.getCause());
+        }
+    }
+
+    // ── Key resolution ───────────────────────────────────────
+
+    /**
+     * Resolves the JD to company keys, domain key first. Resolution is best-effort:
+     * if the identifier fails, the research simply runs uncached.
+     */
+    private List<String> resolveKeys(String jdText) {
+        String jdHash = HashUtil.sha256Hex(jdText.getBytes(StandardCharsets.UTF_8));
+        Optional<List<String>> known = keysByJd.get(jdHash);
+        if (known.isPresent()) {
+            return known.get();
+        }
+        List<String> keys;
+        try {
+            CompanyIdentityOutput identity = companyIdentifierAgent.identifyCompany(jdText);
+            keys = identity != null
+                    ? companyKeys(identity.getCompanyName(), identity.getCompanyDomain())
+                    : List.of();
+        } catch (Exception e) {
+            log.warn("Company identification failed, researching without cache: {}", e.getMessage());
+            return List.of();
+        }
+        keysByJd.put(jdHash, keys);
+        log.info("Resolved JD to company keys {}", keys);
+        return keys;
+    }
+
+    static List<String> companyKeys(String companyName, String companyDomain) {
+        Set<String> keys = new LinkedHashSet<>();
+        normalizeDomain(companyDomain).ifPresent(domain -> keys.add("domain:" + domain));
+        normalizeName(companyName).ifPresent(name -> keys.add("name:" + name));
+        return List.copyOf(keys);
+    }
+
+    /** "https://www.Acme.com/careers" → "acme.com". */
+    static Optional<String> normalizeDomain(String domain) {
+        if (domain == null) {
+            return Optional.empty();
+        }
+        String d = domain.trim().toLowerCase();
+        d = d.replaceFirst("^[a-z][a-z0-9+.-]*://", "");
+        d = d.replaceFirst("[/:?#].*$", "");
+        d = d.replaceFirst("^www\\.", "");
+        return d.contains(".") && !d.startsWith(".") && !d.endsWith(".") ? Optional.of(d) : Optional.empty();
+    }
+
+    /** "Acmé Widgets, Inc." → "acmewidgets". */
+    static Optional<String> normalizeName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        String ascii = DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFKD)).replaceAll("");
+        List<String> tokens = new ArrayList<>(Arrays.asList(
+                NON_ALNUM.split(ascii.toLowerCase().replace("&", " and "))));
+        tokens.removeIf(String::isEmpty);
+        while (tokens.size() > 1 && LEGAL_SUFFIXES.contains(tokens.get(tokens.size() - 1))) {
+            tokens.remove(tokens.size() - 1);
+        }
+        String normalized = String.join("", tokens);
+        return normalized.isEmpty() ? Optional.empty() : Optional.of(normalized);
+    }
+
+    // ── Cache ────────────────────────────────────────────────
+
+    private Optional<CompanyResearch> lookup(List<String> keys) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        for (String key : keys) {
+            Optional<CompanyResearch> cached = memoryCache.get(key);
+            if (cached.isPresent() && cached.get().getResearchedAt().isAfter(cutoff)) {
+                memoryHits.increment();
+                return cached;
+            }
+            cached.ifPresent(expired -> memoryCache.remove(key));
+        }
+
+        List<CompanyResearch> stored = companyResearchRepository.findByCompanyKeyInAndResearchedAtAfter(keys, cutoff);
+        for (String key : keys) {
+            for (CompanyResearch entry : stored) {
+                if (entry.getCompanyKey().equals(key)) {
+                    keys.forEach(k -> memoryCache.put(k, entry));
+                    databaseHits.increment();
+                    return Optional.of(entry);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Stores the research under the resolved keys and the keys of the research itself,
+     * so later JDs resolving to either the name or the domain find it.
+     */
+    private void store(List<String> resolvedKeys, CompanyResearch entry) {
+        Set<String> keys = new LinkedHashSet<>(resolvedKeys);
+        CompanyResearchOutput research = entry.getResearch();
+        keys.addAll(companyKeys(research.getCompanyName(), research.getCompanyDomain()));
+        for (String key : keys) {
+            CompanyResearch row = entry(key, research, entry.getSearchCalls());
+            row.setResearchedAt(entry.getResearchedAt());
+            memoryCache.put(key, row);
+            try {
+                companyResearchRepository.save(row);
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Company research for {} stored concurrently", key);
+            }
+        }
+        log.info("Cached company research for {} under {} ({} web searches)",
+                research.getCompanyName(), keys, entry.getSearchCalls());
+    }
+
+    private CompanyResearchOutput recordHit(CompanyResearch entry, List<String> keys) {
+        hits.incrementAndGet();
+        searchesSaved.increment(entry.getSearchCalls());
+        log.info("Company research cache hit for {} (researched {}, {} web searches saved)",
+                keys, entry.getResearchedAt(), entry.getSearchCalls());
+        return entry.getResearch();
+    }
+
+    private void recordMiss() {
+        misses.incrementAndGet();
+        missCounter.increment();
+    }
+
+    private double hitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    // ── Agent ────────────────────────────────────────────────
+
+    private Counted<CompanyResearchOutput> runAgent(String jdText) {
+        String researchInput;
+        try {
+            researchInput = objectMapper.writeValueAsString(Map.of("jdText", jdText));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to build company research input: " + e.getMessage(), e);
+        }
+        log.info("Running Company Research Agent...");
+        Counted<CompanyResearchOutput> counted =
+                CountingWebSearchEngine.countCalls(() -> companyResearchAgent.researchCompany(researchInput));
+        log.info("Company Research Agent made {} web search(es)", counted.searchCalls());
+        return counted;
+    }
+
+    private static boolean isIdentified(CompanyResearchOutput research) {
+        return research != null && research.getCompanyName() != null && !research.getCompanyName().isBlank();
+    }
+
+    private static CompanyResearch entry(String key, CompanyResearchOutput research, int searchCalls) {
+        CompanyResearch entry = new CompanyResearch();
+        entry.setCompanyKey(key);
+        entry.setResearch(research);
+        entry.setSearchCalls(searchCalls);
+        entry.setResearchedAt(LocalDateTime.now());
+        return entry;
+    }
+}
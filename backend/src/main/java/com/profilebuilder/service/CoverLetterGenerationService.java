@@ -2,9 +2,13 @@ package com.profilebuilder.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.profilebuilder.ai.agent.CoverLetterEvaluatorAgent;
+import com.profilebuilder.ai.budget.PromptBudgetEnforcer;
+import com.profilebuilder.ai.budget.PromptFields;
 import com.profilebuilder.ai.dto.CompanyResearchOutput;
 import com.profilebuilder.ai.dto.CoverLetterEvaluationOutput;
 import com.profilebuilder.ai.dto.CoverLetterOutput;
+import com.profilebuilder.ai.limit.AiCallContext;
+import com.profilebuilder.exception.PromptTooLargeException;
 import com.profilebuilder.exception.ResourceNotFoundException;
 import com.profilebuilder.model.dto.CoverLetterResponse;
 import com.profilebuilder.model.entity.CoverLetterEvaluation;
@@ -14,11 +18,22 @@ import com.profilebuilder.repository.CoverLetterEvaluationRepository;
 import com.profilebuilder.repository.DocumentRepository;
 import com.profilebuilder.repository.GeneratedCoverLetterRepository;
 import com.profilebuilder.service.CoverLetterOrchestrationService.OrchestrationResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Main service for cover letter generation, evaluation, and retrieval.
@@ -30,42 +45,75 @@ public class CoverLetterGenerationService {
 
     private static final Logger log = LoggerFactory.getLogger(CoverLetterGenerationService.class);
 
+    /** Minimum JD kept when compacting the evaluator input to its token budget. */
+    private static final int EVALUATION_JD_FLOOR_TOKENS = 1500;
+
     private final GeneratedCoverLetterRepository coverLetterRepository;
     private final CoverLetterEvaluationRepository evaluationRepository;
     private final DocumentRepository documentRepository;
-    private final JdExtractionService jdExtractionService;
+    private final DocumentService documentService;
     private final CoverLetterOrchestrationService orchestrationService;
     private final CoverLetterEvaluatorAgent coverLetterEvaluatorAgent;
+    private final PromptBudgetEnforcer promptBudgetEnforcer;
     private final ObjectMapper objectMapper;
+    private final ExecutorService documentExtractionExecutor;
+    private final ExecutorService generationExecutor;
+    private final MeterRegistry meterRegistry;
 
     public CoverLetterGenerationService(GeneratedCoverLetterRepository coverLetterRepository,
                                         CoverLetterEvaluationRepository evaluationRepository,
                                         DocumentRepository documentRepository,
-                                        JdExtractionService jdExtractionService,
+                                        DocumentService documentService,
                                         CoverLetterOrchestrationService orchestrationService,
                                         CoverLetterEvaluatorAgent coverLetterEvaluatorAgent,
-                                        ObjectMapper objectMapper) {
+                                        PromptBudgetEnforcer promptBudgetEnforcer,
+                                        ObjectMapper objectMapper,
+                                        @Qualifier("documentExtractionExecutor") ExecutorService documentExtractionExecutor,
+                                        @Qualifier("generationExecutor") ExecutorService generationExecutor,
+                                        MeterRegistry meterRegistry) {
         this.coverLetterRepository = coverLetterRepository;
         this.evaluationRepository = evaluationRepository;
         this.documentRepository = documentRepository;
-        this.jdExtractionService = jdExtractionService;
+        this.documentService = documentService;
         this.orchestrationService = orchestrationService;
         this.coverLetterEvaluatorAgent = coverLetterEvaluatorAgent;
+        this.promptBudgetEnforcer = promptBudgetEnforcer;
         this.objectMapper = objectMapper;
+        this.documentExtractionExecutor = documentExtractionExecutor;
+        this.generationExecutor = generationExecutor;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
      * Generates a new cover letter from a job description text, resume doc, and master cover letter doc.
      * Documents are verified to belong to the given user.
+     * <p>
+     * Company research depends only on the JD, so it starts immediately, alongside the two
+     * document extractions; generation starts once all three are done. The critical path is
+     * max(research, extraction) + generation. Ownership of both documents is checked before any
+     * stage starts; after that, the first failure fails the whole request and cancels the stages
+     * still running, so a failed extraction does not leave the research agent searching.
      */
     public CoverLetterResponse generate(String jdText, Long resumeDocId, Long coverLetterDocId, Long userId) {
         log.info("Generating cover letter for resumeDoc={}, coverLetterDoc={}", resumeDocId, coverLetterDocId);
+        Document resume = findDocument(resumeDocId, userId);
+        Document masterCoverLetter = findDocument(coverLetterDocId, userId);
+        long start = System.nanoTime();
+        Map<String, Long> timings = new ConcurrentHashMap<>();
 
-        String resumeText = extractDocumentText(resumeDocId, userId);
-        String masterCoverLetterText = extractDocumentText(coverLetterDocId, userId);
+        CompletableFuture<CompanyResearchOutput> research = stage("research", timings,
+                () -> orchestrationService.researchCompany(jdText), generationExecutor);
+        CompletableFuture<String> resumeText = stage("extract-resume", timings,
+                () -> documentService.getExtractedText(resume), documentExtractionExecutor);
+        CompletableFuture<String> masterCoverLetterText = stage("extract-cover-letter", timings,
+                () -> documentService.getExtractedText(masterCoverLetter), documentExtractionExecutor);
+        awaitAll(research, resumeText, masterCoverLetterText);
 
-        // Run 2-agent orchestration pipeline
-        OrchestrationResult result = orchestrationService.orchestrate(resumeText, masterCoverLetterText, jdText);
+        // Run Agent 2 on the calling thread once its inputs are ready
+        OrchestrationResult result = timed("generate", timings, () -> orchestrationService.generateCoverLetter(
+                resumeText.join(), masterCoverLetterText.join(), jdText, research.join()));
+        log.info("Cover letter pipeline took {} ms (stages: {})",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), timings);
 
         // Persist entity
         GeneratedCoverLetter entity = new GeneratedCoverLetter();
@@ -93,10 +141,9 @@ public class CoverLetterGenerationService {
         CompanyResearchOutput companyResearch = parseCompanyResearch(entity.getCompanyResearch());
 
         try {
-            String evalInput = objectMapper.writeValueAsString(Map.of(
-                    "coverLetterContent", objectMapper.writeValueAsString(coverLetterOutput),
-                    "jdText", entity.getJdText()
-            ));
+            String evalInput = promptBudgetEnforcer.fit(CoverLetterEvaluatorAgent.NAME, new PromptFields()
+                    .fixed("coverLetterContent", objectMapper.writeValueAsString(coverLetterOutput))
+                    .trimmable("jdText", entity.getJdText(), 1, EVALUATION_JD_FLOOR_TOKENS));
             CoverLetterEvaluationOutput evalOutput = coverLetterEvaluatorAgent.evaluateCoverLetter(evalInput);
 
             // Delete existing evaluation if any, then save new
@@ -107,11 +154,22 @@ public class CoverLetterGenerationService {
             log.info("Evaluation complete: match={}%", evalOutput.getMatchPercentage());
             CoverLetterResponse.EvaluationResponse evalResponse = mapToEvaluationResponse(evalOutput);
             return toResponse(entity, coverLetterOutput, companyResearch, evalResponse);
+        } catch (PromptTooLargeException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Cover letter evaluation failed: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Throws ResourceNotFoundException unless the cover letter exists and belongs to the user.
+     */
+    public void verifyOwnership(Long id, Long userId) {
+        if (!coverLetterRepository.existsByIdAndUserId(id, userId)) {
+            throw new ResourceNotFoundException("Cover letter not found with id: " + id);
+        }
+    }
+
     /**
      * Retrieves a previously generated cover letter with its evaluation data if available.
      * Verifies ownership before returning.
@@ -137,11 +195,93 @@ public class CoverLetterGenerationService {
 
     // ── Private helpers ──────────────────────────────────────
 
-    /** Looks up document by ID, verifies ownership, then extracts text content from disk. */
-    private String extractDocumentText(Long docId, Long userId) {
-        Document doc = documentRepository.findByIdAndUserId(docId, userId)
+    /** Looks up document by ID, verifying ownership. */
+    private Document findDocument(Long docId, Long userId) {
+        return documentRepository.findByIdAndUserId(docId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Document not found with id: " + docId));
-        return jdExtractionService.extractTextFromPath(doc.getFilePath());
+    }
+
+    /**
+     * Runs one pipeline stage on {@code executor}, on behalf of the current caller; see {@link #timed}.
+     * Cancelling the returned future interrupts the stage if it is running.
+     */
+    private <T> CompletableFuture<T> stage(String name, Map<String, Long> timings, Supplier<T> work,
+                                           ExecutorService executor) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(AiCallContext.wrap(() -> {
+            try {
+                result.complete(timed(name, timings, work));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }));
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Runs one pipeline stage, recording its duration in {@code timings} and in the
+     * {@code pb.cover.letter.stage.latency} timer.
+     */
+    private <T> T timed(String name, Map<String, Long> timings, Supplier<T> work) {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            T value = work.get();
+            outcome = "success";
+            return value;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timings.put(name, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            Timer.builder("pb.cover.letter.stage.latency")
+                    .description("Cover letter generation pipeline stage latency")
+                    .tag("stage", name)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Waits for all stages, failing fast with the first stage's exception (unwrapped).
+     * On failure or interrupt, the stages still running are cancelled.
+     */
+    private static void awaitAll(CompletableFuture<?>... stages) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(stages);
+        for (CompletableFuture<?> stage : stages) {
+            stage.whenComplete((value, error) -> {
+                if (error != null) {
+                    all.completeExceptionally(error);
+                }
+            });
+        }
+        try {
+            all.get();
+        } catch (ExecutionException e) {
+            cancelAll(stages);
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException("Cover letter generation failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            cancelAll(stages);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating cover letter", e);
+        }
+    }
+
+    /** Cancels (and interrupts) the stages still running; finished stages are unaffected. */
+    private static void cancelAll(CompletableFuture<?>... stages) {
+        for (CompletableFuture<?> stage : stages) {
+            stage.cancel(true);
+        }
     }
 
     /** Serializes orchestration result into entity fields. */
@@ -1,36 +1,51 @@
 package com.profilebuilder.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.profilebuilder.ai.agent.CompanyResearchAgent;
 import com.profilebuilder.ai.agent.CoverLetterGeneratorAgent;
+import com.profilebuilder.ai.budget.PromptBudgetEnforcer;
+import com.profilebuilder.ai.budget.PromptFields;
 import com.profilebuilder.ai.dto.CompanyResearchOutput;
 import com.profilebuilder.ai.dto.CoverLetterOutput;
+import com.profilebuilder.exception.PromptTooLargeException;
+import com.profilebuilder.service.PromptInputPreprocessor.PreparedTexts;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
+import java.util.List;
 
 /**
- * Orchestrates the two-agent cover letter generation pipeline:
- * 1. CompanyResearchAgent — researches company from JD (FATAL if fails)
+ * The two agents of the cover letter generation pipeline:
+ * 1. CompanyResearchAgent — researches company from JD, via the shared research cache (FATAL if fails)
  * 2. CoverLetterGeneratorAgent — produces tailored cover letter using research
+ * CoverLetterGenerationService runs step 1 concurrently with document extraction.
  */
 @Service
 public class CoverLetterOrchestrationService {
 
     private static final Logger log = LoggerFactory.getLogger(CoverLetterOrchestrationService.class);
 
-    private final CompanyResearchAgent companyResearchAgent;
+    /** Minimum input kept when compacting to the token budget; below this the request is rejected. */
+    private static final int RESUME_FLOOR_TOKENS = 3000;
+    private static final int JD_FLOOR_TOKENS = 1500;
+    private static final int MASTER_COVER_LETTER_FLOOR_TOKENS = 1000;
+
+    private final CompanyResearchService companyResearchService;
     private final CoverLetterGeneratorAgent coverLetterGeneratorAgent;
     private final ObjectMapper objectMapper;
+    private final PromptInputPreprocessor promptInputPreprocessor;
+    private final PromptBudgetEnforcer promptBudgetEnforcer;
 
-    public CoverLetterOrchestrationService(CompanyResearchAgent companyResearchAgent,
+    public CoverLetterOrchestrationService(CompanyResearchService companyResearchService,
                                            CoverLetterGeneratorAgent coverLetterGeneratorAgent,
-                                           ObjectMapper objectMapper) {
-        this.companyResearchAgent = companyResearchAgent;
+                                           ObjectMapper objectMapper,
+                                           PromptInputPreprocessor promptInputPreprocessor,
+                                           PromptBudgetEnforcer promptBudgetEnforcer) {
+        this.companyResearchService = companyResearchService;
         this.coverLetterGeneratorAgent = coverLetterGeneratorAgent;
         this.objectMapper = objectMapper;
+        this.promptInputPreprocessor = promptInputPreprocessor;
+        this.promptBudgetEnforcer = promptBudgetEnforcer;
     }
 
     /**
@@ -42,38 +57,52 @@ public class CoverLetterOrchestrationService {
     ) {}
 
     /**
-     * Runs Agent 1 (company research) then Agent 2 (cover letter generation) sequentially.
-     * Company research failure is FATAL and throws an exception immediately.
+     * Agent 1: company research (served from the shared cache when possible). Depends only
+     * on the JD, so callers can run it alongside document extraction.
+     * Failure is FATAL: throws if the company cannot be identified.
      */
-    public OrchestrationResult orchestrate(String resumeText, String masterCoverLetterText, String jdText) {
+    public CompanyResearchOutput researchCompany(String jdText) {
         try {
-            // Agent 1: Company Research — FATAL if fails
-            String researchInput = objectMapper.writeValueAsString(Map.of("jdText", jdText));
-            log.info("Running Company Research Agent...");
-            CompanyResearchOutput companyResearch = companyResearchAgent.researchCompany(researchInput);
+            CompanyResearchOutput companyResearch = companyResearchService.research(jdText);
 
             if (companyResearch == null || companyResearch.getCompanyName() == null
                     || companyResearch.getCompanyName().isBlank()) {
                 throw new RuntimeException("Company research failed: could not identify company from job description");
             }
             log.info("Company Research complete: {}", companyResearch.getCompanyName());
+            return companyResearch;
 
-            // Agent 2: Cover Letter Generator
+        } catch (dev.langchain4j.exception.LangChain4jException e) {
+            throw e; // Let GlobalExceptionHandler return 503
+        } catch (Exception e) {
+            throw new RuntimeException("Cover letter orchestration failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Agent 2: generates the cover letter from both documents, the JD and the company research.
+     */
+    public OrchestrationResult generateCoverLetter(String resumeText, String masterCoverLetterText, String jdText,
+                                                   CompanyResearchOutput companyResearch) {
+        try {
+            PreparedTexts prepared = promptInputPreprocessor.prepare(
+                    "cover-letter", List.of(resumeText), masterCoverLetterText, jdText);
             String companyResearchJson = objectMapper.writeValueAsString(companyResearch);
-            String generatorInput = objectMapper.writeValueAsString(Map.of(
-                    "resumeText", resumeText,
-                    "masterCoverLetterText", masterCoverLetterText,
-                    "companyResearch", companyResearchJson,
-                    "jdText", jdText
-            ));
+            // over budget, the resume is trimmed first, then the JD, then the master cover letter
+            String generatorInput = promptBudgetEnforcer.fit(CoverLetterGeneratorAgent.NAME, new PromptFields()
+                    .trimmable("resumeText", prepared.documents().get(0), 1, RESUME_FLOOR_TOKENS)
+                    .trimmable("masterCoverLetterText", prepared.standalone().get(0), 3,
+                            MASTER_COVER_LETTER_FLOOR_TOKENS)
+                    .fixed("companyResearch", companyResearchJson)
+                    .trimmable("jdText", prepared.standalone().get(1), 2, JD_FLOOR_TOKENS));
             log.info("Running Cover Letter Generator Agent...");
             CoverLetterOutput coverLetterOutput = coverLetterGeneratorAgent.generateCoverLetter(generatorInput);
             log.info("Cover Letter Generator complete: {} paragraphs", coverLetterOutput.getParagraphs().size());
 
             return new OrchestrationResult(companyResearch, coverLetterOutput);
 
-        } catch (dev.langchain4j.exception.LangChain4jException e) {
-            throw e; // Let GlobalExceptionHandler return 503
+        } catch (dev.langchain4j.exception.LangChain4jException | PromptTooLargeException e) {
+            throw e; // Let GlobalExceptionHandler return 503 / 413
         } catch (Exception e) {
             throw new RuntimeException("Cover letter orchestration failed: " + e.getMessage(), e);
         }
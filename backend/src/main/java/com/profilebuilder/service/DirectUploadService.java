@@ -0,0 +1,218 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.exception.InvalidFileException;
+import com.profilebuilder.exception.ResourceNotFoundException;
+import com.profilebuilder.model.dto.DocumentUploadResponse;
+import com.profilebuilder.model.dto.UploadUrlRequest;
+import com.profilebuilder.model.dto.UploadUrlResponse;
+import com.profilebuilder.model.entity.Document;
+import com.profilebuilder.model.enums.IngestionStage;
+import com.profilebuilder.model.enums.IngestionStatus;
+import com.profilebuilder.repository.DocumentRepository;
+import com.profilebuilder.storage.S3DocumentStorage;
+import com.profilebuilder.storage.S3DocumentStorage.ObjectInfo;
+import com.profilebuilder.storage.S3DocumentStorage.PresignedUpload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Two-step direct-to-S3 upload: the client PUTs the file to a pre-signed URL and
+ * then finalizes, so file bytes never pass through the backend.
+ * Only available when documents are stored in S3; local-disk mode keeps the multipart upload.
+ */
+@Service
+public class DirectUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectUploadService.class);
+
+    private final DocumentRepository documentRepository;
+    private final DocumentService documentService;
+    private final DocumentIngestionService documentIngestionService;
+    private final S3DocumentStorage s3DocumentStorage;
+    private final ExecutorService storageIoExecutor;
+
+    @Value("${app.upload.direct.max-file-size:2MB}")
+    private DataSize maxFileSize;
+
+    @Value("${app.upload.direct.url-ttl:15m}")
+    private Duration urlTtl;
+
+    public DirectUploadService(DocumentRepository documentRepository,
+                               DocumentService documentService,
+                               DocumentIngestionService documentIngestionService,
+                               @Autowired(required = false) @Nullable S3DocumentStorage s3DocumentStorage,
+                               @Qualifier("storageIoExecutor") ExecutorService storageIoExecutor) {
+        this.documentRepository = documentRepository;
+        this.documentService = documentService;
+        this.documentIngestionService = documentIngestionService;
+        this.s3DocumentStorage = s3DocumentStorage;
+        this.storageIoExecutor = storageIoExecutor;
+    }
+
+    /**
+     * Create a PENDING document and a pre-signed PUT URL under {@code {userId}/documents/}.
+     * If the user already has a document with the declared SHA-256, it is returned as a
+     * duplicate and no upload is needed; an unfinished upload of the same file gets a fresh URL.
+     */
+    public UploadUrlResponse createUploadUrl(UploadUrlRequest request, Long userId) {
+        S3DocumentStorage storage = requireS3();
+        documentService.validateContentType(request.contentType());
+        validateSize(request.fileSize());
+        String contentHash = request.sha256().toLowerCase(Locale.ROOT);
+
+        Optional<Document> existing = documentService.findDuplicate(userId, request.documentType(), contentHash);
+        if (existing.isPresent()) {
+            return forExisting(storage, existing.get());
+        }
+
+        String storedFileName = documentService.newStoredFileName(request.fileName());
+        PresignedUpload upload = storage.presignPut(userId + "/documents/" + storedFileName,
+                request.contentType(), request.fileSize(), contentHash, urlTtl);
+
+        Document document = new Document();
+        document.setFileName(storedFileName);
+        document.setOriginalName(request.fileName());
+        document.setFilePath(upload.location());
+        document.setFileType(request.contentType());
+        document.setDocumentType(request.documentType());
+        document.setFileSize(request.fileSize());
+        document.setUserId(userId);
+        document.setContentHash(contentHash);
+        document.setIngestionStatus(IngestionStatus.PENDING);
+        document.setIngestionStage(IngestionStage.STORE);
+        Document saved;
+        try {
+            saved = documentRepository.save(document);
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent request for the same file won the (user_id, document_type, content_hash) slot
+            Document winner = documentService.findDuplicate(userId, request.documentType(), contentHash)
+                    .orElseThrow(() -> e);
+            return forExisting(storage, winner);
+        }
+
+        log.info("Issued direct upload URL for document id={} ({} bytes)", saved.getId(), saved.getFileSize());
+        return toUploadUrlResponse(saved.getId(), upload);
+    }
+
+    /**
+     * Verify the uploaded object with HEAD (size, type and the SHA-256 checksum S3 computed
+     * on upload) and queue text extraction. No thread waits for the HEAD request: the checks
+     * run on the storage I/O executor once it completes.
+     * Calling it again for a document that is already processing or done is a no-op.
+     */
+    public CompletableFuture<DocumentUploadResponse> finalizeUpload(Long id, Long userId) {
+        Document document = documentRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found with id: " + id));
+
+        if (document.getIngestionStatus() == IngestionStatus.FAILED) {
+            throw new InvalidFileException("Upload of document " + id + " failed: " + document.getIngestionError());
+        }
+        if (document.getIngestionStatus() != IngestionStatus.PENDING) {
+            return CompletableFuture.completedFuture(documentService.toResponse(document));
+        }
+
+        S3DocumentStorage storage = requireS3();
+        if (!storage.handles(document.getFilePath())) {
+            throw new IllegalArgumentException("Document " + id + " was not created for direct upload");
+        }
+
+        return storage.head(document.getFilePath())
+                .thenApplyAsync(object -> verifyAndSubmit(document, object), storageIoExecutor);
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /** Checks the HEAD result against what the client declared, then queues ingestion. */
+    private DocumentUploadResponse verifyAndSubmit(Document document, Optional<ObjectInfo> object) {
+        Long id = document.getId();
+        if (object.isEmpty()) {
+            throw new InvalidFileException("File for document " + id + " has not been uploaded yet");
+        }
+        ObjectInfo info = object.get();
+        if (info.contentLength() != document.getFileSize()) {
+            reject(document, "Uploaded size " + info.contentLength() + " does not match declared size "
+                    + document.getFileSize());
+        }
+        if (!document.getFileType().equals(info.contentType())) {
+            reject(document, "Uploaded content type " + info.contentType() + " does not match declared type "
+                    + document.getFileType());
+        }
+        if (info.checksumSha256() == null) {
+            // S3-compatible stores without checksum support: re-hash during ingestion instead
+            document.setContentHash(null);
+        } else if (!info.checksumSha256().equals(toBase64(document.getContentHash()))) {
+            reject(document, "Uploaded content does not match the declared SHA-256 hash");
+        }
+
+        documentIngestionService.submitStored(document);
+        log.info("Direct upload finalized for document id={}", id);
+        return documentService.toResponse(document);
+    }
+
+    /**
+     * Response for a request whose file the user already has: the existing document, or a
+     * fresh URL for it when its own upload was never finalized.
+     */
+    private UploadUrlResponse forExisting(S3DocumentStorage storage, Document existing) {
+        if (!documentService.isAwaitingDirectUpload(existing) || !storage.handles(existing.getFilePath())) {
+            log.info("Direct upload duplicates document id={}, skipping upload", existing.getId());
+            return new UploadUrlResponse(existing.getId(), true, null, null, Map.of(), null);
+        }
+        PresignedUpload upload = storage.presignPut(storage.keyOf(existing.getFilePath()),
+                existing.getFileType(), existing.getFileSize(), existing.getContentHash(), urlTtl);
+        // restarts the clock startup recovery uses to expire unfinished uploads
+        existing.setUpdatedAt(LocalDateTime.now());
+        documentRepository.save(existing);
+        log.info("Re-issued direct upload URL for pending document id={}", existing.getId());
+        return toUploadUrlResponse(existing.getId(), upload);
+    }
+
+    private static UploadUrlResponse toUploadUrlResponse(Long documentId, PresignedUpload upload) {
+        return new UploadUrlResponse(documentId, false, upload.url().toString(), "PUT",
+                upload.headers(), upload.expiresAt());
+    }
+
+    private static String toBase64(String sha256Hex) {
+        return Base64.getEncoder().encodeToString(HexFormat.of().parseHex(sha256Hex));
+    }
+
+    private S3DocumentStorage requireS3() {
+        if (s3DocumentStorage == null) {
+            throw new IllegalArgumentException(
+                    "Direct uploads require S3 storage. Use POST /api/documents/upload instead.");
+        }
+        return s3DocumentStorage;
+    }
+
+    private void validateSize(long fileSize) {
+        if (fileSize > maxFileSize.toBytes()) {
+            throw new InvalidFileException("File too large: " + fileSize + " bytes. Limit is " + maxFileSize + ".");
+        }
+    }
+
+    /** Removes a mismatching object, marks the document FAILED and throws. */
+    private void reject(Document document, String reason) {
+        documentService.deleteFile(document.getFilePath());
+        document.setIngestionStatus(IngestionStatus.FAILED);
+        document.setIngestionError(reason);
+        documentRepository.save(document);
+        throw new InvalidFileException(reason);
+    }
+}
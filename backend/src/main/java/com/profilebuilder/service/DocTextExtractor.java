@@ -0,0 +1,41 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.exception.InvalidFileException;
+import org.apache.poi.hwpf.extractor.WordExtractor;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Extracts text from legacy Word 97-2003 (.doc) files with POI HWPF.
+ * The OLE2 container is opened read-only from the file, so it is not copied onto the heap.
+ */
+@Service
+public class DocTextExtractor implements TextExtractor {
+
+    private static final Logger log = LoggerFactory.getLogger(DocTextExtractor.class);
+
+    static final String DOC_CONTENT_TYPE = "application/msword";
+
+    @Override
+    public Set<String> supportedContentTypes() {
+        return Set.of(DOC_CONTENT_TYPE);
+    }
+
+    @Override
+    public String extractText(Path file, String source) {
+        try (POIFSFileSystem fs = new POIFSFileSystem(file.toFile(), true);
+             WordExtractor extractor = new WordExtractor(fs)) {
+            String text = extractor.getText();
+            log.info("Extracted {} characters from DOC at {}", text.length(), source);
+            return text;
+        } catch (IOException | RuntimeException e) {
+            throw new InvalidFileException("Failed to extract text from file: " + source, e);
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.exception.FileStorageException;
+import com.profilebuilder.exception.ResourceNotFoundException;
+import com.profilebuilder.model.dto.DocumentStatusResponse;
+import com.profilebuilder.model.dto.DocumentStatusResponse.StageProgress;
+import com.profilebuilder.model.dto.DocumentStatusResponse.StageState;
+import com.profilebuilder.model.dto.DocumentUploadResponse;
+import com.profilebuilder.model.entity.Document;
+import com.profilebuilder.model.enums.DocumentType;
+import com.profilebuilder.model.enums.IngestionStage;
+import com.profilebuilder.model.enums.IngestionStatus;
+import com.profilebuilder.repository.DocumentRepository;
+import com.profilebuilder.storage.S3DocumentStorage;
+import com.profilebuilder.util.HashUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Asynchronous upload pipeline. The request thread only stages the bytes and
+ * records a PENDING document; storage, hashing and text extraction run as
+ * ordered stages on the bounded ingestion executor. Workers are virtual threads,
+ * so waiting on the non-blocking storage backend does not hold a platform thread.
+ */
+@Service
+public class DocumentIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentIngestionService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final DocumentRepository documentRepository;
+    private final DocumentService documentService;
+    private final ExecutorService ingestionExecutor;
+    private final S3DocumentStorage s3DocumentStorage;
+
+    @Value("${app.upload.staging-dir:${java.io.tmpdir}}")
+    private String stagingDir;
+
+    @Value("${app.ingestion.stale-after:10m}")
+    private Duration staleAfter;
+
+    @Value("${app.upload.direct.url-ttl:15m}")
+    private Duration directUploadUrlTtl;
+
+    public DocumentIngestionService(DocumentRepository documentRepository,
+                                    DocumentService documentService,
+                                    @Qualifier("ingestionExecutor") ExecutorService ingestionExecutor,
+                                    @Autowired(required = false) @Nullable S3DocumentStorage s3DocumentStorage) {
+        this.documentRepository = documentRepository;
+        this.documentService = documentService;
+        this.ingestionExecutor = ingestionExecutor;
+        this.s3DocumentStorage = s3DocumentStorage;
+    }
+
+    /** Result of submitting an upload: the accepted document, or the existing one it duplicates. */
+    public record Submission(DocumentUploadResponse document, boolean duplicate) {}
+
+    /** A staged upload and the SHA-256 hash computed while staging it. */
+    private record StagedUpload(Path path, String contentHash) {}
+
+    /**
+     * Validate and stage an upload, hashing it on the way to disk, then queue it for ingestion.
+     * Returns immediately with the PENDING document. If the user already has a document with
+     * the same content, that document is returned instead and nothing is stored.
+     *
+     * @throws RejectedExecutionException when the ingestion queue is full
+     */
+    public Submission submit(MultipartFile file, DocumentType documentType, Long userId) {
+        String storedFileName = documentService.prepareUpload(file);
+        StagedUpload staged = stage(file, storedFileName);
+
+        Optional<Document> existing = documentService.findDuplicate(userId, documentType, staged.contentHash());
+        if (existing.isPresent() && documentService.isAwaitingDirectUpload(existing.get())) {
+            documentService.supersede(existing.get());
+        } else if (existing.isPresent()) {
+            return duplicateOf(existing.get(), staged);
+        }
+
+        Document document = new Document();
+        document.setFileName(storedFileName);
+        document.setOriginalName(file.getOriginalFilename());
+        document.setFilePath(staged.path().toString());
+        document.setFileType(file.getContentType());
+        document.setDocumentType(documentType);
+        document.setFileSize(file.getSize());
+        document.setUserId(userId);
+        document.setContentHash(staged.contentHash());
+        document.setIngestionStatus(IngestionStatus.PENDING);
+        document.setIngestionStage(IngestionStage.STORE);
+        Document saved;
+        try {
+            saved = documentRepository.save(document);
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent upload of the same file won the (user_id, document_type, content_hash) slot
+            Document winner = documentService.findDuplicate(userId, documentType, staged.contentHash())
+                    .orElseThrow(() -> e);
+            return duplicateOf(winner, staged);
+        }
+
+        try {
+            enqueue(saved.getId(), staged.path());
+        } catch (RejectedExecutionException e) {
+            log.warn("Ingestion queue full, rejecting upload id={}", saved.getId());
+            documentRepository.delete(saved);
+            deleteStaged(staged.path());
+            throw e;
+        }
+        log.info("Document id={} accepted for ingestion ({} bytes)", saved.getId(), saved.getFileSize());
+        return new Submission(documentService.toResponse(saved), false);
+    }
+
+    private Submission duplicateOf(Document existing, StagedUpload staged) {
+        deleteStaged(staged.path());
+        log.info("Upload duplicates document id={} of user {}, skipping storage",
+                existing.getId(), existing.getUserId());
+        return new Submission(documentService.toResponse(existing), true);
+    }
+
+    /**
+     * Report the pipeline status of a document, scoped to the given user.
+     */
+    public DocumentStatusResponse getStatus(Long id, Long userId) {
+        Document document = documentRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found with id: " + id));
+
+        IngestionStatus status = document.getIngestionStatus();
+        IngestionStage current = document.getIngestionStage();
+        List<StageProgress> stages = new ArrayList<>();
+        for (IngestionStage stage : IngestionStage.values()) {
+            stages.add(new StageProgress(stage, stageState(status, current, stage)));
+        }
+        return new DocumentStatusResponse(document.getId(), status, stages, document.getIngestionError());
+    }
+
+    /**
+     * Resume or settle uploads left unfinished by a previous shutdown or crash.
+     * Documents past the STORE stage are already durable: finalized direct uploads the
+     * queue turned away are queued again, and the lazy hash and extraction fallbacks in
+     * DocumentService cover the remaining stages of the others. Direct uploads that were
+     * never finalized are only failed once their URL has expired and S3 has no object, and
+     * the keys of superseded direct uploads are only deleted once their URL has expired.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterrupted() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(staleAfter);
+        // an upload may start just before its URL expires
+        LocalDateTime directUploadCutoff = now.minus(directUploadUrlTtl).minus(staleAfter);
+        List<Document> unfinished = documentRepository.findByIngestionStatusIn(
+                List.of(IngestionStatus.PENDING, IngestionStatus.PROCESSING));
+
+        for (Document document : unfinished) {
+            if (document.getUpdatedAt() != null && document.getUpdatedAt().isAfter(cutoff)) {
+                continue;
+            }
+            if (isDirectUpload(document)) {
+                recoverDirectUpload(document, directUploadCutoff);
+                continue;
+            }
+            if (document.getIngestionStage() != IngestionStage.STORE) {
+                complete(document);
+                continue;
+            }
+            Path staged = Path.of(document.getFilePath());
+            if (Files.exists(staged)) {
+                try {
+                    enqueue(document.getId(), staged);
+                    log.info("Re-queued interrupted ingestion for document id={}", document.getId());
+                    continue;
+                } catch (RejectedExecutionException e) {
+                    log.warn("Ingestion queue full, cannot recover document id={}", document.getId());
+                }
+            }
+            documentService.deleteFile(document.getFilePath());
+            fail(document, "Upload was interrupted before the file was stored");
+        }
+
+        for (Document document : documentRepository.findByIngestionStatusAndIngestionStage(
+                IngestionStatus.FAILED, IngestionStage.STORE)) {
+            if (isDirectUpload(document)
+                    && (document.getUpdatedAt() == null || document.getUpdatedAt().isBefore(directUploadCutoff))) {
+                releaseExpiredDirectUpload(document);
+            }
+        }
+    }
+
+    /**
+     * Queue the HASH and EXTRACT stages for a document whose file is already in
+     * storage (a finalized direct upload). If the queue is full the document stays
+     * PENDING at the HASH stage, so it is not mistaken for an upload that never arrived.
+     *
+     * @throws RejectedExecutionException when the ingestion queue is full
+     */
+    public void submitStored(Document document) {
+        document.setIngestionStatus(IngestionStatus.PROCESSING);
+        advance(document, IngestionStage.HASH);
+        try {
+            ingestionExecutor.execute(() -> ingestStored(document.getId()));
+        } catch (RejectedExecutionException e) {
+            log.warn("Ingestion queue full, leaving stored document id={} pending", document.getId());
+            document.setIngestionStatus(IngestionStatus.PENDING);
+            documentRepository.save(document);
+            throw e;
+        }
+    }
+
+    // ── Recovery ─────────────────────────────────────────────
+
+    /** Whether the document's file was (or is to be) uploaded straight to S3 rather than staged locally. */
+    private boolean isDirectUpload(Document document) {
+        return s3DocumentStorage != null && s3DocumentStorage.handles(document.getFilePath());
+    }
+
+    private void recoverDirectUpload(Document document, LocalDateTime directUploadCutoff) {
+        if (document.getIngestionStage() != IngestionStage.STORE) {
+            if (document.getIngestionStatus() == IngestionStatus.PENDING) {
+                // finalized, but the queue was full at the time
+                try {
+                    submitStored(document);
+                    log.info("Re-queued finalized direct upload for document id={}", document.getId());
+                } catch (RejectedExecutionException e) {
+                    log.warn("Ingestion queue full, cannot recover document id={}", document.getId());
+                }
+            } else {
+                complete(document);
+            }
+            return;
+        }
+        if (document.getUpdatedAt() != null && document.getUpdatedAt().isAfter(directUploadCutoff)) {
+            return;
+        }
+        boolean uploaded;
+        try {
+            uploaded = s3DocumentStorage.head(document.getFilePath()).join().isPresent();
+        } catch (CompletionException e) {
+            log.warn("Cannot check direct upload for document id={}, leaving it pending: {}",
+                    document.getId(), e.getMessage());
+            return;
+        }
+        if (uploaded) {
+            log.info("Direct upload for document id={} arrived but was never finalized, leaving it pending",
+                    document.getId());
+            return;
+        }
+        fail(document, "Direct upload was not received before its upload URL expired");
+    }
+
+    /**
+     * Deletes whatever a failed (e.g. superseded) direct upload PUT to its key before the URL
+     * expired, then clears its stage so later startups skip it. Kept for the next startup if
+     * the delete fails.
+     */
+    private void releaseExpiredDirectUpload(Document document) {
+        try {
+            s3DocumentStorage.delete(document.getFilePath()).join();
+        } catch (CompletionException e) {
+            log.warn("Cannot delete expired direct upload for document id={}: {}",
+                    document.getId(), e.getMessage());
+            return;
+        }
+        document.setIngestionStage(null);
+        documentRepository.save(document);
+        log.info("Deleted expired direct upload for failed document id={}", document.getId());
+    }
+
+    // ── Pipeline ─────────────────────────────────────────────
+
+    private void enqueue(Long documentId, Path staged) {
+        ingestionExecutor.execute(() -> ingest(documentId, staged));
+    }
+
+    private void ingest(Long documentId, Path staged) {
+        Document document = documentRepository.findById(documentId).orElse(null);
+        if (document == null) {
+            log.warn("Document id={} disappeared before ingestion", documentId);
+            deleteStaged(staged);
+            return;
+        }
+
+        String storedPath = null;
+        try {
+            document.setIngestionStatus(IngestionStatus.PROCESSING);
+            advance(document, IngestionStage.STORE);
+            storedPath = documentService.storeFile(
+                    staged, document.getFileName(), document.getFileType(), document.getUserId()).join();
+            document.setFilePath(storedPath);
+            advance(document, IngestionStage.HASH);
+
+            hashAndExtract(document, staged);
+            complete(document);
+            log.info("Ingestion completed for document id={}", documentId);
+        } catch (Exception e) {
+            handleFailure(document, e, storedPath);
+        } finally {
+            deleteStaged(staged);
+        }
+    }
+
+    private void ingestStored(Long documentId) {
+        Document document = documentRepository.findById(documentId).orElse(null);
+        if (document == null) {
+            log.warn("Document id={} disappeared before ingestion", documentId);
+            return;
+        }
+
+        try {
+            documentService.readStoredFile(document.getFilePath(), localFile -> {
+                hashAndExtract(document, localFile);
+                return null;
+            });
+            complete(document);
+            log.info("Ingestion completed for stored document id={}", documentId);
+        } catch (Exception e) {
+            handleFailure(document, e, document.getFilePath());
+        }
+    }
+
+    /**
+     * HASH and EXTRACT stages against a local copy of the file. The hash is normally
+     * known already (computed while staging, or verified by S3 for direct uploads).
+     * A recomputed hash that another of the user's documents holds is not saved: the
+     * document is a duplicate and shares that document's text, read by hash on first use.
+     */
+    private void hashAndExtract(Document document, Path localFile) throws IOException {
+        if (document.getContentHash() == null) {
+            String contentHash;
+            try (InputStream in = Files.newInputStream(localFile)) {
+                contentHash = HashUtil.sha256Hex(in);
+            }
+            Optional<Document> holder = documentService.findDuplicate(
+                    document.getUserId(), document.getDocumentType(), contentHash);
+            if (holder.isPresent() && !holder.get().getId().equals(document.getId())) {
+                log.info("Document id={} duplicates document id={}, sharing its extracted text",
+                        document.getId(), holder.get().getId());
+                advance(document, IngestionStage.EXTRACT);
+                return;
+            }
+            document.setContentHash(contentHash);
+        }
+        advance(document, IngestionStage.EXTRACT);
+
+        documentService.storeExtractedText(document, localFile);
+    }
+
+    /**
+     * Fails the document and deletes its stored object, if it got that far: a failed
+     * document is never read again, so the object would only be left behind.
+     */
+    private void handleFailure(Document document, Exception e, @Nullable String storedPath) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        log.error("Ingestion failed for document id={} at stage {}",
+                document.getId(), document.getIngestionStage(), cause);
+        fail(document, cause.getMessage());
+        if (storedPath != null) {
+            documentService.deleteFile(storedPath);
+        }
+    }
+
+    private void advance(Document document, IngestionStage stage) {
+        document.setIngestionStage(stage);
+        documentRepository.save(document);
+    }
+
+    private void complete(Document document) {
+        document.setIngestionStatus(IngestionStatus.COMPLETED);
+        document.setIngestionStage(null);
+        document.setIngestionError(null);
+        documentRepository.save(document);
+    }
+
+    private void fail(Document document, String error) {
+        String message = error != null ? error : "Ingestion failed";
+        document.setIngestionStatus(IngestionStatus.FAILED);
+        document.setIngestionError(message.length() > MAX_ERROR_LENGTH
+                ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        try {
+            documentRepository.save(document);
+        } catch (DataIntegrityViolationException e) {
+            // the failure was saving a recomputed hash another document holds; drop it
+            document.setContentHash(null);
+            documentRepository.save(document);
+        }
+    }
+
+    private static StageState stageState(IngestionStatus status, IngestionStage current, IngestionStage stage) {
+        if (status == IngestionStatus.COMPLETED) {
+            return StageState.DONE;
+        }
+        if (current == null || stage.ordinal() > current.ordinal()) {
+            return StageState.PENDING;
+        }
+        if (stage.ordinal() < current.ordinal()) {
+            return StageState.DONE;
+        }
+        return switch (status) {
+            case PROCESSING -> StageState.RUNNING;
+            case FAILED -> StageState.FAILED;
+            default -> StageState.PENDING;
+        };
+    }
+
+    // ── Staging helpers ──────────────────────────────────────
+
+    private StagedUpload stage(MultipartFile file, String storedFileName) {
+        Path staged = null;
+        try {
+            Path dir = Paths.get(stagingDir).toAbsolutePath().normalize();
+            Files.createDirectories(dir);
+            staged = Files.createTempFile(dir, "pb-upload-", "-" + storedFileName);
+            try (InputStream in = file.getInputStream();
+                 OutputStream out = Files.newOutputStream(staged)) {
+                return new StagedUpload(staged, HashUtil.copyAndHash(in, out));
+            }
+        } catch (IOException e) {
+            if (staged != null) {
+                deleteStaged(staged);
+            }
+            throw new FileStorageException("Failed to stage upload: " + file.getOriginalFilename(), e);
+        }
+    }
+
+    private void deleteStaged(Path staged) {
+        try {
+            Files.deleteIfExists(staged);
+        } catch (IOException e) {
+            log.warn("Failed to delete staged upload: {}", staged, e);
+        }
+    }
+}
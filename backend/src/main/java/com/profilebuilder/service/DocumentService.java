@@ -1,35 +1,38 @@
 package com.profilebuilder.service;
 
+import com.profilebuilder.exception.DocumentNotReadyException;
 import com.profilebuilder.exception.InvalidFileException;
 import com.profilebuilder.exception.ResourceNotFoundException;
 import com.profilebuilder.model.dto.DocumentUploadResponse;
 import com.profilebuilder.model.entity.Document;
 import com.profilebuilder.model.enums.DocumentType;
+import com.profilebuilder.model.enums.IngestionStage;
+import com.profilebuilder.model.enums.IngestionStatus;
 import com.profilebuilder.repository.DocumentRepository;
+import com.profilebuilder.storage.DocumentStorage;
+import com.profilebuilder.storage.S3DiskCache;
+import com.profilebuilder.util.HashUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.GetObjectRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
- * Service handling document upload, validation, and persistence.
- * Supports S3 storage (ECS/production) and local filesystem (dev).
+ * Service handling document validation, storage, and retrieval.
+ * Files are kept in a {@link DocumentStorage} backend: S3 (ECS/production) or local filesystem (dev).
+ * The upload pipeline itself is driven by DocumentIngestionService.
  * All operations are scoped to the authenticated user (userId).
  */
 @Service
@@ -43,58 +46,101 @@ public class DocumentService {
             "application/vnd.openxmlformats-officedocument.wordprocessingml.document");
 
     private final DocumentRepository documentRepository;
-    private final S3Client s3Client;
+    private final ExtractedTextService extractedTextService;
+    private final TextExtractorRegistry textExtractorRegistry;
+    private final List<DocumentStorage> storages;
+    private final S3DiskCache s3DiskCache;
 
-    @Value("${app.upload.dir:src/main/resources/uploads}")
-    private String uploadDir;
+    /** Content hash and text of a stored file; {@code extracted} when the text was not in the store yet. */
+    private record HashedText(String contentHash, String text, boolean extracted) {}
 
-    @Value("${app.s3.bucket-name:}")
-    private String s3BucketName;
+    @Value("${app.storage.type:auto}")
+    private String storageType;
 
     public DocumentService(DocumentRepository documentRepository,
-                           @Autowired(required = false) @Nullable S3Client s3Client) {
+                           ExtractedTextService extractedTextService,
+                           TextExtractorRegistry textExtractorRegistry,
+                           List<DocumentStorage> storages,
+                           @Autowired(required = false) @Nullable S3DiskCache s3DiskCache) {
         this.documentRepository = documentRepository;
-        this.s3Client = s3Client;
+        this.extractedTextService = extractedTextService;
+        this.textExtractorRegistry = textExtractorRegistry;
+        this.storages = storages;
+        this.s3DiskCache = s3DiskCache;
     }
 
     /**
-     * Upload and persist a document scoped to the given user.
-     * Uses S3 when bucket name is configured, otherwise local filesystem.
+     * Validate an uploaded file and assign it a unique stored file name.
      */
-    public DocumentUploadResponse uploadDocument(MultipartFile file, DocumentType documentType, Long userId) {
+    public String prepareUpload(MultipartFile file) {
         validateFile(file);
+        return newStoredFileName(file.getOriginalFilename());
+    }
 
-        String originalName = file.getOriginalFilename();
-        String extension = getFileExtension(originalName);
-        String storedFileName = UUID.randomUUID() + extension;
+    /**
+     * Unique stored file name keeping the extension of the original name.
+     */
+    public String newStoredFileName(String originalName) {
+        return UUID.randomUUID() + getFileExtension(originalName);
+    }
 
-        String filePath;
-        if (useS3()) {
-            filePath = uploadToS3(file, storedFileName, userId);
-        } else {
-            filePath = uploadToLocal(file, storedFileName);
-        }
+    /**
+     * Copy a staged file into permanent storage; completes with its stored path.
+     * Uses the backend selected by {@code app.storage.type} (S3 when a bucket is configured
+     * and the type is {@code auto}, otherwise the local filesystem).
+     */
+    public CompletableFuture<String> storeFile(Path source, String storedFileName, String contentType, Long userId) {
+        return writeStorage().put(userId + "/documents/" + storedFileName, source, contentType);
+    }
 
-        Document document = new Document();
-        document.setFileName(storedFileName);
-        document.setOriginalName(originalName);
-        document.setFilePath(filePath);
-        document.setFileType(file.getContentType());
-        document.setDocumentType(documentType);
-        document.setFileSize(file.getSize());
-        document.setUserId(userId);
+    /**
+     * Copy a staged generation input, such as an uploaded JD file, into storage under
+     * {@code {userId}/job-inputs/}; completes with its stored path.
+     */
+    public CompletableFuture<String> storeJobInput(Path source, String storedFileName, String contentType, Long userId) {
+        return writeStorage().put(userId + "/job-inputs/" + storedFileName, source, contentType);
+    }
+
+    /**
+     * An existing, non-failed document of the user with the same type and content hash.
+     * The same file uploaded as another type (e.g. a resume reused as a cover letter) is a
+     * separate document; both share the extracted text, which is stored by content hash.
+     */
+    public Optional<Document> findDuplicate(Long userId, DocumentType documentType, String contentHash) {
+        return documentRepository.findFirstByUserIdAndDocumentTypeAndContentHashAndIngestionStatusNot(
+                userId, documentType, contentHash, IngestionStatus.FAILED);
+    }
+
+    /**
+     * Whether the document is a direct-to-S3 upload that has not been finalized yet.
+     */
+    public boolean isAwaitingDirectUpload(Document document) {
+        return document.getIngestionStatus() == IngestionStatus.PENDING
+                && document.getIngestionStage() == IngestionStage.STORE
+                && !storageFor(document.getFilePath()).localPath(document.getFilePath()).isPresent();
+    }
 
-        Document saved = documentRepository.save(document);
-        return toResponse(saved);
+    /**
+     * Marks an unfinalized direct upload as superseded by a new upload of the same content,
+     * releasing its (user, document type, content hash) slot. Its key is left in place, as the
+     * client may still PUT to its upload URL; startup recovery deletes it once the URL has expired.
+     */
+    public void supersede(Document document) {
+        document.setIngestionStatus(IngestionStatus.FAILED);
+        document.setIngestionError("Superseded by another upload of the same file");
+        documentRepository.save(document);
     }
 
     /**
      * Get documents for the given user, optionally filtered by type.
+     * Failed and superseded uploads are left out; documents still being ingested are
+     * included with their status, so clients can poll them until they are COMPLETED.
      */
     public List<DocumentUploadResponse> getDocuments(DocumentType documentType, Long userId) {
         List<Document> documents = (documentType != null)
-                ? documentRepository.findByUserIdAndDocumentType(userId, documentType)
-                : documentRepository.findByUserId(userId);
+                ? documentRepository.findByUserIdAndDocumentTypeAndIngestionStatusNot(
+                        userId, documentType, IngestionStatus.FAILED)
+                : documentRepository.findByUserIdAndIngestionStatusNot(userId, IngestionStatus.FAILED);
 
         return documents.stream().map(this::toResponse).toList();
     }
@@ -109,88 +155,186 @@ public class DocumentService {
         return toResponse(document);
     }
 
-    // ── Storage helpers ──────────────────────────────────────
+    /**
+     * Get the extracted text of a document from the extracted-text store.
+     * On a cache miss (e.g. documents uploaded before the store existed) the file
+     * is read and hashed; its text is looked up by that hash and only parsed if absent,
+     * and the result is stored for subsequent requests.
+     */
+    public String getExtractedText(Document document) {
+        checkIngested(document);
+        if (document.getContentHash() != null) {
+            Optional<String> cached = extractedTextService.findText(document.getContentHash());
+            if (cached.isPresent()) {
+                log.debug("Extracted text cache hit for document id={}", document.getId());
+                return cached.get();
+            }
+        }
 
-    private boolean useS3() {
-        return s3Client != null && StringUtils.hasText(s3BucketName);
+        log.info("Extracted text cache miss for document id={}, extracting from {}",
+                document.getId(), document.getFilePath());
+        HashedText hashed = readStoredFile(document.getFilePath(), localFile -> {
+            String hash;
+            try (InputStream in = Files.newInputStream(localFile)) {
+                hash = HashUtil.sha256Hex(in);
+            }
+            Optional<String> stored = extractedTextService.findText(hash);
+            if (stored.isPresent()) {
+                return new HashedText(hash, stored.get(), false);
+            }
+            return new HashedText(hash,
+                    textExtractorRegistry.extractText(document.getFileType(), localFile, document.getFilePath()), true);
+        });
+        if (hashed.extracted()) {
+            extractedTextService.store(hashed.contentHash(), hashed.text());
+        }
+        if (!hashed.contentHash().equals(document.getContentHash())) {
+            recordContentHash(document, hashed.contentHash());
+        }
+        return hashed.text();
     }
 
-    private String uploadToS3(MultipartFile file, String storedFileName, Long userId) {
-        String s3Key = userId + "/documents/" + storedFileName;
+    /**
+     * Saves a recomputed content hash, unless another document of the user and type already holds it
+     * (a duplicate whose hash was cleared): the text is shared through the store either way.
+     */
+    private void recordContentHash(Document document, String contentHash) {
+        Optional<Document> holder = findDuplicate(document.getUserId(), document.getDocumentType(), contentHash);
+        if (holder.isPresent() && !holder.get().getId().equals(document.getId())) {
+            log.debug("Content hash of document id={} duplicates document id={}",
+                    document.getId(), holder.get().getId());
+            return;
+        }
+        String previous = document.getContentHash();
+        document.setContentHash(contentHash);
         try {
-            PutObjectRequest putRequest = PutObjectRequest.builder()
-                    .bucket(s3BucketName)
-                    .key(s3Key)
-                    .contentType(file.getContentType())
-                    .build();
-
-            s3Client.putObject(putRequest,
-                    RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
-
-            log.info("File uploaded to S3: s3://{}/{}", s3BucketName, s3Key);
-            return "s3://" + s3BucketName + "/" + s3Key;
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to upload file to S3: " + storedFileName, e);
+            documentRepository.save(document);
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent upload took the hash since the check
+            document.setContentHash(previous);
+            log.debug("Content hash of document id={} duplicates another document", document.getId());
         }
     }
 
-    private String uploadToLocal(MultipartFile file, String storedFileName) {
-        Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
-        Path targetPath = uploadPath.resolve(storedFileName);
+    // ── Extraction helpers ───────────────────────────────────
 
+    /**
+     * Best-effort text extraction at upload time. Failures are logged, not thrown:
+     * the upload still succeeds and extraction is retried on first use.
+     */
+    public void storeExtractedText(Document document, Path localFile) {
+        if (!textExtractorRegistry.supports(document.getFileType())) {
+            log.info("No text extractor for document id={} of type {}", document.getId(), document.getFileType());
+            return;
+        }
+        if (extractedTextService.findText(document.getContentHash()).isPresent()) {
+            return;
+        }
         try {
-            Files.createDirectories(uploadPath);
-            Files.copy(file.getInputStream(), targetPath, StandardCopyOption.REPLACE_EXISTING);
-            log.info("File saved locally: {}", targetPath);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to store file: " + storedFileName, e);
+            String text = textExtractorRegistry.extractText(document.getFileType(), localFile, document.getFilePath());
+            extractedTextService.store(document.getContentHash(), text);
+        } catch (Exception e) {
+            log.warn("Upload-time text extraction failed for document id={}: {}", document.getId(), e.getMessage());
         }
-        return targetPath.toString();
+    }
+
+    /** Rejects documents whose upload pipeline has not finished or has failed. */
+    private void checkIngested(Document document) {
+        IngestionStatus status = document.getIngestionStatus();
+        if (status == IngestionStatus.PENDING || status == IngestionStatus.PROCESSING) {
+            throw new DocumentNotReadyException("Document " + document.getId() + " is still being processed");
+        }
+        if (status == IngestionStatus.FAILED) {
+            throw new InvalidFileException("Upload of document " + document.getId() + " failed: "
+                    + document.getIngestionError());
+        }
+    }
+
+    // ── Storage helpers ──────────────────────────────────────
+
+    private DocumentStorage writeStorage() {
+        String type = "auto".equals(storageType)
+                ? (storages.stream().anyMatch(st -> "s3".equals(st.name())) ? "s3" : "local")
+                : storageType;
+        return storages.stream()
+                .filter(st -> st.name().equals(type))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Document storage not available: " + type));
+    }
+
+    private DocumentStorage storageFor(String filePath) {
+        return storages.stream()
+                .filter(st -> st.handles(filePath))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No document storage configured for: " + filePath));
     }
 
     /**
-     * Read file bytes from S3 or local filesystem based on path prefix.
+     * Callback that reads a stored file through a local filesystem path.
      */
-    public byte[] readFileBytes(String filePath) {
+    @FunctionalInterface
+    public interface LocalFileReader<T> {
+        T read(Path localFile) throws IOException;
+    }
+
+    /**
+     * Run {@code reader} against a local copy of a stored file without loading it on the heap.
+     * Local files are passed through as-is; S3 objects are served from the local disk cache
+     * when it is enabled; other remote objects are downloaded to a temp file that is
+     * deleted once the reader returns.
+     * <p>
+     * Blocks until the download completes, so call it only from worker or virtual threads
+     * (ingestion, extraction and generation executors), never from a request thread.
+     */
+    public <T> T readStoredFile(String filePath, LocalFileReader<T> reader) {
+        if (s3DiskCache != null && s3DiskCache.handles(filePath)) {
+            try (S3DiskCache.Lease lease = s3DiskCache.acquire(filePath).join()) {
+                return reader.read(lease.path());
+            } catch (IOException | CompletionException e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                throw new RuntimeException("Failed to read file: " + filePath, cause);
+            }
+        }
+
+        DocumentStorage storage = storageFor(filePath);
+        Optional<Path> localPath = storage.localPath(filePath);
+        if (localPath.isPresent()) {
+            try {
+                return reader.read(localPath.get());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read file: " + filePath, e);
+            }
+        }
+
+        Path spoolFile = null;
         try {
-            if (filePath.startsWith("s3://")) {
-                if (!useS3()) {
-                    throw new RuntimeException("S3 not configured but file stored in S3: " + filePath);
+            spoolFile = Files.createTempFile("pb-spool-", ".tmp");
+            Files.delete(spoolFile); // downloads refuse to overwrite an existing file
+            storage.download(filePath, spoolFile).join();
+            return reader.read(spoolFile);
+        } catch (IOException | CompletionException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Failed to read file: " + filePath, cause);
+        } finally {
+            if (spoolFile != null) {
+                try {
+                    Files.deleteIfExists(spoolFile);
+                } catch (IOException e) {
+                    log.warn("Failed to delete spool file: {}", spoolFile, e);
                 }
-                String prefix = "s3://" + s3BucketName + "/";
-                String key = filePath.substring(prefix.length());
-                return s3Client.getObjectAsBytes(
-                    GetObjectRequest.builder()
-                        .bucket(s3BucketName)
-                        .key(key)
-                        .build()
-                ).asByteArray();
             }
-            return Files.readAllBytes(Path.of(filePath));
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to read file: " + filePath, e);
         }
     }
 
     /**
-     * Delete file from storage (S3 or local).
+     * Delete file from storage. Failures are logged, not thrown.
      */
-    public void deleteFile(String filePath) {
-        try {
-            if (filePath.startsWith("s3://") && useS3()) {
-                String key = filePath.replace("s3://" + s3BucketName + "/", "");
-                s3Client.deleteObject(DeleteObjectRequest.builder()
-                        .bucket(s3BucketName)
-                        .key(key)
-                        .build());
-                log.info("File deleted from S3: {}", filePath);
-            } else {
-                Files.deleteIfExists(Path.of(filePath));
-                log.info("File deleted locally: {}", filePath);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to delete file: {}", filePath, e);
-        }
+    public CompletableFuture<Void> deleteFile(String filePath) {
+        return storageFor(filePath).delete(filePath)
+                .exceptionally(e -> {
+                    log.warn("Failed to delete file: {}", filePath, e);
+                    return null;
+                });
     }
 
     // ── Validation helpers ───────────────────────────────────
@@ -200,7 +344,10 @@ public class DocumentService {
             throw new InvalidFileException("File is empty");
         }
 
-        String contentType = file.getContentType();
+        validateContentType(file.getContentType());
+    }
+
+    public void validateContentType(String contentType) {
         if (contentType == null || !ALLOWED_CONTENT_TYPES.contains(contentType)) {
             throw new InvalidFileException(
                     "Invalid file type: " + contentType + ". Allowed types: PDF, DOC, DOCX");
@@ -214,15 +361,15 @@ public class DocumentService {
         return fileName.substring(fileName.lastIndexOf("."));
     }
 
-    private DocumentUploadResponse toResponse(Document doc) {
+    public DocumentUploadResponse toResponse(Document doc) {
         return new DocumentUploadResponse(
                 doc.getId(),
                 doc.getFileName(),
                 doc.getOriginalName(),
-                doc.getFilePath(),
                 doc.getFileType(),
                 doc.getDocumentType(),
                 doc.getFileSize(),
-                doc.getCreatedAt());
+                doc.getCreatedAt(),
+                doc.getIngestionStatus() != null ? doc.getIngestionStatus() : IngestionStatus.COMPLETED);
     }
 }
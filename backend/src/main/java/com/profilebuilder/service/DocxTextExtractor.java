@@ -0,0 +1,101 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.exception.InvalidFileException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Extracts text from DOCX files with a single streaming StAX pass over
+ * {@code word/document.xml}. Unlike loading an {@code XWPFDocument}, no DOM is
+ * built, so memory stays flat regardless of document size.
+ */
+@Service
+public class DocxTextExtractor implements TextExtractor {
+
+    private static final Logger log = LoggerFactory.getLogger(DocxTextExtractor.class);
+
+    static final String DOCX_CONTENT_TYPE =
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+    private static final String MAIN_DOCUMENT_PART = "word/document.xml";
+    private static final String WORDML_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private final XMLInputFactory xmlInputFactory;
+
+    public DocxTextExtractor() {
+        xmlInputFactory = XMLInputFactory.newFactory();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    @Override
+    public Set<String> supportedContentTypes() {
+        return Set.of(DOCX_CONTENT_TYPE);
+    }
+
+    @Override
+    public String extractText(Path file, String source) {
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            ZipEntry entry = zip.getEntry(MAIN_DOCUMENT_PART);
+            if (entry == null) {
+                throw new InvalidFileException("Not a valid DOCX file (missing " + MAIN_DOCUMENT_PART + "): " + source);
+            }
+            try (InputStream in = zip.getInputStream(entry)) {
+                String text = streamText(in);
+                log.info("Extracted {} characters from DOCX at {}", text.length(), source);
+                return text;
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new InvalidFileException("Failed to extract text from file: " + source, e);
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /**
+     * Appends the content of {@code w:t} runs, mapping tabs and breaks to whitespace
+     * and ending each {@code w:p} paragraph with a newline.
+     */
+    private String streamText(InputStream in) throws XMLStreamException {
+        XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(in);
+        StringBuilder text = new StringBuilder();
+        boolean inText = false;
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT && WORDML_NS.equals(reader.getNamespaceURI())) {
+                    switch (reader.getLocalName()) {
+                        case "t" -> inText = true;
+                        case "tab" -> text.append('\t');
+                        case "br", "cr" -> text.append('\n');
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && WORDML_NS.equals(reader.getNamespaceURI())) {
+                    switch (reader.getLocalName()) {
+                        case "t" -> inText = false;
+                        case "p" -> text.append('\n');
+                        default -> { }
+                    }
+                } else if (inText && (event == XMLStreamConstants.CHARACTERS
+                        || event == XMLStreamConstants.CDATA)) {
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.model.entity.ExtractedText;
+import com.profilebuilder.repository.ExtractedTextRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Stores text extracted from documents, keyed by content hash.
+ * Text is written once at upload time and read back by every generation request.
+ */
+@Service
+public class ExtractedTextService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExtractedTextService.class);
+
+    private final ExtractedTextRepository extractedTextRepository;
+
+    public ExtractedTextService(ExtractedTextRepository extractedTextRepository) {
+        this.extractedTextRepository = extractedTextRepository;
+    }
+
+    /**
+     * Look up previously extracted text by content hash.
+     */
+    public Optional<String> findText(String contentHash) {
+        return extractedTextRepository.findById(contentHash).map(ExtractedText::getTextContent);
+    }
+
+    /**
+     * Store extracted text under the given content hash. A concurrent insert of the
+     * same hash is ignored, since identical content always yields identical text.
+     */
+    public void store(String contentHash, String text) {
+        ExtractedText entity = new ExtractedText();
+        entity.setContentHash(contentHash);
+        entity.setTextContent(text);
+        entity.setCharCount(text.length());
+        try {
+            extractedTextRepository.save(entity);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Extracted text for hash {} already stored", contentHash);
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package com.profilebuilder.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profilebuilder.exception.ClientErrorMessages;
+import com.profilebuilder.exception.ResourceNotFoundException;
+import com.profilebuilder.model.dto.GenerationBatchResponse;
+import com.profilebuilder.model.dto.GenerationJobResponse;
+import com.profilebuilder.model.dto.RecommendationItem;
+import com.profilebuilder.model.entity.GenerationJob;
+import com.profilebuilder.model.enums.GenerationJobStatus;
+import com.profilebuilder.model.enums.GenerationJobType;
+import com.profilebuilder.repository.GenerationJobRepository;
+import com.profilebuilder.service.JdFileStagingService.StagedJdFile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Durable queue for AI generation jobs, backed by {@code pb_generation_jobs}.
+ * <p>
+ * Request threads only {@link #enqueue} a job and return 202; {@link GenerationJobWorker}
+ * claims due jobs with {@code FOR UPDATE SKIP LOCKED}, so any number of instances can share
+ * the table. Failed attempts are retried with exponential backoff, and RUNNING jobs whose
+ * lease is not renewed (the instance died) are re-queued. Delivery is at-least-once.
+ * <p>
+ * Jobs queued together by {@link #enqueueBatch} share a batch ID; at most
+ * {@code app.jobs.batch.max-concurrency} jobs of a batch run at once, so a large batch
+ * cannot occupy every worker.
+ * <p>
+ * Meter: {@code pb.jobs.retries} (re-queued attempts, by job type and reason).
+ */
+@Service
+public class GenerationJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerationJobService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {};
+
+    private final GenerationJobRepository jobRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService generationExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.jobs.retry-backoff:15s}")
+    private Duration retryBackoff;
+
+    @Value("${app.jobs.max-retry-backoff:5m}")
+    private Duration maxRetryBackoff;
+
+    @Value("${app.jobs.lease-timeout:2m}")
+    private Duration leaseTimeout;
+
+    @Value("${app.jobs.events-poll-interval:1s}")
+    private Duration eventsPollInterval;
+
+    @Value("${app.jobs.batch.max-concurrency:2}")
+    private int batchConcurrency;
+
+    public GenerationJobService(GenerationJobRepository jobRepository,
+                                ObjectMapper objectMapper,
+                                ApplicationEventPublisher eventPublisher,
+                                @Qualifier("generationExecutor") ExecutorService generationExecutor,
+                                MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.generationExecutor = generationExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // ── Job payloads ─────────────────────────────────────────
+
+    /** {@code jdText} is only set by jobs queued before JD files were staged; new jobs carry {@code jdFile}. */
+    public record SmartResumeGeneratePayload(String jdText, StagedJdFile jdFile, List<Long> documentIds) {}
+
+    public record SmartResumeRegeneratePayload(Long smartResumeId) {}
+
+    public record ApplyRecommendationsPayload(Long smartResumeId, List<RecommendationItem> recommendations) {}
+
+    public record CoverLetterGeneratePayload(String jdText, StagedJdFile jdFile, Long resumeDocId,
+                                             Long coverLetterDocId) {}
+
+    public record CoverLetterEvaluatePayload(Long coverLetterId) {}
+
+    /** Published after a job has been queued, so local workers can pick it up without waiting for a poll. */
+    public record JobQueuedEvent(Long jobId) {}
+
+    /** Published when a job has SUCCEEDED or FAILED for good, so its staged inputs can be released. */
+    public record JobFinishedEvent(Long jobId) {}
+
+    // ── Client API ───────────────────────────────────────────
+
+    /**
+     * Queues a job for the given user and returns it in QUEUED state.
+     */
+    public GenerationJobResponse enqueue(GenerationJobType type, Long userId, Object payload) {
+        GenerationJob job = new GenerationJob();
+        job.setUserId(userId);
+        job.setJobType(type);
+        job.setPayload(objectMapper.convertValue(payload, JSON_OBJECT));
+        job.setMaxAttempts(maxAttempts);
+        job.setRunAfter(LocalDateTime.now());
+        GenerationJob saved = jobRepository.save(job);
+
+        log.info("Queued generation job id={} type={} for user {}", saved.getId(), type, userId);
+        eventPublisher.publishEvent(new JobQueuedEvent(saved.getId()));
+        return toResponse(saved);
+    }
+
+    /**
+     * Queues one job per payload under a new batch ID, in one transaction, and returns the batch.
+     */
+    public GenerationBatchResponse enqueueBatch(GenerationJobType type, Long userId, List<?> payloads) {
+        String batchId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<GenerationJob> jobs = new ArrayList<>(payloads.size());
+        for (Object payload : payloads) {
+            GenerationJob job = new GenerationJob();
+            job.setUserId(userId);
+            job.setBatchId(batchId);
+            job.setJobType(type);
+            job.setPayload(objectMapper.convertValue(payload, JSON_OBJECT));
+            job.setMaxAttempts(maxAttempts);
+            job.setRunAfter(now);
+            jobs.add(job);
+        }
+        List<GenerationJob> saved = jobRepository.saveAll(jobs);
+
+        log.info("Queued batch {} of {} {} job(s) for user {}", batchId, saved.size(), type, userId);
+        saved.forEach(job -> eventPublisher.publishEvent(new JobQueuedEvent(job.getId())));
+        return toBatchResponse(batchId, saved);
+    }
+
+    /**
+     * Retrieves a batch with all its jobs, scoped to the given user.
+     */
+    public GenerationBatchResponse getBatch(String batchId, Long userId) {
+        return toBatchResponse(batchId, findBatch(batchId, userId));
+    }
+
+    /**
+     * Streams a batch's progress to {@code emitter}: an {@code item} event with each job's current
+     * state immediately and whenever it changes, then a {@code complete} event with the batch
+     * summary once every job has succeeded or failed. Ownership is checked before returning;
+     * polling sends a comment line between changes and stops once the emitter is closed.
+     */
+    public void streamBatch(String batchId, Long userId, SseEmitter emitter) {
+        List<GenerationJob> initial = findBatch(batchId, userId);
+        AtomicBoolean closed = closedFlag(emitter);
+        generationExecutor.execute(() -> {
+            Map<Long, GenerationJobResponse> last = new HashMap<>();
+            List<GenerationJob> jobs = initial;
+            try {
+                while (true) {
+                    for (GenerationJob job : jobs) {
+                        GenerationJobResponse current = toResponse(job);
+                        if (!current.equals(last.get(job.getId()))) {
+                            emitter.send(SseEmitter.event().name("item").data(current, MediaType.APPLICATION_JSON));
+                            last.put(job.getId(), current);
+                        }
+                    }
+                    GenerationBatchResponse batch = toBatchResponse(batchId, jobs);
+                    if (batch.isComplete()) {
+                        emitter.send(SseEmitter.event().name("complete")
+                                .data(withoutItems(batch), MediaType.APPLICATION_JSON));
+                        emitter.complete();
+                        return;
+                    }
+                    emitter.send(SseEmitter.event().comment("pending"));
+                    Thread.sleep(eventsPollInterval);
+                    if (closed.get()) {
+                        return;
+                    }
+                    jobs = findBatch(batchId, userId);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Stopped streaming batch {}, client disconnected: {}", batchId, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            } catch (Exception e) {
+                log.warn("Failed to stream progress of batch {}", batchId, e);
+                emitter.completeWithError(e);
+            }
+        });
+    }
+
+    /**
+     * Retrieves a job, scoped to the given user.
+     */
+    public GenerationJobResponse getJob(Long id, Long userId) {
+        return toResponse(findJob(id, userId));
+    }
+
+    /**
+     * Streams the job's status to {@code emitter} as {@code status} events: the current state
+     * immediately, then each change, completing the stream once the job is SUCCEEDED or FAILED.
+     * If the job is still QUEUED or RUNNING one poll interval before the emitter times out, its
+     * status is sent once more and the stream completes, so the client can reconnect or poll.
+     * Ownership is checked before returning; status is polled on the generation executor,
+     * with a comment line between changes, until the emitter completes, times out or fails.
+     */
+    public void streamJob(Long id, Long userId, SseEmitter emitter) {
+        GenerationJob initial = findJob(id, userId);
+        AtomicBoolean closed = closedFlag(emitter);
+        long deadline = System.nanoTime() + pollingWindow(emitter).toNanos();
+        generationExecutor.execute(() -> {
+            GenerationJobResponse last = null;
+            GenerationJob job = initial;
+            try {
+                while (true) {
+                    GenerationJobResponse current = toResponse(job);
+                    boolean finalPoll = System.nanoTime() - deadline >= 0;
+                    if (!current.equals(last) || finalPoll) {
+                        emitter.send(SseEmitter.event().name("status").data(current, MediaType.APPLICATION_JSON));
+                        last = current;
+                    }
+                    if (current.status().isTerminal() || finalPoll) {
+                        emitter.complete();
+                        return;
+                    }
+                    emitter.send(SseEmitter.event().comment("pending"));
+                    Thread.sleep(eventsPollInterval);
+                    if (closed.get()) {
+                        return;
+                    }
+                    job = findJob(id, userId);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Stopped streaming job id={}, client disconnected: {}", id, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            } catch (Exception e) {
+                log.warn("Failed to stream status of job id={}", id, e);
+                emitter.completeWithError(e);
+            }
+        });
+    }
+
+    // ── Worker API ───────────────────────────────────────────
+
+    /**
+     * Claims up to {@code limit} due jobs for {@code workerId}, marking them RUNNING and
+     * starting a new attempt. Rows locked by a concurrent claim are skipped.
+     */
+    @Transactional
+    public List<GenerationJob> claim(String workerId, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<GenerationJob> jobs = jobRepository.lockDueJobs(now, limit, batchConcurrency);
+        for (GenerationJob job : jobs) {
+            job.setStatus(GenerationJobStatus.RUNNING);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setLockedBy(workerId);
+            job.setLockedAt(now);
+        }
+        return jobRepository.saveAll(jobs);
+    }
+
+    /** Deserializes a job's payload into its payload record. */
+    public <T> T payload(GenerationJob job, Class<T> type) {
+        return objectMapper.convertValue(job.getPayload(), type);
+    }
+
+    /**
+     * Records a successful attempt, unless the lease was lost to lease recovery meanwhile.
+     */
+    @Transactional
+    public void succeed(Long jobId, String workerId, Object result, Long resourceId) {
+        GenerationJob job = ownedRunningJob(jobId, workerId);
+        if (job == null) {
+            return;
+        }
+        job.setStatus(GenerationJobStatus.SUCCEEDED);
+        job.setResult(objectMapper.convertValue(result, JSON_OBJECT));
+        job.setResourceId(resourceId);
+        job.setError(null);
+        release(job);
+        job.setCompletedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(new JobFinishedEvent(jobId));
+        log.info("Generation job id={} succeeded after {} attempt(s)", jobId, job.getAttempts());
+    }
+
+    /**
+     * Records a failed attempt. Retryable failures are re-queued with exponential backoff
+     * until the job runs out of attempts; anything else fails the job immediately.
+     */
+    @Transactional
+    public void fail(Long jobId, String workerId, Throwable error, boolean retryable) {
+        GenerationJob job = ownedRunningJob(jobId, workerId);
+        if (job == null) {
+            return;
+        }
+        job.setError(truncate(ClientErrorMessages.of(error)));
+        release(job);
+        if (retryable && job.getAttempts() < job.getMaxAttempts()) {
+            Duration delay = backoff(job.getAttempts());
+            job.setStatus(GenerationJobStatus.QUEUED);
+            job.setRunAfter(LocalDateTime.now().plus(delay));
+            countRetry(job, "failure");
+            log.warn("Generation job id={} attempt {}/{} failed, retrying in {}s: {}",
+                    jobId, job.getAttempts(), job.getMaxAttempts(), delay.toSeconds(), error.toString());
+        } else {
+            job.setStatus(GenerationJobStatus.FAILED);
+            job.setCompletedAt(LocalDateTime.now());
+            eventPublisher.publishEvent(new JobFinishedEvent(jobId));
+            log.error("Generation job id={} failed after {} attempt(s)", jobId, job.getAttempts(), error);
+        }
+    }
+
+    /** Renews the leases of jobs this worker is still running. */
+    @Transactional
+    public void renewLeases(String workerId, List<Long> jobIds) {
+        if (!jobIds.isEmpty()) {
+            jobRepository.renewLeases(jobIds, workerId, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Re-queues RUNNING jobs whose lease expired, i.e. whose worker stopped renewing it
+     * because the instance crashed or was shut down mid-job. The interrupted attempt counts;
+     * jobs without attempts left are failed.
+     */
+    @Transactional
+    public int recoverExpiredLeases() {
+        List<GenerationJob> expired = jobRepository.lockExpiredLeases(LocalDateTime.now().minus(leaseTimeout));
+        for (GenerationJob job : expired) {
+            String previousOwner = job.getLockedBy();
+            release(job);
+            if (job.getAttempts() < job.getMaxAttempts()) {
+                job.setStatus(GenerationJobStatus.QUEUED);
+                job.setRunAfter(LocalDateTime.now());
+                countRetry(job, "lease_expired");
+                log.warn("Re-queued generation job id={} abandoned by worker {}", job.getId(), previousOwner);
+            } else {
+                job.setStatus(GenerationJobStatus.FAILED);
+                job.setError("The job was interrupted and could not be completed. Please try again.");
+                job.setCompletedAt(LocalDateTime.now());
+                eventPublisher.publishEvent(new JobFinishedEvent(job.getId()));
+                log.warn("Failed generation job id={} abandoned by worker {}, no attempts left",
+                        job.getId(), previousOwner);
+            }
+        }
+        return expired.size();
+    }
+
+    public Duration leaseTimeout() {
+        return leaseTimeout;
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private GenerationJob findJob(Long id, Long userId) {
+        return jobRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Job not found with id: " + id));
+    }
+
+    private List<GenerationJob> findBatch(String batchId, Long userId) {
+        List<GenerationJob> jobs = jobRepository.findByBatchIdAndUserIdOrderById(batchId, userId);
+        if (jobs.isEmpty()) {
+            throw new ResourceNotFoundException("Batch not found with id: " + batchId);
+        }
+        return jobs;
+    }
+
+    private GenerationJob ownedRunningJob(Long jobId, String workerId) {
+        GenerationJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != GenerationJobStatus.RUNNING
+                || !Objects.equals(job.getLockedBy(), workerId)) {
+            log.warn("Discarding outcome of generation job id={}: lease no longer held by {}", jobId, workerId);
+            return null;
+        }
+        return job;
+    }
+
+    private static void release(GenerationJob job) {
+        job.setLockedBy(null);
+        job.setLockedAt(null);
+    }
+
+    private void countRetry(GenerationJob job, String reason) {
+        Counter.builder("pb.jobs.retries")
+                .description("Generation job attempts re-queued for another try")
+                .tag("type", job.getJobType().name())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /** Exponential backoff from the base delay, capped, with up to 20% jitter. */
+    Duration backoff(int attempt) {
+        long base = retryBackoff.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(base, maxRetryBackoff.toMillis());
+        return Duration.ofMillis(capped + ThreadLocalRandom.current().nextLong(capped / 5 + 1));
+    }
+
+    /** The emitter's timeout less one poll interval, leaving time for the final event. */
+    private Duration pollingWindow(SseEmitter emitter) {
+        return emitter.getTimeout() != null
+                ? Duration.ofMillis(emitter.getTimeout()).minus(eventsPollInterval)
+                : Duration.ofMillis(Long.MAX_VALUE);
+    }
+
+    /** Set once the emitter completes, times out or fails, so a poll loop can stop. */
+    private static AtomicBoolean closedFlag(SseEmitter emitter) {
+        AtomicBoolean closed = new AtomicBoolean();
+        emitter.onCompletion(() -> closed.set(true));
+        emitter.onTimeout(() -> closed.set(true));
+        emitter.onError(e -> closed.set(true));
+        return closed;
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private GenerationBatchResponse toBatchResponse(String batchId, List<GenerationJob> jobs) {
+        Map<GenerationJobStatus, Integer> counts = new HashMap<>();
+        List<GenerationJobResponse> items = new ArrayList<>(jobs.size());
+        for (GenerationJob job : jobs) {
+            counts.merge(job.getStatus(), 1, Integer::sum);
+            items.add(toResponse(job));
+        }
+        return new GenerationBatchResponse(batchId, jobs.size(),
+                counts.getOrDefault(GenerationJobStatus.QUEUED, 0),
+                counts.getOrDefault(GenerationJobStatus.RUNNING, 0),
+                counts.getOrDefault(GenerationJobStatus.SUCCEEDED, 0),
+                counts.getOrDefault(GenerationJobStatus.FAILED, 0),
+                items);
+    }
+
+    /** The batch summary without its items, which the stream has already sent one by one. */
+    private static GenerationBatchResponse withoutItems(GenerationBatchResponse batch) {
+        return new GenerationBatchResponse(batch.batchId(), batch.total(), batch.queued(), batch.running(),
+                batch.succeeded(), batch.failed(), List.of());
+    }
+
+    private GenerationJobResponse toResponse(GenerationJob job) {
+        return new GenerationJobResponse(
+                job.getId(),
+                job.getBatchId(),
+                job.getJobType(),
+                job.getStatus(),
+                job.getAttempts(),
+                job.getMaxAttempts(),
+                job.getStatus() == GenerationJobStatus.QUEUED ? job.getRunAfter() : null,
+                job.getResourceId(),
+                job.getResult(),
+                job.getError(),
+                job.getCreatedAt(),
+                job.getCompletedAt());
+    }
+}
@@ -0,0 +1,233 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.ai.limit.AiCallContext;
+import com.profilebuilder.exception.InvalidFileException;
+import com.profilebuilder.exception.PromptTooLargeException;
+import com.profilebuilder.exception.ResourceNotFoundException;
+import com.profilebuilder.model.dto.CoverLetterResponse;
+import com.profilebuilder.model.dto.SmartGeneratedResumeResponse;
+import com.profilebuilder.model.entity.GenerationJob;
+import com.profilebuilder.service.GenerationJobService.ApplyRecommendationsPayload;
+import com.profilebuilder.service.GenerationJobService.CoverLetterEvaluatePayload;
+import com.profilebuilder.service.GenerationJobService.CoverLetterGeneratePayload;
+import com.profilebuilder.service.GenerationJobService.JobQueuedEvent;
+import com.profilebuilder.service.GenerationJobService.SmartResumeGeneratePayload;
+import com.profilebuilder.service.GenerationJobService.SmartResumeRegeneratePayload;
+import com.profilebuilder.service.JdFileStagingService.StagedJdFile;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs generation jobs from {@code pb_generation_jobs} on the bounded generation job pool.
+ * <p>
+ * A single dispatcher thread claims at most as many due jobs as there are idle workers, so
+ * jobs wait in the database rather than in memory and other instances can take them. The
+ * dispatcher wakes on a local {@link JobQueuedEvent}, when a worker frees up, or after
+ * {@code app.jobs.poll-interval}. It also renews the leases of running jobs and re-queues
+ * jobs whose lease has expired.
+ */
+@Component
+public class GenerationJobWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerationJobWorker.class);
+
+    private final GenerationJobService jobService;
+    private final SmartResumeGenerationService smartResumeGenerationService;
+    private final CoverLetterGenerationService coverLetterGenerationService;
+    private final JdExtractionService jdExtractionService;
+    private final ExecutorService generationJobExecutor;
+    private final Semaphore idleWorkers;
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+    private final String workerId = workerId();
+
+    @Value("${app.jobs.poll-interval:2s}")
+    private Duration pollInterval;
+
+    private volatile boolean stopping;
+    private Thread dispatcher;
+
+    public GenerationJobWorker(GenerationJobService jobService,
+                               SmartResumeGenerationService smartResumeGenerationService,
+                               CoverLetterGenerationService coverLetterGenerationService,
+                               JdExtractionService jdExtractionService,
+                               @Qualifier("generationJobExecutor") ExecutorService generationJobExecutor,
+                               @Value("${app.jobs.workers:4}") int workers) {
+        this.jobService = jobService;
+        this.smartResumeGenerationService = smartResumeGenerationService;
+        this.coverLetterGenerationService = coverLetterGenerationService;
+        this.jdExtractionService = jdExtractionService;
+        this.generationJobExecutor = generationJobExecutor;
+        this.idleWorkers = new Semaphore(workers);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        dispatcher = Thread.ofPlatform().name("generation-dispatcher").daemon().start(this::dispatchLoop);
+        log.info("Generation job worker {} started", workerId);
+    }
+
+    @EventListener
+    public void onJobQueued(JobQueuedEvent event) {
+        wakeUp.release();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+    }
+
+    // ── Dispatch ─────────────────────────────────────────────
+
+    private void dispatchLoop() {
+        long maintenanceIntervalNanos = jobService.leaseTimeout().toNanos() / 4;
+        long nextMaintenance = System.nanoTime();
+        while (!stopping) {
+            try {
+                if (System.nanoTime() - nextMaintenance >= 0) {
+                    maintainLeases();
+                    nextMaintenance = System.nanoTime() + maintenanceIntervalNanos;
+                }
+                int idle = idleWorkers.availablePermits();
+                int claimed = idle > 0 ? dispatch(idle) : 0;
+                if (claimed == 0 || claimed < idle) {
+                    // queue drained or workers busy: sleep until something changes
+                    wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    wakeUp.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Generation job dispatch failed, retrying in {}: {}", pollInterval, e.getMessage());
+                try {
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private int dispatch(int limit) throws InterruptedException {
+        List<GenerationJob> jobs = jobService.claim(workerId, limit);
+        for (GenerationJob job : jobs) {
+            idleWorkers.acquire();
+            runningJobs.add(job.getId());
+            generationJobExecutor.execute(() -> run(job));
+        }
+        return jobs.size();
+    }
+
+    private void maintainLeases() {
+        jobService.renewLeases(workerId, List.copyOf(runningJobs));
+        int recovered = jobService.recoverExpiredLeases();
+        if (recovered > 0) {
+            log.info("Recovered {} generation job(s) with expired leases", recovered);
+        }
+    }
+
+    private void run(GenerationJob job) {
+        log.info("Running generation job id={} type={} attempt {}/{}",
+                job.getId(), job.getJobType(), job.getAttempts(), job.getMaxAttempts());
+        try {
+            Object result = AiCallContext.callAs(job.getUserId(), () -> execute(job));
+            jobService.succeed(job.getId(), workerId, result, resourceId(result));
+        } catch (Exception e) {
+            try {
+                jobService.fail(job.getId(), workerId, e, isRetryable(e));
+            } catch (Exception recordFailure) {
+                // the lease will expire and recovery re-queues the job
+                log.error("Could not record failure of generation job id={}", job.getId(), recordFailure);
+            }
+        } finally {
+            runningJobs.remove(job.getId());
+            idleWorkers.release();
+            wakeUp.release();
+        }
+    }
+
+    /** Runs the job's pipeline and returns the response body of the equivalent endpoint. */
+    private Object execute(GenerationJob job) {
+        Long userId = job.getUserId();
+        return switch (job.getJobType()) {
+            case SMART_RESUME_GENERATE -> {
+                SmartResumeGeneratePayload p = jobService.payload(job, SmartResumeGeneratePayload.class);
+                yield smartResumeGenerationService.generate(jdText(p.jdText(), p.jdFile()), p.documentIds(), userId);
+            }
+            case SMART_RESUME_REGENERATE -> {
+                SmartResumeRegeneratePayload p = jobService.payload(job, SmartResumeRegeneratePayload.class);
+                yield smartResumeGenerationService.regenerate(p.smartResumeId(), userId);
+            }
+            case SMART_RESUME_APPLY_RECOMMENDATIONS -> {
+                ApplyRecommendationsPayload p = jobService.payload(job, ApplyRecommendationsPayload.class);
+                yield smartResumeGenerationService.applyRecommendations(p.smartResumeId(), p.recommendations(), userId);
+            }
+            case COVER_LETTER_GENERATE -> {
+                CoverLetterGeneratePayload p = jobService.payload(job, CoverLetterGeneratePayload.class);
+                yield coverLetterGenerationService.generate(jdText(p.jdText(), p.jdFile()),
+                        p.resumeDocId(), p.coverLetterDocId(), userId);
+            }
+            case COVER_LETTER_EVALUATE -> {
+                CoverLetterEvaluatePayload p = jobService.payload(job, CoverLetterEvaluatePayload.class);
+                yield coverLetterGenerationService.evaluate(p.coverLetterId(), userId);
+            }
+        };
+    }
+
+    /**
+     * The job's JD text, extracted from its staged JD file. Each attempt extracts it again;
+     * OCR results are cached by image hash, so a retry does not repeat the Vision call.
+     */
+    private String jdText(String jdText, StagedJdFile jdFile) {
+        return jdFile != null ? jdExtractionService.extractText(jdFile) : jdText;
+    }
+
+    private static Long resourceId(Object result) {
+        if (result instanceof SmartGeneratedResumeResponse resume) {
+            return resume.getId();
+        }
+        if (result instanceof CoverLetterResponse coverLetter) {
+            return coverLetter.getId();
+        }
+        return null;
+    }
+
+    /** Client errors will fail the same way again; AI, storage and database errors may be transient. */
+    private static boolean isRetryable(Throwable e) {
+        return !(e instanceof ResourceNotFoundException
+                || e instanceof InvalidFileException
+                || e instanceof PromptTooLargeException
+                || e instanceof IllegalArgumentException);
+    }
+
+    private static String workerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,287 @@
+package com.profilebuilder.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profilebuilder.ai.agent.HrRevalidatorAgent;
+import com.profilebuilder.ai.budget.PromptBudgetEnforcer;
+import com.profilebuilder.ai.budget.PromptFields;
+import com.profilebuilder.ai.dto.HrRevalidationOutput;
+import com.profilebuilder.ai.dto.HrValidationOutput;
+import com.profilebuilder.ai.dto.SmartResumeOutput;
+import com.profilebuilder.ai.dto.SmartResumeOutput.ResumeSection;
+import com.profilebuilder.model.dto.RecommendationItem;
+import com.profilebuilder.util.HashUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Diff-aware HR validation of an edited smart resume. Each section of a validated resume is
+ * hashed and the hashes are stored with the validation. After an edit, only the sections whose
+ * hash changed are sent (before and after) to HrRevalidatorAgent, which re-scores the criteria
+ * those sections affect; the other scores, and recommendations for unchanged sections, are
+ * carried forward from the previous validation.
+ * <p>
+ * Falls back to a full HR validation when there is no baseline, when the baseline does not
+ * match the content it claims to have scored, when every section changed or when the
+ * re-validation fails. Meter: {@code pb.ai.validation.mode} (unchanged, diff, full).
+ */
+@Service
+public class HrRevalidationService {
+
+    private static final Logger log = LoggerFactory.getLogger(HrRevalidationService.class);
+
+    private static final int JD_FLOOR_TOKENS = 1500;
+    private static final int MAX_RECOMMENDATIONS = 5;
+
+    /** The criteria of an HR validation and their weight in the overall score. */
+    private enum Criterion {
+        KEYWORD_MATCH("keywordMatchScore", 0.30, HrRevalidationOutput::getKeywordMatchScore,
+                HrValidationOutput::getKeywordMatchScore, HrValidationOutput::setKeywordMatchScore),
+        EXPERIENCE_RELEVANCE("experienceRelevanceScore", 0.25, HrRevalidationOutput::getExperienceRelevanceScore,
+                HrValidationOutput::getExperienceRelevanceScore, HrValidationOutput::setExperienceRelevanceScore),
+        SKILLS_ALIGNMENT("skillsAlignmentScore", 0.25, HrRevalidationOutput::getSkillsAlignmentScore,
+                HrValidationOutput::getSkillsAlignmentScore, HrValidationOutput::setSkillsAlignmentScore),
+        RESUME_QUALITY("resumeQualityScore", 0.10, HrRevalidationOutput::getResumeQualityScore,
+                HrValidationOutput::getResumeQualityScore, HrValidationOutput::setResumeQualityScore),
+        EDUCATION_FIT("educationFitScore", 0.10, HrRevalidationOutput::getEducationFitScore,
+                HrValidationOutput::getEducationFitScore, HrValidationOutput::setEducationFitScore);
+
+        private final String field;
+        private final double weight;
+        private final Function<HrRevalidationOutput, Double> update;
+        private final ToDoubleFunction<HrValidationOutput> getter;
+        private final ObjDoubleConsumer<HrValidationOutput> setter;
+
+        Criterion(String field, double weight, Function<HrRevalidationOutput, Double> update,
+                  ToDoubleFunction<HrValidationOutput> getter, ObjDoubleConsumer<HrValidationOutput> setter) {
+            this.field = field;
+            this.weight = weight;
+            this.update = update;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    /** Criteria a change to each known section can move; other sections affect all criteria. */
+    private static final Map<String, Set<Criterion>> SECTION_CRITERIA = Map.of(
+            "EXPERIENCE", EnumSet.of(Criterion.KEYWORD_MATCH, Criterion.EXPERIENCE_RELEVANCE, Criterion.RESUME_QUALITY),
+            "PROJECTS", EnumSet.of(Criterion.KEYWORD_MATCH, Criterion.EXPERIENCE_RELEVANCE,
+                    Criterion.SKILLS_ALIGNMENT, Criterion.RESUME_QUALITY),
+            "SKILLS", EnumSet.of(Criterion.KEYWORD_MATCH, Criterion.SKILLS_ALIGNMENT),
+            "EDUCATION", EnumSet.of(Criterion.KEYWORD_MATCH, Criterion.EDUCATION_FIT, Criterion.RESUME_QUALITY));
+
+    /**
+     * A previous validation and the resume it scored.
+     *
+     * @param sectionHashes the section hashes stored with the validation
+     */
+    public record ValidationBaseline(SmartResumeOutput resumeOutput, HrValidationOutput validationOutput,
+                                     List<String> sectionHashes) {}
+
+    /** A changed section as sent to the re-validator; before or after is null for added or removed sections. */
+    private record SectionChange(String sectionName, ResumeSection before, ResumeSection after) {}
+
+    private final SmartResumeOrchestrationService orchestrationService;
+    private final HrRevalidatorAgent hrRevalidatorAgent;
+    private final PromptBudgetEnforcer promptBudgetEnforcer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public HrRevalidationService(SmartResumeOrchestrationService orchestrationService,
+                                 HrRevalidatorAgent hrRevalidatorAgent,
+                                 PromptBudgetEnforcer promptBudgetEnforcer,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry) {
+        this.orchestrationService = orchestrationService;
+        this.hrRevalidatorAgent = hrRevalidatorAgent;
+        this.promptBudgetEnforcer = promptBudgetEnforcer;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** SHA-256 of each section's JSON, in section order. */
+    public List<String> sectionHashes(SmartResumeOutput resumeOutput) {
+        List<ResumeSection> sections = resumeOutput.getSections() != null ? resumeOutput.getSections() : List.of();
+        List<String> hashes = new ArrayList<>(sections.size());
+        for (ResumeSection section : sections) {
+            hashes.add(hash(section));
+        }
+        return hashes;
+    }
+
+    /**
+     * Validates {@code resumeOutput}, re-scoring only what changed since {@code baseline}
+     * (null for a full validation). Best-effort like a full validation: returns null on failure.
+     */
+    public HrValidationOutput validate(SmartResumeOutput resumeOutput, String jdText, ValidationBaseline baseline) {
+        if (baseline == null || baseline.sectionHashes() == null
+                || !sectionHashes(baseline.resumeOutput()).equals(baseline.sectionHashes())) {
+            return fullValidation(resumeOutput, jdText);
+        }
+        Map<String, ResumeSection> before = sectionsByName(baseline.resumeOutput());
+        Map<String, ResumeSection> after = sectionsByName(resumeOutput);
+        if (before == null || after == null) {
+            return fullValidation(resumeOutput, jdText);
+        }
+
+        Set<String> names = new LinkedHashSet<>(after.keySet());
+        names.addAll(before.keySet());
+        List<SectionChange> changes = new ArrayList<>();
+        Set<Criterion> criteria = EnumSet.noneOf(Criterion.class);
+        for (String name : names) {
+            ResumeSection previous = before.get(name);
+            ResumeSection current = after.get(name);
+            if (previous == null || current == null || !hash(previous).equals(hash(current))) {
+                changes.add(new SectionChange(current != null ? current.getSectionName() : previous.getSectionName(),
+                        previous, current));
+                criteria.addAll(SECTION_CRITERIA.getOrDefault(name, EnumSet.allOf(Criterion.class)));
+            }
+        }
+
+        if (changes.isEmpty()) {
+            count("unchanged");
+            log.info("Resume sections unchanged, keeping the previous HR validation");
+            return baseline.validationOutput();
+        }
+        if (changes.size() == names.size()) {
+            return fullValidation(resumeOutput, jdText);
+        }
+
+        try {
+            HrValidationOutput previous = baseline.validationOutput();
+            String input = promptBudgetEnforcer.fit(HrRevalidatorAgent.NAME, new PromptFields()
+                    .fixed("changedSections", changes)
+                    .fixed("previousScores", scores(previous))
+                    .fixed("scoresToUpdate", criteria.stream().map(c -> c.field).toList())
+                    .fixed("previousGaps", Objects.requireNonNullElse(previous.getGaps(), List.of()))
+                    .fixed("previousStrengths", Objects.requireNonNullElse(previous.getStrengths(), List.of()))
+                    .trimmable("jdText", jdText, 1, JD_FLOOR_TOKENS));
+            log.info("Running HR Re-validator on {} of {} section(s), re-scoring {} of {} criteria...",
+                    changes.size(), names.size(), criteria.size(), Criterion.values().length);
+            HrRevalidationOutput update = hrRevalidatorAgent.revalidateResume(input);
+            HrValidationOutput merged = merge(previous, update, criteria, changedKeys(changes));
+            count("diff");
+            log.info("HR Re-validator complete: overall score={}", merged.getOverallScore());
+            return merged;
+        } catch (Exception e) {
+            log.warn("HR Re-validator failed, running a full validation: {}", e.getMessage());
+            return fullValidation(resumeOutput, jdText);
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private HrValidationOutput fullValidation(SmartResumeOutput resumeOutput, String jdText) {
+        count("full");
+        return orchestrationService.validateResume(resumeOutput, jdText);
+    }
+
+    /**
+     * Previous scores with the re-scored criteria replaced; the overall score is recomputed from
+     * the weights. A criterion the reply omits keeps its previous score rather than dropping to 0.
+     * Recommendations for changed sections are replaced by the re-validator's.
+     */
+    private static HrValidationOutput merge(HrValidationOutput previous, HrRevalidationOutput update,
+                                            Set<Criterion> criteria, Set<String> changedSections) {
+        HrValidationOutput merged = new HrValidationOutput();
+        double overall = 0;
+        for (Criterion criterion : Criterion.values()) {
+            double score = criterion.getter.applyAsDouble(previous);
+            if (criteria.contains(criterion)) {
+                Double rescored = criterion.update.apply(update);
+                if (rescored != null && !rescored.isNaN()) {
+                    score = Math.max(0, Math.min(1, rescored));
+                } else {
+                    log.warn("HR Re-validator omitted {}, keeping the previous score {}", criterion.field, score);
+                }
+            }
+            criterion.setter.accept(merged, score);
+            overall += score * criterion.weight;
+        }
+        merged.setOverallScore(Math.round(overall * 1000) / 100.0);
+        merged.setGaps(update.getGaps() != null && !update.getGaps().isEmpty() ? update.getGaps() : previous.getGaps());
+        merged.setStrengths(update.getStrengths() != null && !update.getStrengths().isEmpty()
+                ? update.getStrengths() : previous.getStrengths());
+
+        List<RecommendationItem> recommendations = new ArrayList<>();
+        if (previous.getRecommendations() != null) {
+            previous.getRecommendations().stream()
+                    .filter(r -> !changedSections.contains(key(r.getSection())))
+                    .forEach(recommendations::add);
+        }
+        if (update.getRecommendations() != null) {
+            update.getRecommendations().stream()
+                    .filter(r -> changedSections.contains(key(r.getSection())))
+                    .forEach(recommendations::add);
+        }
+        merged.setRecommendations(recommendations.size() > MAX_RECOMMENDATIONS
+                ? new ArrayList<>(recommendations.subList(0, MAX_RECOMMENDATIONS)) : recommendations);
+        return merged;
+    }
+
+    private static Map<String, Double> scores(HrValidationOutput validation) {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (Criterion criterion : Criterion.values()) {
+            scores.put(criterion.field, criterion.getter.applyAsDouble(validation));
+        }
+        return scores;
+    }
+
+    private static Set<String> changedKeys(List<SectionChange> changes) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (SectionChange change : changes) {
+            keys.add(key(change.sectionName()));
+        }
+        return keys;
+    }
+
+    /** Sections by normalised name, or null when names are missing or repeated. */
+    private static Map<String, ResumeSection> sectionsByName(SmartResumeOutput resumeOutput) {
+        Map<String, ResumeSection> byName = new LinkedHashMap<>();
+        if (resumeOutput.getSections() == null) {
+            return byName;
+        }
+        for (ResumeSection section : resumeOutput.getSections()) {
+            String key = key(section.getSectionName());
+            if (key.isEmpty() || byName.putIfAbsent(key, section) != null) {
+                return null;
+            }
+        }
+        return byName;
+    }
+
+    private static String key(String sectionName) {
+        return sectionName != null ? sectionName.trim().toUpperCase(Locale.ROOT) : "";
+    }
+
+    private String hash(ResumeSection section) {
+        try {
+            return HashUtil.sha256Hex(objectMapper.writeValueAsBytes(section));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to serialize resume section: " + e.getMessage(), e);
+        }
+    }
+
+    private void count(String mode) {
+        Counter.builder("pb.ai.validation.mode")
+                .description("HR validations by mode: unchanged (carried forward), diff (changed sections only) or full")
+                .tag("mode", mode)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,79 @@
+package com.profilebuilder.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Shrinks JD screenshots before they are sent to the Vision API.
+ * Images are downscaled so the longest side fits the target resolution,
+ * converted to grayscale and re-encoded as PNG. The original bytes are kept
+ * whenever preprocessing would not make the payload smaller.
+ */
+@Service
+public class ImagePreprocessingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImagePreprocessingService.class);
+
+    @Value("${app.ocr.max-dimension:1600}")
+    private int maxDimension;
+
+    @Value("${app.ocr.grayscale:true}")
+    private boolean grayscale;
+
+    /**
+     * Returns a PNG payload no larger than the input. Undecodable images are returned unchanged.
+     */
+    public byte[] prepareForOcr(byte[] png) {
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+            if (source == null) {
+                return png;
+            }
+
+            int width = source.getWidth();
+            int height = source.getHeight();
+            double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+            int targetWidth = Math.max(1, (int) Math.round(width * scale));
+            int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+            BufferedImage target = new BufferedImage(targetWidth, targetHeight,
+                    grayscale ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = target.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                // the target has no alpha: composite transparent pixels onto white, not black
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, targetWidth, targetHeight);
+                g.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+            } finally {
+                g.dispose();
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(target, "png", out);
+            byte[] processed = out.toByteArray();
+            if (processed.length >= png.length) {
+                return png;
+            }
+            log.info("Preprocessed JD image {}x{} -> {}x{}, {} -> {} bytes",
+                    width, height, targetWidth, targetHeight, png.length, processed.length);
+            return processed;
+        } catch (IOException | RuntimeException | LinkageError e) {
+            // LinkageError covers JRE images without native AWT imaging libraries
+            log.warn("Image preprocessing failed, sending original: {}", e.getMessage());
+            return png;
+        }
+    }
+}
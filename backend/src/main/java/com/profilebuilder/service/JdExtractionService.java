@@ -1,20 +1,23 @@
 package com.profilebuilder.service;
 
+import com.profilebuilder.ai.limit.AiCallContext;
 import com.profilebuilder.exception.InvalidFileException;
+import com.profilebuilder.service.JdFileStagingService.StagedJdFile;
+import com.profilebuilder.util.HashUtil;
 import dev.langchain4j.data.message.ImageContent;
 import dev.langchain4j.data.message.TextContent;
 import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.chat.ChatModel;
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Base64;
+import java.util.Optional;
 
 /**
  * Extracts text from job description files (PDF or PNG).
@@ -24,78 +27,116 @@ public class JdExtractionService {
 
     private static final Logger log = LoggerFactory.getLogger(JdExtractionService.class);
 
+    /** Agent name of the Vision OCR call in metrics. */
+    static final String VISION_AGENT = "jd-vision";
+
+    private static final String PDF = "application/pdf";
+    private static final String PNG = "image/png";
+
     private final ChatModel chatLanguageModel;
     private final DocumentService documentService;
+    private final PdfTextExtractionService pdfTextExtractionService;
+    private final TextExtractorRegistry textExtractorRegistry;
+    private final ImagePreprocessingService imagePreprocessingService;
+    private final OcrResultCache ocrResultCache;
 
-    public JdExtractionService(ChatModel chatLanguageModel, DocumentService documentService) {
+    public JdExtractionService(ChatModel chatLanguageModel, DocumentService documentService,
+                               PdfTextExtractionService pdfTextExtractionService,
+                               TextExtractorRegistry textExtractorRegistry,
+                               ImagePreprocessingService imagePreprocessingService,
+                               OcrResultCache ocrResultCache) {
         this.chatLanguageModel = chatLanguageModel;
         this.documentService = documentService;
+        this.pdfTextExtractionService = pdfTextExtractionService;
+        this.textExtractorRegistry = textExtractorRegistry;
+        this.imagePreprocessingService = imagePreprocessingService;
+        this.ocrResultCache = ocrResultCache;
     }
 
     /**
-     * Extract text content from a PDF or PNG file.
+     * Extract text content from a PDF or PNG file held in memory.
      */
-    public String extractText(MultipartFile file) {
-        String contentType = file.getContentType();
-        String fileName = file.getOriginalFilename();
-
-        if (contentType != null && contentType.equals("application/pdf")) {
-            return extractFromPdf(file);
-        } else if (contentType != null && contentType.equals("image/png")) {
-            return extractFromImage(file);
-        } else if (fileName != null && fileName.toLowerCase().endsWith(".pdf")) {
-            return extractFromPdf(file);
-        } else if (fileName != null && fileName.toLowerCase().endsWith(".png")) {
-            return extractFromImage(file);
+    public String extractText(String fileName, String contentType, byte[] content) {
+        if (PDF.equals(jdContentType(contentType, fileName))) {
+            try (RandomAccessRead pdf = new RandomAccessReadBuffer(content)) {
+                return pdfTextExtractionService.extractText(pdf, "uploaded JD " + fileName);
+            } catch (IOException e) {
+                throw new InvalidFileException("Failed to extract text from PDF: " + e.getMessage());
+            }
         }
+        return extractFromImage(content);
+    }
 
-        throw new InvalidFileException(
-                "Unsupported file type: " + contentType + ". Only PDF and PNG files are accepted.");
+    /**
+     * Extract text content from a JD file staged for a generation job.
+     * Blocks on storage, so call it only from worker or virtual threads.
+     */
+    public String extractText(StagedJdFile file) {
+        String source = "uploaded JD " + file.fileName();
+        return documentService.readStoredFile(file.location(), localFile -> PDF.equals(file.contentType())
+                ? pdfTextExtractionService.extractText(localFile, source)
+                : extractFromImage(Files.readAllBytes(localFile)));
     }
 
     /**
-     * Extract text from a file stored in S3 or local filesystem (PDF only for resumes).
+     * The content type of a JD upload, by its declared type or else its file extension.
+     *
+     * @throws InvalidFileException when it is neither a PDF nor a PNG
      */
-    public String extractTextFromPath(String filePath) {
-        try {
-            byte[] bytes = documentService.readFileBytes(filePath);
-            try (PDDocument document = Loader.loadPDF(bytes)) {
-                PDFTextStripper stripper = new PDFTextStripper();
-                String text = stripper.getText(document);
-                log.info("Extracted {} characters from PDF at {}", text.length(), filePath);
-                return text;
-            }
-        } catch (IOException e) {
-            throw new InvalidFileException("Failed to extract text from file: " + filePath, e);
+    static String jdContentType(String contentType, String fileName) {
+        if (PDF.equals(contentType) || PNG.equals(contentType)) {
+            return contentType;
+        }
+        String name = fileName != null ? fileName.toLowerCase() : "";
+        if (name.endsWith(".pdf")) {
+            return PDF;
+        }
+        if (name.endsWith(".png")) {
+            return PNG;
         }
+        throw new InvalidFileException(
+                "Unsupported file type: " + contentType + ". Only PDF and PNG files are accepted.");
     }
 
-    private String extractFromPdf(MultipartFile file) {
-        try (PDDocument document = Loader.loadPDF(file.getBytes())) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            String text = stripper.getText(document);
-            log.info("Extracted {} characters from PDF", text.length());
-            return text;
-        } catch (IOException e) {
-            throw new InvalidFileException("Failed to extract text from PDF: " + e.getMessage());
-        }
+    /**
+     * Extract text from a file stored in S3 or local filesystem, using the extractor
+     * registered for {@code fileType} (PDF, DOC or DOCX).
+     * Always re-reads the file; generation flows should prefer
+     * {@link DocumentService#getExtractedText} which serves from the extracted-text store.
+     */
+    public String extractTextFromPath(String filePath, String fileType) {
+        return documentService.readStoredFile(filePath,
+                localFile -> textExtractorRegistry.extractText(fileType, localFile, filePath));
     }
 
-    private String extractFromImage(MultipartFile file) {
-        try {
-            String base64Image = Base64.getEncoder().encodeToString(file.getBytes());
-
-            UserMessage message = UserMessage.from(
-                    TextContent.from("Extract all text from this image of a job description. "
-                            + "Return only the extracted text, preserving the original structure as much as possible."),
-                    ImageContent.from(base64Image, "image/png")
-            );
-
-            String text = chatLanguageModel.chat(message).aiMessage().text();
-            log.info("Extracted {} characters from PNG via Vision API", text.length());
-            return text;
-        } catch (IOException e) {
-            throw new InvalidFileException("Failed to read image file: " + e.getMessage());
+    /**
+     * OCR via the Vision API. Results are cached by image hash; on a miss the image
+     * is downscaled and converted to grayscale before being sent.
+     */
+    private String extractFromImage(byte[] original) {
+        String imageHash = HashUtil.sha256Hex(original);
+        Optional<String> cached = ocrResultCache.get(imageHash);
+        if (cached.isPresent()) {
+            ocrResultCache.recordBytesSaved(original.length);
+            log.info("OCR cache hit for PNG ({} characters)", cached.get().length());
+            return cached.get();
         }
+
+        byte[] payload = imagePreprocessingService.prepareForOcr(original);
+        ocrResultCache.recordBytesSaved(original.length - payload.length);
+        String base64Image = Base64.getEncoder().encodeToString(payload);
+
+        UserMessage message = UserMessage.from(
+                TextContent.from("Extract all text from this image of a job description. "
+                        + "Return only the extracted text, preserving the original structure as much as possible."),
+                ImageContent.from(base64Image, "image/png")
+        );
+
+        ocrResultCache.recordMiss();
+        String text = AiCallContext.callAsAgent(VISION_AGENT, () -> chatLanguageModel.chat(message))
+                .aiMessage().text();
+        log.info("Extracted {} characters from PNG via Vision API", text.length());
+        ocrResultCache.put(imageHash, text);
+        return text;
     }
 }
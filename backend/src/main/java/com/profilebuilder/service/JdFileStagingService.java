@@ -0,0 +1,183 @@
+package com.profilebuilder.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profilebuilder.exception.FileStorageException;
+import com.profilebuilder.model.entity.GenerationJob;
+import com.profilebuilder.model.enums.GenerationJobStatus;
+import com.profilebuilder.repository.GenerationJobRepository;
+import com.profilebuilder.service.GenerationJobService.JobFinishedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/**
+ * Keeps uploaded JD files for the generation jobs that use them, so the request thread only
+ * copies the upload and the text is extracted (PDF parsing, Vision OCR) by the job worker.
+ * <p>
+ * A staged JD is stored under {@code {userId}/job-inputs/} and referenced by the job payload.
+ * It is deleted once its job has finished, or, for a batch, once every job of the batch has.
+ */
+@Service
+public class JdFileStagingService {
+
+    private static final Logger log = LoggerFactory.getLogger(JdFileStagingService.class);
+
+    /** Payload property holding the staged JD of a job. */
+    static final String PAYLOAD_PROPERTY = "jdFile";
+
+    private static final List<GenerationJobStatus> ACTIVE =
+            List.of(GenerationJobStatus.QUEUED, GenerationJobStatus.RUNNING);
+
+    private final DocumentService documentService;
+    private final GenerationJobRepository jobRepository;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService storageIoExecutor;
+
+    @Value("${app.upload.staging-dir:${java.io.tmpdir}}")
+    private String stagingDir;
+
+    public JdFileStagingService(DocumentService documentService,
+                                GenerationJobRepository jobRepository,
+                                ObjectMapper objectMapper,
+                                @Qualifier("storageIoExecutor") ExecutorService storageIoExecutor) {
+        this.documentService = documentService;
+        this.jobRepository = jobRepository;
+        this.objectMapper = objectMapper;
+        this.storageIoExecutor = storageIoExecutor;
+    }
+
+    /** A JD file in document storage, waiting to be extracted by a generation job. */
+    public record StagedJdFile(String location, String fileName, String contentType) {}
+
+    /**
+     * Copies {@code file} to storage and then runs {@code enqueue} with it on the storage I/O
+     * pool. The request thread only writes the upload to the local staging directory.
+     * The staged file is deleted again if {@code enqueue} fails.
+     */
+    public <T> CompletableFuture<T> stage(MultipartFile file, Long userId, Function<StagedJdFile, T> enqueue) {
+        return stageAll(List.of(file), userId, staged -> enqueue.apply(staged.get(0)));
+    }
+
+    /**
+     * Copies {@code files} to storage in parallel and then runs {@code enqueue} with them, in
+     * file order, on the storage I/O pool. If any copy or {@code enqueue} fails, every file
+     * staged by this call is deleted again.
+     */
+    public <T> CompletableFuture<T> stageAll(List<MultipartFile> files, Long userId,
+                                             Function<List<StagedJdFile>, T> enqueue) {
+        List<CompletableFuture<StagedJdFile>> stores = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                stores.add(store(file, userId));
+            }
+        } catch (RuntimeException e) {
+            release(stores);
+            throw e;
+        }
+        return CompletableFuture.allOf(stores.toArray(CompletableFuture[]::new))
+                .handleAsync((done, error) -> {
+                    if (error != null) {
+                        release(stores);
+                        throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+                    }
+                    try {
+                        return enqueue.apply(stores.stream().map(CompletableFuture::join).toList());
+                    } catch (RuntimeException e) {
+                        release(stores);
+                        throw e;
+                    }
+                }, storageIoExecutor);
+    }
+
+    /**
+     * Deletes the staged JD of a finished job. Batch jobs may share one staged JD, so the
+     * files of a batch are only deleted after its last job has finished. Runs after the
+     * outcome has been committed, so the last job to finish always sees the others' outcome.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobFinished(JobFinishedEvent event) {
+        try {
+            GenerationJob job = jobRepository.findById(event.jobId()).orElse(null);
+            if (job == null) {
+                return;
+            }
+            List<GenerationJob> jobs = List.of(job);
+            if (job.getBatchId() != null) {
+                if (jobRepository.existsByBatchIdAndStatusIn(job.getBatchId(), ACTIVE)) {
+                    return;
+                }
+                jobs = jobRepository.findByBatchIdAndUserIdOrderById(job.getBatchId(), job.getUserId());
+            }
+            jobs.stream()
+                    .map(this::stagedJdFile)
+                    .filter(Objects::nonNull)
+                    .map(StagedJdFile::location)
+                    .distinct()
+                    .forEach(documentService::deleteFile);
+        } catch (Exception e) {
+            log.warn("Failed to release the staged JD of generation job id={}", event.jobId(), e);
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private CompletableFuture<StagedJdFile> store(MultipartFile file, Long userId) {
+        String contentType = JdExtractionService.jdContentType(file.getContentType(), file.getOriginalFilename());
+        String storedFileName = documentService.newStoredFileName(file.getOriginalFilename());
+        Path local = copyToStagingDir(file, storedFileName);
+        return documentService.storeJobInput(local, storedFileName, contentType, userId)
+                .whenComplete((location, e) -> deleteLocal(local))
+                .thenApply(location -> new StagedJdFile(location, file.getOriginalFilename(), contentType));
+    }
+
+    /** Deletes each file of {@code stores} once (and if) it has been stored. */
+    private void release(List<CompletableFuture<StagedJdFile>> stores) {
+        stores.forEach(store -> store.thenAccept(staged -> documentService.deleteFile(staged.location())));
+    }
+
+    private StagedJdFile stagedJdFile(GenerationJob job) {
+        Object staged = job.getPayload() != null ? job.getPayload().get(PAYLOAD_PROPERTY) : null;
+        return staged != null ? objectMapper.convertValue(staged, StagedJdFile.class) : null;
+    }
+
+    private Path copyToStagingDir(MultipartFile file, String storedFileName) {
+        Path staged = null;
+        try {
+            Path dir = Paths.get(stagingDir).toAbsolutePath().normalize();
+            Files.createDirectories(dir);
+            staged = Files.createTempFile(dir, "pb-jd-", "-" + storedFileName);
+            file.transferTo(staged);
+            return staged;
+        } catch (IOException e) {
+            if (staged != null) {
+                deleteLocal(staged);
+            }
+            throw new FileStorageException("Failed to stage JD file: " + file.getOriginalFilename(), e);
+        }
+    }
+
+    private void deleteLocal(Path staged) {
+        try {
+            Files.deleteIfExists(staged);
+        } catch (IOException e) {
+            log.warn("Failed to delete staged JD file: {}", staged, e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.util.HashUtil;
+import com.profilebuilder.util.LruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Caches Vision-API OCR results for JD images, keyed by the SHA-256 hash of the image.
+ * An in-memory LRU bounded by total characters sits in front of the optional
+ * persistent extracted-text store, so repeated screenshots skip the model call.
+ * Meter: {@code pb.ocr.cache.requests} by result and source (memory, database, vision);
+ * a miss is counted only when the Vision API is actually called.
+ */
+@Service
+public class OcrResultCache {
+
+    /**
+     * Namespaces persistent OCR results by preprocessing version. Bump it when a preprocessing
+     * change invalidates stored results (v2: transparent images are composited onto white).
+     */
+    private static final String STORE_KEY_PREFIX = "ocr-v2:";
+
+    private final LruCache<String, String> memoryCache;
+    private final ExtractedTextService extractedTextService;
+    private final boolean persist;
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+    private final Counter bytesSaved;
+
+    public OcrResultCache(ExtractedTextService extractedTextService,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.ocr.cache.max-chars:2000000}") long maxChars,
+                          @Value("${app.ocr.cache.persist:true}") boolean persist) {
+        this.extractedTextService = extractedTextService;
+        this.persist = persist;
+        this.memoryCache = new LruCache<>(maxChars, String::length);
+
+        this.memoryHits = requests(meterRegistry, "hit", "memory");
+        this.databaseHits = requests(meterRegistry, "hit", "database");
+        this.misses = requests(meterRegistry, "miss", "vision");
+        FunctionCounter.builder("pb.ocr.cache.evictions", memoryCache, LruCache::evictionCount)
+                .register(meterRegistry);
+        Gauge.builder("pb.ocr.cache.size", memoryCache, LruCache::size).register(meterRegistry);
+        this.bytesSaved = Counter.builder("pb.ocr.bytes.saved")
+                .description("Image bytes not sent to the Vision API thanks to cache hits and preprocessing")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private static Counter requests(MeterRegistry registry, String result, String source) {
+        return Counter.builder("pb.ocr.cache.requests")
+                .tag("result", result)
+                .tag("source", source)
+                .register(registry);
+    }
+
+    /**
+     * Look up OCR text by image hash: memory first, then the persistent store.
+     */
+    public Optional<String> get(String imageHash) {
+        Optional<String> cached = memoryCache.get(imageHash);
+        if (cached.isPresent()) {
+            memoryHits.increment();
+            return cached;
+        }
+        if (!persist) {
+            return cached;
+        }
+        Optional<String> stored = extractedTextService.findText(storeKey(imageHash));
+        stored.ifPresent(text -> {
+            memoryCache.put(imageHash, text);
+            databaseHits.increment();
+        });
+        return stored;
+    }
+
+    /** Records a lookup that missed both tiers and is about to call the Vision API. */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void put(String imageHash, String text) {
+        memoryCache.put(imageHash, text);
+        if (persist) {
+            extractedTextService.store(storeKey(imageHash), text);
+        }
+    }
+
+    private static String storeKey(String imageHash) {
+        return HashUtil.sha256Hex((STORE_KEY_PREFIX + imageHash).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Records image bytes that did not have to be sent to the model. */
+    public void recordBytesSaved(long bytes) {
+        if (bytes > 0) {
+            bytesSaved.increment(bytes);
+        }
+    }
+}
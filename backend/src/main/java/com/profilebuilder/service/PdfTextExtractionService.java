@@ -0,0 +1,140 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.exception.InvalidFileException;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile;
+import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Extracts plain text from PDFs with PDFBox.
+ * File-backed PDFs at or above the page threshold are split into page ranges and stripped
+ * in parallel on a fork-join pool, each worker memory-mapping the file into its own
+ * PDDocument. Smaller files and in-memory sources are stripped in one pass on the calling thread.
+ */
+@Service
+public class PdfTextExtractionService implements TextExtractor {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfTextExtractionService.class);
+
+    private final ForkJoinPool pdfExtractionPool;
+
+    @Value("${app.extraction.parallel-page-threshold:16}")
+    private int parallelPageThreshold;
+
+    @Value("${app.extraction.pages-per-task:8}")
+    private int pagesPerTask;
+
+    @Value("${app.extraction.max-main-memory:8MB}")
+    private DataSize maxMainMemory;
+
+    public PdfTextExtractionService(@Qualifier("pdfExtractionPool") ForkJoinPool pdfExtractionPool) {
+        this.pdfExtractionPool = pdfExtractionPool;
+    }
+
+    @Override
+    public Set<String> supportedContentTypes() {
+        return Set.of("application/pdf");
+    }
+
+    /**
+     * Extract text from a PDF on the local filesystem. Large documents are stripped page-parallel;
+     * the document used to count their pages is closed before the range workers load their own.
+     * {@code source} is used only for logging and error messages.
+     */
+    @Override
+    public String extractText(Path file, String source) {
+        try {
+            int pageCount;
+            String text = null;
+            try (PDDocument document = Loader.loadPDF(new RandomAccessReadMemoryMappedFile(file), scratchCache())) {
+                pageCount = document.getNumberOfPages();
+                if (pageCount < parallelPageThreshold) {
+                    text = new PDFTextStripper().getText(document);
+                }
+            }
+            if (text == null) {
+                text = extractPageRanges(file, pageCount);
+            }
+            log.info("Extracted {} characters from {}-page PDF at {}", text.length(), pageCount, source);
+            return text;
+        } catch (IOException e) {
+            throw new InvalidFileException("Failed to extract text from file: " + source, e);
+        }
+    }
+
+    /**
+     * Extract text from an in-memory or stream-backed PDF in a single pass.
+     * The caller owns (and closes) the reader.
+     */
+    public String extractText(RandomAccessRead content, String source) {
+        try (PDDocument document = Loader.loadPDF(content, scratchCache())) {
+            String text = new PDFTextStripper().getText(document);
+            log.info("Extracted {} characters from PDF at {}", text.length(), source);
+            return text;
+        } catch (IOException e) {
+            throw new InvalidFileException("Failed to extract text from file: " + source, e);
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /**
+     * Strips fixed-size page ranges on the fork-join pool and joins the parts in page order.
+     */
+    private String extractPageRanges(Path file, int pageCount) throws IOException {
+        List<ForkJoinTask<String>> tasks = new ArrayList<>();
+        for (int startPage = 1; startPage <= pageCount; startPage += pagesPerTask) {
+            int start = startPage;
+            int end = Math.min(startPage + pagesPerTask - 1, pageCount);
+            tasks.add(pdfExtractionPool.submit(() -> stripRange(file, start, end)));
+        }
+
+        StringBuilder text = new StringBuilder();
+        try {
+            for (ForkJoinTask<String> task : tasks) {
+                text.append(task.join());
+            }
+        } catch (RuntimeException e) {
+            tasks.forEach(t -> t.cancel(true));
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IOException("Parallel PDF extraction failed: " + cause.getMessage(), cause);
+        }
+        log.debug("Stripped {} pages in {} parallel ranges", pageCount, tasks.size());
+        return text.toString();
+    }
+
+    /**
+     * Loads a private PDDocument for one worker and strips a single page range.
+     */
+    private String stripRange(Path file, int startPage, int endPage) throws IOException {
+        try (PDDocument document = Loader.loadPDF(new RandomAccessReadMemoryMappedFile(file), scratchCache())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(startPage);
+            stripper.setEndPage(endPage);
+            return stripper.getText(document);
+        }
+    }
+
+    /** Scratch buffers spill to temp files beyond the configured main-memory budget. */
+    private StreamCacheCreateFunction scratchCache() {
+        return MemoryUsageSetting.setupMixed(maxMainMemory.toBytes()).streamCache;
+    }
+}
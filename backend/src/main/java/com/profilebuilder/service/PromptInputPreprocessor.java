@@ -0,0 +1,332 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.util.MinHash;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Prepares extracted document text for LLM prompts.
+ * <p>
+ * Every text is cleaned: Unicode normalised, invisible characters dropped, words broken by
+ * end-of-line hyphenation rejoined, page numbers and running header/footer lines removed,
+ * and whitespace runs collapsed. A line only counts as a running header or footer when it
+ * repeats at page boundaries (form feeds or page-number lines), so repeated body lines such
+ * as job titles, date ranges and locations are kept. The documents of one request (e.g. several versions of a
+ * user's resume) are then split into paragraphs, and paragraphs that are near-duplicates of
+ * an earlier one (MinHash estimate of word-shingle Jaccard similarity) are dropped; the longer
+ * of the two versions is kept in the earlier position.
+ */
+@Service
+public class PromptInputPreprocessor {
+
+    private static final Logger log = LoggerFactory.getLogger(PromptInputPreprocessor.class);
+
+    private static final int NUM_HASHES = 64;
+    private static final int BAND_ROWS = 4;
+    private static final int MIN_DEDUP_WORDS = 6;
+    private static final int MAX_HEADER_LENGTH = 100;
+    private static final int HEADER_MIN_REPEATS = 3;
+    /**
+     * Non-blank lines at the top and bottom of each page that may be a running header or footer:
+     * only the line next to the boundary, so the last entry of a page is never mistaken for one.
+     */
+    private static final int PAGE_EDGE_LINES = 1;
+    private static final String PAGE_BREAK = "\f";
+
+    private static final Pattern INVISIBLE = Pattern.compile("[\\u00AD\\u200B-\\u200D\\u2060\\uFEFF]");
+    private static final Pattern HORIZONTAL_SPACE = Pattern.compile("[\\t\\x0B\\u00A0\\u2000-\\u200A\\u202F\\u205F\\u3000 ]+");
+    private static final Pattern HYPHENATED_BREAK = Pattern.compile("(\\p{L})-\\n(\\p{Ll})");
+    private static final Pattern PAGE_NUMBER = Pattern.compile(
+            "(?i)^[-–—\\s]*(page\\s*)?\\d{1,3}(\\s*(of|/)\\s*\\d{1,3})?[-–—\\s]*$");
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final Pattern BULLET = Pattern.compile("^([•▪●◦‣∙*–-]|\\d{1,2}[.)])\\s");
+    private static final Pattern BLANK_LINES = Pattern.compile("\\n{3,}");
+
+    private final boolean enabled;
+    private final double duplicateThreshold;
+    private final MinHash minHash;
+    private final MeterRegistry meterRegistry;
+
+    public PromptInputPreprocessor(MeterRegistry meterRegistry,
+                                   @Value("${app.prompt.preprocess.enabled:true}") boolean enabled,
+                                   @Value("${app.prompt.preprocess.near-duplicate-threshold:0.8}") double duplicateThreshold,
+                                   @Value("${app.prompt.preprocess.shingle-size:3}") int shingleSize) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.duplicateThreshold = duplicateThreshold;
+        this.minHash = new MinHash(NUM_HASHES, shingleSize);
+    }
+
+    /**
+     * Prompt-ready texts: {@code documents} cleaned and de-duplicated against each other,
+     * {@code standalone} (JD, cover letter template, ...) cleaned only, in argument order.
+     */
+    public record PreparedTexts(List<String> documents, List<String> standalone) {}
+
+    /**
+     * Cleans all texts and removes near-duplicate paragraphs across {@code documents}.
+     * Reports characters, estimated tokens and paragraphs removed under {@code pipeline}.
+     */
+    public PreparedTexts prepare(String pipeline, List<String> documents, String... standalone) {
+        if (!enabled) {
+            return new PreparedTexts(documents, List.of(standalone));
+        }
+        int charsBefore = totalLength(documents) + totalLength(Arrays.asList(standalone));
+
+        List<String> cleanedDocuments = documents.stream().map(this::clean).toList();
+        DedupResult dedup = deduplicate(cleanedDocuments);
+        List<String> cleanedStandalone = Arrays.stream(standalone).map(this::clean).toList();
+
+        int charsAfter = totalLength(dedup.documents()) + totalLength(cleanedStandalone);
+        record(pipeline, charsBefore, charsAfter, dedup.removed());
+        return new PreparedTexts(dedup.documents(), cleanedStandalone);
+    }
+
+    // ── Cleaning ─────────────────────────────────────────────
+
+    String clean(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC)
+                .replace("\r\n", "\n")
+                .replace('\r', '\n')
+                .replace(PAGE_BREAK, "\n" + PAGE_BREAK + "\n");
+        normalized = INVISIBLE.matcher(normalized).replaceAll("");
+        normalized = HORIZONTAL_SPACE.matcher(normalized).replaceAll(" ");
+        normalized = HYPHENATED_BREAK.matcher(normalized).replaceAll("$1$2");
+
+        String[] lines = normalized.split("\n", -1);
+        boolean[] pageBreaks = new boolean[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            pageBreaks[i] = lines[i].equals(PAGE_BREAK) || PAGE_NUMBER.matcher(lines[i].strip()).matches();
+        }
+        boolean[] edges = pageEdges(lines, pageBreaks);
+        Map<String, Integer> edgeCounts = new HashMap<>();
+        for (int i = 0; i < lines.length; i++) {
+            String key = edges[i] ? headerKey(lines[i]) : null;
+            if (key != null) {
+                edgeCounts.merge(key, 1, Integer::sum);
+            }
+        }
+
+        StringBuilder out = new StringBuilder(normalized.length());
+        for (int i = 0; i < lines.length; i++) {
+            if (pageBreaks[i]) {
+                continue;
+            }
+            String trimmed = lines[i].strip();
+            String key = edges[i] ? headerKey(trimmed) : null;
+            if (key != null && edgeCounts.get(key) >= HEADER_MIN_REPEATS) {
+                continue;
+            }
+            out.append(trimmed).append('\n');
+        }
+        return BLANK_LINES.matcher(out).replaceAll("\n\n").strip();
+    }
+
+    /**
+     * Marks the first and last {@value #PAGE_EDGE_LINES} non-blank line(s) of every page, where
+     * pages are separated by {@code pageBreaks}. Nothing is marked in a text without page breaks.
+     */
+    private static boolean[] pageEdges(String[] lines, boolean[] pageBreaks) {
+        boolean[] edges = new boolean[lines.length];
+        int start = 0;
+        for (int i = 0; i < lines.length; i++) {
+            if (pageBreaks[i]) {
+                markEdges(lines, edges, start, i);
+                start = i + 1;
+            }
+        }
+        if (start > 0) {
+            markEdges(lines, edges, start, lines.length);
+        }
+        return edges;
+    }
+
+    /** Marks the first and last non-blank lines of {@code lines[from, to)}. */
+    private static void markEdges(String[] lines, boolean[] edges, int from, int to) {
+        for (int i = from, marked = 0; i < to && marked < PAGE_EDGE_LINES; i++) {
+            if (!lines[i].isBlank()) {
+                edges[i] = true;
+                marked++;
+            }
+        }
+        for (int i = to - 1, marked = 0; i >= from && marked < PAGE_EDGE_LINES; i--) {
+            if (!lines[i].isBlank()) {
+                edges[i] = true;
+                marked++;
+            }
+        }
+    }
+
+    /**
+     * Identity of a line that could be a running header or footer: short, not a bullet,
+     * with digits (page numbers, dates) masked. Null for lines that never qualify.
+     */
+    private static String headerKey(String line) {
+        String trimmed = line.strip();
+        if (trimmed.length() < 4 || trimmed.length() > MAX_HEADER_LENGTH || BULLET.matcher(trimmed).find()) {
+            return null;
+        }
+        return DIGITS.matcher(trimmed.toLowerCase()).replaceAll("#");
+    }
+
+    // ── Near-duplicate removal ───────────────────────────────
+
+    private record DedupResult(List<String> documents, int removed) {}
+
+    private record Paragraph(int document, String text, int wordCount, long[] signature) {}
+
+    private DedupResult deduplicate(List<String> documents) {
+        List<List<Paragraph>> kept = new ArrayList<>();
+        List<Paragraph> candidates = new ArrayList<>();
+        Map<Long, List<Integer>> buckets = new HashMap<>();
+        int bands = NUM_HASHES / BAND_ROWS;
+        int removed = 0;
+
+        for (int d = 0; d < documents.size(); d++) {
+            List<Paragraph> paragraphs = new ArrayList<>();
+            kept.add(paragraphs);
+            for (String text : paragraphs(documents.get(d))) {
+                List<String> words = MinHash.words(text);
+                if (words.size() < MIN_DEDUP_WORDS) {
+                    paragraphs.add(new Paragraph(d, text, words.size(), null));
+                    continue;
+                }
+                long[] signature = minHash.signature(words);
+                Integer duplicateOf = findDuplicate(signature, candidates, buckets, bands);
+                if (duplicateOf == null) {
+                    Paragraph paragraph = new Paragraph(d, text, words.size(), signature);
+                    int index = candidates.size();
+                    candidates.add(paragraph);
+                    paragraphs.add(paragraph);
+                    for (int band = 0; band < bands; band++) {
+                        buckets.computeIfAbsent(MinHash.bandHash(signature, band, BAND_ROWS), k -> new ArrayList<>())
+                                .add(index);
+                    }
+                    continue;
+                }
+                removed++;
+                Paragraph original = candidates.get(duplicateOf);
+                if (words.size() > original.wordCount()) {
+                    // keep the more complete version where the paragraph first appeared
+                    Paragraph longer = new Paragraph(original.document(), text, words.size(), original.signature());
+                    candidates.set(duplicateOf, longer);
+                    List<Paragraph> owner = kept.get(original.document());
+                    owner.set(owner.indexOf(original), longer);
+                }
+            }
+        }
+
+        List<String> result = new ArrayList<>();
+        for (List<Paragraph> paragraphs : kept) {
+            StringBuilder doc = new StringBuilder();
+            for (Paragraph paragraph : paragraphs) {
+                if (!doc.isEmpty()) {
+                    doc.append('\n');
+                }
+                doc.append(paragraph.text());
+            }
+            result.add(doc.toString());
+        }
+        return new DedupResult(result, removed);
+    }
+
+    private Integer findDuplicate(long[] signature, List<Paragraph> candidates,
+                                  Map<Long, List<Integer>> buckets, int bands) {
+        for (int band = 0; band < bands; band++) {
+            List<Integer> bucket = buckets.get(MinHash.bandHash(signature, band, BAND_ROWS));
+            if (bucket == null) {
+                continue;
+            }
+            for (int index : bucket) {
+                if (MinHash.similarity(signature, candidates.get(index).signature()) >= duplicateThreshold) {
+                    return index;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Splits cleaned text into paragraphs. PDF text has one line per visual line, so a
+     * line continues the current paragraph unless it follows a blank line, starts with a
+     * bullet, or the previous line ended a sentence and this one starts a new one.
+     */
+    static List<String> paragraphs(String text) {
+        List<String> paragraphs = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : text.split("\n")) {
+            boolean startsNew = line.isEmpty()
+                    || BULLET.matcher(line).find()
+                    || current.isEmpty()
+                    || !continues(current, line);
+            if (startsNew && !current.isEmpty()) {
+                paragraphs.add(current.toString());
+                current.setLength(0);
+            }
+            if (!line.isEmpty()) {
+                if (!current.isEmpty()) {
+                    current.append('\n');
+                }
+                current.append(line);
+            }
+        }
+        if (!current.isEmpty()) {
+            paragraphs.add(current.toString());
+        }
+        return paragraphs;
+    }
+
+    private static boolean continues(CharSequence paragraph, String line) {
+        char last = paragraph.charAt(paragraph.length() - 1);
+        boolean sentenceEnded = last == '.' || last == '!' || last == '?' || last == ':';
+        return !sentenceEnded || Character.isLowerCase(line.charAt(0));
+    }
+
+    // ── Reporting ────────────────────────────────────────────
+
+    private void record(String pipeline, int charsBefore, int charsAfter, int paragraphsRemoved) {
+        int charsRemoved = Math.max(0, charsBefore - charsAfter);
+        long tokensRemoved = estimateTokens(charsRemoved);
+        DistributionSummary.builder("pb.prompt.preprocess.tokens.removed")
+                .description("Estimated prompt tokens removed per request by cleaning and de-duplication")
+                .baseUnit("tokens")
+                .tag("pipeline", pipeline)
+                .register(meterRegistry)
+                .record(tokensRemoved);
+        DistributionSummary.builder("pb.prompt.preprocess.paragraphs.removed")
+                .description("Near-duplicate paragraphs removed per request")
+                .tag("pipeline", pipeline)
+                .register(meterRegistry)
+                .record(paragraphsRemoved);
+        log.info("Prompt input preprocessing ({}): {} -> {} chars, ~{} tokens and {} duplicate paragraph(s) removed",
+                pipeline, charsBefore, charsAfter, tokensRemoved, paragraphsRemoved);
+    }
+
+    /** Rough token estimate (~4 characters per token for English text). */
+    private static long estimateTokens(int chars) {
+        return Math.round(chars / 4.0);
+    }
+
+    private static int totalLength(List<String> texts) {
+        int total = 0;
+        for (String text : texts) {
+            total += text != null ? text.length() : 0;
+        }
+        return total;
+    }
+}
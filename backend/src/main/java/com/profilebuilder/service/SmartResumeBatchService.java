@@ -0,0 +1,124 @@
+package com.profilebuilder.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profilebuilder.model.dto.GenerationBatchResponse;
+import com.profilebuilder.model.enums.GenerationJobType;
+import com.profilebuilder.service.GenerationJobService.SmartResumeGeneratePayload;
+import com.profilebuilder.util.FileValidationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Batch smart resume generation: many JDs against one document set, or one JD against
+ * many document sets.
+ * <p>
+ * The request only checks that every referenced document belongs to the user and stages
+ * the JD files in storage; nothing is extracted on the request thread. One
+ * SMART_RESUME_GENERATE job per item is then queued under a common batch ID, and each job
+ * extracts its JD and documents in the worker. Documents read from the extracted-text
+ * store and PNG JDs from the OCR cache, so items sharing inputs do not repeat the work.
+ * The job workers run at most {@code app.jobs.batch.max-concurrency} jobs of a batch at a
+ * time, each model call goes through the model governor's rate limits, and each resume is
+ * saved as soon as its job completes.
+ */
+@Service
+public class SmartResumeBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SmartResumeBatchService.class);
+
+    private static final TypeReference<List<List<Long>>> DOCUMENT_SETS = new TypeReference<>() {};
+
+    private final JdFileStagingService jdFileStagingService;
+    private final SmartResumeGenerationService generationService;
+    private final GenerationJobService generationJobService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.jobs.batch.max-items:50}")
+    private int maxItems;
+
+    public SmartResumeBatchService(JdFileStagingService jdFileStagingService,
+                                   SmartResumeGenerationService generationService,
+                                   GenerationJobService generationJobService,
+                                   ObjectMapper objectMapper) {
+        this.jdFileStagingService = jdFileStagingService;
+        this.generationService = generationService;
+        this.generationJobService = generationJobService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Queues a batch for the given user. Either {@code documentIds} is set and each JD file is
+     * generated against it, or {@code documentSetsJson} (a JSON array of document ID arrays)
+     * is set together with a single JD file, which is generated against each set.
+     * Completes with the batch once its JD files are stored and its jobs queued.
+     */
+    public CompletableFuture<GenerationBatchResponse> submit(List<MultipartFile> jdFiles, List<Long> documentIds,
+                                                             String documentSetsJson, Long userId) {
+        if (jdFiles == null || jdFiles.isEmpty()) {
+            throw new IllegalArgumentException("At least one JD file is required");
+        }
+        if ((documentIds == null || documentIds.isEmpty()) == (documentSetsJson == null || documentSetsJson.isBlank())) {
+            throw new IllegalArgumentException("Provide either documentIds or documentSets");
+        }
+        jdFiles.forEach(FileValidationUtil::validateJdFile);
+
+        if (documentIds != null && !documentIds.isEmpty()) {
+            checkSize(jdFiles.size());
+            generationService.findDocuments(documentIds, userId);
+            return jdFileStagingService.stageAll(jdFiles, userId, stagedJds -> {
+                List<SmartResumeGeneratePayload> payloads = stagedJds.stream()
+                        .map(jd -> new SmartResumeGeneratePayload(null, jd, documentIds))
+                        .toList();
+                log.info("Batch of {} JD(s) against {} document(s) for user {}",
+                        payloads.size(), documentIds.size(), userId);
+                return generationJobService.enqueueBatch(GenerationJobType.SMART_RESUME_GENERATE, userId, payloads);
+            });
+        }
+
+        if (jdFiles.size() != 1) {
+            throw new IllegalArgumentException("Exactly one JD file is required with documentSets");
+        }
+        List<List<Long>> documentSets = parseDocumentSets(documentSetsJson);
+        checkSize(documentSets.size());
+        LinkedHashSet<Long> allDocumentIds = new LinkedHashSet<>();
+        documentSets.forEach(allDocumentIds::addAll);
+        generationService.findDocuments(allDocumentIds, userId);
+        return jdFileStagingService.stage(jdFiles.get(0), userId, stagedJd -> {
+            List<SmartResumeGeneratePayload> payloads = documentSets.stream()
+                    .map(documentSet -> new SmartResumeGeneratePayload(null, stagedJd, documentSet))
+                    .toList();
+            log.info("Batch of {} document set(s) against one JD for user {}", documentSets.size(), userId);
+            return generationJobService.enqueueBatch(GenerationJobType.SMART_RESUME_GENERATE, userId, payloads);
+        });
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private List<List<Long>> parseDocumentSets(String documentSetsJson) {
+        List<List<Long>> documentSets;
+        try {
+            documentSets = objectMapper.readValue(documentSetsJson, DOCUMENT_SETS);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("documentSets must be a JSON array of document ID arrays");
+        }
+        if (documentSets == null || documentSets.isEmpty()
+                || documentSets.stream().anyMatch(set -> set == null || set.isEmpty() || set.contains(null))) {
+            throw new IllegalArgumentException("documentSets must contain non-empty document ID arrays");
+        }
+        return documentSets;
+    }
+
+    private void checkSize(int items) {
+        if (items > maxItems) {
+            throw new IllegalArgumentException("A batch can contain at most " + maxItems + " items");
+        }
+    }
+}
@@ -3,28 +3,57 @@ package com.profilebuilder.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.profilebuilder.ai.dto.HrValidationOutput;
 import com.profilebuilder.ai.dto.SmartResumeOutput;
+import com.profilebuilder.ai.limit.AiCallContext;
 import com.profilebuilder.exception.ResourceNotFoundException;
+import com.profilebuilder.model.dto.RecommendationItem;
 import com.profilebuilder.model.dto.SmartGeneratedResumeResponse;
 import com.profilebuilder.model.entity.Document;
 import com.profilebuilder.model.entity.SmartGeneratedResume;
 import com.profilebuilder.model.entity.SmartHrValidation;
+import com.profilebuilder.model.enums.HrValidationStatus;
 import com.profilebuilder.repository.DocumentRepository;
 import com.profilebuilder.repository.SmartGeneratedResumeRepository;
 import com.profilebuilder.repository.SmartHrValidationRepository;
+import com.profilebuilder.service.HrRevalidationService.ValidationBaseline;
 import com.profilebuilder.service.SmartResumeOrchestrationService.OrchestrationResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.profilebuilder.model.dto.RecommendationItem;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Main service for smart resume generation, regeneration, and retrieval.
  * Delegates AI work to SmartResumeOrchestrationService and persists results.
  * All operations are scoped to the authenticated user (userId).
+ * <p>
+ * With {@code app.ai.hr-validation.async} (the default) the resume is saved and returned
+ * as soon as it has been generated, with validation PENDING; the HR Validator then runs on
+ * the validation executor and its result is stored in pb_smart_hr_validations.
+ * <p>
+ * After a regeneration or applied recommendations, validation is diff-aware
+ * ({@code app.ai.hr-validation.diff-aware}): only the changed sections are re-scored
+ * against the previous validation (see HrRevalidationService).
  */
 @Service
 public class SmartResumeGenerationService {
@@ -34,22 +63,49 @@ public class SmartResumeGenerationService {
     private final SmartGeneratedResumeRepository smartResumeRepository;
     private final SmartHrValidationRepository hrValidationRepository;
     private final DocumentRepository documentRepository;
-    private final JdExtractionService jdExtractionService;
+    private final DocumentService documentService;
     private final SmartResumeOrchestrationService orchestrationService;
+    private final HrRevalidationService revalidationService;
+    private final AtsKeywordScorer atsKeywordScorer;
     private final ObjectMapper objectMapper;
+    private final ExecutorService documentExtractionExecutor;
+    private final ExecutorService hrValidationExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.ai.hr-validation.async:true}")
+    private boolean asyncValidation;
+
+    @Value("${app.ai.hr-validation.diff-aware:true}")
+    private boolean diffAwareValidation;
+
+    @Value("${app.ai.hr-validation.stale-after:30m}")
+    private Duration validationStaleAfter;
+
+    @Value("${app.ai.recommendations.section-edits:true}")
+    private boolean sectionEdits;
 
     public SmartResumeGenerationService(SmartGeneratedResumeRepository smartResumeRepository,
                                         SmartHrValidationRepository hrValidationRepository,
                                         DocumentRepository documentRepository,
-                                        JdExtractionService jdExtractionService,
+                                        DocumentService documentService,
                                         SmartResumeOrchestrationService orchestrationService,
-                                        ObjectMapper objectMapper) {
+                                        HrRevalidationService revalidationService,
+                                        AtsKeywordScorer atsKeywordScorer,
+                                        ObjectMapper objectMapper,
+                                        @Qualifier("documentExtractionExecutor") ExecutorService documentExtractionExecutor,
+                                        @Qualifier("hrValidationExecutor") ExecutorService hrValidationExecutor,
+                                        TransactionTemplate transactionTemplate) {
         this.smartResumeRepository = smartResumeRepository;
         this.hrValidationRepository = hrValidationRepository;
         this.documentRepository = documentRepository;
-        this.jdExtractionService = jdExtractionService;
+        this.documentService = documentService;
         this.orchestrationService = orchestrationService;
+        this.revalidationService = revalidationService;
+        this.atsKeywordScorer = atsKeywordScorer;
         this.objectMapper = objectMapper;
+        this.documentExtractionExecutor = documentExtractionExecutor;
+        this.hrValidationExecutor = hrValidationExecutor;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
@@ -58,47 +114,87 @@ public class SmartResumeGenerationService {
      */
     public SmartGeneratedResumeResponse generate(String jdText, List<Long> documentIds, Long userId) {
         log.info("Generating smart resume for {} document(s)", documentIds.size());
-        List<String> resumeTexts = extractResumeTexts(documentIds, userId);
+        List<String> resumeTexts = resolveResumeTexts(documentIds, userId);
 
-        OrchestrationResult result = orchestrationService.orchestrate(resumeTexts, jdText);
+        OrchestrationResult result = orchestrationService.orchestrate(resumeTexts, jdText, !asyncValidation);
+        return saveGenerated(jdText, documentIds, userId, result);
+    }
 
+    /**
+     * Persists a freshly orchestrated smart resume and its validation for the given user.
+     */
+    public SmartGeneratedResumeResponse saveGenerated(String jdText, List<Long> documentIds, Long userId,
+                                                      OrchestrationResult result) {
         SmartGeneratedResume entity = new SmartGeneratedResume();
         entity.setJdText(jdText);
         entity.setDocumentIds(documentIds);
         entity.setUserId(userId);
         persistResumeContent(entity, result.resumeOutput());
+        setValidationStatus(entity, result);
         SmartGeneratedResume saved = smartResumeRepository.save(entity);
 
         if (result.validationOutput() != null) {
-            SmartHrValidation validation = mapToValidationEntity(result.validationOutput(), saved.getId());
+            SmartHrValidation validation =
+                    mapToValidationEntity(result.validationOutput(), saved.getId(), result.resumeOutput());
             hrValidationRepository.save(validation);
+        } else if (saved.getValidationStatus() == HrValidationStatus.PENDING) {
+            scheduleValidation(saved, result.resumeOutput(), null);
         }
 
         log.info("Smart resume saved with id={}", saved.getId());
         return toResponse(saved, result);
     }
 
+    /**
+     * Re-queues background validations lost with the instance that queued them: the validation
+     * executor is in memory, so a restart drops its queue and leaves those resumes PENDING.
+     * A validation counts as lost once it has been pending for {@code app.ai.hr-validation.stale-after};
+     * each one is claimed with a conditional update, so instances starting together queue it once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPendingValidations() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(validationStaleAfter);
+        for (SmartGeneratedResume entity : smartResumeRepository.findStalePendingValidations(cutoff)) {
+            Integer claimed = transactionTemplate.execute(
+                    tx -> smartResumeRepository.claimStaleValidation(entity.getId(), cutoff, LocalDateTime.now()));
+            if (claimed == null || claimed == 0) {
+                continue;
+            }
+            try {
+                SmartResumeOutput resumeOutput = parseResumeContent(entity.getResumeContent());
+                AiCallContext.runAs(entity.getUserId(), () -> scheduleValidation(entity, resumeOutput, null));
+                log.info("Re-queued interrupted HR validation of smart resume id={}", entity.getId());
+            } catch (RuntimeException e) {
+                log.warn("Cannot recover HR validation of smart resume id={}: {}", entity.getId(), e.getMessage());
+                recordValidation(entity.getId(), entity.getResumeContent(), null, null);
+            }
+        }
+    }
+
+    /**
+     * Whether HR validation runs after the resume has been returned rather than before.
+     */
+    public boolean isAsyncValidation() {
+        return asyncValidation;
+    }
+
     /**
      * Regenerates an existing smart resume using the same JD and document IDs.
-     * Verifies ownership before proceeding.
+     * Verifies ownership before proceeding. The model calls run outside any transaction;
+     * the resume is loaded before and stored after them in short transactions of their own.
      */
-    @Transactional
     public SmartGeneratedResumeResponse regenerate(Long id, Long userId) {
-        SmartGeneratedResume entity = smartResumeRepository.findByIdAndUserId(id, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Smart resume not found with id: " + id));
+        EditTarget target = loadForEdit(id, userId);
+        SmartGeneratedResume entity = target.entity();
+        ValidationBaseline baseline = target.baseline();
 
         log.info("Regenerating smart resume id={}", id);
-        List<String> resumeTexts = extractResumeTexts(entity.getDocumentIds(), userId);
-        OrchestrationResult result = orchestrationService.orchestrate(resumeTexts, entity.getJdText());
+        List<String> resumeTexts = resolveResumeTexts(entity.getDocumentIds(), userId);
+        OrchestrationResult result = orchestrationService.orchestrate(
+                resumeTexts, entity.getJdText(), !asyncValidation && baseline == null);
+        result = revalidateIfSync(result, entity.getJdText(), baseline);
 
-        persistResumeContent(entity, result.resumeOutput());
-        smartResumeRepository.save(entity);
-
-        // Replace old validation with new one
-        hrValidationRepository.findBySmartResumeId(id).ifPresent(hrValidationRepository::delete);
-        if (result.validationOutput() != null) {
-            hrValidationRepository.save(mapToValidationEntity(result.validationOutput(), id));
-        }
+        storeEdit(entity, result, baseline);
 
         log.info("Smart resume id={} regenerated successfully", id);
         return toResponse(entity, result);
@@ -106,27 +202,28 @@ public class SmartResumeGenerationService {
 
     /**
      * Applies selected recommendations to an existing smart resume.
-     * Re-generates the resume with recommendations as constraints, then re-validates.
-     * Verifies ownership before proceeding.
+     * Edits only the sections the recommendations target when they all map to existing sections,
+     * otherwise re-generates the resume with recommendations as constraints; then re-validates.
+     * Verifies ownership before proceeding. Like {@link #regenerate}, no transaction is held
+     * during the model calls.
      */
-    @Transactional
     public SmartGeneratedResumeResponse applyRecommendations(Long id, List<RecommendationItem> recommendations, Long userId) {
-        SmartGeneratedResume entity = smartResumeRepository.findByIdAndUserId(id, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Smart resume not found with id: " + id));
+        EditTarget target = loadForEdit(id, userId);
+        SmartGeneratedResume entity = target.entity();
+        ValidationBaseline baseline = target.baseline();
 
         log.info("Applying {} recommendations to smart resume id={}", recommendations.size(), id);
 
-        OrchestrationResult result = orchestrationService.orchestrateWithRecommendations(
-                entity.getResumeContent(), entity.getJdText(), recommendations);
+        boolean runValidation = !asyncValidation && baseline == null;
+        SmartResumeOutput current = sectionEdits ? parseResumeContent(entity.getResumeContent()) : null;
+        OrchestrationResult result = current != null && orchestrationService.canEditSections(current, recommendations)
+                ? orchestrationService.orchestrateSectionEdits(
+                        current, entity.getJdText(), recommendations, runValidation)
+                : orchestrationService.orchestrateWithRecommendations(
+                        entity.getResumeContent(), entity.getJdText(), recommendations, runValidation);
+        result = revalidateIfSync(result, entity.getJdText(), baseline);
 
-        persistResumeContent(entity, result.resumeOutput());
-        smartResumeRepository.save(entity);
-
-        // Replace old validation with new one
-        hrValidationRepository.findBySmartResumeId(id).ifPresent(hrValidationRepository::delete);
-        if (result.validationOutput() != null) {
-            hrValidationRepository.save(mapToValidationEntity(result.validationOutput(), id));
-        }
+        storeEdit(entity, result, baseline);
 
         log.info("Smart resume id={} updated with applied recommendations", id);
         return toResponse(entity, result);
@@ -147,12 +244,26 @@ public class SmartResumeGenerationService {
         response.setId(entity.getId());
         response.setResumeContent(resumeOutput);
         response.setCreatedAt(entity.getCreatedAt());
+        response.setValidationStatus(entity.getValidationStatus());
+        response.setAtsKeywordMatch(atsKeywordMatch(resumeOutput, entity.getJdText()));
         if (validationEntity != null) {
             response.setValidation(mapToValidationResponse(validationEntity));
+            if (entity.getValidationStatus() == null) {
+                response.setValidationStatus(HrValidationStatus.COMPLETED);
+            }
         }
         return response;
     }
 
+    /**
+     * Throws ResourceNotFoundException unless the smart resume exists and belongs to the user.
+     */
+    public void verifyOwnership(Long id, Long userId) {
+        if (!smartResumeRepository.existsByIdAndUserId(id, userId)) {
+            throw new ResourceNotFoundException("Smart resume not found with id: " + id);
+        }
+    }
+
     /**
      * Retrieves and parses resume output by ID, scoped to user (used by DOCX service).
      */
@@ -162,18 +273,204 @@ public class SmartResumeGenerationService {
         return parseResumeContent(entity.getResumeContent());
     }
 
-    // ── Private helpers ──────────────────────────────────────
+    /**
+     * Loads the documents in the order of {@code documentIds} with one query, verifying each
+     * belongs to the user. Does not read or extract them.
+     *
+     * @throws ResourceNotFoundException for the first document the user does not have
+     */
+    public List<Document> findDocuments(Collection<Long> documentIds, Long userId) {
+        Map<Long, Document> documentsById = documentRepository.findAllByIdInAndUserId(documentIds, userId)
+                .stream()
+                .collect(Collectors.toMap(Document::getId, Function.identity()));
 
-    /** Extracts text from each document PDF on disk, verifying each doc belongs to the user. */
-    private List<String> extractResumeTexts(List<Long> documentIds, Long userId) {
-        List<String> texts = new ArrayList<>();
+        List<Document> documents = new ArrayList<>();
         for (Long docId : documentIds) {
-            Document doc = documentRepository.findByIdAndUserId(docId, userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Document not found with id: " + docId));
-            String text = jdExtractionService.extractTextFromPath(doc.getFilePath());
-            texts.add(text);
+            Document doc = documentsById.get(docId);
+            if (doc == null) {
+                throw new ResourceNotFoundException("Document not found with id: " + docId);
+            }
+            documents.add(doc);
+        }
+        return documents;
+    }
+
+    /**
+     * Resolves the extracted text of each document, verifying each doc belongs to the user.
+     * Documents are loaded in one query; extraction fans out on the bounded extraction executor.
+     * Results keep the order of documentIds, and the first failure cancels the remaining work.
+     */
+    public List<String> resolveResumeTexts(List<Long> documentIds, Long userId) {
+        List<Document> documents = findDocuments(documentIds, userId);
+        if (documents.size() == 1) {
+            return List.of(documentService.getExtractedText(documents.get(0)));
+        }
+
+        CompletionService<String> completionService = new ExecutorCompletionService<>(documentExtractionExecutor);
+        List<Future<String>> futures = new ArrayList<>();
+        for (Document doc : documents) {
+            futures.add(completionService.submit(() -> documentService.getExtractedText(doc)));
+        }
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                completionService.take().get();
+            }
+            List<String> texts = new ArrayList<>();
+            for (Future<String> future : futures) {
+                texts.add(future.get());
+            }
+            return texts;
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Failed to extract document text: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while extracting document text", e);
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /** An existing resume to edit, with its validation baseline as read in the same transaction. */
+    private record EditTarget(SmartGeneratedResume entity, ValidationBaseline baseline) {}
+
+    private EditTarget loadForEdit(Long id, Long userId) {
+        return transactionTemplate.execute(tx -> {
+            SmartGeneratedResume entity = smartResumeRepository.findByIdAndUserId(id, userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Smart resume not found with id: " + id));
+            return new EditTarget(entity, validationBaseline(entity));
+        });
+    }
+
+    /** Stores the edited content and its validation in one transaction; a pending validation starts after commit. */
+    private void storeEdit(SmartGeneratedResume entity, OrchestrationResult result, ValidationBaseline baseline) {
+        transactionTemplate.executeWithoutResult(tx -> replaceResumeContent(entity, result, baseline));
+    }
+
+    /**
+     * The current content and its completed validation, for diff-aware re-validation after an edit;
+     * null when diff-aware validation is off or no validation with section hashes is stored.
+     */
+    private ValidationBaseline validationBaseline(SmartGeneratedResume entity) {
+        if (!diffAwareValidation) {
+            return null;
+        }
+        return hrValidationRepository.findBySmartResumeId(entity.getId())
+                .filter(validation -> validation.getSectionHashes() != null)
+                .map(validation -> new ValidationBaseline(parseResumeContent(entity.getResumeContent()),
+                        mapToValidationOutput(validation), validation.getSectionHashes()))
+                .orElse(null);
+    }
+
+    /** In sync mode with a baseline, the orchestration skipped validation: re-validate the diff now. */
+    private OrchestrationResult revalidateIfSync(OrchestrationResult result, String jdText,
+                                                 ValidationBaseline baseline) {
+        if (asyncValidation || baseline == null) {
+            return result;
+        }
+        return new OrchestrationResult(result.resumeOutput(),
+                revalidationService.validate(result.resumeOutput(), jdText, baseline));
+    }
+
+    /** Stores new content for an existing resume and replaces its validation (or schedules a new one). */
+    private void replaceResumeContent(SmartGeneratedResume entity, OrchestrationResult result,
+                                      ValidationBaseline baseline) {
+        persistResumeContent(entity, result.resumeOutput());
+        setValidationStatus(entity, result);
+        smartResumeRepository.save(entity);
+
+        // Replace old validation with new one
+        hrValidationRepository.findBySmartResumeId(entity.getId()).ifPresent(hrValidationRepository::delete);
+        if (result.validationOutput() != null) {
+            hrValidationRepository.save(
+                    mapToValidationEntity(result.validationOutput(), entity.getId(), result.resumeOutput()));
+        } else if (entity.getValidationStatus() == HrValidationStatus.PENDING) {
+            scheduleValidation(entity, result.resumeOutput(), baseline);
+        }
+    }
+
+    /** Sets the status of the result's validation, and when a pending one is queued. */
+    private void setValidationStatus(SmartGeneratedResume entity, OrchestrationResult result) {
+        HrValidationStatus status = validationStatusOf(result);
+        entity.setValidationStatus(status);
+        entity.setValidationRequestedAt(status == HrValidationStatus.PENDING ? LocalDateTime.now() : null);
+    }
+
+    /** In async mode a missing validation has not run yet; in sync mode it failed. */
+    private HrValidationStatus validationStatusOf(OrchestrationResult result) {
+        if (result.validationOutput() != null) {
+            return HrValidationStatus.COMPLETED;
+        }
+        return asyncValidation ? HrValidationStatus.PENDING : HrValidationStatus.FAILED;
+    }
+
+    /**
+     * Runs the HR Validator for the resume's current content in the background, once the
+     * surrounding transaction (if any) has committed. With a baseline only the changes are re-scored.
+     */
+    private void scheduleValidation(SmartGeneratedResume entity, SmartResumeOutput resumeOutput,
+                                    ValidationBaseline baseline) {
+        Long id = entity.getId();
+        String resumeContent = entity.getResumeContent();
+        String jdText = entity.getJdText();
+        Runnable submit = () -> {
+            try {
+                hrValidationExecutor.execute(AiCallContext.wrap(
+                        () -> runValidation(id, resumeContent, resumeOutput, jdText, baseline)));
+            } catch (RejectedExecutionException e) {
+                log.warn("HR validation queue full, validation of smart resume id={} skipped", id);
+                recordValidation(id, resumeContent, resumeOutput, null);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    private void runValidation(Long id, String resumeContent, SmartResumeOutput resumeOutput, String jdText,
+                               ValidationBaseline baseline) {
+        HrValidationOutput output = revalidationService.validate(resumeOutput, jdText, baseline);
+        try {
+            recordValidation(id, resumeContent, resumeOutput, output);
+        } catch (Exception e) {
+            log.error("Failed to store HR validation for smart resume id={}", id, e);
+        }
+    }
+
+    /**
+     * Stores a background validation result, unless the resume was regenerated meanwhile;
+     * the conditional status update locks the resume row for the rest of the transaction.
+     */
+    private void recordValidation(Long id, String resumeContent, SmartResumeOutput resumeOutput,
+                                  HrValidationOutput output) {
+        HrValidationStatus status = output != null ? HrValidationStatus.COMPLETED : HrValidationStatus.FAILED;
+        boolean current = Boolean.TRUE.equals(transactionTemplate.execute(tx -> {
+            if (smartResumeRepository.updateValidationStatusIfContent(id, resumeContent, status) == 0) {
+                return false;
+            }
+            if (output != null) {
+                hrValidationRepository.findBySmartResumeId(id).ifPresent(hrValidationRepository::delete);
+                hrValidationRepository.save(mapToValidationEntity(output, id, resumeOutput));
+            }
+            return true;
+        }));
+        if (current) {
+            log.info("HR validation of smart resume id={} recorded as {}", id, status);
+        } else {
+            log.info("Discarding HR validation of smart resume id={}: content changed meanwhile", id);
         }
-        return texts;
     }
 
     /** Serializes resume output into entity fields. */
@@ -201,14 +498,29 @@ public class SmartResumeGenerationService {
         response.setId(entity.getId());
         response.setResumeContent(result.resumeOutput());
         response.setCreatedAt(entity.getCreatedAt());
+        response.setValidationStatus(entity.getValidationStatus());
+        response.setAtsKeywordMatch(atsKeywordMatch(result.resumeOutput(), entity.getJdText()));
         if (result.validationOutput() != null) {
             response.setValidation(mapToValidationResponseFromOutput(result.validationOutput()));
         }
         return response;
     }
 
-    /** Maps HrValidationOutput DTO to SmartHrValidation entity. */
-    private SmartHrValidation mapToValidationEntity(HrValidationOutput output, Long smartResumeId) {
+    /** Scores the resume's JD keyword coverage locally (microseconds, no AI call). */
+    private SmartGeneratedResumeResponse.AtsKeywordMatchResponse atsKeywordMatch(SmartResumeOutput resumeOutput,
+                                                                                 String jdText) {
+        AtsKeywordScorer.Result result = atsKeywordScorer.score(resumeOutput, jdText);
+        SmartGeneratedResumeResponse.AtsKeywordMatchResponse response =
+                new SmartGeneratedResumeResponse.AtsKeywordMatchResponse();
+        response.setCoverage(result.coverage());
+        response.setMatchedTerms(result.matchedTerms());
+        response.setMissingTerms(result.missingTerms());
+        return response;
+    }
+
+    /** Maps HrValidationOutput DTO to SmartHrValidation entity, with the section hashes of the scored resume. */
+    private SmartHrValidation mapToValidationEntity(HrValidationOutput output, Long smartResumeId,
+                                                    SmartResumeOutput resumeOutput) {
         SmartHrValidation entity = new SmartHrValidation();
         entity.setSmartResumeId(smartResumeId);
         entity.setOverallScore(output.getOverallScore());
@@ -220,9 +532,25 @@ public class SmartResumeGenerationService {
         entity.setGaps(output.getGaps());
         entity.setStrengths(output.getStrengths());
         entity.setRecommendations(output.getRecommendations());
+        entity.setSectionHashes(revalidationService.sectionHashes(resumeOutput));
         return entity;
     }
 
+    /** Maps a stored SmartHrValidation back to the validator's DTO (baseline of a re-validation). */
+    private HrValidationOutput mapToValidationOutput(SmartHrValidation entity) {
+        HrValidationOutput output = new HrValidationOutput();
+        output.setOverallScore(entity.getOverallScore() != null ? entity.getOverallScore() : 0.0);
+        output.setKeywordMatchScore(entity.getKeywordMatchScore() != null ? entity.getKeywordMatchScore() : 0.0);
+        output.setExperienceRelevanceScore(entity.getExperienceRelevanceScore() != null ? entity.getExperienceRelevanceScore() : 0.0);
+        output.setSkillsAlignmentScore(entity.getSkillsAlignmentScore() != null ? entity.getSkillsAlignmentScore() : 0.0);
+        output.setResumeQualityScore(entity.getResumeQualityScore() != null ? entity.getResumeQualityScore() : 0.0);
+        output.setEducationFitScore(entity.getEducationFitScore() != null ? entity.getEducationFitScore() : 0.0);
+        output.setGaps(entity.getGaps());
+        output.setStrengths(entity.getStrengths());
+        output.setRecommendations(entity.getRecommendations());
+        return output;
+    }
+
     /** Maps SmartHrValidation entity to response DTO (used on retrieval). */
     private SmartGeneratedResumeResponse.HrValidationResponse mapToValidationResponse(SmartHrValidation entity) {
         SmartGeneratedResumeResponse.HrValidationResponse response =
@@ -3,36 +3,77 @@ package com.profilebuilder.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.profilebuilder.ai.agent.HrValidatorAgent;
 import com.profilebuilder.ai.agent.ResumeGeneratorAgent;
+import com.profilebuilder.ai.agent.ResumeGeneratorStreamingAgent;
+import com.profilebuilder.ai.agent.ResumeSectionEditorAgent;
+import com.profilebuilder.ai.budget.PromptBudgetEnforcer;
+import com.profilebuilder.ai.budget.PromptFields;
 import com.profilebuilder.ai.dto.HrValidationOutput;
+import com.profilebuilder.ai.dto.ResumeSectionEditOutput;
 import com.profilebuilder.ai.dto.SmartResumeOutput;
+import com.profilebuilder.ai.dto.SmartResumeOutput.PersonalInfo;
+import com.profilebuilder.ai.dto.SmartResumeOutput.ResumeSection;
+import com.profilebuilder.ai.limit.AiCallContext;
+import com.profilebuilder.exception.PromptTooLargeException;
+import com.profilebuilder.model.dto.RecommendationItem;
+import com.profilebuilder.service.PromptInputPreprocessor.PreparedTexts;
+import dev.langchain4j.service.TokenStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
-import com.profilebuilder.model.dto.RecommendationItem;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Orchestrates the two-agent resume generation pipeline:
  * 1. ResumeGeneratorAgent — builds ATS-optimized resume from raw texts + JD
  * 2. HrValidatorAgent    — scores the generated resume (best-effort, non-blocking)
+ * Recommendations are applied by ResumeSectionEditorAgent on the targeted sections only,
+ * or by regenerating the whole resume when they do not map to existing sections.
  */
 @Service
 public class SmartResumeOrchestrationService {
 
     private static final Logger log = LoggerFactory.getLogger(SmartResumeOrchestrationService.class);
 
+    /** Minimum input kept when compacting to the token budget; below this the request is rejected. */
+    private static final int RESUME_TEXTS_FLOOR_TOKENS = 4000;
+    private static final int JD_FLOOR_TOKENS = 1500;
+
     private final ResumeGeneratorAgent resumeGeneratorAgent;
+    private final ResumeGeneratorStreamingAgent resumeGeneratorStreamingAgent;
+    private final ResumeSectionEditorAgent resumeSectionEditorAgent;
     private final HrValidatorAgent hrValidatorAgent;
     private final ObjectMapper objectMapper;
+    private final ExecutorService generationExecutor;
+    private final PromptInputPreprocessor promptInputPreprocessor;
+    private final PromptBudgetEnforcer promptBudgetEnforcer;
+    private final AtsKeywordScorer atsKeywordScorer;
 
     public SmartResumeOrchestrationService(ResumeGeneratorAgent resumeGeneratorAgent,
+                                           ResumeGeneratorStreamingAgent resumeGeneratorStreamingAgent,
+                                           ResumeSectionEditorAgent resumeSectionEditorAgent,
                                            HrValidatorAgent hrValidatorAgent,
-                                           ObjectMapper objectMapper) {
+                                           ObjectMapper objectMapper,
+                                           @Qualifier("generationExecutor") ExecutorService generationExecutor,
+                                           PromptInputPreprocessor promptInputPreprocessor,
+                                           PromptBudgetEnforcer promptBudgetEnforcer,
+                                           AtsKeywordScorer atsKeywordScorer) {
         this.resumeGeneratorAgent = resumeGeneratorAgent;
+        this.resumeGeneratorStreamingAgent = resumeGeneratorStreamingAgent;
+        this.resumeSectionEditorAgent = resumeSectionEditorAgent;
         this.hrValidatorAgent = hrValidatorAgent;
         this.objectMapper = objectMapper;
+        this.generationExecutor = generationExecutor;
+        this.promptInputPreprocessor = promptInputPreprocessor;
+        this.promptBudgetEnforcer = promptBudgetEnforcer;
+        this.atsKeywordScorer = atsKeywordScorer;
     }
 
     /**
@@ -44,14 +85,32 @@ public class SmartResumeOrchestrationService {
     ) {}
 
     /**
-     * Runs Agent 1 (resume generation) then Agent 2 (HR validation) sequentially.
-     * If Agent 2 fails, the result is still returned with a null validationOutput.
+     * Receives the progress of a streaming orchestration. Callbacks are invoked from
+     * streaming and worker threads, one at a time and in order.
+     */
+    public interface StreamListener {
+
+        void onPersonalInfo(PersonalInfo personalInfo);
+
+        void onSection(int index, ResumeSection section);
+
+        /** The full resume has been generated; HR validation, if requested, starts next. */
+        void onResumeGenerated(SmartResumeOutput resumeOutput);
+
+        void onComplete(OrchestrationResult result);
+
+        void onError(Throwable error);
+    }
+
+    /**
+     * Runs Agent 1 (resume generation) then, if {@code runValidation} is set, Agent 2 (HR validation).
+     * If Agent 2 fails, the result is still returned with a null validationOutput. Without
+     * {@code runValidation} validationOutput is null and the caller runs {@link #validateResume} later.
      */
-    public OrchestrationResult orchestrate(List<String> resumeTexts, String jdText) {
+    public OrchestrationResult orchestrate(List<String> resumeTexts, String jdText, boolean runValidation) {
         try {
             // Build input JSON for Agent 1
-            String generatorInput = objectMapper.writeValueAsString(
-                    Map.of("resumeTexts", resumeTexts, "jdText", jdText));
+            String generatorInput = generatorInput(resumeTexts, jdText);
 
             // Run Agent 1 — Resume Generator
             log.info("Running Resume Generator Agent with {} resume(s)...", resumeTexts.size());
@@ -59,22 +118,12 @@ public class SmartResumeOrchestrationService {
             log.info("Resume Generator complete: {} sections produced", resumeOutput.getSections().size());
 
             // Run Agent 2 — HR Validator (best-effort, failure is non-fatal)
-            HrValidationOutput validationOutput = null;
-            try {
-                String resumeJson = objectMapper.writeValueAsString(resumeOutput);
-                String validatorInput = objectMapper.writeValueAsString(
-                        Map.of("resumeContent", resumeJson, "jdText", jdText));
-                log.info("Running HR Validator Agent...");
-                validationOutput = hrValidatorAgent.validateResume(validatorInput);
-                log.info("HR Validator complete: overall score={}", validationOutput.getOverallScore());
-            } catch (Exception e) {
-                log.warn("HR Validator failed, continuing without validation: {}", e.getMessage());
-            }
+            HrValidationOutput validationOutput = runValidation ? validateResume(resumeOutput, jdText) : null;
 
             return new OrchestrationResult(resumeOutput, validationOutput);
 
-        } catch (dev.langchain4j.exception.LangChain4jException e) {
-            throw e; // Let GlobalExceptionHandler return 503
+        } catch (dev.langchain4j.exception.LangChain4jException | PromptTooLargeException e) {
+            throw e; // Let GlobalExceptionHandler return 503 / 413
         } catch (Exception e) {
             throw new RuntimeException("Resume orchestration failed: " + e.getMessage(), e);
         }
@@ -82,38 +131,204 @@ public class SmartResumeOrchestrationService {
 
     /**
      * Orchestrates resume regeneration with selected recommendations applied.
-     * Feeds current resume + JD + recommendations to the resume generator, then re-validates.
+     * Feeds current resume + JD + recommendations to the resume generator, then re-validates
+     * if {@code runValidation} is set.
      */
     public OrchestrationResult orchestrateWithRecommendations(
-            String currentResumeJson, String jdText, List<RecommendationItem> recommendations) {
+            String currentResumeJson, String jdText, List<RecommendationItem> recommendations,
+            boolean runValidation) {
         try {
-            String augmentedInput = objectMapper.writeValueAsString(Map.of(
-                "currentResume", currentResumeJson,
-                "jdText", jdText,
-                "recommendationsToApply", recommendations
-            ));
+            String augmentedInput = promptBudgetEnforcer.fit(ResumeGeneratorAgent.NAME, new PromptFields()
+                    .fixed("currentResume", currentResumeJson)
+                    .trimmable("jdText", jdText, 1, JD_FLOOR_TOKENS)
+                    .fixed("recommendationsToApply", recommendations));
 
             log.info("Running Resume Generator with {} recommendations...", recommendations.size());
             SmartResumeOutput resumeOutput = resumeGeneratorAgent.generateResume(augmentedInput);
             log.info("Resume Generator complete with applied recommendations");
 
-            HrValidationOutput validationOutput = null;
-            try {
-                String resumeJson = objectMapper.writeValueAsString(resumeOutput);
-                String validatorInput = objectMapper.writeValueAsString(
-                        Map.of("resumeContent", resumeJson, "jdText", jdText));
-                log.info("Running HR Validator on updated resume...");
-                validationOutput = hrValidatorAgent.validateResume(validatorInput);
-                log.info("HR Validator complete: overall score={}", validationOutput.getOverallScore());
-            } catch (Exception e) {
-                log.warn("HR Validator failed after apply: {}", e.getMessage());
+            HrValidationOutput validationOutput = runValidation ? validateResume(resumeOutput, jdText) : null;
+
+            return new OrchestrationResult(resumeOutput, validationOutput);
+        } catch (dev.langchain4j.exception.LangChain4jException | PromptTooLargeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Apply recommendations orchestration failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether every recommendation targets an existing section of {@code currentResume},
+     * so that {@link #orchestrateSectionEdits} can apply them.
+     */
+    public boolean canEditSections(SmartResumeOutput currentResume, List<RecommendationItem> recommendations) {
+        return currentResume != null && currentResume.getSections() != null && !recommendations.isEmpty()
+                && recommendations.stream().allMatch(r -> sectionIndex(currentResume, r.getSection()) >= 0);
+    }
+
+    /**
+     * Applies recommendations by editing only the sections they target: those sections, the JD
+     * and the recommendations go to the section editor, and the edited sections replace the
+     * originals in a copy of {@code currentResume}. Requires {@link #canEditSections}.
+     * Re-validates the whole resume if {@code runValidation} is set.
+     */
+    public OrchestrationResult orchestrateSectionEdits(
+            SmartResumeOutput currentResume, String jdText, List<RecommendationItem> recommendations,
+            boolean runValidation) {
+        try {
+            SortedSet<Integer> targeted = new TreeSet<>();
+            for (RecommendationItem recommendation : recommendations) {
+                targeted.add(sectionIndex(currentResume, recommendation.getSection()));
             }
+            List<ResumeSection> sections = targeted.stream().map(currentResume.getSections()::get).toList();
+            String editorInput = promptBudgetEnforcer.fit(ResumeSectionEditorAgent.NAME, new PromptFields()
+                    .fixed("sections", sections)
+                    .trimmable("jdText", jdText, 1, JD_FLOOR_TOKENS)
+                    .fixed("recommendationsToApply", recommendations));
+
+            log.info("Running Resume Section Editor on {} of {} section(s) with {} recommendations...",
+                    sections.size(), currentResume.getSections().size(), recommendations.size());
+            ResumeSectionEditOutput edited = resumeSectionEditorAgent.editSections(editorInput);
+            SmartResumeOutput resumeOutput = mergeSections(currentResume, targeted, edited);
+            log.info("Resume Section Editor complete with applied recommendations");
+
+            HrValidationOutput validationOutput = runValidation ? validateResume(resumeOutput, jdText) : null;
 
             return new OrchestrationResult(resumeOutput, validationOutput);
-        } catch (dev.langchain4j.exception.LangChain4jException e) {
+        } catch (dev.langchain4j.exception.LangChain4jException | PromptTooLargeException e) {
             throw e;
         } catch (Exception e) {
             throw new RuntimeException("Apply recommendations orchestration failed: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Streaming variant of {@link #orchestrate}. Agent 1 streams its JSON; personal info and
+     * each section are reported as soon as they are complete. When the stream ends, the full
+     * resume is parsed and, if {@code runValidation} is set, Agent 2 runs on the generation
+     * executor. Returns once the stream has started; all results arrive through {@code listener}.
+     */
+    public void orchestrateStreaming(List<String> resumeTexts, String jdText, boolean runValidation,
+                                     StreamListener listener) {
+        String generatorInput;
+        try {
+            generatorInput = generatorInput(resumeTexts, jdText);
+        } catch (PromptTooLargeException e) {
+            listener.onError(e);
+            return;
+        } catch (Exception e) {
+            listener.onError(new RuntimeException("Resume orchestration failed: " + e.getMessage(), e));
+            return;
+        }
+
+        SmartResumeStreamParser parser = new SmartResumeStreamParser(
+                objectMapper, listener::onPersonalInfo, listener::onSection);
+        // the stream completes on an HTTP client thread; keep the caller for HR validation
+        Executor completionExecutor = AiCallContext.wrap(generationExecutor);
+        log.info("Streaming Resume Generator Agent with {} resume(s)...", resumeTexts.size());
+        TokenStream stream = resumeGeneratorStreamingAgent.generateResume(generatorInput)
+                .onPartialResponse(parser::feed)
+                .onCompleteResponse(response -> completionExecutor.execute(() -> {
+                    try {
+                        SmartResumeOutput resumeOutput = parser.finish(response.aiMessage().text());
+                        log.info("Resume Generator stream complete: {} sections produced ({} streamed)",
+                                resumeOutput.getSections().size(), parser.sectionCount());
+                        listener.onResumeGenerated(resumeOutput);
+                        HrValidationOutput validationOutput =
+                                runValidation ? validateResume(resumeOutput, jdText) : null;
+                        listener.onComplete(new OrchestrationResult(resumeOutput, validationOutput));
+                    } catch (Exception e) {
+                        listener.onError(e);
+                    }
+                }))
+                .onError(listener::onError);
+        // the request is sent by start(), on this thread
+        AiCallContext.runAsAgent(ResumeGeneratorStreamingAgent.NAME, stream::start);
+    }
+
+    /**
+     * Runs Agent 2 — HR Validator. Best-effort: returns null on failure.
+     * The local keyword scan is passed along as the baseline of the keyword match score.
+     */
+    public HrValidationOutput validateResume(SmartResumeOutput resumeOutput, String jdText) {
+        try {
+            String resumeJson = objectMapper.writeValueAsString(resumeOutput);
+            AtsKeywordScorer.Result keywords = atsKeywordScorer.score(resumeOutput, jdText);
+            String validatorInput = promptBudgetEnforcer.fit(HrValidatorAgent.NAME, new PromptFields()
+                    .fixed("resumeContent", resumeJson)
+                    .fixed("localKeywordCoverage", keywords.coverage())
+                    .fixed("missingKeywords", keywords.missingTerms())
+                    .trimmable("jdText", jdText, 1, JD_FLOOR_TOKENS));
+            log.info("Running HR Validator Agent...");
+            HrValidationOutput validationOutput = hrValidatorAgent.validateResume(validatorInput);
+            log.info("HR Validator complete: overall score={}", validationOutput.getOverallScore());
+            return validationOutput;
+        } catch (Exception e) {
+            log.warn("HR Validator failed, continuing without validation: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /** Index of the first section named {@code sectionName} (case-insensitive), or -1. */
+    private static int sectionIndex(SmartResumeOutput resume, String sectionName) {
+        if (sectionName == null || sectionName.isBlank()) {
+            return -1;
+        }
+        String wanted = sectionName.trim().toUpperCase(Locale.ROOT);
+        List<ResumeSection> sections = resume.getSections();
+        for (int i = 0; i < sections.size(); i++) {
+            String name = sections.get(i).getSectionName();
+            if (name != null && name.trim().toUpperCase(Locale.ROOT).equals(wanted)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copy of {@code current} with the targeted sections replaced by their edited versions,
+     * matched by name. A targeted section the editor did not return is kept unchanged.
+     */
+    private static SmartResumeOutput mergeSections(SmartResumeOutput current, SortedSet<Integer> targeted,
+                                                   ResumeSectionEditOutput edited) {
+        List<ResumeSection> editedSections = edited == null || edited.getSections() == null
+                ? List.of() : new ArrayList<>(edited.getSections());
+        List<ResumeSection> merged = new ArrayList<>(current.getSections());
+        int replaced = 0;
+        for (int index : targeted) {
+            String name = merged.get(index).getSectionName();
+            ResumeSection match = editedSections.stream()
+                    .filter(s -> s != null && s.getEntries() != null && s.getSectionName() != null
+                            && s.getSectionName().trim().equalsIgnoreCase(name.trim()))
+                    .findFirst().orElse(null);
+            if (match == null) {
+                log.warn("Resume Section Editor did not return section '{}', keeping it unchanged", name);
+                continue;
+            }
+            editedSections.remove(match);
+            match.setSectionName(name);
+            merged.set(index, match);
+            replaced++;
+        }
+        if (replaced == 0) {
+            throw new IllegalStateException("Resume Section Editor returned none of the targeted sections");
+        }
+        SmartResumeOutput result = new SmartResumeOutput();
+        result.setPersonalInfo(current.getPersonalInfo());
+        result.setSections(merged);
+        return result;
+    }
+
+    /**
+     * Agent 1 input: cleaned resumes, de-duplicated across versions, and the cleaned JD,
+     * within the generator's token budget (later resume versions are trimmed first).
+     */
+    private String generatorInput(List<String> resumeTexts, String jdText) throws Exception {
+        PreparedTexts prepared = promptInputPreprocessor.prepare("smart-resume", resumeTexts, jdText);
+        return promptBudgetEnforcer.fit(ResumeGeneratorAgent.NAME, new PromptFields()
+                .trimmable("resumeTexts", prepared.documents(), 1, RESUME_TEXTS_FLOOR_TOKENS)
+                .trimmable("jdText", prepared.standalone().get(0), 2, JD_FLOOR_TOKENS));
+    }
 }
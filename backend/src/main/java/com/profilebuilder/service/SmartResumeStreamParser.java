@@ -0,0 +1,171 @@
+package com.profilebuilder.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.profilebuilder.ai.dto.SmartResumeOutput;
+import com.profilebuilder.ai.dto.SmartResumeOutput.PersonalInfo;
+import com.profilebuilder.ai.dto.SmartResumeOutput.ResumeSection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Incremental parser for the resume generator's JSON token stream.
+ * Partial responses are pushed into Jackson's non-blocking parser; as soon as
+ * {@code personalInfo} or an element of {@code sections} is complete it is
+ * deserialized and handed to the callbacks, long before the whole document arrives.
+ * Anything before the root object (e.g. a markdown fence) and after it is ignored.
+ * Not thread-safe: feed partial responses in order from a single thread.
+ */
+public class SmartResumeStreamParser {
+
+    private static final Logger log = LoggerFactory.getLogger(SmartResumeStreamParser.class);
+
+    private final ObjectMapper objectMapper;
+    private final Consumer<PersonalInfo> onPersonalInfo;
+    private final BiConsumer<Integer, ResumeSection> onSection;
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final StringBuilder fullText = new StringBuilder();
+
+    private boolean rootStarted;
+    private boolean rootClosed;
+    private boolean broken;
+    private int depth;
+    private String rootField;
+    private TokenBuffer capture;
+    private int captureDepth;
+    private int sectionCount;
+
+    public SmartResumeStreamParser(ObjectMapper objectMapper,
+                                   Consumer<PersonalInfo> onPersonalInfo,
+                                   BiConsumer<Integer, ResumeSection> onSection) {
+        this.objectMapper = objectMapper;
+        this.onPersonalInfo = onPersonalInfo;
+        this.onSection = onSection;
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create streaming JSON parser", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Consume the next partial response and emit every value it completes.
+     * If the stream cannot be parsed incrementally, emission stops and only
+     * {@link #finish} produces a result.
+     */
+    public void feed(String chunk) {
+        fullText.append(chunk);
+        if (rootClosed || broken) {
+            return;
+        }
+        String input = chunk;
+        if (!rootStarted) {
+            int start = chunk.indexOf('{');
+            if (start < 0) {
+                return;
+            }
+            rootStarted = true;
+            input = chunk.substring(start);
+        }
+        try {
+            byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+            feeder.feedInput(bytes, 0, bytes.length);
+            drain();
+        } catch (IOException | RuntimeException e) {
+            broken = true;
+            log.debug("Incremental resume parsing stopped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Parse the complete response into the final output. Sections already emitted
+     * are parsed again here, so the returned object is always the full document.
+     */
+    public SmartResumeOutput finish(String responseText) throws IOException {
+        String text = responseText != null ? responseText : fullText.toString();
+        int start = text.indexOf('{');
+        int end = text.lastIndexOf('}');
+        if (start < 0 || end < start) {
+            throw new IOException("Resume generator returned no JSON object");
+        }
+        return objectMapper.readValue(text.substring(start, end + 1), SmartResumeOutput.class);
+    }
+
+    /** Number of sections emitted so far. */
+    public int sectionCount() {
+        return sectionCount;
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (!rootClosed && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (capture != null) {
+                capture.copyCurrentEvent(parser);
+            }
+            switch (token) {
+                case START_OBJECT, START_ARRAY -> {
+                    depth++;
+                    maybeStartCapture(token);
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    depth--;
+                    maybeEndCapture();
+                    if (depth == 0) {
+                        rootClosed = true;
+                    }
+                }
+                case FIELD_NAME -> {
+                    if (depth == 1) {
+                        rootField = parser.currentName();
+                    }
+                }
+                default -> { }
+            }
+        }
+    }
+
+    /**
+     * Starts buffering at {@code personalInfo} (depth 2) or at an object inside the
+     * {@code sections} array (depth 3).
+     */
+    private void maybeStartCapture(JsonToken token) throws IOException {
+        if (capture != null || token != JsonToken.START_OBJECT) {
+            return;
+        }
+        boolean personalInfo = depth == 2 && "personalInfo".equals(rootField);
+        boolean section = depth == 3 && "sections".equals(rootField);
+        if (personalInfo || section) {
+            capture = new TokenBuffer(parser, null);
+            capture.copyCurrentEvent(parser);
+            captureDepth = depth;
+        }
+    }
+
+    private void maybeEndCapture() throws IOException {
+        if (capture == null || depth != captureDepth - 1) {
+            return;
+        }
+        TokenBuffer completed = capture;
+        capture = null;
+        try (JsonParser value = completed.asParser(objectMapper)) {
+            if ("personalInfo".equals(rootField)) {
+                onPersonalInfo.accept(objectMapper.readValue(value, PersonalInfo.class));
+            } else {
+                onSection.accept(sectionCount++, objectMapper.readValue(value, ResumeSection.class));
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.ai.dto.SmartResumeOutput;
+import com.profilebuilder.ai.limit.AiCallContext;
+import com.profilebuilder.ai.dto.SmartResumeOutput.PersonalInfo;
+import com.profilebuilder.ai.dto.SmartResumeOutput.ResumeSection;
+import com.profilebuilder.exception.ClientErrorMessages;
+import com.profilebuilder.exception.InvalidFileException;
+import com.profilebuilder.model.dto.SmartGeneratedResumeResponse;
+import com.profilebuilder.model.enums.HrValidationStatus;
+import com.profilebuilder.service.SmartResumeOrchestrationService.OrchestrationResult;
+import com.profilebuilder.service.SmartResumeOrchestrationService.StreamListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams smart resume generation to the client as Server-Sent Events.
+ * <p>
+ * Events, in order: {@code started}, {@code personal-info}, one {@code section} per resume
+ * section as soon as it has been generated, {@code validating} (synchronous validation only),
+ * and finally {@code complete} carrying the persisted resume with its HR validation, or with
+ * validation PENDING when it runs in the background. Any failure ends the stream with an
+ * {@code error} event.
+ * <p>
+ * {@link #streamValidation} notifies a client when a background validation has finished.
+ */
+@Service
+public class SmartResumeStreamingService {
+
+    private static final Logger log = LoggerFactory.getLogger(SmartResumeStreamingService.class);
+
+    private final SmartResumeGenerationService generationService;
+    private final SmartResumeOrchestrationService orchestrationService;
+    private final JdExtractionService jdExtractionService;
+    private final ExecutorService generationExecutor;
+
+    @Value("${app.ai.hr-validation.poll-interval:1s}")
+    private Duration validationPollInterval;
+
+    @Value("${app.ai.stream-timeout:3m}")
+    private Duration defaultStreamTimeout;
+
+    public SmartResumeStreamingService(SmartResumeGenerationService generationService,
+                                       SmartResumeOrchestrationService orchestrationService,
+                                       JdExtractionService jdExtractionService,
+                                       @Qualifier("generationExecutor") ExecutorService generationExecutor) {
+        this.generationService = generationService;
+        this.orchestrationService = orchestrationService;
+        this.jdExtractionService = jdExtractionService;
+        this.generationExecutor = generationExecutor;
+    }
+
+    /**
+     * Starts generation in the background and returns immediately; progress is written to
+     * {@code emitter}, which is completed when the resume has been saved or generation failed.
+     * Only the JD bytes are read on the calling thread; its text is extracted in the background.
+     */
+    public void generateStreaming(MultipartFile jdFile, List<Long> documentIds, Long userId, SseEmitter emitter) {
+        String fileName = jdFile.getOriginalFilename();
+        String contentType = jdFile.getContentType();
+        byte[] jdContent;
+        try {
+            jdContent = jdFile.getBytes();
+        } catch (IOException e) {
+            throw new InvalidFileException("Failed to read JD file: " + e.getMessage());
+        }
+        generationExecutor.execute(() -> AiCallContext.runAs(userId, () -> {
+            try {
+                send(emitter, "started", Map.of("documentCount", documentIds.size()));
+                String jdText = jdExtractionService.extractText(fileName, contentType, jdContent);
+                List<String> resumeTexts = generationService.resolveResumeTexts(documentIds, userId);
+                orchestrationService.orchestrateStreaming(resumeTexts, jdText,
+                        !generationService.isAsyncValidation(),
+                        new EmitterListener(emitter, jdText, documentIds, userId));
+            } catch (Exception e) {
+                fail(emitter, e);
+            }
+        }));
+    }
+
+    /**
+     * Sends a single {@code validation} event with the resume's validation status and, if it
+     * completed, the validation itself, as soon as it is no longer PENDING; then completes.
+     * Ownership is checked before returning; the status is polled on the generation executor,
+     * with a comment line per poll so that a disconnected client is noticed. Polling stops when
+     * the emitter completes, times out or fails, and shortly before its timeout, in which case
+     * the event reports the validation as still PENDING.
+     */
+    public void streamValidation(Long id, Long userId, SseEmitter emitter) {
+        SmartGeneratedResumeResponse initial = generationService.getSmartResume(id, userId);
+        AtomicBoolean closed = new AtomicBoolean();
+        emitter.onCompletion(() -> closed.set(true));
+        emitter.onTimeout(() -> closed.set(true));
+        emitter.onError(e -> closed.set(true));
+        long deadline = System.nanoTime() + pollingWindow(emitter).toNanos();
+        generationExecutor.execute(() -> {
+            try {
+                SmartGeneratedResumeResponse resume = initial;
+                while (resume.getValidationStatus() == HrValidationStatus.PENDING
+                        && System.nanoTime() - deadline < 0) {
+                    emitter.send(SseEmitter.event().comment("pending"));
+                    Thread.sleep(validationPollInterval);
+                    if (closed.get()) {
+                        return;
+                    }
+                    resume = generationService.getSmartResume(id, userId);
+                }
+                Map<String, Object> data = new HashMap<>();
+                data.put("status", resume.getValidationStatus());
+                data.put("validation", resume.getValidation());
+                send(emitter, "validation", data);
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Stopped polling validation of smart resume id={}, client disconnected: {}",
+                        id, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            } catch (Exception e) {
+                fail(emitter, e);
+            }
+        });
+    }
+
+    /** Forwards orchestration progress to the SSE emitter and persists the final result. */
+    private class EmitterListener implements StreamListener {
+
+        private final SseEmitter emitter;
+        private final String jdText;
+        private final List<Long> documentIds;
+        private final Long userId;
+
+        EmitterListener(SseEmitter emitter, String jdText, List<Long> documentIds, Long userId) {
+            this.emitter = emitter;
+            this.jdText = jdText;
+            this.documentIds = documentIds;
+            this.userId = userId;
+        }
+
+        @Override
+        public void onPersonalInfo(PersonalInfo personalInfo) {
+            send(emitter, "personal-info", personalInfo);
+        }
+
+        @Override
+        public void onSection(int index, ResumeSection section) {
+            send(emitter, "section", Map.of("index", index, "section", section));
+        }
+
+        @Override
+        public void onResumeGenerated(SmartResumeOutput resumeOutput) {
+            if (!generationService.isAsyncValidation()) {
+                send(emitter, "validating", Map.of("sectionCount", resumeOutput.getSections().size()));
+            }
+        }
+
+        @Override
+        public void onComplete(OrchestrationResult result) {
+            try {
+                send(emitter, "complete", generationService.saveGenerated(jdText, documentIds, userId, result));
+                emitter.complete();
+            } catch (Exception e) {
+                fail(emitter, e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            fail(emitter, error);
+        }
+    }
+
+    /** The emitter's timeout less one poll interval, leaving time for the final event. */
+    private Duration pollingWindow(SseEmitter emitter) {
+        Duration timeout = emitter.getTimeout() != null
+                ? Duration.ofMillis(emitter.getTimeout())
+                : defaultStreamTimeout;
+        return timeout.minus(validationPollInterval);
+    }
+
+    private void fail(SseEmitter emitter, Throwable error) {
+        log.warn("Streaming smart resume generation failed: {}", error.getMessage());
+        send(emitter, "error", Map.of("message", ClientErrorMessages.of(error)));
+        emitter.complete();
+    }
+
+    /** Sends one event; a disconnected client is not an error, generation simply runs to completion. */
+    private static void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Could not send '{}' event, client likely disconnected: {}", name, e.getMessage());
+        }
+    }
+}
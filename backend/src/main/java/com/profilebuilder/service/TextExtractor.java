@@ -0,0 +1,20 @@
+package com.profilebuilder.service;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Extracts plain text from a stored document of one or more content types.
+ * Implementations are collected by {@link TextExtractorRegistry}.
+ */
+public interface TextExtractor {
+
+    /** MIME types this extractor handles, matched against {@code Document.fileType}. */
+    Set<String> supportedContentTypes();
+
+    /**
+     * Extract text from a file on the local filesystem.
+     * {@code source} is used only for logging and error messages.
+     */
+    String extractText(Path file, String source);
+}
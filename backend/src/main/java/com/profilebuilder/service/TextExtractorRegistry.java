@@ -0,0 +1,51 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.exception.InvalidFileException;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Looks up the {@link TextExtractor} for a document's content type.
+ */
+@Service
+public class TextExtractorRegistry {
+
+    private final Map<String, TextExtractor> extractors = new HashMap<>();
+
+    public TextExtractorRegistry(List<TextExtractor> extractors) {
+        for (TextExtractor extractor : extractors) {
+            for (String contentType : extractor.supportedContentTypes()) {
+                TextExtractor previous = this.extractors.put(contentType, extractor);
+                if (previous != null) {
+                    throw new IllegalStateException("Duplicate text extractor for " + contentType + ": "
+                            + previous.getClass().getSimpleName() + ", " + extractor.getClass().getSimpleName());
+                }
+            }
+        }
+    }
+
+    public boolean supports(String contentType) {
+        return contentType != null && extractors.containsKey(contentType);
+    }
+
+    public Optional<TextExtractor> find(String contentType) {
+        return Optional.ofNullable(contentType).map(extractors::get);
+    }
+
+    /**
+     * Extract text with the extractor registered for {@code contentType}.
+     *
+     * @throws InvalidFileException when no extractor handles the content type
+     */
+    public String extractText(String contentType, Path file, String source) {
+        return find(contentType)
+                .orElseThrow(() -> new InvalidFileException(
+                        "Text extraction is not supported for file type: " + contentType))
+                .extractText(file, source);
+    }
+}
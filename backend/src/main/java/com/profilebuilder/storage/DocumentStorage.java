@@ -0,0 +1,41 @@
+package com.profilebuilder.storage;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking storage backend for uploaded document files.
+ * A stored file is identified by its location string (e.g. {@code s3://bucket/key}
+ * or an absolute local path), which is what {@code Document.filePath} holds.
+ */
+public interface DocumentStorage {
+
+    /** Backend name used for selection ({@code app.storage.type}) and metric tags. */
+    String name();
+
+    /** Whether this backend owns the given location. */
+    boolean handles(String location);
+
+    /**
+     * Store the contents of {@code source} under {@code key}.
+     * Completes with the location of the stored file.
+     */
+    CompletableFuture<String> put(String key, Path source, String contentType);
+
+    /**
+     * Copy a stored file into {@code target}, which must not exist yet.
+     */
+    CompletableFuture<Void> download(String location, Path target);
+
+    /** Delete a stored file. Completes normally if it does not exist. */
+    CompletableFuture<Void> delete(String location);
+
+    /**
+     * The file's path when it can be read directly from the local filesystem,
+     * letting callers skip {@link #download}.
+     */
+    default Optional<Path> localPath(String location) {
+        return Optional.empty();
+    }
+}
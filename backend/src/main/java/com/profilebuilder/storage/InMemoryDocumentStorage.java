@@ -0,0 +1,82 @@
+package com.profilebuilder.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Heap-backed storage for tests, enabled with {@code app.storage.type=memory}.
+ * Locations take the form {@code mem://key}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "memory")
+public class InMemoryDocumentStorage implements DocumentStorage {
+
+    private static final String PREFIX = "mem://";
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final StorageMetrics metrics;
+
+    public InMemoryDocumentStorage(StorageMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public boolean handles(String location) {
+        return location.startsWith(PREFIX);
+    }
+
+    @Override
+    public CompletableFuture<String> put(String key, Path source, String contentType) {
+        return metrics.time(name(), "put", () -> {
+            try {
+                objects.put(key, Files.readAllBytes(source));
+                return CompletableFuture.completedFuture(PREFIX + key);
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> download(String location, Path target) {
+        return metrics.time(name(), "download", () -> {
+            byte[] content = objects.get(location.substring(PREFIX.length()));
+            if (content == null) {
+                return CompletableFuture.failedFuture(new NoSuchFileException(location));
+            }
+            try {
+                Files.write(target, content, StandardOpenOption.CREATE_NEW);
+                return CompletableFuture.completedFuture(null);
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String location) {
+        return metrics.time(name(), "delete", () -> {
+            objects.remove(location.substring(PREFIX.length()));
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    /** Number of stored objects. */
+    public int size() {
+        return objects.size();
+    }
+}
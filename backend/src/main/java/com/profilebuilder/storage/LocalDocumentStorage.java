@@ -0,0 +1,198 @@
+package com.profilebuilder.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Local filesystem storage (dev). Files are copied with {@link AsynchronousFileChannel}
+ * on the storage I/O pool; stored locations are absolute paths under {@code app.upload.dir}.
+ */
+@Component
+public class LocalDocumentStorage implements DocumentStorage {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalDocumentStorage.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExecutorService storageIoExecutor;
+    private final StorageMetrics metrics;
+
+    @Value("${app.upload.dir:src/main/resources/uploads}")
+    private String uploadDir;
+
+    public LocalDocumentStorage(@Qualifier("storageIoExecutor") ExecutorService storageIoExecutor,
+                                StorageMetrics metrics) {
+        this.storageIoExecutor = storageIoExecutor;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public boolean handles(String location) {
+        return !location.contains("://");
+    }
+
+    @Override
+    public CompletableFuture<String> put(String key, Path source, String contentType) {
+        return metrics.time(name(), "put", () -> {
+            Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+            Path targetPath = uploadPath.resolve(key).normalize();
+            if (!targetPath.startsWith(uploadPath)) {
+                return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid storage key: " + key));
+            }
+            try {
+                Files.createDirectories(targetPath.getParent());
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            return copy(source, targetPath, false).thenApply(v -> {
+                log.info("File saved locally: {}", targetPath);
+                return targetPath.toString();
+            });
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> download(String location, Path target) {
+        return metrics.time(name(), "download", () -> copy(Path.of(location), target, true));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String location) {
+        return metrics.time(name(), "delete", () -> CompletableFuture.runAsync(() -> {
+            try {
+                Files.deleteIfExists(Path.of(location));
+                log.info("File deleted locally: {}", location);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, storageIoExecutor));
+    }
+
+    @Override
+    public Optional<Path> localPath(String location) {
+        return Optional.of(Path.of(location));
+    }
+
+    // ── Async copy ───────────────────────────────────────────
+
+    /**
+     * Copy {@code source} to {@code target} chunk by chunk; each read and write
+     * completes on the storage I/O pool, so no caller thread waits on disk.
+     */
+    private CompletableFuture<Void> copy(Path source, Path target, boolean createNew) {
+        AsynchronousFileChannel in = null;
+        AsynchronousFileChannel out = null;
+        try {
+            in = AsynchronousFileChannel.open(source, Set.of(READ), storageIoExecutor);
+            out = AsynchronousFileChannel.open(target,
+                    createNew ? Set.of(WRITE, CREATE_NEW) : Set.of(WRITE, CREATE, TRUNCATE_EXISTING),
+                    storageIoExecutor);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(in);
+            closeQuietly(out);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        AsynchronousFileChannel reader = in;
+        AsynchronousFileChannel writer = out;
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        new ChunkCopy(reader, writer, done).readNext();
+        return done.whenComplete((v, error) -> {
+            closeQuietly(reader);
+            closeQuietly(writer);
+        });
+    }
+
+    private static void closeQuietly(AsynchronousFileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // best-effort cleanup
+        }
+    }
+
+    /** Read/write loop driven by completion handlers. */
+    private static final class ChunkCopy {
+
+        private final AsynchronousFileChannel reader;
+        private final AsynchronousFileChannel writer;
+        private final CompletableFuture<Void> done;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private long position;
+
+        ChunkCopy(AsynchronousFileChannel reader, AsynchronousFileChannel writer, CompletableFuture<Void> done) {
+            this.reader = reader;
+            this.writer = writer;
+            this.done = done;
+        }
+
+        void readNext() {
+            buffer.clear();
+            reader.read(buffer, position, null, new CompletionHandler<Integer, Void>() {
+                @Override
+                public void completed(Integer read, Void attachment) {
+                    if (read < 0) {
+                        done.complete(null);
+                        return;
+                    }
+                    buffer.flip();
+                    writeRemaining();
+                }
+
+                @Override
+                public void failed(Throwable error, Void attachment) {
+                    done.completeExceptionally(error);
+                }
+            });
+        }
+
+        void writeRemaining() {
+            writer.write(buffer, position, null, new CompletionHandler<Integer, Void>() {
+                @Override
+                public void completed(Integer written, Void attachment) {
+                    position += written;
+                    if (buffer.hasRemaining()) {
+                        writeRemaining();
+                    } else {
+                        readNext();
+                    }
+                }
+
+                @Override
+                public void failed(Throwable error, Void attachment) {
+                    done.completeExceptionally(error);
+                }
+            });
+        }
+    }
+}
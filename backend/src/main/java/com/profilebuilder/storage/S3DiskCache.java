@@ -0,0 +1,336 @@
+package com.profilebuilder.storage;
+
+import com.profilebuilder.util.HashUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Size-capped, LRU-evicting read-through cache of S3 objects on local disk, keyed by
+ * object key and ETag. Misses are downloaded to a temp file and renamed atomically to
+ * a file name unique to the download; concurrent misses for the same key share a single download.
+ * Cached entries are re-validated with a HEAD request once they are older than
+ * {@code revalidateAfter}. Files handed out through a {@link Lease} are pinned and
+ * never deleted while in use.
+ * <p>
+ * Each instance keeps its files in its own {@code pb-*} subdirectory of the configured
+ * directory, so instances sharing that directory, and unrelated files in it, are never
+ * touched. The subdirectory is deleted on {@link #close()}.
+ */
+public class S3DiskCache implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(S3DiskCache.class);
+
+    private final S3DocumentStorage storage;
+    private final Path cacheDir;
+    private final long maxBytes;
+    private final long revalidateAfterNanos;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    /** Numbers each download, so that a re-download never reuses the file of an older entry. */
+    private final AtomicLong fileSequence = new AtomicLong();
+
+    private long totalBytes;
+    private long hitCount;
+    private long missCount;
+    private long coalescedCount;
+    private long evictionCount;
+
+    public S3DiskCache(S3DocumentStorage storage, Path cacheRoot, long maxBytes, Duration revalidateAfter,
+                       MeterRegistry meterRegistry) {
+        this.storage = storage;
+        this.cacheDir = createInstanceDirectory(cacheRoot.toAbsolutePath().normalize());
+        this.maxBytes = maxBytes;
+        this.revalidateAfterNanos = revalidateAfter.toNanos();
+
+        FunctionCounter.builder("pb.storage.cache.requests", this, S3DiskCache::hitCount)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("pb.storage.cache.requests", this, S3DiskCache::missCount)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("pb.storage.cache.coalesced", this, S3DiskCache::coalescedCount)
+                .description("Cache misses that joined an in-flight download of the same key")
+                .register(meterRegistry);
+        FunctionCounter.builder("pb.storage.cache.evictions", this, S3DiskCache::evictionCount)
+                .register(meterRegistry);
+        Gauge.builder("pb.storage.cache.size", this, S3DiskCache::totalBytes)
+                .baseUnit("bytes").register(meterRegistry);
+    }
+
+    /** A pinned local copy of an S3 object; close it once the file has been read. */
+    public final class Lease implements AutoCloseable {
+
+        private final Entry entry;
+        private boolean closed;
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        public Path path() {
+            return entry.file;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(entry);
+            }
+        }
+    }
+
+    public boolean handles(String location) {
+        return storage.handles(location);
+    }
+
+    /**
+     * Pin a local copy of the object at {@code location}, downloading it on a miss.
+     */
+    public CompletableFuture<Lease> acquire(String location) {
+        String key = storage.keyOf(location);
+        Entry cached;
+        synchronized (this) {
+            cached = entries.get(key);
+            if (cached != null && System.nanoTime() - cached.verifiedAt < revalidateAfterNanos) {
+                hitCount++;
+                cached.refs++;
+                return CompletableFuture.completedFuture(new Lease(cached));
+            }
+        }
+        if (cached == null) {
+            return load(key, location);
+        }
+
+        Entry stale = cached;
+        return storage.head(location).thenCompose(info -> {
+            if (info.isPresent() && Objects.equals(stale.eTag, info.get().eTag())) {
+                synchronized (this) {
+                    if (!stale.evicted) {
+                        stale.verifiedAt = System.nanoTime();
+                        hitCount++;
+                        stale.refs++;
+                        return CompletableFuture.completedFuture(new Lease(stale));
+                    }
+                }
+            } else {
+                log.info("Cached copy of {} is out of date, re-downloading", location);
+                invalidate(stale);
+            }
+            return load(key, location);
+        });
+    }
+
+    // ── Loading ──────────────────────────────────────────────
+
+    /** Single-flight download: one fetch per key, shared by all concurrent misses. */
+    private CompletableFuture<Lease> load(String key, String location) {
+        CompletableFuture<Entry> flight = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            synchronized (this) {
+                missCount++;
+            }
+            // The leader's lease takes over the download's reference, so an entry too large
+            // to index cannot be deleted before the leader has pinned it.
+            return fetch(key, location).whenComplete((entry, error) -> {
+                inFlight.remove(key, flight);
+                if (error != null) {
+                    flight.completeExceptionally(error);
+                } else {
+                    flight.complete(entry);
+                }
+            }).thenApply(entry -> new Lease(entry));
+        }
+        synchronized (this) {
+            coalescedCount++;
+        }
+        return existing.thenCompose(entry -> {
+            Lease lease = pin(entry);
+            return lease != null ? CompletableFuture.completedFuture(lease) : acquire(location);
+        });
+    }
+
+    /**
+     * Download into a temp file, rename it into place and index it. The returned
+     * entry carries one reference, owned by the caller that started the download.
+     */
+    private CompletableFuture<Entry> fetch(String key, String location) {
+        Path temp = cacheDir.resolve(".tmp-" + UUID.randomUUID());
+        return storage.downloadWithETag(location, temp).handle((eTag, error) -> {
+            if (error != null) {
+                deleteQuietly(temp);
+                throw error instanceof RuntimeException re ? re : new RuntimeException(error);
+            }
+            try {
+                Path file = cacheDir.resolve(fileName(key, eTag, fileSequence.incrementAndGet()));
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+                return index(new Entry(key, eTag, file, Files.size(file)));
+            } catch (IOException e) {
+                deleteQuietly(temp);
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private synchronized Entry index(Entry entry) {
+        entry.refs = 1;
+        if (entry.size > maxBytes) {
+            entry.evicted = true; // too large to cache: deleted once released
+            return entry;
+        }
+        Entry previous = entries.put(entry.key, entry);
+        if (previous != null && previous != entry) {
+            removeEntry(previous);
+        }
+        totalBytes += entry.size;
+
+        Iterator<Entry> it = entries.values().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Entry eldest = it.next();
+            if (eldest.refs > 0) {
+                continue;
+            }
+            it.remove();
+            totalBytes -= eldest.size;
+            eldest.evicted = true;
+            evictionCount++;
+            deleteQuietly(eldest.file);
+        }
+        return entry;
+    }
+
+    // ── Pinning ──────────────────────────────────────────────
+
+    /** Pins an entry, or returns null if it was evicted and its file is already gone. */
+    private synchronized Lease pin(Entry entry) {
+        if (entry.evicted && entry.refs == 0) {
+            return null;
+        }
+        entry.refs++;
+        return new Lease(entry);
+    }
+
+    private synchronized void release(Entry entry) {
+        entry.refs--;
+        if (entry.evicted && entry.refs == 0) {
+            deleteQuietly(entry.file);
+        }
+    }
+
+    private synchronized void invalidate(Entry entry) {
+        if (entries.remove(entry.key, entry)) {
+            removeEntry(entry);
+        }
+    }
+
+    /** Drops an entry that is no longer indexed; the file goes once nobody reads it. */
+    private void removeEntry(Entry entry) {
+        totalBytes -= entry.size;
+        entry.evicted = true;
+        if (entry.refs == 0) {
+            deleteQuietly(entry.file);
+        }
+    }
+
+    /** Deletes this instance's directory and every cached file in it. */
+    @Override
+    public synchronized void close() {
+        entries.clear();
+        totalBytes = 0;
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            files.forEach(S3DiskCache::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Failed to list S3 cache directory: {}", cacheDir, e);
+        }
+        deleteQuietly(cacheDir);
+    }
+
+    // ── Stats ────────────────────────────────────────────────
+
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    public synchronized long coalescedCount() {
+        return coalescedCount;
+    }
+
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /**
+     * Unique per download: an evicted or over-size entry may still be pinned when the same
+     * object is fetched again, and releasing it must delete only its own file.
+     */
+    private static String fileName(String key, String eTag, long sequence) {
+        String digest = HashUtil.sha256Hex((key + "\n" + eTag).getBytes(StandardCharsets.UTF_8));
+        return digest.substring(0, 32) + "-" + sequence;
+    }
+
+    /** A fresh directory per instance: files of other instances or a previous run are never indexed. */
+    private static Path createInstanceDirectory(Path cacheRoot) {
+        try {
+            Files.createDirectories(cacheRoot);
+            return Files.createTempDirectory(cacheRoot, "pb-");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to prepare S3 cache directory in " + cacheRoot, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached file: {}", file, e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final String eTag;
+        private final Path file;
+        private final long size;
+        private long verifiedAt = System.nanoTime();
+        private int refs;
+        private boolean evicted;
+
+        private Entry(String key, String eTag, Path file, long size) {
+            this.key = key;
+            this.eTag = eTag;
+            this.file = file;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.profilebuilder.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * S3 storage (ECS/production) on the non-blocking {@link S3AsyncClient}.
+ * The client is built with multipart enabled, so large uploads are split into
+ * parts that are transferred in parallel. Created by S3Config when a bucket is configured.
+ */
+public class S3DocumentStorage implements DocumentStorage {
+
+    private static final Logger log = LoggerFactory.getLogger(S3DocumentStorage.class);
+
+    private final S3AsyncClient s3AsyncClient;
+    private final S3Presigner s3Presigner;
+    private final String bucketName;
+    private final StorageMetrics metrics;
+
+    /** A pre-signed PUT request the client sends straight to S3 with exactly {@code headers}. */
+    public record PresignedUpload(String location, URL url, Map<String, String> headers, Instant expiresAt) {}
+
+    /** Metadata of a stored object; {@code checksumSha256} is base64 and null if none was stored. */
+    public record ObjectInfo(long contentLength, String contentType, String eTag, String checksumSha256) {}
+
+    public S3DocumentStorage(S3AsyncClient s3AsyncClient, S3Presigner s3Presigner,
+                             String bucketName, StorageMetrics metrics) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.s3Presigner = s3Presigner;
+        this.bucketName = bucketName;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String name() {
+        return "s3";
+    }
+
+    @Override
+    public boolean handles(String location) {
+        return location.startsWith(prefix());
+    }
+
+    @Override
+    public CompletableFuture<String> put(String key, Path source, String contentType) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build();
+        return metrics.time(name(), "put", () -> s3AsyncClient.putObject(request, AsyncRequestBody.fromFile(source))
+                .thenApply(response -> {
+                    log.info("File uploaded to S3: s3://{}/{}", bucketName, key);
+                    return prefix() + key;
+                }));
+    }
+
+    @Override
+    public CompletableFuture<Void> download(String location, Path target) {
+        return downloadWithETag(location, target).thenApply(eTag -> null);
+    }
+
+    /**
+     * Like {@link #download}, but completes with the ETag of the object that was read.
+     */
+    public CompletableFuture<String> downloadWithETag(String location, Path target) {
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyOf(location))
+                .build();
+        return metrics.time(name(), "download", () -> s3AsyncClient
+                .getObject(request, AsyncResponseTransformer.toFile(target))
+                .thenApply(response -> response.eTag()));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String location) {
+        DeleteObjectRequest request = DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyOf(location))
+                .build();
+        return metrics.time(name(), "delete", () -> s3AsyncClient.deleteObject(request)
+                .thenApply(response -> {
+                    log.info("File deleted from S3: {}", location);
+                    return null;
+                }));
+    }
+
+    /**
+     * Pre-sign a PUT of exactly {@code contentLength} bytes of {@code contentType} under {@code key}
+     * whose SHA-256 is {@code sha256Hex}. All three are part of the signature, and S3 checks the
+     * body against the checksum, so uploads that do not match are rejected.
+     */
+    public PresignedUpload presignPut(String key, String contentType, long contentLength,
+                                      String sha256Hex, Duration ttl) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .checksumSHA256(Base64.getEncoder().encodeToString(HexFormat.of().parseHex(sha256Hex)))
+                .build();
+        PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(builder -> builder
+                .signatureDuration(ttl)
+                .putObjectRequest(request));
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        presigned.signedHeaders().forEach((name, values) -> {
+            if (!"host".equalsIgnoreCase(name) && !"content-length".equalsIgnoreCase(name)) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+        return new PresignedUpload(prefix() + key, presigned.url(), headers, presigned.expiration());
+    }
+
+    /**
+     * HEAD a stored object; completes with empty when it does not exist.
+     */
+    public CompletableFuture<Optional<ObjectInfo>> head(String location) {
+        HeadObjectRequest request = HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyOf(location))
+                .checksumMode(ChecksumMode.ENABLED)
+                .build();
+        return metrics.time(name(), "head", () -> s3AsyncClient.headObject(request)
+                .thenApply(response -> Optional.of(new ObjectInfo(response.contentLength(),
+                        response.contentType(), response.eTag(), response.checksumSHA256())))
+                .exceptionallyCompose(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    boolean notFound = cause instanceof NoSuchKeyException
+                            || (cause instanceof S3Exception s3e && s3e.statusCode() == 404);
+                    return notFound
+                            ? CompletableFuture.completedFuture(Optional.empty())
+                            : CompletableFuture.failedFuture(cause);
+                }));
+    }
+
+    /** Object key of an {@code s3://bucket/key} location in this bucket. */
+    public String keyOf(String location) {
+        if (!handles(location)) {
+            throw new IllegalArgumentException("Not a location in bucket " + bucketName + ": " + location);
+        }
+        return location.substring(prefix().length());
+    }
+
+    private String prefix() {
+        return "s3://" + bucketName + "/";
+    }
+}
@@ -0,0 +1,50 @@
+package com.profilebuilder.storage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records per-operation latency histograms for {@link DocumentStorage} backends
+ * as {@code pb.storage.latency{backend, operation, outcome}}.
+ */
+@Component
+public class StorageMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public StorageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Time an asynchronous operation from invocation until its future completes.
+     * Synchronous exceptions are turned into a failed future.
+     */
+    public <T> CompletableFuture<T> time(String backend, String operation, Supplier<CompletableFuture<T>> op) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = op.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) ->
+                timer(backend, operation, error == null ? "success" : "failure")
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private Timer timer(String backend, String operation, String outcome) {
+        return Timer.builder("pb.storage.latency")
+                .description("Document storage operation latency")
+                .tag("backend", backend)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,149 @@
+package com.profilebuilder.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over a fixed set of patterns: finds every occurrence of every
+ * pattern in one pass over the text, in time linear in the text length plus the matches.
+ * Matching is case-sensitive and exact, so patterns and texts should be normalised the
+ * same way beforehand. Only whole-word occurrences are reported: a match may not be
+ * preceded or followed by a letter, a digit, or a dot between letters or digits (so that
+ * "js" is not found in "node.js"). Immutable and thread-safe once built.
+ */
+public final class AhoCorasick {
+
+    /** Receives the pattern index and the [start, end) range of each match. */
+    @FunctionalInterface
+    public interface MatchHandler {
+        void onMatch(int pattern, int start, int end);
+    }
+
+    /** Transitions of each state, sorted by character for binary search. */
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] fail;
+    /** Patterns ending in each state, including those reached through failure links. */
+    private final int[][] outputs;
+    private final int[] patternLengths;
+
+    public AhoCorasick(List<String> patterns) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(new ArrayList<>());
+        patternLengths = new int[patterns.size()];
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Empty pattern at index " + p);
+            }
+            patternLengths[p] = pattern.length();
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = trie.get(state).get(pattern.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.get(state).put(pattern.charAt(i), next);
+                    trie.add(new TreeMap<>());
+                    ends.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            ends.get(state).add(p);
+        }
+
+        int size = trie.size();
+        keys = new char[size][];
+        targets = new int[size][];
+        for (int s = 0; s < size; s++) {
+            TreeMap<Character, Integer> transitions = trie.get(s);
+            keys[s] = new char[transitions.size()];
+            targets[s] = new int[transitions.size()];
+            int i = 0;
+            for (var transition : transitions.entrySet()) {
+                keys[s][i] = transition.getKey();
+                targets[s][i++] = transition.getValue();
+            }
+        }
+
+        // breadth-first, so the failure state of each state is complete before its children
+        fail = new int[size];
+        outputs = new int[size][];
+        outputs[0] = new int[0];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] own = ends.get(state).stream().mapToInt(Integer::intValue).toArray();
+            int[] inherited = outputs[fail[state]];
+            outputs[state] = inherited.length == 0 ? own : concat(own, inherited);
+            for (int i = 0; i < keys[state].length; i++) {
+                char c = keys[state][i];
+                int child = targets[state][i];
+                int f = fail[state];
+                int next;
+                while ((next = next(f, c)) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = next >= 0 ? next : 0;
+                queue.add(child);
+            }
+        }
+    }
+
+    /** Number of patterns. */
+    public int size() {
+        return patternLengths.length;
+    }
+
+    /** Reports each whole-word occurrence of every pattern, in end-position order. */
+    public void scan(CharSequence text, MatchHandler handler) {
+        int state = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = next(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+            int[] matches = outputs[state];
+            if (matches.length == 0 || isWordChar(text, i + 1)) {
+                continue;
+            }
+            for (int pattern : matches) {
+                int start = i + 1 - patternLengths[pattern];
+                if (!isWordChar(text, start - 1)) {
+                    handler.onMatch(pattern, start, i + 1);
+                }
+            }
+        }
+    }
+
+    private static boolean isWordChar(CharSequence text, int i) {
+        if (i < 0 || i >= text.length()) {
+            return false;
+        }
+        char c = text.charAt(i);
+        return Character.isLetterOrDigit(c) || (c == '.' && i > 0 && i + 1 < text.length()
+                && Character.isLetterOrDigit(text.charAt(i - 1)) && Character.isLetterOrDigit(text.charAt(i + 1)));
+    }
+
+    private int next(int state, char c) {
+        int index = Arrays.binarySearch(keys[state], c);
+        return index >= 0 ? targets[state][index] : -1;
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+}
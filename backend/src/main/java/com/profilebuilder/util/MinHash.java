@@ -0,0 +1,88 @@
+package com.profilebuilder.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * MinHash signatures over word shingles, for estimating the Jaccard similarity of
+ * short texts. Signatures of {@code numHashes} 64-bit values are split into LSH bands
+ * so near-duplicate candidates can be found without comparing every pair.
+ */
+public class MinHash {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final int numHashes;
+    private final int shingleSize;
+    private final long[] seeds;
+
+    public MinHash(int numHashes, int shingleSize) {
+        this.numHashes = numHashes;
+        this.shingleSize = shingleSize;
+        this.seeds = new long[numHashes];
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < numHashes; i++) {
+            seed = mix(seed + i);
+            seeds[i] = seed;
+        }
+    }
+
+    /** Lower-cased word tokens of the text. */
+    public static List<String> words(String text) {
+        return Arrays.stream(NON_WORD.split(text.toLowerCase(Locale.ROOT)))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Signature of the text's word shingles. Texts shorter than one shingle use the
+     * whole text as a single shingle.
+     */
+    public long[] signature(List<String> words) {
+        long[] signature = new long[numHashes];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        int shingles = Math.max(1, words.size() - shingleSize + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = 0;
+            for (int i = start; i < Math.min(start + shingleSize, words.size()); i++) {
+                shingle = shingle * 31 + words.get(i).hashCode();
+            }
+            for (int h = 0; h < numHashes; h++) {
+                long value = mix(shingle ^ seeds[h]);
+                if (value < signature[h]) {
+                    signature[h] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /** Estimated Jaccard similarity: the share of positions where both signatures agree. */
+    public static double similarity(long[] a, long[] b) {
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / a.length;
+    }
+
+    /** Hash of rows {@code [band * rows, (band + 1) * rows)} of the signature, for LSH bucketing. */
+    public static long bandHash(long[] signature, int band, int rows) {
+        long hash = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            hash = hash * 1_000_003L ^ signature[i];
+        }
+        return hash;
+    }
+
+    /** SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
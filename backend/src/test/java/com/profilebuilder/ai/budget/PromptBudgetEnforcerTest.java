@@ -0,0 +1,158 @@
+package com.profilebuilder.ai.budget;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profilebuilder.exception.PromptTooLargeException;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.TokenCountEstimator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PromptBudgetEnforcerTest {
+
+    private static final String AGENT = "test-agent";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void sendsTheMessageUnchangedWhenWithinBudget() throws Exception {
+        PromptFields fields = new PromptFields()
+                .fixed("jobDescription", "xxxxx")
+                .trimmable("notes", lines(10), 1, 6)
+                .trimmable("documents", List.of("xxxx", "xxxx"), 2, 0);
+
+        String message = enforcer(100).fit(AGENT, fields);
+
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("jobDescription", "xxxxx");
+        expected.put("notes", lines(10));
+        expected.put("documents", List.of("xxxx", "xxxx"));
+        assertThat(message).isEqualTo(objectMapper.writeValueAsString(expected));
+        assertThat(outcomeCount("within")).isEqualTo(1);
+        assertThat(outcomeCount("compacted")).isZero();
+    }
+
+    @Test
+    void trimsOnlyTheLowestPriorityFieldWhenThatIsEnough() throws Exception {
+        // 5 + 29 + 29 = 63 tokens; trimming notes by 13 tokens fits 50
+        JsonNode message = fit(50, new PromptFields()
+                .fixed("jobDescription", "xxxxx")
+                .trimmable("profile", lines(10), 2, 6)
+                .trimmable("notes", lines(10), 1, 6));
+
+        assertThat(message.get("jobDescription").asText()).isEqualTo("xxxxx");
+        assertThat(message.get("notes").asText()).isEqualTo(lines(5));
+        assertThat(message.get("profile").asText()).isEqualTo(lines(10));
+        assertThat(outcomeCount("compacted")).isEqualTo(1);
+    }
+
+    @Test
+    void trimsTheNextPriorityOnlyAfterTheFirstReachesItsFloor() throws Exception {
+        JsonNode message = fit(30, new PromptFields()
+                .fixed("jobDescription", "xxxxx")
+                .trimmable("profile", lines(10), 2, 6)
+                .trimmable("notes", lines(10), 1, 6));
+
+        // notes keep the leading lines that fit their 6-token floor
+        assertThat(message.get("notes").asText()).isEqualTo(lines(2));
+        // the remaining excess comes out of profile, cutting its last line short
+        assertThat(message.get("profile").asText()).isEqualTo(lines(6) + "\nx");
+        assertThat(message.get("jobDescription").asText()).isEqualTo("xxxxx");
+    }
+
+    @Test
+    void dropsAndShortensTheLastDocumentsOfAListFirst() throws Exception {
+        String document = "x".repeat(10);
+
+        JsonNode message = fit(22, new PromptFields()
+                .fixed("jobDescription", "xxxxx")
+                .trimmable("documents", List.of(document, document, document), 1, 0));
+
+        JsonNode documents = message.get("documents");
+        assertThat(documents).hasSize(2);
+        assertThat(documents.get(0).asText()).isEqualTo(document);
+        assertThat(documents.get(1).asText()).isEqualTo("x".repeat(6));
+    }
+
+    @Test
+    void rejectsInputWhoseFloorsExceedTheBudget() {
+        PromptFields fields = new PromptFields()
+                .fixed("jobDescription", "x".repeat(15))
+                .trimmable("notes", lines(10), 1, 10);
+
+        assertThatThrownBy(() -> enforcer(20).fit(AGENT, fields))
+                .isInstanceOf(PromptTooLargeException.class);
+        assertThat(outcomeCount("rejected")).isEqualTo(1);
+        assertThat(outcomeCount("compacted")).isZero();
+    }
+
+    @Test
+    void rejectsAnUnknownAgent() {
+        assertThatThrownBy(() -> enforcer(100).fit("other-agent", new PromptFields()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    private PromptBudgetEnforcer enforcer(int maxInputTokens) {
+        return new PromptBudgetEnforcer(objectMapper, meterRegistry, List.of(
+                new PromptBudgetEnforcer.Budget(AGENT, new MarkerEstimator(), maxInputTokens,
+                        "prompts/hr-revalidator-system.txt")));
+    }
+
+    private JsonNode fit(int maxInputTokens, PromptFields fields) throws Exception {
+        return objectMapper.readTree(enforcer(maxInputTokens).fit(AGENT, fields));
+    }
+
+    private double outcomeCount(String outcome) {
+        return meterRegistry.counter("pb.ai.prompt.budget", "agent", AGENT, "outcome", outcome).count();
+    }
+
+    /** {@code count} lines of "xx": 2 tokens per line plus 1 per line break. */
+    private static String lines(int count) {
+        return String.join("\n", Collections.nCopies(count, "xx"));
+    }
+
+    /**
+     * Counts each {@code x} and each line break (raw, or escaped in JSON) as one token, so
+     * field names and JSON punctuation are free. The system prompt counts as zero tokens.
+     */
+    private static final class MarkerEstimator implements TokenCountEstimator {
+
+        @Override
+        public int estimateTokenCountInText(String text) {
+            int tokens = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == 'x' || c == '\n' || (c == '\\' && i + 1 < text.length() && text.charAt(i + 1) == 'n')) {
+                    tokens++;
+                }
+            }
+            return tokens;
+        }
+
+        @Override
+        public int estimateTokenCountInMessage(ChatMessage message) {
+            return message instanceof UserMessage user ? estimateTokenCountInText(user.singleText()) : 0;
+        }
+
+        @Override
+        public int estimateTokenCountInMessages(Iterable<ChatMessage> messages) {
+            int total = 0;
+            for (ChatMessage message : messages) {
+                total += estimateTokenCountInMessage(message);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.profilebuilder.ai.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void bucketsRefillContinuouslyUpToCapacity() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(60, 6000, 0);
+
+        limiter.consume(3000, 0);
+
+        assertThat(limiter.availableTokens(0)).isEqualTo(3000);
+        assertThat(limiter.availableRequests(0)).isEqualTo(59);
+        assertThat(limiter.nanosUntilAvailable(4000, 0)).isEqualTo(10 * SECOND);
+        assertThat(limiter.availableTokens(10 * SECOND)).isEqualTo(4000);
+        assertThat(limiter.availableTokens(120 * SECOND)).isEqualTo(6000);
+    }
+
+    @Test
+    void requestBucketLimitsCallsRegardlessOfTokens() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(2, 100_000, 0);
+
+        limiter.consume(10, 0);
+        limiter.consume(10, 0);
+
+        assertThat(limiter.nanosUntilAvailable(10, 0)).isEqualTo(30 * SECOND);
+        assertThat(limiter.nanosUntilAvailable(10, 30 * SECOND)).isZero();
+    }
+
+    @Test
+    void callsLargerThanCapacityNeedAFullBucket() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(60, 1000, 0);
+
+        limiter.consume(500, 0);
+
+        assertThat(limiter.nanosUntilAvailable(5000, 0)).isEqualTo(30 * SECOND);
+    }
+
+    @Test
+    void settleReturnsOverEstimatesAndChargesUnderEstimates() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(60, 6000, 0);
+        limiter.consume(2000, 0);
+
+        limiter.settle(2000, 500, 0);
+        assertThat(limiter.availableTokens(0)).isEqualTo(5500);
+
+        limiter.settle(500, 3000, 0);
+        assertThat(limiter.availableTokens(0)).isEqualTo(3000);
+    }
+
+    @Test
+    void adaptsToAdvertisedLimitsAndRemainingQuota() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(60, 6000, 0);
+
+        limiter.update(Map.of(
+                "X-RateLimit-Limit-Tokens", List.of("1200"),
+                "x-ratelimit-remaining-tokens", List.of("300"),
+                "x-ratelimit-limit-requests", List.of("120"),
+                "x-ratelimit-remaining-requests", List.of("not a number")), 0);
+
+        assertThat(limiter.availableTokens(0)).isEqualTo(300);
+        assertThat(limiter.availableRequests(0)).isEqualTo(60);
+        // the advertised limit is the new refill rate: 1200 tokens per minute
+        assertThat(limiter.nanosUntilAvailable(600, 0)).isEqualTo(15 * SECOND);
+        assertThat(limiter.availableTokens(60 * SECOND)).isEqualTo(1200);
+        assertThat(limiter.availableRequests(60 * SECOND)).isEqualTo(120);
+    }
+
+    @Test
+    void ignoresMissingHeaders() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(60, 6000, 0);
+
+        limiter.update(Map.of(), 0);
+        limiter.update(null, 0);
+
+        assertThat(limiter.availableTokens(0)).isEqualTo(6000);
+    }
+
+    @Test
+    void throttleEmptiesBothBuckets() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(60, 6000, 0);
+
+        limiter.throttle(0);
+
+        assertThat(limiter.availableRequests(0)).isZero();
+        assertThat(limiter.availableTokens(0)).isZero();
+        assertThat(limiter.nanosUntilAvailable(100, 0)).isEqualTo(SECOND);
+    }
+}
@@ -0,0 +1,234 @@
+package com.profilebuilder.ai.limit;
+
+import com.profilebuilder.exception.AiCapacityExceededException;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.TokenCountEstimator;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModelGovernorTest {
+
+    private static final int PROMPT_TOKENS = 100;
+    private static final int OUTPUT_TOKENS = 400;
+    private static final ChatRequest REQUEST = ChatRequest.builder()
+            .messages(UserMessage.from("prompt"))
+            .maxOutputTokens(OUTPUT_TOKENS)
+            .build();
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BlockingQueue<Outcome> outcomes = new LinkedBlockingQueue<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    /** What a queued caller got: a permit, or the reason it was turned away. */
+    private record Outcome(String label, ModelGovernor.Permit permit, RuntimeException error) {}
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.interrupt();
+            thread.join(5000);
+        }
+    }
+
+    @Test
+    void admitsImmediatelyWithinLimits() {
+        ModelGovernor governor = governor(2, 10_000, 10, Duration.ofSeconds(10));
+
+        governor.acquire(REQUEST);
+        governor.acquire(REQUEST);
+
+        assertThat(gauge("pb.ai.model.in.flight")).isEqualTo(2);
+        assertThat(gauge("pb.ai.model.rate.limit.available", "tokens"))
+                .isEqualTo(10_000 - 2 * (PROMPT_TOKENS + OUTPUT_TOKENS));
+    }
+
+    @Test
+    void countsCallsMadeOutsideACallerScopeByAgent() {
+        ModelGovernor governor = governor(4, 100_000, 10, Duration.ofSeconds(10));
+
+        AiCallContext.runAsAgent("jd-vision", () -> governor.acquire(REQUEST));
+        AiCallContext.runAsAgent("jd-vision", () -> governor.acquire(REQUEST));
+        AiCallContext.runAs(1L, () -> AiCallContext.runAsAgent("jd-vision", () -> governor.acquire(REQUEST)));
+
+        assertThat(meterRegistry.get("pb.ai.model.unattributed").tag("agent", "jd-vision").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void servesCallerLanesRoundRobin() throws InterruptedException {
+        ModelGovernor governor = governor(1, 100_000, 10, Duration.ofSeconds(10));
+        ModelGovernor.Permit held = governor.acquire(REQUEST);
+
+        queue(governor, 1L, "user1-first", 1);
+        queue(governor, 1L, "user1-second", 2);
+        queue(governor, 2L, "user2-first", 3);
+
+        held.release(null);
+        List<String> order = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Outcome outcome = next();
+            order.add(outcome.label());
+            outcome.permit().release(null);
+        }
+
+        assertThat(order).containsExactly("user1-first", "user2-first", "user1-second");
+        assertThat(gauge("pb.ai.model.queue.size")).isZero();
+        assertThat(gauge("pb.ai.model.in.flight")).isZero();
+    }
+
+    @Test
+    void rejectsWithoutQueuingWhenTheQueueIsFull() throws InterruptedException {
+        ModelGovernor governor = governor(1, 100_000, 1, Duration.ofSeconds(10));
+        ModelGovernor.Permit held = governor.acquire(REQUEST);
+        queue(governor, 1L, "waiting", 1);
+
+        assertThatThrownBy(() -> governor.acquire(REQUEST))
+                .isInstanceOf(AiCapacityExceededException.class)
+                .hasMessageContaining("queue full");
+        assertThat(waitCount("queue_full")).isEqualTo(1);
+
+        held.release(null);
+        assertThat(next().label()).isEqualTo("waiting");
+    }
+
+    @Test
+    void rejectsCallsTheRateLimitCannotAdmitWithinTheQueueTimeout() {
+        ModelGovernor governor = governor(4, 1000, 10, Duration.ofSeconds(1));
+        governor.acquire(REQUEST).release(null);
+        governor.acquire(REQUEST).release(null);
+
+        assertThatThrownBy(() -> governor.acquire(REQUEST))
+                .isInstanceOf(AiCapacityExceededException.class)
+                .hasMessageContaining("rate limit frees up in 30000 ms");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        governor.acquire(REQUEST);
+        assertThat(waitCount("rate_limited")).isEqualTo(1);
+        assertThat(waitCount("acquired")).isEqualTo(3);
+    }
+
+    @Test
+    void failsAWaitingCallWhenTheQueueTimeoutExpires() throws InterruptedException {
+        Duration timeout = Duration.ofMillis(200);
+        ModelGovernor governor = governor(1, 100_000, 10, timeout);
+        governor.acquire(REQUEST);
+        queue(governor, 1L, "waiting", 1);
+
+        clock.addAndGet(timeout.toNanos() + 1);
+        Outcome outcome = next();
+
+        assertThat(outcome.error())
+                .isInstanceOf(AiCapacityExceededException.class)
+                .hasMessageContaining("no capacity within 200 ms");
+        assertThat(gauge("pb.ai.model.queue.size")).isZero();
+        assertThat(waitCount("timeout")).isEqualTo(1);
+    }
+
+    @Test
+    void settlesTheEstimateWithReportedUsage() {
+        ModelGovernor governor = governor(1, 10_000, 10, Duration.ofSeconds(10));
+        ModelGovernor.Permit permit = governor.acquire(REQUEST);
+
+        permit.release(ChatResponse.builder()
+                .aiMessage(AiMessage.from("answer"))
+                .tokenUsage(new TokenUsage(PROMPT_TOKENS, 50))
+                .build());
+
+        assertThat(gauge("pb.ai.model.rate.limit.available", "tokens")).isEqualTo(10_000 - PROMPT_TOKENS - 50);
+    }
+
+    @Test
+    void throttlingPausesAdmissionUntilTheBucketsRefill() {
+        ModelGovernor governor = governor(1, 60_000, 10, Duration.ofMillis(500));
+
+        governor.rateLimited();
+
+        assertThatThrownBy(() -> governor.acquire(REQUEST))
+                .isInstanceOf(AiCapacityExceededException.class)
+                .hasMessageContaining("rate limit");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        governor.acquire(REQUEST);
+        assertThat(meterRegistry.get("pb.ai.model.throttled").counter().count()).isEqualTo(1);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    /** 60 requests per minute, so the request bucket refills one call per second. */
+    private ModelGovernor governor(int maxConcurrency, long tokensPerMinute, int maxQueued, Duration queueTimeout) {
+        return new ModelGovernor("test-model", maxConcurrency, 60, tokensPerMinute, maxQueued, queueTimeout,
+                new FixedEstimator(), OUTPUT_TOKENS, meterRegistry, clock::get);
+    }
+
+    /** Starts a call as {@code userId} on its own thread and waits until it is queued. */
+    private void queue(ModelGovernor governor, Long userId, String label, int expectedQueueSize)
+            throws InterruptedException {
+        Thread thread = new Thread(() -> AiCallContext.runAs(userId, () -> {
+            try {
+                outcomes.add(new Outcome(label, governor.acquire(REQUEST), null));
+            } catch (RuntimeException e) {
+                outcomes.add(new Outcome(label, null, e));
+            }
+        }));
+        threads.add(thread);
+        thread.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gauge("pb.ai.model.queue.size") < expectedQueueSize) {
+            assertThat(System.nanoTime()).as("%s queued in time", label).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private Outcome next() throws InterruptedException {
+        Outcome outcome = outcomes.poll(5, TimeUnit.SECONDS);
+        assertThat(outcome).as("a queued call finished in time").isNotNull();
+        return outcome;
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private double gauge(String name, String limit) {
+        return meterRegistry.get(name).tag("limit", limit).gauge().value();
+    }
+
+    private long waitCount(String outcome) {
+        return meterRegistry.get("pb.ai.model.queue.wait").tag("outcome", outcome).timer().count();
+    }
+
+    private static final class FixedEstimator implements TokenCountEstimator {
+
+        @Override
+        public int estimateTokenCountInText(String text) {
+            return PROMPT_TOKENS;
+        }
+
+        @Override
+        public int estimateTokenCountInMessage(ChatMessage message) {
+            return PROMPT_TOKENS;
+        }
+
+        @Override
+        public int estimateTokenCountInMessages(Iterable<ChatMessage> messages) {
+            return PROMPT_TOKENS;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.profilebuilder.ai.metrics;
+
+import com.profilebuilder.ai.limit.AiCallContext;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.listener.ChatModelErrorContext;
+import dev.langchain4j.model.chat.listener.ChatModelRequestContext;
+import dev.langchain4j.model.chat.listener.ChatModelResponseContext;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.openai.OpenAiTokenUsage;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AiCallMetricsTest {
+
+    private static final String MODEL = "gpt-5-mini";
+    private static final ChatRequest REQUEST = ChatRequest.builder()
+            .modelName(MODEL)
+            .messages(UserMessage.from("prompt"))
+            .build();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AiCallMetrics metrics = new AiCallMetrics(meterRegistry);
+
+    @AfterEach
+    void clearInterrupt() {
+        Thread.interrupted();
+    }
+
+    @Test
+    void recordsASuccessfulCallAndItsTokensUnderTheAgent() {
+        Map<Object, Object> attributes = AiCallContext.callAsAgent("hr-validator", this::request);
+        TokenUsage usage = OpenAiTokenUsage.builder()
+                .inputTokenCount(1200)
+                .outputTokenCount(300)
+                .inputTokensDetails(OpenAiTokenUsage.InputTokensDetails.builder().cachedTokens(1024).build())
+                .build();
+
+        metrics.onResponse(new ChatModelResponseContext(response(usage), REQUEST, ModelProvider.OPEN_AI, attributes));
+
+        assertThat(call("hr-validator", "success").count()).isEqualTo(1);
+        assertThat(tokens("hr-validator", "input")).isEqualTo(1200);
+        assertThat(tokens("hr-validator", "output")).isEqualTo(300);
+        assertThat(tokens("hr-validator", "cached")).isEqualTo(1024);
+    }
+
+    @Test
+    void tagsCallsOutsideAnAgentScopeAsUnknownAndSkipsMissingUsage() {
+        Map<Object, Object> attributes = request();
+        ChatRequest unnamed = ChatRequest.builder().messages(UserMessage.from("prompt")).build();
+
+        metrics.onResponse(new ChatModelResponseContext(response(null), unnamed, ModelProvider.OPEN_AI, attributes));
+
+        assertThat(meterRegistry.get("pb.ai.model.call")
+                .tag("agent", AiCallMetrics.UNKNOWN).tag("model", AiCallMetrics.UNKNOWN).tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("pb.ai.model.tokens").counters()).isEmpty();
+    }
+
+    @Test
+    void countsAFailedCallByException() {
+        Map<Object, Object> attributes = AiCallContext.callAsAgent("company-research", this::request);
+
+        metrics.onError(new ChatModelErrorContext(new IOException("reset"), REQUEST, ModelProvider.OPEN_AI, attributes));
+
+        assertThat(call("company-research", "error").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("pb.ai.model.errors")
+                .tag("agent", "company-research").tag("model", MODEL).tag("exception", "IOException")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordsAnInterruptedCallAsCancelledWithoutAnError() {
+        Map<Object, Object> attributes = AiCallContext.callAsAgent("smart-resume", this::request);
+
+        Thread.currentThread().interrupt();
+        metrics.onError(new ChatModelErrorContext(new RuntimeException("interrupted"), REQUEST,
+                ModelProvider.OPEN_AI, attributes));
+
+        assertThat(call("smart-resume", "cancelled").count()).isEqualTo(1);
+        assertThat(meterRegistry.find("pb.ai.model.call").tag("outcome", "error").timer()).isNull();
+        assertThat(meterRegistry.find("pb.ai.model.errors").counter()).isNull();
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    private Map<Object, Object> request() {
+        Map<Object, Object> attributes = new HashMap<>();
+        metrics.onRequest(new ChatModelRequestContext(REQUEST, ModelProvider.OPEN_AI, attributes));
+        return attributes;
+    }
+
+    private static ChatResponse response(TokenUsage usage) {
+        return ChatResponse.builder().aiMessage(AiMessage.from("answer")).tokenUsage(usage).build();
+    }
+
+    private Timer call(String agent, String outcome) {
+        return meterRegistry.get("pb.ai.model.call")
+                .tag("agent", agent).tag("model", MODEL).tag("outcome", outcome)
+                .timer();
+    }
+
+    private double tokens(String agent, String type) {
+        return meterRegistry.get("pb.ai.model.tokens")
+                .tag("agent", agent).tag("model", MODEL).tag("type", type)
+                .counter().count();
+    }
+}
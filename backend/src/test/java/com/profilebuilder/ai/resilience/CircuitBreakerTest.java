@@ -0,0 +1,94 @@
+package com.profilebuilder.ai.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_NANOS = 1_000;
+
+    private final CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.5, OPEN_NANOS);
+
+    @Test
+    void staysClosedUntilMinimumCallsAreRecorded() {
+        assertThat(breaker.onFailure(0)).isFalse();
+        assertThat(breaker.onFailure(0)).isFalse();
+        assertThat(breaker.onFailure(0)).isFalse();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire(0)).isTrue();
+    }
+
+    @Test
+    void opensAtTheFailureRateThreshold() {
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure(0);
+
+        assertThat(breaker.onFailure(10)).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(10 + OPEN_NANOS - 1)).isFalse();
+    }
+
+    @Test
+    void slidesTheWindowOverOldCalls() {
+        breaker.onFailure(0);
+        for (int i = 0; i < 4; i++) {
+            breaker.onSuccess();
+        }
+
+        assertThat(breaker.onFailure(0)).isFalse();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void letsOneTrialThroughAfterTheOpenPeriod() {
+        open();
+
+        assertThat(breaker.tryAcquire(OPEN_NANOS)).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire(OPEN_NANOS)).isFalse();
+    }
+
+    @Test
+    void successfulTrialClosesWithAFreshWindow() {
+        open();
+        breaker.tryAcquire(OPEN_NANOS);
+
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.onFailure(OPEN_NANOS)).isFalse();
+        assertThat(breaker.onFailure(OPEN_NANOS)).isFalse();
+    }
+
+    @Test
+    void failedTrialReopens() {
+        open();
+        breaker.tryAcquire(OPEN_NANOS);
+
+        assertThat(breaker.onFailure(OPEN_NANOS)).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(2 * OPEN_NANOS - 1)).isFalse();
+        assertThat(breaker.tryAcquire(2 * OPEN_NANOS)).isTrue();
+    }
+
+    @Test
+    void ignoredTrialFreesTheSlotWithoutAVerdict() {
+        open();
+        breaker.tryAcquire(OPEN_NANOS);
+
+        breaker.onIgnored();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire(OPEN_NANOS)).isTrue();
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(0);
+        }
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
@@ -0,0 +1,74 @@
+package com.profilebuilder.ai.resilience;
+
+import com.profilebuilder.ai.agent.CompanyResearchAgent;
+import com.profilebuilder.ai.dto.CompanyResearchOutput;
+import com.profilebuilder.ai.resilience.ResilientAgents.AgentPolicy;
+import com.profilebuilder.ai.tool.CountingWebSearchEngine;
+import com.profilebuilder.ai.tool.CountingWebSearchEngine.Counted;
+import dev.langchain4j.exception.TimeoutException;
+import dev.langchain4j.web.search.WebSearchEngine;
+import dev.langchain4j.web.search.WebSearchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ResilientAgentsTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResilientAgents resilientAgents = new ResilientAgents(executor, meterRegistry,
+            new ResilientAgents.Settings(0.95, Duration.ofSeconds(5), 20, 20, 10, 0.5, Duration.ofSeconds(30)));
+    private final CountingWebSearchEngine webSearch =
+            new CountingWebSearchEngine(mock(WebSearchEngine.class), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void countsWebSearchesMadeOnTheExecutorTowardsTheCallersScope() {
+        CompanyResearchAgent agent = wrap(Duration.ofSeconds(5), input -> {
+            webSearch.search(WebSearchRequest.from("acme careers"));
+            webSearch.search(WebSearchRequest.from("acme funding"));
+            return new CompanyResearchOutput();
+        });
+
+        Counted<CompanyResearchOutput> counted = CountingWebSearchEngine.countCalls(() -> agent.researchCompany("{}"));
+
+        assertThat(counted.searchCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void failsAResearchRunThatOutlivesItsDeadline() {
+        CompanyResearchAgent agent = wrap(Duration.ofMillis(100), input -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new CompanyResearchOutput();
+        });
+
+        assertThatThrownBy(() -> agent.researchCompany("{}"))
+                .isInstanceOf(TimeoutException.class)
+                .hasMessageContaining(CompanyResearchAgent.NAME);
+        assertThat(meterRegistry.get("pb.ai.agent.latency").tag("outcome", "timeout").timer().count())
+                .isEqualTo(1);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    private CompanyResearchAgent wrap(Duration timeout, CompanyResearchAgent primary) {
+        return resilientAgents.wrap(CompanyResearchAgent.class,
+                new AgentPolicy(CompanyResearchAgent.NAME, timeout, false), primary, null);
+    }
+}
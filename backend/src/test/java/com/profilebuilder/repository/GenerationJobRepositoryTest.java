@@ -0,0 +1,248 @@
+package com.profilebuilder.repository;
+
+import com.profilebuilder.model.entity.GenerationJob;
+import com.profilebuilder.model.enums.GenerationJobStatus;
+import com.profilebuilder.model.enums.GenerationJobType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the queue's native claim and lease queries against PostgreSQL, with real
+ * transactions so that row locks are held across threads. Skipped without Docker.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GenerationJobRepositoryTest {
+
+    private static final int BATCH_CONCURRENCY = 2;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private GenerationJobRepository jobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private LocalDateTime due;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        jobRepository.deleteAll();
+        due = LocalDateTime.now().minusMinutes(1);
+    }
+
+    @Test
+    void claimsDueJobsButOnlyAsManyOfABatchAsItsFreeSlots() {
+        save(GenerationJobStatus.RUNNING, "batch-a", due);
+        List<Long> batchA = ids(save(GenerationJobStatus.QUEUED, "batch-a", due, 4));
+        List<Long> batchB = ids(save(GenerationJobStatus.QUEUED, "batch-b", due, 3));
+        List<Long> single = ids(save(GenerationJobStatus.QUEUED, null, due, 2));
+        save(GenerationJobStatus.QUEUED, null, LocalDateTime.now().plusMinutes(5));
+
+        List<Long> claimed = tx.execute(status ->
+                ids(jobRepository.lockDueJobs(LocalDateTime.now(), 10, BATCH_CONCURRENCY)));
+
+        assertThat(claimed).containsExactlyInAnyOrder(
+                batchA.get(0), batchB.get(0), batchB.get(1), single.get(0), single.get(1));
+    }
+
+    @Test
+    void concurrentClaimersSkipEachOthersLockedJobs() throws Exception {
+        List<Long> queued = ids(save(GenerationJobStatus.QUEUED, null, due, 6));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<Long>> first = other.submit(() -> tx.execute(status -> {
+                List<Long> claimed = ids(jobRepository.lockDueJobs(LocalDateTime.now(), 3, BATCH_CONCURRENCY));
+                locked.countDown();
+                awaitQuietly(release);
+                return claimed;
+            }));
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            List<Long> second = tx.execute(status ->
+                    ids(jobRepository.lockDueJobs(LocalDateTime.now(), 10, BATCH_CONCURRENCY)));
+            release.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS)).containsExactlyElementsOf(queued.subList(0, 3));
+            assertThat(second).containsExactlyElementsOf(queued.subList(3, 6));
+        } finally {
+            release.countDown();
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    void batchCapHoldsWhileAnotherClaimerHoldsTheBatchsFirstJobs() throws Exception {
+        List<Long> batch = ids(save(GenerationJobStatus.QUEUED, "batch-a", due, 5));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<Long>> first = other.submit(() -> tx.execute(status -> {
+                List<Long> claimed = ids(jobRepository.lockDueJobs(LocalDateTime.now(), 10, BATCH_CONCURRENCY));
+                locked.countDown();
+                awaitQuietly(release);
+                return claimed;
+            }));
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            List<Long> second = tx.execute(status ->
+                    ids(jobRepository.lockDueJobs(LocalDateTime.now(), 10, BATCH_CONCURRENCY)));
+            release.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS)).containsExactlyElementsOf(batch.subList(0, 2));
+            assertThat(second).isEmpty();
+        } finally {
+            release.countDown();
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    void parallelWorkersClaimEveryJobExactlyOnce() throws Exception {
+        List<Long> queued = ids(save(GenerationJobStatus.QUEUED, null, due, 40));
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Long>>> results = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                String workerId = "worker-" + w;
+                results.add(workers.submit(() -> claimUntilEmpty(workerId)));
+            }
+            List<Long> claimed = new ArrayList<>();
+            for (Future<List<Long>> result : results) {
+                claimed.addAll(result.get(30, TimeUnit.SECONDS));
+            }
+
+            assertThat(claimed).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(queued);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    void locksOnlyRunningJobsWhoseLeaseExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        GenerationJob expired = save(GenerationJobStatus.RUNNING, null, due);
+        GenerationJob live = save(GenerationJobStatus.RUNNING, null, due);
+        GenerationJob queued = save(GenerationJobStatus.QUEUED, null, due);
+        expired.setLockedAt(now.minusMinutes(5));
+        live.setLockedAt(now.minusSeconds(10));
+        queued.setLockedAt(now.minusMinutes(5));
+        jobRepository.saveAll(List.of(expired, live, queued));
+
+        List<Long> locked = tx.execute(status -> ids(jobRepository.lockExpiredLeases(now.minusMinutes(2))));
+
+        assertThat(locked).containsExactly(expired.getId());
+    }
+
+    @Test
+    void renewsOnlyTheLeasesTheWorkerStillHolds() {
+        LocalDateTime stale = LocalDateTime.now().minusMinutes(1);
+        GenerationJob mine = save(GenerationJobStatus.RUNNING, null, due);
+        GenerationJob taken = save(GenerationJobStatus.RUNNING, null, due);
+        mine.setLockedBy("worker-a");
+        mine.setLockedAt(stale);
+        taken.setLockedBy("worker-b");
+        taken.setLockedAt(stale);
+        jobRepository.saveAll(List.of(mine, taken));
+
+        LocalDateTime now = LocalDateTime.now();
+        Integer renewed = tx.execute(status ->
+                jobRepository.renewLeases(List.of(mine.getId(), taken.getId()), "worker-a", now));
+
+        assertThat(renewed).isEqualTo(1);
+        assertThat(jobRepository.findById(mine.getId()).orElseThrow().getLockedAt()).isAfter(stale);
+        assertThat(jobRepository.findById(taken.getId()).orElseThrow().getLockedAt()).isBefore(now);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    /** Claims as {@code GenerationJobService.claim} does, three at a time, until nothing is due. */
+    private List<Long> claimUntilEmpty(String workerId) {
+        List<Long> claimed = new ArrayList<>();
+        while (true) {
+            List<Long> batch = tx.execute(status -> {
+                List<GenerationJob> jobs = jobRepository.lockDueJobs(LocalDateTime.now(), 3, BATCH_CONCURRENCY);
+                for (GenerationJob job : jobs) {
+                    job.setStatus(GenerationJobStatus.RUNNING);
+                    job.setLockedBy(workerId);
+                    job.setLockedAt(LocalDateTime.now());
+                }
+                return ids(jobRepository.saveAll(jobs));
+            });
+            if (batch.isEmpty()) {
+                return claimed;
+            }
+            claimed.addAll(batch);
+        }
+    }
+
+    private List<GenerationJob> save(GenerationJobStatus status, String batchId, LocalDateTime runAfter, int count) {
+        List<GenerationJob> jobs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            jobs.add(save(status, batchId, runAfter));
+        }
+        return jobs;
+    }
+
+    private GenerationJob save(GenerationJobStatus status, String batchId, LocalDateTime runAfter) {
+        GenerationJob job = new GenerationJob();
+        job.setUserId(1L);
+        job.setBatchId(batchId);
+        job.setJobType(GenerationJobType.SMART_RESUME_GENERATE);
+        job.setStatus(status);
+        job.setPayload(Map.of("jdText", "Senior Java engineer"));
+        job.setMaxAttempts(3);
+        job.setRunAfter(runAfter);
+        if (status == GenerationJobStatus.RUNNING) {
+            job.setAttempts(1);
+            job.setLockedBy("worker-x");
+            job.setLockedAt(LocalDateTime.now());
+        }
+        return jobRepository.save(job);
+    }
+
+    private static List<Long> ids(List<GenerationJob> jobs) {
+        return jobs.stream().map(GenerationJob::getId).toList();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.ai.dto.SmartResumeOutput;
+import com.profilebuilder.ai.dto.SmartResumeOutput.ResumeSection;
+import com.profilebuilder.ai.dto.SmartResumeOutput.SectionEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AtsKeywordScorerTest {
+
+    private final AtsKeywordScorer scorer = new AtsKeywordScorer(new SimpleMeterRegistry());
+
+    @Test
+    void longestOverlappingDictionaryTermWins() {
+        AtsKeywordScorer.Result result = scorer.score(resume("Built services in Spring Boot"),
+                "Experience with Spring Boot is required.");
+
+        assertThat(result.matchedTerms()).containsExactly("Spring Boot");
+        assertThat(result.missingTerms()).isEmpty();
+        assertThat(result.coverage()).isEqualTo(1.0);
+    }
+
+    @Test
+    void matchesCaseFoldedSpellingsAndAliases() {
+        AtsKeywordScorer.Result result = scorer.score(
+                resume("Deployed SPRING-BOOT services to k8s", "Tuned postgres queries"),
+                "We use spring boot, KUBERNETES, PostgreSQL and Terraform.");
+
+        assertThat(result.matchedTerms()).containsExactlyInAnyOrder("Spring Boot", "Kubernetes", "PostgreSQL");
+        assertThat(result.missingTerms()).containsExactly("Terraform");
+        assertThat(result.coverage()).isEqualTo(0.75);
+    }
+
+    @Test
+    void doesNotMatchTermsInsideOtherWords() {
+        AtsKeywordScorer.Result result = scorer.score(resume("Wrote Node.js and JavaScript services"),
+                "Strong Java skills.");
+
+        assertThat(result.matchedTerms()).isEmpty();
+        assertThat(result.missingTerms()).containsExactly("Java");
+        assertThat(result.coverage()).isEqualTo(0.0);
+    }
+
+    @Test
+    void hasNoCoverageWithoutJdTerms() {
+        AtsKeywordScorer.Result result = scorer.score(resume("Java"), "A friendly team.");
+
+        assertThat(result.coverage()).isNull();
+        assertThat(result.matchedTerms()).isEmpty();
+    }
+
+    private static SmartResumeOutput resume(String... bullets) {
+        SectionEntry entry = new SectionEntry();
+        entry.setTitle("Software Engineer");
+        entry.setBullets(List.of(bullets));
+        ResumeSection section = new ResumeSection();
+        section.setSectionName("EXPERIENCE");
+        section.setEntries(List.of(entry));
+        SmartResumeOutput resume = new SmartResumeOutput();
+        resume.setSections(List.of(section));
+        return resume;
+    }
+}
@@ -0,0 +1,78 @@
+package com.profilebuilder.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profilebuilder.ai.agent.CompanyIdentifierAgent;
+import com.profilebuilder.ai.agent.CompanyResearchAgent;
+import com.profilebuilder.ai.dto.CompanyIdentityOutput;
+import com.profilebuilder.ai.dto.CompanyResearchOutput;
+import com.profilebuilder.repository.CompanyResearchRepository;
+import dev.langchain4j.exception.TimeoutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompanyResearchServiceTest {
+
+    private static final String JD = "Senior Java engineer at Acme Inc. (acme.com)";
+
+    private final CompanyIdentifierAgent identifierAgent = mock(CompanyIdentifierAgent.class);
+    private final CompanyResearchAgent researchAgent = mock(CompanyResearchAgent.class);
+    private final CompanyResearchRepository repository = mock(CompanyResearchRepository.class);
+    private final CompanyResearchService service = new CompanyResearchService(identifierAgent, researchAgent,
+            repository, new ObjectMapper(), new SimpleMeterRegistry(), Duration.ofDays(7), 100, 100,
+            Duration.ofMillis(200));
+
+    @Test
+    void stopsWaitingForAConcurrentRunOfTheSameResearchAfterTheAgentDeadline() throws Exception {
+        when(identifierAgent.identifyCompany(JD)).thenReturn(identity());
+        when(repository.findByCompanyKeyInAndResearchedAtAfter(any(), any())).thenReturn(List.of());
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(researchAgent.researchCompany(anyString())).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return research();
+        });
+
+        CompletableFuture<CompanyResearchOutput> first = CompletableFuture.supplyAsync(() -> service.research(JD));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> service.research(JD))
+                .isInstanceOf(TimeoutException.class)
+                .hasMessageContaining("domain:acme.com");
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getCompanyName()).isEqualTo("Acme");
+        verify(researchAgent, times(1)).researchCompany(anyString());
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    private static CompanyIdentityOutput identity() {
+        CompanyIdentityOutput identity = new CompanyIdentityOutput();
+        identity.setCompanyName("Acme Inc.");
+        identity.setCompanyDomain("acme.com");
+        return identity;
+    }
+
+    private static CompanyResearchOutput research() {
+        CompanyResearchOutput research = new CompanyResearchOutput();
+        research.setCompanyName("Acme");
+        research.setCompanyDomain("acme.com");
+        return research;
+    }
+}
@@ -0,0 +1,93 @@
+package com.profilebuilder.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profilebuilder.ai.agent.CoverLetterEvaluatorAgent;
+import com.profilebuilder.ai.budget.PromptBudgetEnforcer;
+import com.profilebuilder.exception.ResourceNotFoundException;
+import com.profilebuilder.model.entity.Document;
+import com.profilebuilder.repository.CoverLetterEvaluationRepository;
+import com.profilebuilder.repository.DocumentRepository;
+import com.profilebuilder.repository.GeneratedCoverLetterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CoverLetterGenerationServiceTest {
+
+    private static final Long USER = 7L;
+    private static final String JD = "Senior Java engineer at Acme";
+
+    private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+    private final DocumentService documentService = mock(DocumentService.class);
+    private final CoverLetterOrchestrationService orchestrationService = mock(CoverLetterOrchestrationService.class);
+    private final ExecutorService extractionExecutor = Executors.newCachedThreadPool();
+    private final ExecutorService generationExecutor = Executors.newCachedThreadPool();
+
+    private CoverLetterGenerationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CoverLetterGenerationService(mock(GeneratedCoverLetterRepository.class),
+                mock(CoverLetterEvaluationRepository.class), documentRepository, documentService,
+                orchestrationService, mock(CoverLetterEvaluatorAgent.class), mock(PromptBudgetEnforcer.class),
+                new ObjectMapper(), extractionExecutor, generationExecutor, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        extractionExecutor.shutdownNow();
+        generationExecutor.shutdownNow();
+    }
+
+    @Test
+    void checksDocumentOwnershipBeforeStartingResearch() {
+        when(documentRepository.findByIdAndUserId(1L, USER)).thenReturn(Optional.of(new Document()));
+        when(documentRepository.findByIdAndUserId(2L, USER)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.generate(JD, 1L, 2L, USER))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("id: 2");
+        verifyNoInteractions(orchestrationService, documentService);
+    }
+
+    @Test
+    void cancelsTheRunningResearchWhenAnExtractionFails() throws Exception {
+        Document resume = new Document();
+        Document coverLetter = new Document();
+        when(documentRepository.findByIdAndUserId(1L, USER)).thenReturn(Optional.of(resume));
+        when(documentRepository.findByIdAndUserId(2L, USER)).thenReturn(Optional.of(coverLetter));
+        when(documentService.getExtractedText(resume)).thenReturn("resume text");
+        when(documentService.getExtractedText(coverLetter)).thenThrow(new IllegalStateException("storage down"));
+        CountDownLatch researching = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(orchestrationService.researchCompany(JD)).thenAnswer(invocation -> {
+            researching.countDown();
+            try {
+                new CountDownLatch(1).await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+
+        assertThatThrownBy(() -> service.generate(JD, 1L, 2L, USER))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("storage down");
+
+        assertThat(researching.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,233 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.config.S3Config;
+import com.profilebuilder.exception.InvalidFileException;
+import com.profilebuilder.model.dto.UploadUrlRequest;
+import com.profilebuilder.model.dto.UploadUrlResponse;
+import com.profilebuilder.model.entity.Document;
+import com.profilebuilder.model.enums.DocumentType;
+import com.profilebuilder.model.enums.IngestionStatus;
+import com.profilebuilder.repository.DocumentRepository;
+import com.profilebuilder.storage.S3DocumentStorage;
+import com.profilebuilder.storage.StorageMetrics;
+import com.profilebuilder.util.HashUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the direct upload against MinIO through the clients S3Config builds: pre-sign,
+ * PUT to the signed URL, then finalize. Skipped without Docker.
+ */
+@SpringJUnitConfig
+@Testcontainers(disabledWithoutDocker = true)
+class DirectUploadServiceTest {
+
+    private static final String BUCKET = "pb-documents";
+    private static final Long USER = 7L;
+    private static final String PDF = "application/pdf";
+    private static final byte[] CONTENT = "%PDF-1.7 resume of a senior Java engineer".getBytes(StandardCharsets.UTF_8);
+
+    @Container
+    static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2023-09-04T19-57-37Z");
+
+    @Configuration
+    @Import({S3Config.class, StorageMetrics.class})
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @DynamicPropertySource
+    static void s3Properties(DynamicPropertyRegistry registry) {
+        registry.add("app.s3.bucket-name", () -> BUCKET);
+        registry.add("app.s3.endpoint", MINIO::getS3URL);
+        registry.add("app.s3.path-style-access", () -> "true");
+        registry.add("app.storage.cache.enabled", () -> "false");
+    }
+
+    @BeforeAll
+    static void credentials() {
+        System.setProperty("aws.accessKeyId", MINIO.getUserName());
+        System.setProperty("aws.secretAccessKey", MINIO.getPassword());
+    }
+
+    @AfterAll
+    static void clearCredentials() {
+        System.clearProperty("aws.accessKeyId");
+        System.clearProperty("aws.secretAccessKey");
+    }
+
+    @Autowired
+    private S3AsyncClient s3AsyncClient;
+
+    @Autowired
+    private S3DocumentStorage storage;
+
+    private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+    private final DocumentService documentService = mock(DocumentService.class);
+    private final DocumentIngestionService documentIngestionService = mock(DocumentIngestionService.class);
+    private final ExecutorService storageIoExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicLong ids = new AtomicLong();
+
+    private DirectUploadService service;
+    private Document document;
+
+    @BeforeEach
+    void setUp() {
+        if (!s3AsyncClient.listBuckets().join().buckets().stream().anyMatch(b -> b.name().equals(BUCKET))) {
+            s3AsyncClient.createBucket(b -> b.bucket(BUCKET)).join();
+        }
+        service = new DirectUploadService(documentRepository, documentService, documentIngestionService,
+                storage, storageIoExecutor);
+        ReflectionTestUtils.setField(service, "maxFileSize", DataSize.ofMegabytes(2));
+        ReflectionTestUtils.setField(service, "urlTtl", Duration.ofMinutes(5));
+
+        when(documentService.newStoredFileName(anyString())).thenAnswer(invocation -> UUID.randomUUID() + ".pdf");
+        when(documentService.deleteFile(anyString())).thenAnswer(invocation -> storage.delete(invocation.getArgument(0)));
+        when(documentRepository.save(any(Document.class))).thenAnswer(invocation -> {
+            Document saved = invocation.getArgument(0);
+            if (saved.getId() == null) {
+                saved.setId(ids.incrementAndGet());
+                document = saved;
+            }
+            return saved;
+        });
+        when(documentRepository.findByIdAndUserId(any(), eq(USER))).thenAnswer(invocation ->
+                Optional.ofNullable(document).filter(d -> d.getId().equals(invocation.getArgument(0))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageIoExecutor.shutdownNow();
+    }
+
+    @Test
+    void finalizesAnObjectPutToThePresignedUrl() throws Exception {
+        UploadUrlResponse upload = service.createUploadUrl(request(CONTENT), USER);
+
+        assertThat(put(upload, CONTENT)).isEqualTo(200);
+        service.finalizeUpload(upload.documentId(), USER).join();
+
+        verify(documentIngestionService).submitStored(document);
+        assertThat(document.getIngestionStatus()).isEqualTo(IngestionStatus.PENDING);
+        assertThat(storage.head(document.getFilePath()).join()).isPresent();
+    }
+
+    @Test
+    void finalizeBeforeThePutLeavesTheDocumentPending() {
+        UploadUrlResponse upload = service.createUploadUrl(request(CONTENT), USER);
+
+        assertThatThrownBy(() -> service.finalizeUpload(upload.documentId(), USER).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(InvalidFileException.class)
+                .hasMessageContaining("has not been uploaded yet");
+        assertThat(document.getIngestionStatus()).isEqualTo(IngestionStatus.PENDING);
+    }
+
+    @Test
+    void rejectsAnObjectOfTheWrongSize() {
+        UploadUrlResponse upload = service.createUploadUrl(request(CONTENT), USER);
+        putDirectly(document.getFilePath(), "%PDF-1.7 short".getBytes(StandardCharsets.UTF_8), PDF);
+
+        assertRejected(upload, "does not match declared size");
+    }
+
+    @Test
+    void rejectsAnObjectOfTheWrongType() {
+        UploadUrlResponse upload = service.createUploadUrl(request(CONTENT), USER);
+        putDirectly(document.getFilePath(), CONTENT, "text/html");
+
+        assertRejected(upload, "does not match declared type");
+    }
+
+    @Test
+    void rejectsAnObjectWhoseChecksumDoesNotMatch() {
+        UploadUrlResponse upload = service.createUploadUrl(request(CONTENT), USER);
+        byte[] tampered = CONTENT.clone();
+        tampered[tampered.length - 1] = '!';
+        putDirectly(document.getFilePath(), tampered, PDF);
+
+        assertRejected(upload, "does not match the declared SHA-256");
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    /** Finalize fails, the document is FAILED, the object is gone and nothing was queued. */
+    private void assertRejected(UploadUrlResponse upload, String reason) {
+        assertThatThrownBy(() -> service.finalizeUpload(upload.documentId(), USER).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(InvalidFileException.class)
+                .hasMessageContaining(reason);
+        assertThat(document.getIngestionStatus()).isEqualTo(IngestionStatus.FAILED);
+        assertThat(document.getIngestionError()).contains(reason);
+        assertThat(storage.head(document.getFilePath()).join()).isEmpty();
+        verify(documentIngestionService, never()).submitStored(any());
+    }
+
+    private static UploadUrlRequest request(byte[] content) {
+        return new UploadUrlRequest("resume.pdf", PDF, (long) content.length, DocumentType.RESUME,
+                HashUtil.sha256Hex(content));
+    }
+
+    /** PUTs {@code body} to the signed URL with the signed headers, as a browser would. */
+    private static int put(UploadUrlResponse upload, byte[] body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(upload.uploadUrl()))
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(body));
+        upload.headers().forEach(request::header);
+        return HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /** Stores an object bypassing the signed URL, as a store that enforces no signed headers would accept it. */
+    private void putDirectly(String location, byte[] body, String contentType) {
+        s3AsyncClient.putObject(b -> b.bucket(BUCKET).key(storage.keyOf(location))
+                        .contentType(contentType)
+                        .checksumAlgorithm(ChecksumAlgorithm.SHA256),
+                AsyncRequestBody.fromBytes(body)).join();
+    }
+}
@@ -0,0 +1,158 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.model.entity.Document;
+import com.profilebuilder.model.enums.DocumentType;
+import com.profilebuilder.model.enums.IngestionStage;
+import com.profilebuilder.model.enums.IngestionStatus;
+import com.profilebuilder.repository.DocumentRepository;
+import com.profilebuilder.service.DocumentIngestionService.Submission;
+import com.profilebuilder.storage.S3DocumentStorage;
+import com.profilebuilder.util.HashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentIngestionServiceTest {
+
+    private static final Long USER = 7L;
+    private static final byte[] CONTENT = "%PDF-1.7 resume of a senior Java engineer".getBytes(StandardCharsets.UTF_8);
+    private static final String HASH = HashUtil.sha256Hex(CONTENT);
+    private static final String STORED = "s3://bucket/7/documents/stored.pdf";
+
+    private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+    private final DocumentService documentService = mock(DocumentService.class);
+    private final ExecutorService ingestionExecutor = mock(ExecutorService.class);
+    private final S3DocumentStorage s3DocumentStorage = mock(S3DocumentStorage.class);
+
+    @TempDir
+    Path stagingDir;
+
+    private DocumentIngestionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DocumentIngestionService(documentRepository, documentService, ingestionExecutor, s3DocumentStorage);
+        ReflectionTestUtils.setField(service, "stagingDir", stagingDir.toString());
+        ReflectionTestUtils.setField(service, "staleAfter", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(service, "directUploadUrlTtl", Duration.ofMinutes(15));
+        when(documentService.prepareUpload(any())).thenReturn("stored.pdf");
+        when(documentRepository.save(any(Document.class))).thenAnswer(invocation -> {
+            Document saved = invocation.getArgument(0);
+            saved.setId(2L);
+            return saved;
+        });
+    }
+
+    @Test
+    void returnsTheExistingDocumentForARepeatUploadOfTheSameType() {
+        when(documentService.findDuplicate(USER, DocumentType.RESUME, HASH)).thenReturn(Optional.of(existing()));
+
+        Submission submission = service.submit(pdf(), DocumentType.RESUME, USER);
+
+        assertThat(submission.duplicate()).isTrue();
+        verify(documentRepository, never()).save(any());
+    }
+
+    @Test
+    void acceptsTheSameFileUploadedAsAnotherType() {
+        when(documentService.findDuplicate(USER, DocumentType.RESUME, HASH)).thenReturn(Optional.of(existing()));
+        when(documentService.findDuplicate(USER, DocumentType.COVER_LETTER, HASH)).thenReturn(Optional.empty());
+
+        Submission submission = service.submit(pdf(), DocumentType.COVER_LETTER, USER);
+
+        assertThat(submission.duplicate()).isFalse();
+        verify(documentRepository).save(any(Document.class));
+        verify(ingestionExecutor).execute(any());
+    }
+
+    @Test
+    void deletesTheStoredObjectWhenALaterStageFails() {
+        when(documentService.findDuplicate(USER, DocumentType.RESUME, HASH)).thenReturn(Optional.empty());
+        when(documentService.storeFile(any(), eq("stored.pdf"), anyString(), eq(USER)))
+                .thenReturn(CompletableFuture.completedFuture(STORED));
+        doThrow(new IllegalStateException("unreadable PDF"))
+                .when(documentService).storeExtractedText(any(), any());
+
+        service.submit(pdf(), DocumentType.RESUME, USER);
+        ArgumentCaptor<Document> saved = ArgumentCaptor.forClass(Document.class);
+        verify(documentRepository).save(saved.capture());
+        when(documentRepository.findById(2L)).thenReturn(Optional.of(saved.getValue()));
+        runQueuedIngestion();
+
+        assertThat(saved.getValue().getIngestionStatus()).isEqualTo(IngestionStatus.FAILED);
+        verify(documentService).deleteFile(STORED);
+    }
+
+    @Test
+    void deletesTheKeyOfASupersededDirectUploadOnlyOnceItsUrlHasExpired() {
+        Document expired = superseded(3L, LocalDateTime.now().minusMinutes(30));
+        Document recent = superseded(4L, LocalDateTime.now().minusMinutes(5));
+        when(documentRepository.findByIngestionStatusIn(any())).thenReturn(List.of());
+        when(documentRepository.findByIngestionStatusAndIngestionStage(IngestionStatus.FAILED, IngestionStage.STORE))
+                .thenReturn(List.of(expired, recent));
+        when(s3DocumentStorage.handles(anyString())).thenReturn(true);
+        when(s3DocumentStorage.delete(anyString())).thenReturn(CompletableFuture.completedFuture(null));
+
+        service.recoverInterrupted();
+
+        verify(s3DocumentStorage).delete("s3://bucket/7/documents/3.pdf");
+        verify(s3DocumentStorage, never()).delete("s3://bucket/7/documents/4.pdf");
+        assertThat(expired.getIngestionStage()).isNull();
+        assertThat(recent.getIngestionStage()).isEqualTo(IngestionStage.STORE);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    private static MockMultipartFile pdf() {
+        return new MockMultipartFile("file", "resume.pdf", "application/pdf", CONTENT);
+    }
+
+    private void runQueuedIngestion() {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(ingestionExecutor).execute(task.capture());
+        task.getValue().run();
+    }
+
+    private static Document superseded(Long id, LocalDateTime updatedAt) {
+        Document document = new Document();
+        document.setId(id);
+        document.setUserId(USER);
+        document.setFilePath("s3://bucket/7/documents/" + id + ".pdf");
+        document.setIngestionStatus(IngestionStatus.FAILED);
+        document.setIngestionStage(IngestionStage.STORE);
+        document.setUpdatedAt(updatedAt);
+        return document;
+    }
+
+    private static Document existing() {
+        Document document = new Document();
+        document.setId(1L);
+        document.setUserId(USER);
+        document.setDocumentType(DocumentType.RESUME);
+        document.setContentHash(HASH);
+        document.setIngestionStatus(IngestionStatus.COMPLETED);
+        return document;
+    }
+}
@@ -0,0 +1,77 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.exception.InvalidFileException;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DocxTextExtractorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final DocxTextExtractor extractor = new DocxTextExtractor();
+
+    @Test
+    void extractsRunsTabsAndBreaksParagraphByParagraph() throws IOException {
+        Path file = tempDir.resolve("resume.docx");
+        try (XWPFDocument document = new XWPFDocument(); OutputStream out = Files.newOutputStream(file)) {
+            XWPFRun name = document.createParagraph().createRun();
+            name.setBold(true);
+            name.setText("Jane Doe");
+
+            XWPFParagraph contact = document.createParagraph();
+            contact.createRun().setText("jane@example.com");
+            XWPFRun phone = contact.createRun();
+            phone.addTab();
+            phone.setText("555-0100");
+
+            XWPFParagraph experience = document.createParagraph();
+            XWPFRun role = experience.createRun();
+            role.setText("Senior Engineer, ");
+            role.addBreak();
+            experience.createRun().setText("Acme & Co <Payments>");
+
+            document.write(out);
+        }
+
+        assertThat(extractor.extractText(file, "resume.docx"))
+                .isEqualTo("Jane Doe\njane@example.com\t555-0100\nSenior Engineer, \nAcme & Co <Payments>\n");
+    }
+
+    @Test
+    void rejectsArchivesWithoutAMainDocumentPart() throws IOException {
+        Path file = tempDir.resolve("not-a-docx.docx");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            zip.putNextEntry(new ZipEntry("readme.txt"));
+            zip.write("hello".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        assertThatThrownBy(() -> extractor.extractText(file, "not-a-docx.docx"))
+                .isInstanceOf(InvalidFileException.class)
+                .hasMessageContaining("word/document.xml");
+    }
+
+    @Test
+    void rejectsFilesThatAreNotZipArchives() throws IOException {
+        Path file = tempDir.resolve("plain.docx");
+        Files.writeString(file, "plain text");
+
+        assertThatThrownBy(() -> extractor.extractText(file, "plain.docx"))
+                .isInstanceOf(InvalidFileException.class);
+    }
+}
@@ -0,0 +1,245 @@
+package com.profilebuilder.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profilebuilder.model.entity.GenerationJob;
+import com.profilebuilder.model.enums.GenerationJobStatus;
+import com.profilebuilder.model.enums.GenerationJobType;
+import com.profilebuilder.repository.GenerationJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GenerationJobServiceTest {
+
+    private static final String WORKER = "worker-a";
+
+    private final GenerationJobRepository jobRepository = mock(GenerationJobRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GenerationJobService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new GenerationJobService(jobRepository, new ObjectMapper(), mock(ApplicationEventPublisher.class),
+                mock(ExecutorService.class), meterRegistry);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "retryBackoff", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(service, "maxRetryBackoff", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(service, "leaseTimeout", Duration.ofMinutes(2));
+        ReflectionTestUtils.setField(service, "batchConcurrency", 2);
+        when(jobRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void claimStartsANewAttemptUnderTheWorkersLease() {
+        GenerationJob job = job(1L, GenerationJobStatus.QUEUED, 0, null);
+        when(jobRepository.lockDueJobs(any(), eq(5), eq(2))).thenReturn(List.of(job));
+
+        List<GenerationJob> claimed = service.claim(WORKER, 5);
+
+        assertThat(claimed).containsExactly(job);
+        assertThat(job.getStatus()).isEqualTo(GenerationJobStatus.RUNNING);
+        assertThat(job.getAttempts()).isEqualTo(1);
+        assertThat(job.getLockedBy()).isEqualTo(WORKER);
+        assertThat(job.getLockedAt()).isCloseTo(LocalDateTime.now(), within(5, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void succeedRecordsTheResultAndReleasesTheLease() {
+        GenerationJob job = job(1L, GenerationJobStatus.RUNNING, 1, WORKER);
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+
+        service.succeed(1L, WORKER, Map.of("id", 7), 7L);
+
+        assertThat(job.getStatus()).isEqualTo(GenerationJobStatus.SUCCEEDED);
+        assertThat(job.getResult()).containsEntry("id", 7);
+        assertThat(job.getResourceId()).isEqualTo(7L);
+        assertThat(job.getLockedBy()).isNull();
+        assertThat(job.getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void succeedFromAWorkerThatLostItsLeaseIsIgnored() {
+        GenerationJob job = job(1L, GenerationJobStatus.RUNNING, 2, "worker-b");
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+
+        service.succeed(1L, WORKER, Map.of("id", 7), 7L);
+
+        assertThat(job.getStatus()).isEqualTo(GenerationJobStatus.RUNNING);
+        assertThat(job.getLockedBy()).isEqualTo("worker-b");
+        assertThat(job.getResult()).isNull();
+    }
+
+    @Test
+    void failFromAWorkerWhoseJobWasReQueuedIsIgnored() {
+        LocalDateTime runAfter = LocalDateTime.now().plusSeconds(30);
+        GenerationJob job = job(1L, GenerationJobStatus.QUEUED, 1, null);
+        job.setRunAfter(runAfter);
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+
+        service.fail(1L, WORKER, new IllegalStateException("boom"), true);
+
+        assertThat(job.getStatus()).isEqualTo(GenerationJobStatus.QUEUED);
+        assertThat(job.getRunAfter()).isEqualTo(runAfter);
+        assertThat(job.getError()).isNull();
+        assertThat(retries("failure")).isZero();
+    }
+
+    @Test
+    void retryableFailureIsReQueuedAfterABackoff() {
+        GenerationJob job = job(1L, GenerationJobStatus.RUNNING, 1, WORKER);
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+
+        LocalDateTime before = LocalDateTime.now();
+        service.fail(1L, WORKER, new IllegalStateException("boom"), true);
+
+        assertThat(job.getStatus()).isEqualTo(GenerationJobStatus.QUEUED);
+        assertThat(job.getLockedBy()).isNull();
+        assertThat(job.getRunAfter()).isBetween(before.plusSeconds(10), LocalDateTime.now().plusSeconds(12));
+        assertThat(job.getCompletedAt()).isNull();
+        assertThat(retries("failure")).isEqualTo(1);
+    }
+
+    @Test
+    void failsWithoutRetryWhenNotRetryableOrOutOfAttempts() {
+        GenerationJob permanent = job(1L, GenerationJobStatus.RUNNING, 1, WORKER);
+        GenerationJob exhausted = job(2L, GenerationJobStatus.RUNNING, 3, WORKER);
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(permanent));
+        when(jobRepository.findById(2L)).thenReturn(Optional.of(exhausted));
+
+        service.fail(1L, WORKER, new IllegalArgumentException("bad input"), false);
+        service.fail(2L, WORKER, new IllegalStateException("boom"), true);
+
+        assertThat(permanent.getStatus()).isEqualTo(GenerationJobStatus.FAILED);
+        assertThat(exhausted.getStatus()).isEqualTo(GenerationJobStatus.FAILED);
+        assertThat(exhausted.getCompletedAt()).isNotNull();
+        assertThat(exhausted.getLockedBy()).isNull();
+        assertThat(retries("failure")).isZero();
+    }
+
+    @Test
+    void backoffDoublesPerAttemptUpToTheCapWithJitter() {
+        Set<Duration> capped = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            assertThat(service.backoff(1)).isBetween(Duration.ofSeconds(10), Duration.ofSeconds(12));
+            assertThat(service.backoff(2)).isBetween(Duration.ofSeconds(20), Duration.ofSeconds(24));
+            Duration delay = service.backoff(30);
+            assertThat(delay).isBetween(Duration.ofMinutes(1), Duration.ofSeconds(72));
+            capped.add(delay);
+        }
+        assertThat(capped).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void expiredLeasesAreReQueuedOrFailedWhenOutOfAttempts() {
+        GenerationJob retryable = job(1L, GenerationJobStatus.RUNNING, 1, "dead-worker");
+        GenerationJob exhausted = job(2L, GenerationJobStatus.RUNNING, 3, "dead-worker");
+        when(jobRepository.lockExpiredLeases(any())).thenReturn(List.of(retryable, exhausted));
+
+        LocalDateTime before = LocalDateTime.now();
+        int recovered = service.recoverExpiredLeases();
+
+        assertThat(recovered).isEqualTo(2);
+        assertThat(retryable.getStatus()).isEqualTo(GenerationJobStatus.QUEUED);
+        assertThat(retryable.getAttempts()).isEqualTo(1);
+        assertThat(retryable.getRunAfter()).isAfterOrEqualTo(before);
+        assertThat(retryable.getLockedBy()).isNull();
+        assertThat(exhausted.getStatus()).isEqualTo(GenerationJobStatus.FAILED);
+        assertThat(exhausted.getError()).isNotBlank();
+        assertThat(exhausted.getLockedBy()).isNull();
+        assertThat(retries("lease_expired")).isEqualTo(1);
+        verify(jobRepository).lockExpiredLeases(argThat(
+                cutoff -> !cutoff.isAfter(LocalDateTime.now().minusMinutes(2))));
+    }
+
+    @Test
+    void streamJobSendsTheStatusAgainShortlyBeforeTheStreamTimesOut() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            GenerationJobService streaming = new GenerationJobService(jobRepository, new ObjectMapper(),
+                    mock(ApplicationEventPublisher.class), executor, meterRegistry);
+            ReflectionTestUtils.setField(streaming, "eventsPollInterval", Duration.ofMillis(50));
+            GenerationJob job = job(1L, GenerationJobStatus.RUNNING, 2, WORKER);
+            when(jobRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(job));
+            RecordingEmitter emitter = new RecordingEmitter(500);
+
+            streaming.streamJob(1L, 1L, emitter);
+
+            assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(emitter.events).containsExactly("status", "status");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    private static GenerationJob job(Long id, GenerationJobStatus status, int attempts, String lockedBy) {
+        GenerationJob job = new GenerationJob();
+        job.setId(id);
+        job.setUserId(1L);
+        job.setJobType(GenerationJobType.SMART_RESUME_GENERATE);
+        job.setStatus(status);
+        job.setAttempts(attempts);
+        job.setMaxAttempts(3);
+        job.setRunAfter(LocalDateTime.now());
+        job.setLockedBy(lockedBy);
+        job.setLockedAt(lockedBy != null ? LocalDateTime.now() : null);
+        return job;
+    }
+
+    /** Records the names of the events sent and signals completion. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        RecordingEmitter(long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            String event = builder.build().iterator().next().getData().toString();
+            if (event.startsWith("event:")) {
+                events.add(event.substring("event:".length(), event.indexOf('\n')));
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+
+    private double retries(String reason) {
+        var counter = meterRegistry.find("pb.jobs.retries").tag("reason", reason).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,252 @@
+package com.profilebuilder.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profilebuilder.ai.agent.HrRevalidatorAgent;
+import com.profilebuilder.ai.budget.PromptBudgetEnforcer;
+import com.profilebuilder.ai.dto.HrRevalidationOutput;
+import com.profilebuilder.ai.dto.HrValidationOutput;
+import com.profilebuilder.ai.dto.SmartResumeOutput;
+import com.profilebuilder.ai.dto.SmartResumeOutput.ResumeSection;
+import com.profilebuilder.ai.dto.SmartResumeOutput.SectionEntry;
+import com.profilebuilder.model.dto.RecommendationItem;
+import com.profilebuilder.service.HrRevalidationService.ValidationBaseline;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.TokenCountEstimator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class HrRevalidationServiceTest {
+
+    private static final String JD = "Senior Java engineer";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SmartResumeOrchestrationService orchestrationService = mock(SmartResumeOrchestrationService.class);
+    private final List<String> agentInputs = new ArrayList<>();
+    private final HrValidationOutput fullValidation = validation(0.1, 0.1, 0.1, 0.1, 0.1);
+
+    private HrRevalidationOutput agentAnswer;
+    private HrRevalidationService service;
+
+    @BeforeEach
+    void setUp() {
+        HrRevalidatorAgent agent = input -> {
+            agentInputs.add(input);
+            if (agentAnswer == null) {
+                throw new IllegalStateException("model unavailable");
+            }
+            return agentAnswer;
+        };
+        PromptBudgetEnforcer enforcer = new PromptBudgetEnforcer(objectMapper, meterRegistry, List.of(
+                new PromptBudgetEnforcer.Budget(HrRevalidatorAgent.NAME, new CharEstimator(), 100_000,
+                        "prompts/hr-revalidator-system.txt")));
+        service = new HrRevalidationService(orchestrationService, agent, enforcer, objectMapper, meterRegistry);
+        when(orchestrationService.validateResume(any(), eq(JD))).thenReturn(fullValidation);
+    }
+
+    @Test
+    void keepsThePreviousValidationWhenNoSectionChanged() {
+        SmartResumeOutput resume = resume("Built payment APIs", "Java, SQL");
+        HrValidationOutput previous = validation(0.5, 0.6, 0.4, 0.8, 0.9);
+
+        HrValidationOutput result = service.validate(copy(resume), JD, baseline(resume, previous));
+
+        assertThat(result).isSameAs(previous);
+        assertThat(agentInputs).isEmpty();
+        verifyNoInteractions(orchestrationService);
+        assertThat(modeCount("unchanged")).isEqualTo(1);
+    }
+
+    @Test
+    void reScoresOnlyTheCriteriaAChangedSectionAffects() throws Exception {
+        SmartResumeOutput before = resume("Built payment APIs", "Java, SQL");
+        SmartResumeOutput after = resume("Built payment APIs", "Java, SQL, Kubernetes");
+        HrValidationOutput previous = validation(0.5, 0.6, 0.4, 0.8, 0.9);
+        previous.setRecommendations(List.of(recommendation("EXPERIENCE", "quantify impact"),
+                recommendation("SKILLS", "add Kubernetes")));
+        agentAnswer = update(0.7, 0.1, 1.2, 0.0, 0.0);
+        agentAnswer.setRecommendations(List.of(recommendation("SKILLS", "group by category"),
+                recommendation("EXPERIENCE", "ignored: section unchanged")));
+
+        HrValidationOutput result = service.validate(after, JD, baseline(before, previous));
+
+        JsonNode input = objectMapper.readTree(agentInputs.get(0));
+        assertThat(input.get("changedSections")).hasSize(1);
+        assertThat(input.get("changedSections").get(0).get("sectionName").asText()).isEqualTo("SKILLS");
+        assertThat(input.get("scoresToUpdate").toString())
+                .isEqualTo("[\"keywordMatchScore\",\"skillsAlignmentScore\"]");
+
+        // keyword and skills from the update (skills clamped to 1), the rest carried forward
+        assertThat(result.getKeywordMatchScore()).isEqualTo(0.7);
+        assertThat(result.getExperienceRelevanceScore()).isEqualTo(0.6);
+        assertThat(result.getSkillsAlignmentScore()).isEqualTo(1.0);
+        assertThat(result.getResumeQualityScore()).isEqualTo(0.8);
+        assertThat(result.getEducationFitScore()).isEqualTo(0.9);
+        // 0.7*0.30 + 0.6*0.25 + 1.0*0.25 + 0.8*0.10 + 0.9*0.10 = 0.78, on a 0-10 scale
+        assertThat(result.getOverallScore()).isEqualTo(7.8);
+        assertThat(result.getRecommendations()).extracting(RecommendationItem::getSuggested)
+                .containsExactly("quantify impact", "group by category");
+        verifyNoInteractions(orchestrationService);
+        assertThat(modeCount("diff")).isEqualTo(1);
+    }
+
+    @Test
+    void keepsThePreviousScoreOfACriterionTheReplyOmits() {
+        SmartResumeOutput before = resume("Built payment APIs", "Java, SQL");
+        SmartResumeOutput after = resume("Built payment APIs", "Java, SQL, Kubernetes");
+        HrValidationOutput previous = validation(0.5, 0.6, 0.4, 0.8, 0.9);
+        agentAnswer = update(null, null, 0.8, null, null);
+
+        HrValidationOutput result = service.validate(after, JD, baseline(before, previous));
+
+        assertThat(result.getKeywordMatchScore()).isEqualTo(0.5);
+        assertThat(result.getSkillsAlignmentScore()).isEqualTo(0.8);
+        // 0.5*0.30 + 0.6*0.25 + 0.8*0.25 + 0.8*0.10 + 0.9*0.10 = 0.67, on a 0-10 scale
+        assertThat(result.getOverallScore()).isEqualTo(6.7);
+        verifyNoInteractions(orchestrationService);
+        assertThat(modeCount("diff")).isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackToAFullValidationWhenStoredHashesDoNotMatch() {
+        SmartResumeOutput before = resume("Built payment APIs", "Java, SQL");
+        SmartResumeOutput after = resume("Built payment APIs", "Java, SQL, Kubernetes");
+        HrValidationOutput previous = validation(0.5, 0.6, 0.4, 0.8, 0.9);
+        List<String> staleHashes = service.sectionHashes(resume("Built billing APIs", "Java, SQL"));
+
+        HrValidationOutput result = service.validate(after, JD, new ValidationBaseline(before, previous, staleHashes));
+
+        assertThat(result).isSameAs(fullValidation);
+        assertThat(agentInputs).isEmpty();
+        verify(orchestrationService).validateResume(after, JD);
+        assertThat(modeCount("full")).isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackToAFullValidationWhenEverySectionChanged() {
+        SmartResumeOutput before = resume("Built payment APIs", "Java, SQL");
+        SmartResumeOutput after = resume("Built billing APIs", "Java, SQL, Kubernetes", "Graduated top of class");
+
+        HrValidationOutput result = service.validate(after, JD, baseline(before, validation(0.5, 0.6, 0.4, 0.8, 0.9)));
+
+        assertThat(result).isSameAs(fullValidation);
+        assertThat(agentInputs).isEmpty();
+    }
+
+    @Test
+    void fallsBackToAFullValidationWhenTheReValidatorFails() {
+        SmartResumeOutput before = resume("Built payment APIs", "Java, SQL");
+        SmartResumeOutput after = resume("Built payment APIs", "Java, SQL, Kubernetes");
+
+        HrValidationOutput result = service.validate(after, JD, baseline(before, validation(0.5, 0.6, 0.4, 0.8, 0.9)));
+
+        assertThat(agentInputs).hasSize(1);
+        assertThat(result).isSameAs(fullValidation);
+        assertThat(modeCount("full")).isEqualTo(1);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    private ValidationBaseline baseline(SmartResumeOutput resume, HrValidationOutput validation) {
+        return new ValidationBaseline(resume, validation, service.sectionHashes(resume));
+    }
+
+    private double modeCount(String mode) {
+        return meterRegistry.get("pb.ai.validation.mode").tag("mode", mode).counter().count();
+    }
+
+    private SmartResumeOutput copy(SmartResumeOutput resume) {
+        return objectMapper.convertValue(resume, SmartResumeOutput.class);
+    }
+
+    private static SmartResumeOutput resume(String experienceBullet, String skills) {
+        return resume(experienceBullet, skills, "Graduated with honours");
+    }
+
+    private static SmartResumeOutput resume(String experienceBullet, String skills, String educationBullet) {
+        SmartResumeOutput resume = new SmartResumeOutput();
+        resume.setSections(List.of(
+                section("EXPERIENCE", "Software Engineer", experienceBullet),
+                section("SKILLS", "Languages", skills),
+                section("EDUCATION", "BSc Computer Science", educationBullet)));
+        return resume;
+    }
+
+    private static ResumeSection section(String name, String title, String bullet) {
+        SectionEntry entry = new SectionEntry();
+        entry.setTitle(title);
+        entry.setBullets(List.of(bullet));
+        ResumeSection section = new ResumeSection();
+        section.setSectionName(name);
+        section.setEntries(List.of(entry));
+        return section;
+    }
+
+    private static HrValidationOutput validation(double keyword, double experience, double skills,
+                                                 double quality, double education) {
+        HrValidationOutput validation = new HrValidationOutput();
+        validation.setKeywordMatchScore(keyword);
+        validation.setExperienceRelevanceScore(experience);
+        validation.setSkillsAlignmentScore(skills);
+        validation.setResumeQualityScore(quality);
+        validation.setEducationFitScore(education);
+        validation.setGaps(List.of());
+        validation.setStrengths(List.of());
+        return validation;
+    }
+
+    private static HrRevalidationOutput update(Double keyword, Double experience, Double skills,
+                                               Double quality, Double education) {
+        HrRevalidationOutput update = new HrRevalidationOutput();
+        update.setKeywordMatchScore(keyword);
+        update.setExperienceRelevanceScore(experience);
+        update.setSkillsAlignmentScore(skills);
+        update.setResumeQualityScore(quality);
+        update.setEducationFitScore(education);
+        return update;
+    }
+
+    private static RecommendationItem recommendation(String section, String suggested) {
+        RecommendationItem item = new RecommendationItem();
+        item.setSection(section);
+        item.setType("modify");
+        item.setSuggested(suggested);
+        return item;
+    }
+
+    /** One token per four characters. */
+    private static final class CharEstimator implements TokenCountEstimator {
+
+        @Override
+        public int estimateTokenCountInText(String text) {
+            return text.length() / 4;
+        }
+
+        @Override
+        public int estimateTokenCountInMessage(ChatMessage message) {
+            return message.toString().length() / 4;
+        }
+
+        @Override
+        public int estimateTokenCountInMessages(Iterable<ChatMessage> messages) {
+            int total = 0;
+            for (ChatMessage message : messages) {
+                total += estimateTokenCountInMessage(message);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.profilebuilder.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImagePreprocessingServiceTest {
+
+    private final ImagePreprocessingService service = new ImagePreprocessingService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "maxDimension", 800);
+        ReflectionTestUtils.setField(service, "grayscale", true);
+    }
+
+    @Test
+    void compositesTransparentPixelsOntoWhite() throws IOException {
+        // black "text" on a fully transparent background, large enough to be downscaled
+        BufferedImage screenshot = new BufferedImage(1600, 800, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = screenshot.createGraphics();
+        g.setColor(Color.BLACK);
+        g.fillRect(400, 300, 800, 200);
+        g.dispose();
+        byte[] png = encode(screenshot);
+
+        byte[] payload = service.prepareForOcr(png);
+
+        assertThat(payload).isNotEqualTo(png);
+        BufferedImage result = ImageIO.read(new ByteArrayInputStream(payload));
+        assertThat(result.getWidth()).isEqualTo(800);
+        assertThat(gray(result, 10, 10)).isEqualTo(255);
+        assertThat(gray(result, 790, 390)).isEqualTo(255);
+        assertThat(gray(result, 400, 200)).isZero();
+    }
+
+    private static int gray(BufferedImage image, int x, int y) {
+        return image.getRaster().getSample(x, y, 0);
+    }
+
+    private static byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
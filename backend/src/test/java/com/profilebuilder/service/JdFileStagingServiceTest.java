@@ -0,0 +1,141 @@
+package com.profilebuilder.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profilebuilder.model.entity.GenerationJob;
+import com.profilebuilder.model.enums.GenerationJobStatus;
+import com.profilebuilder.repository.GenerationJobRepository;
+import com.profilebuilder.service.GenerationJobService.JobFinishedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JdFileStagingServiceTest {
+
+    private static final Long USER = 7L;
+    private static final String BATCH = "batch-1";
+
+    private final DocumentService documentService = mock(DocumentService.class);
+    private final GenerationJobRepository jobRepository = mock(GenerationJobRepository.class);
+    private final ExecutorService storageIoExecutor = Executors.newSingleThreadExecutor();
+
+    @TempDir
+    Path stagingDir;
+
+    private JdFileStagingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new JdFileStagingService(documentService, jobRepository, new ObjectMapper(), storageIoExecutor);
+        ReflectionTestUtils.setField(service, "stagingDir", stagingDir.toString());
+        when(documentService.newStoredFileName(anyString())).thenReturn("stored.png");
+        when(documentService.deleteFile(anyString())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageIoExecutor.shutdownNow();
+    }
+
+    @Test
+    void storesTheUploadBeforeEnqueueingAndRemovesTheLocalCopy() throws Exception {
+        AtomicReference<byte[]> stored = new AtomicReference<>();
+        when(documentService.storeJobInput(any(), eq("stored.png"), eq("image/png"), eq(USER)))
+                .thenAnswer(invocation -> {
+                    stored.set(Files.readAllBytes(invocation.getArgument(0)));
+                    return CompletableFuture.completedFuture("s3://bucket/7/job-inputs/stored.png");
+                });
+
+        String location = service.stage(png(), USER, staged -> staged.location()).join();
+
+        assertThat(location).isEqualTo("s3://bucket/7/job-inputs/stored.png");
+        assertThat(stored.get()).isEqualTo(png().getBytes());
+        try (var files = Files.list(stagingDir)) {
+            assertThat(files).isEmpty();
+        }
+        verify(documentService, never()).deleteFile(anyString());
+    }
+
+    @Test
+    void deletesTheStoredJdWhenEnqueueingFails() {
+        when(documentService.storeJobInput(any(), anyString(), anyString(), eq(USER)))
+                .thenReturn(CompletableFuture.completedFuture("stored-location"));
+
+        CompletableFuture<Object> result = service.stage(png(), USER, staged -> {
+            throw new IllegalStateException("database down");
+        });
+
+        assertThatThrownBy(result::join)
+                .isInstanceOf(CompletionException.class)
+                .hasRootCauseMessage("database down");
+        verify(documentService).deleteFile("stored-location");
+    }
+
+    @Test
+    void deletesTheJdOfASingleJobOnceItHasFinished() {
+        GenerationJob job = job(1L, null, "jd-1");
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+
+        service.onJobFinished(new JobFinishedEvent(1L));
+
+        verify(documentService).deleteFile("jd-1");
+    }
+
+    @Test
+    void keepsASharedBatchJdUntilTheLastJobOfTheBatchHasFinished() {
+        GenerationJob first = job(1L, BATCH, "shared-jd");
+        GenerationJob second = job(2L, BATCH, "shared-jd");
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(first));
+        when(jobRepository.findById(2L)).thenReturn(Optional.of(second));
+        when(jobRepository.findByBatchIdAndUserIdOrderById(BATCH, USER)).thenReturn(List.of(first, second));
+        when(jobRepository.existsByBatchIdAndStatusIn(eq(BATCH), any())).thenReturn(true, false);
+
+        service.onJobFinished(new JobFinishedEvent(1L));
+        verify(documentService, never()).deleteFile(anyString());
+
+        service.onJobFinished(new JobFinishedEvent(2L));
+        verify(documentService, times(1)).deleteFile("shared-jd");
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    private static MockMultipartFile png() {
+        return new MockMultipartFile("jdFile", "jd.png", "image/png",
+                new byte[]{(byte) 0x89, 'P', 'N', 'G', 1, 2, 3});
+    }
+
+    private static GenerationJob job(Long id, String batchId, String jdLocation) {
+        GenerationJob job = new GenerationJob();
+        job.setId(id);
+        job.setUserId(USER);
+        job.setBatchId(batchId);
+        job.setStatus(GenerationJobStatus.SUCCEEDED);
+        job.setPayload(Map.of("jdFile", Map.of("location", jdLocation, "fileName", "jd.png",
+                "contentType", "image/png")));
+        return job;
+    }
+}
@@ -0,0 +1,62 @@
+package com.profilebuilder.service;
+
+import com.profilebuilder.util.HashUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OcrResultCacheTest {
+
+    private final ExtractedTextService extractedTextService = mock(ExtractedTextService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OcrResultCache cache = new OcrResultCache(extractedTextService, meterRegistry, 10_000, true);
+
+    @Test
+    void countsHitsBySourceAndMissesOnlyForVisionCalls() {
+        when(extractedTextService.findText(anyString())).thenReturn(Optional.empty());
+        when(extractedTextService.findText(storeKey("stored"))).thenReturn(Optional.of("from the database"));
+
+        assertThat(cache.get("stored")).contains("from the database");
+        assertThat(cache.get("stored")).contains("from the database");
+        assertThat(cache.get("new")).isEmpty();
+
+        assertThat(requests("hit", "database")).isEqualTo(1);
+        assertThat(requests("hit", "memory")).isEqualTo(1);
+        assertThat(requests("miss", "vision")).isZero();
+
+        cache.recordMiss();
+        cache.put("new", "from the model");
+
+        assertThat(cache.get("new")).contains("from the model");
+        assertThat(requests("hit", "memory")).isEqualTo(2);
+        assertThat(requests("miss", "vision")).isEqualTo(1);
+    }
+
+    @Test
+    void storesResultsUnderAVersionedKeyRatherThanTheRawImageHash() {
+        when(extractedTextService.findText(anyString())).thenReturn(Optional.empty());
+        when(extractedTextService.findText("legacy")).thenReturn(Optional.of("black image, no text"));
+
+        assertThat(cache.get("legacy")).isEmpty();
+        cache.put("legacy", "Senior Java engineer");
+
+        verify(extractedTextService).store(storeKey("legacy"), "Senior Java engineer");
+    }
+
+    private static String storeKey(String imageHash) {
+        return HashUtil.sha256Hex(("ocr-v2:" + imageHash).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private double requests(String result, String source) {
+        return meterRegistry.get("pb.ocr.cache.requests").tag("result", result).tag("source", source)
+                .counter().count();
+    }
+}
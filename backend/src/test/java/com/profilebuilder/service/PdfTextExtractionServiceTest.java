@@ -0,0 +1,79 @@
+package com.profilebuilder.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfTextExtractionServiceTest {
+
+    private static final int PAGES = 30;
+
+    @TempDir
+    Path tempDir;
+
+    private ForkJoinPool pool;
+    private PdfTextExtractionService service;
+    private Path pdf;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pool = new ForkJoinPool(4);
+        service = new PdfTextExtractionService(pool);
+        ReflectionTestUtils.setField(service, "pagesPerTask", 4);
+        ReflectionTestUtils.setField(service, "maxMainMemory", DataSize.ofMegabytes(8));
+        pdf = writePdf(tempDir.resolve("multi-page.pdf"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void pageParallelExtractionMatchesSinglePass() {
+        ReflectionTestUtils.setField(service, "parallelPageThreshold", Integer.MAX_VALUE);
+        String singlePass = service.extractText(pdf, "single-pass");
+
+        ReflectionTestUtils.setField(service, "parallelPageThreshold", 1);
+        String pageParallel = service.extractText(pdf, "page-parallel");
+
+        assertThat(singlePass).contains("Page 1 line 1", "Page " + PAGES + " line 3");
+        assertThat(pageParallel).isEqualTo(singlePass);
+    }
+
+    private static Path writePdf(Path file) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int p = 1; p <= PAGES; p++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 12);
+                    content.newLineAtOffset(72, 700);
+                    for (int line = 1; line <= 3; line++) {
+                        content.showText("Page " + p + " line " + line);
+                        content.newLineAtOffset(0, -16);
+                    }
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+}
@@ -0,0 +1,92 @@
+package com.profilebuilder.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromptInputPreprocessorTest {
+
+    private static final String EXPERIENCE = "Led a team of five engineers building a payment platform "
+            + "that processed two million transactions per day across three regions";
+    private static final String EXPERIENCE_EXTENDED = EXPERIENCE + " worldwide";
+    private static final String EDUCATION = "Completed a master's degree in computer science with a thesis "
+            + "on distributed consensus protocols and fault tolerance";
+    private static final String HOBBIES = "Volunteer mentor for students learning to program in their "
+            + "first year at the local community college";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PromptInputPreprocessor preprocessor = new PromptInputPreprocessor(meterRegistry, true, 0.8, 3);
+
+    @Test
+    void dropsNearDuplicateParagraphsAcrossDocuments() {
+        PromptInputPreprocessor.PreparedTexts prepared = preprocessor.prepare("test",
+                List.of(EXPERIENCE + "\n\n" + EDUCATION, EXPERIENCE + "\n\n" + HOBBIES));
+
+        assertThat(prepared.documents()).containsExactly(EXPERIENCE + "\n" + EDUCATION, HOBBIES);
+        assertThat(meterRegistry.get("pb.prompt.preprocess.paragraphs.removed").summary().totalAmount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheLongerVersionWhereTheParagraphFirstAppeared() {
+        PromptInputPreprocessor.PreparedTexts prepared = preprocessor.prepare("test",
+                List.of(EXPERIENCE + "\n\n" + EDUCATION, EXPERIENCE_EXTENDED));
+
+        assertThat(prepared.documents()).containsExactly(EXPERIENCE_EXTENDED + "\n" + EDUCATION, "");
+    }
+
+    @Test
+    void keepsDissimilarAndShortParagraphs() {
+        PromptInputPreprocessor.PreparedTexts prepared = preprocessor.prepare("test",
+                List.of(EXPERIENCE + "\n\nSkills: Java", EDUCATION + "\n\nSkills: Java"));
+
+        assertThat(prepared.documents()).containsExactly(EXPERIENCE + "\nSkills: Java", EDUCATION + "\nSkills: Java");
+    }
+
+    @Test
+    void cleansStandaloneTextsWithoutDeduplicatingThem() {
+        PromptInputPreprocessor.PreparedTexts prepared = preprocessor.prepare("test",
+                List.of(EXPERIENCE), "We need a develop-\ner who ships.\n\nPage 2 of 3", EXPERIENCE);
+
+        assertThat(prepared.documents()).containsExactly(EXPERIENCE);
+        assertThat(prepared.standalone()).containsExactly("We need a developer who ships.", EXPERIENCE);
+    }
+
+    @Test
+    void keepsTitlesDatesAndLocationsRepeatedAcrossPositions() {
+        String resume = String.join("\n",
+                "Jane Doe",
+                "EXPERIENCE",
+                "Acme Payments", "Senior Engineer", "2021 - 2024", "Remote",
+                "• Built a ledger service handling 2M transactions per day",
+                "Globex", "Senior Engineer", "2018 - 2021", "Remote",
+                "• Cut checkout latency by 40%",
+                "Initech", "Senior Engineer", "2015 - 2018", "Remote",
+                "• Migrated billing to Kubernetes");
+
+        assertThat(preprocessor.clean(resume)).isEqualTo(resume);
+    }
+
+    @Test
+    void removesHeadersAndFootersRepeatedAtPageBoundariesOnly() {
+        String text = String.join("\n",
+                "Jane Doe - Resume", "Acme Payments", "Senior Engineer", "2021 - 2024", "Confidential", "Page 1 of 3",
+                "Jane Doe - Resume", "Globex", "Senior Engineer", "2018 - 2021", "Confidential", "Page 2 of 3",
+                "Jane Doe - Resume", "Initech", "Senior Engineer", "2015 - 2018", "Confidential", "Page 3 of 3");
+
+        assertThat(preprocessor.clean(text)).isEqualTo(String.join("\n",
+                "Acme Payments", "Senior Engineer", "2021 - 2024",
+                "Globex", "Senior Engineer", "2018 - 2021",
+                "Initech", "Senior Engineer", "2015 - 2018"));
+    }
+
+    @Test
+    void treatsFormFeedsAsPageBoundaries() {
+        String text = "ACME CORP\nSummary of work\fACME CORP\nProjects delivered\fACME CORP\nReferences";
+
+        assertThat(preprocessor.clean(text)).isEqualTo("Summary of work\nProjects delivered\nReferences");
+    }
+}
@@ -0,0 +1,165 @@
+package com.profilebuilder.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profilebuilder.ai.dto.SmartResumeOutput;
+import com.profilebuilder.ai.dto.SmartResumeOutput.PersonalInfo;
+import com.profilebuilder.ai.dto.SmartResumeOutput.ResumeSection;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SmartResumeStreamParserTest {
+
+    private static final String RESUME = """
+            ```json
+            {
+              "personalInfo": {"fullName": "Zoë Müller", "location": "Zürich", "email": "zoe@example.com"},
+              "sections": [
+                {"sectionName": "EXPERIENCE", "entries": [
+                  {"title": "Senior Engineer", "subtitle": "Acme {Payments}", "dateRange": "2020 – 2024",
+                   "bullets": ["Cut p99 latency by 40% [\\"hot path\\"]", "Led a team of 5"]}
+                ]},
+                {"sectionName": "SKILLS", "entries": [
+                  {"title": "Languages", "bullets": ["Java, Kotlin", "SQL"]}
+                ]}
+              ],
+              "unknownField": {"nested": [1, 2, {"x": null}]}
+            }
+            ```""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void emitsPersonalInfoThenEachSectionInOrder() throws IOException {
+        SmartResumeOutput expected = parseWhole();
+        List<Object> events = new ArrayList<>();
+
+        SmartResumeStreamParser parser = parser(events);
+        parser.feed(RESUME);
+
+        assertThat(events).containsExactly(
+                expected.getPersonalInfo(),
+                "section 0", expected.getSections().get(0),
+                "section 1", expected.getSections().get(1));
+        assertThat(parser.sectionCount()).isEqualTo(2);
+        assertThat(parser.finish(null)).isEqualTo(expected);
+    }
+
+    @Test
+    void emitsTheSameEventsForAnyChunking() throws IOException {
+        List<Object> expected = new ArrayList<>();
+        parser(expected).feed(RESUME);
+
+        for (int size = 1; size <= 7; size++) {
+            assertThat(feedInChunks(fixedSplits(size))).as("chunks of %d characters", size).isEqualTo(expected);
+        }
+        Random random = new Random(42);
+        for (int run = 0; run < 50; run++) {
+            assertThat(feedInChunks(randomSplits(random))).as("random split #%d", run).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void emitsEachValueAsSoonAsItIsComplete() {
+        List<Object> events = new ArrayList<>();
+        SmartResumeStreamParser parser = parser(events);
+        int firstSectionEnd = RESUME.indexOf("]},", RESUME.indexOf("Led a team")) + 2;
+
+        parser.feed(RESUME.substring(0, RESUME.indexOf("\"sections\"")));
+        assertThat(events).hasSize(1).first().isInstanceOf(PersonalInfo.class);
+
+        parser.feed(RESUME.substring(RESUME.indexOf("\"sections\""), firstSectionEnd - 1));
+        assertThat(events).hasSize(1);
+
+        parser.feed(RESUME.substring(firstSectionEnd - 1, firstSectionEnd));
+        assertThat(events).hasSize(3).last().isInstanceOf(ResumeSection.class);
+    }
+
+    @Test
+    void malformedInputFailsToFinishInsteadOfTruncating() {
+        List<Object> events = new ArrayList<>();
+        SmartResumeStreamParser parser = parser(events);
+        String malformed = RESUME.replace("\"SKILLS\", \"entries\"", "\"SKILLS\" \"entries\"");
+
+        for (String chunk : fixedSplits(5, malformed)) {
+            parser.feed(chunk);
+        }
+
+        assertThat(events).hasSize(3);
+        assertThatThrownBy(() -> parser.finish(null)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void truncatedInputFailsToFinish() {
+        SmartResumeStreamParser parser = parser(new ArrayList<>());
+        String truncated = RESUME.substring(0, RESUME.indexOf("{\"sectionName\": \"SKILLS\""));
+
+        parser.feed(truncated);
+
+        assertThat(parser.sectionCount()).isEqualTo(1);
+        assertThatThrownBy(() -> parser.finish(null)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void responseWithoutJsonFailsToFinish() {
+        SmartResumeStreamParser parser = parser(new ArrayList<>());
+
+        parser.feed("I cannot help with that.");
+
+        assertThatThrownBy(() -> parser.finish(null))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("no JSON object");
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    private SmartResumeStreamParser parser(List<Object> events) {
+        return new SmartResumeStreamParser(objectMapper, events::add, (index, section) -> {
+            events.add("section " + index);
+            events.add(section);
+        });
+    }
+
+    private SmartResumeOutput parseWhole() throws IOException {
+        return objectMapper.readValue(RESUME.substring(RESUME.indexOf('{'), RESUME.lastIndexOf('}') + 1),
+                SmartResumeOutput.class);
+    }
+
+    private List<Object> feedInChunks(List<String> chunks) {
+        List<Object> events = new ArrayList<>();
+        SmartResumeStreamParser parser = parser(events);
+        chunks.forEach(parser::feed);
+        return events;
+    }
+
+    private static List<String> fixedSplits(int size) {
+        return fixedSplits(size, RESUME);
+    }
+
+    private static List<String> fixedSplits(int size, String text) {
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < text.length(); i += size) {
+            chunks.add(text.substring(i, Math.min(text.length(), i + size)));
+        }
+        return chunks;
+    }
+
+    private static List<String> randomSplits(Random random) {
+        List<String> chunks = new ArrayList<>();
+        int i = 0;
+        while (i < RESUME.length()) {
+            int end = Math.min(RESUME.length(), i + 1 + random.nextInt(12));
+            chunks.add(RESUME.substring(i, end));
+            i = end;
+        }
+        return chunks;
+    }
+}
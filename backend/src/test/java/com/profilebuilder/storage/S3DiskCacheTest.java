@@ -0,0 +1,230 @@
+package com.profilebuilder.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class S3DiskCacheTest {
+
+    private static final String A = "s3://bucket/a";
+    private static final String B = "s3://bucket/b";
+    private static final String C = "s3://bucket/c";
+
+    @TempDir
+    Path cacheDir;
+
+    private final StubStorage storage = new StubStorage();
+
+    @Test
+    void concurrentMissesShareOneDownload() throws Exception {
+        storage.put(A, "aaaa", "e1");
+        storage.gate = new CompletableFuture<>();
+        S3DiskCache cache = cache(1_000, Duration.ofHours(1));
+
+        CompletableFuture<S3DiskCache.Lease> first = cache.acquire(A);
+        CompletableFuture<S3DiskCache.Lease> second = cache.acquire(A);
+        assertThat(first).isNotDone();
+        assertThat(second).isNotDone();
+        storage.gate.complete(null);
+
+        try (S3DiskCache.Lease one = first.join(); S3DiskCache.Lease two = second.join()) {
+            assertThat(one.path()).isEqualTo(two.path());
+            assertThat(Files.readString(one.path())).isEqualTo("aaaa");
+        }
+        assertThat(storage.downloads.get()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.coalescedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void servesAFreshEntryWithoutTouchingStorage() throws Exception {
+        storage.put(A, "aaaa", "e1");
+        S3DiskCache cache = cache(1_000, Duration.ofHours(1));
+
+        Path path;
+        try (S3DiskCache.Lease lease = cache.acquire(A).join()) {
+            path = lease.path();
+        }
+        try (S3DiskCache.Lease lease = cache.acquire(A).join()) {
+            assertThat(lease.path()).isEqualTo(path);
+        }
+
+        assertThat(storage.downloads.get()).isEqualTo(1);
+        assertThat(storage.heads.get()).isZero();
+        assertThat(cache.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedUnpinnedEntryButNeverAPinnedOne() throws Exception {
+        storage.put(A, "x".repeat(10), "ea");
+        storage.put(B, "x".repeat(10), "eb");
+        storage.put(C, "x".repeat(10), "ec");
+        S3DiskCache cache = cache(25, Duration.ofHours(1));
+
+        S3DiskCache.Lease pinned = cache.acquire(A).join();
+        Path bPath;
+        try (S3DiskCache.Lease b = cache.acquire(B).join()) {
+            bPath = b.path();
+        }
+        try (S3DiskCache.Lease c = cache.acquire(C).join()) {
+            assertThat(c.path()).exists();
+        }
+
+        // A is the eldest, but pinned: B goes instead
+        assertThat(pinned.path()).exists();
+        assertThat(bPath).doesNotExist();
+        assertThat(cache.evictionCount()).isEqualTo(1);
+        assertThat(cache.totalBytes()).isEqualTo(20);
+
+        pinned.close();
+        assertThat(pinned.path()).exists(); // still indexed, only unpinned
+    }
+
+    @Test
+    void reDownloadsWhenTheETagChangedAndDeletesThePinnedOldCopyOnRelease() throws Exception {
+        storage.put(A, "version one", "e1");
+        S3DiskCache cache = cache(1_000, Duration.ZERO);
+
+        S3DiskCache.Lease old = cache.acquire(A).join();
+        storage.put(A, "version two", "e2");
+
+        try (S3DiskCache.Lease fresh = cache.acquire(A).join()) {
+            assertThat(fresh.path()).isNotEqualTo(old.path());
+            assertThat(Files.readString(fresh.path())).isEqualTo("version two");
+            // the old copy is still being read
+            assertThat(Files.readString(old.path())).isEqualTo("version one");
+
+            old.close();
+            assertThat(old.path()).doesNotExist();
+            assertThat(fresh.path()).exists();
+        }
+        assertThat(storage.downloads.get()).isEqualTo(2);
+        assertThat(cache.totalBytes()).isEqualTo("version two".length());
+    }
+
+    @Test
+    void revalidatesAStaleEntryWithoutReDownloadingWhenTheETagIsUnchanged() throws Exception {
+        storage.put(A, "aaaa", "e1");
+        S3DiskCache cache = cache(1_000, Duration.ZERO);
+
+        Path path;
+        try (S3DiskCache.Lease lease = cache.acquire(A).join()) {
+            path = lease.path();
+        }
+        try (S3DiskCache.Lease lease = cache.acquire(A).join()) {
+            assertThat(lease.path()).isEqualTo(path);
+        }
+
+        assertThat(storage.downloads.get()).isEqualTo(1);
+        assertThat(storage.heads.get()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void neverIndexesAnObjectLargerThanTheCache() throws Exception {
+        storage.put(A, "x".repeat(50), "e1");
+        S3DiskCache cache = cache(20, Duration.ofHours(1));
+
+        Path path;
+        try (S3DiskCache.Lease lease = cache.acquire(A).join()) {
+            path = lease.path();
+            assertThat(Files.size(path)).isEqualTo(50);
+            assertThat(cache.totalBytes()).isZero();
+        }
+        assertThat(path).doesNotExist();
+
+        try (S3DiskCache.Lease lease = cache.acquire(A).join()) {
+            assertThat(Files.size(lease.path())).isEqualTo(50);
+        }
+        assertThat(storage.downloads.get()).isEqualTo(2);
+        assertThat(cache.evictionCount()).isZero();
+    }
+
+    @Test
+    void sharesTheDirectoryWithoutTouchingFilesItDidNotWrite() throws Exception {
+        storage.put(A, "aaaa", "e1");
+        Path foreign = Files.writeString(cacheDir.resolve("notes.txt"), "keep me");
+        S3DiskCache first = cache(1_000, Duration.ofHours(1));
+
+        Path cached;
+        try (S3DiskCache.Lease lease = first.acquire(A).join()) {
+            cached = lease.path();
+        }
+        S3DiskCache second = cache(1_000, Duration.ofHours(1));
+
+        assertThat(foreign).hasContent("keep me");
+        assertThat(cached).exists();
+        try (S3DiskCache.Lease lease = second.acquire(A).join()) {
+            assertThat(lease.path()).isNotEqualTo(cached).hasContent("aaaa");
+        }
+
+        first.close();
+        assertThat(cached.getParent()).doesNotExist();
+        assertThat(foreign).exists();
+        second.close();
+        try (Stream<Path> left = Files.list(cacheDir)) {
+            assertThat(left).containsExactly(foreign);
+        }
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    private S3DiskCache cache(long maxBytes, Duration revalidateAfter) {
+        return new S3DiskCache(storage, cacheDir, maxBytes, revalidateAfter, new SimpleMeterRegistry());
+    }
+
+    /** In-memory objects; downloads wait for {@link #gate} when it is set. */
+    private static final class StubStorage extends S3DocumentStorage {
+
+        private record StoredObject(String content, String eTag) {}
+
+        private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+        private final AtomicInteger downloads = new AtomicInteger();
+        private final AtomicInteger heads = new AtomicInteger();
+        private volatile CompletableFuture<Void> gate = CompletableFuture.completedFuture(null);
+
+        private StubStorage() {
+            super(null, null, "bucket", null);
+        }
+
+        void put(String location, String content, String eTag) {
+            objects.put(location, new StoredObject(content, eTag));
+        }
+
+        @Override
+        public CompletableFuture<String> downloadWithETag(String location, Path target) {
+            downloads.incrementAndGet();
+            StoredObject object = objects.get(location);
+            return gate.thenApply(ignored -> {
+                try {
+                    Files.writeString(target, object.content());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return object.eTag();
+            });
+        }
+
+        @Override
+        public CompletableFuture<Optional<ObjectInfo>> head(String location) {
+            heads.incrementAndGet();
+            StoredObject object = objects.get(location);
+            return CompletableFuture.completedFuture(Optional.ofNullable(object)
+                    .map(o -> new ObjectInfo(o.content().length(), "text/plain", o.eTag(), null)));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.profilebuilder.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AhoCorasickTest {
+
+    @Test
+    void reportsOverlappingMatchesInEndPositionOrder() {
+        List<String> patterns = List.of("spring", "spring boot", "boot", "aws");
+
+        List<String> matches = scan(patterns, "spring boot on aws");
+
+        assertThat(matches).containsExactly("spring[0,6)", "spring boot[0,11)", "boot[7,11)", "aws[15,18)");
+    }
+
+    @Test
+    void reportsWholeWordsOnly() {
+        List<String> patterns = List.of("java", "js", "go");
+
+        assertThat(scan(patterns, "javascript, node.js and golang")).isEmpty();
+        assertThat(scan(patterns, "java, js. go")).containsExactly("java[0,4)", "js[6,8)", "go[10,12)");
+    }
+
+    @Test
+    void findsPatternsSharingASuffixThroughFailureLinks() {
+        List<String> patterns = List.of("c#", "f#", "#");
+
+        assertThat(scan(patterns, "c# f#")).containsExactly("c#[0,2)", "f#[3,5)");
+    }
+
+    @Test
+    void isCaseSensitive() {
+        assertThat(scan(List.of("java"), "Java JAVA java")).containsExactly("java[10,14)");
+    }
+
+    @Test
+    void rejectsEmptyPatterns() {
+        assertThatThrownBy(() -> new AhoCorasick(List.of("java", "")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<String> scan(List<String> patterns, String text) {
+        List<String> matches = new ArrayList<>();
+        new AhoCorasick(patterns).scan(text,
+                (pattern, start, end) -> matches.add(patterns.get(pattern) + "[" + start + "," + end + ")"));
+        return matches;
+    }
+}
@@ -1,6 +1,10 @@
 import { axiosInstance } from './axios-instance';
+import { waitForJob } from './generation-job-api';
+import type { GenerationJobResponse } from '../types/generation-job';
 import type { CoverLetterResponse } from '../types/cover-letter';
 
+type CoverLetterJob = GenerationJobResponse<CoverLetterResponse>;
+
 export async function generateCoverLetter(
   jdFile: File,
   resumeDocId: number,
@@ -10,8 +14,8 @@ export async function generateCoverLetter(
   formData.append('jdFile', jdFile);
   formData.append('resumeDocId', resumeDocId.toString());
   formData.append('coverLetterDocId', coverLetterDocId.toString());
-  const { data } = await axiosInstance.post<CoverLetterResponse>('/cover-letter/generate', formData);
-  return data;
+  const { data } = await axiosInstance.post<CoverLetterJob>('/cover-letter/generate', formData);
+  return waitForJob(data);
 }
 
 export async function getCoverLetter(id: number): Promise<CoverLetterResponse> {
@@ -20,6 +24,6 @@ export async function getCoverLetter(id: number): Promise<CoverLetterResponse> {
 }
 
 export async function evaluateCoverLetter(id: number): Promise<CoverLetterResponse> {
-  const { data } = await axiosInstance.post<CoverLetterResponse>(`/cover-letter/${id}/evaluate`);
-  return data;
+  const { data } = await axiosInstance.post<CoverLetterJob>(`/cover-letter/${id}/evaluate`);
+  return waitForJob(data);
 }
@@ -1,5 +1,5 @@
 import { axiosInstance } from './axios-instance';
-import type { DocumentType, DocumentUploadResponse } from '../types/document';
+import type { DocumentStatusResponse, DocumentType, DocumentUploadResponse } from '../types/document';
 
 export async function fetchDocuments(documentType?: DocumentType): Promise<DocumentUploadResponse[]> {
     const params = documentType ? { documentType } : {};
@@ -12,6 +12,11 @@ export async function fetchDocumentById(id: number): Promise<DocumentUploadRespo
     return data;
 }
 
+export async function fetchDocumentStatus(id: number): Promise<DocumentStatusResponse> {
+    const { data } = await axiosInstance.get<DocumentStatusResponse>(`/documents/${id}/status`);
+    return data;
+}
+
 export async function uploadDocument(file: File, documentType: DocumentType): Promise<DocumentUploadResponse> {
     const formData = new FormData();
     formData.append('file', file);
@@ -0,0 +1,25 @@
+import { axiosInstance } from './axios-instance';
+import type { GenerationJobResponse } from '../types/generation-job';
+
+const POLL_INTERVAL_MS = 2000;
+
+export async function getGenerationJob<T>(id: number): Promise<GenerationJobResponse<T>> {
+  const { data } = await axiosInstance.get<GenerationJobResponse<T>>(`/jobs/${id}`);
+  return data;
+}
+
+/**
+ * Polls a queued generation job until it finishes. Resolves with the job result,
+ * or rejects with the job's error message if it failed.
+ */
+export async function waitForJob<T>(job: GenerationJobResponse<T>): Promise<T> {
+  let current = job;
+  while (current.status === 'QUEUED' || current.status === 'RUNNING') {
+    await new Promise(resolve => setTimeout(resolve, POLL_INTERVAL_MS));
+    current = await getGenerationJob<T>(current.id);
+  }
+  if (current.status === 'FAILED' || current.result === null) {
+    throw new Error(current.error ?? 'Generation failed');
+  }
+  return current.result;
+}
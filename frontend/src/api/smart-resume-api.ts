@@ -1,6 +1,10 @@
 import { axiosInstance } from './axios-instance';
+import { waitForJob } from './generation-job-api';
+import type { GenerationJobResponse } from '../types/generation-job';
 import type { SmartGeneratedResumeResponse, RecommendationItem } from '../types/smart-resume';
 
+type SmartResumeJob = GenerationJobResponse<SmartGeneratedResumeResponse>;
+
 export async function generateSmartResume(
   jdFile: File,
   documentIds: number[],
@@ -8,8 +12,8 @@ export async function generateSmartResume(
   const formData = new FormData();
   formData.append('jdFile', jdFile);
   documentIds.forEach(id => formData.append('documentIds', id.toString()));
-  const { data } = await axiosInstance.post<SmartGeneratedResumeResponse>('/smart-resume/generate', formData);
-  return data;
+  const { data } = await axiosInstance.post<SmartResumeJob>('/smart-resume/generate', formData);
+  return waitForJob(data);
 }
 
 export async function getSmartResume(id: number): Promise<SmartGeneratedResumeResponse> {
@@ -18,8 +22,8 @@ export async function getSmartResume(id: number): Promise<SmartGeneratedResumeRe
 }
 
 export async function regenerateSmartResume(id: number): Promise<SmartGeneratedResumeResponse> {
-  const { data } = await axiosInstance.post<SmartGeneratedResumeResponse>(`/smart-resume/${id}/regenerate`);
-  return data;
+  const { data } = await axiosInstance.post<SmartResumeJob>(`/smart-resume/${id}/regenerate`);
+  return waitForJob(data);
 }
 
 export async function downloadSmartResumeDocx(id: number): Promise<Blob> {
@@ -33,9 +37,9 @@ export async function applyRecommendations(
   id: number,
   recommendations: RecommendationItem[],
 ): Promise<SmartGeneratedResumeResponse> {
-  const { data } = await axiosInstance.post<SmartGeneratedResumeResponse>(
+  const { data } = await axiosInstance.post<SmartResumeJob>(
     `/smart-resume/${id}/apply-recommendations`,
     { recommendations },
   );
-  return data;
+  return waitForJob(data);
 }
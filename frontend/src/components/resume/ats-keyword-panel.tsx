@@ -0,0 +1,42 @@
+import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card'
+import { Progress } from '@/components/ui/progress'
+import { Badge } from '@/components/ui/badge'
+import type { AtsKeywordMatchResponse } from '@/types/smart-resume'
+
+interface AtsKeywordPanelProps {
+  keywordMatch: AtsKeywordMatchResponse
+}
+
+// Displays the instant, locally computed JD keyword coverage of the resume
+export function AtsKeywordPanel({ keywordMatch }: AtsKeywordPanelProps) {
+  if (keywordMatch.coverage === null) return null
+
+  return (
+    <Card>
+      <CardHeader>
+        <CardTitle>ATS Keyword Coverage</CardTitle>
+      </CardHeader>
+      <CardContent>
+        <div className="flex items-center gap-3 mb-3">
+          <div className="flex-1">
+            <Progress value={Math.round(keywordMatch.coverage * 100)} />
+          </div>
+          <span className="text-sm font-medium">
+            {keywordMatch.matchedTerms.length}/{keywordMatch.matchedTerms.length + keywordMatch.missingTerms.length} terms
+          </span>
+        </div>
+
+        {keywordMatch.missingTerms.length > 0 && (
+          <div className="mt-4">
+            <p className="font-semibold text-sm mb-2">Missing JD Terms</p>
+            <div className="flex flex-wrap gap-2">
+              {keywordMatch.missingTerms.map((t, i) => (
+                <Badge key={i} variant="secondary" className="bg-red-500/10 text-red-500">{t}</Badge>
+              ))}
+            </div>
+          </div>
+        )}
+      </CardContent>
+    </Card>
+  )
+}
@@ -21,6 +21,8 @@ interface DataTableProps<T> {
   rowSelection?: {
     selectedKeys: (string | number)[]
     onChange: (keys: (string | number)[]) => void
+    /** Rows for which this returns false are shown with a disabled checkbox. */
+    isSelectable?: (record: T) => boolean
   }
 }
 
@@ -42,7 +44,8 @@ export function DataTable<T extends Record<string, any>>({
   const totalPages = Math.ceil(data.length / pageSize)
   const pageData = pagination ? data.slice(page * pageSize, (page + 1) * pageSize) : data
 
-  const allKeys = pageData.map((row) => row[rowKey] as string | number)
+  const isSelectable = (row: T) => rowSelection?.isSelectable?.(row) ?? true
+  const allKeys = pageData.filter(isSelectable).map((row) => row[rowKey] as string | number)
   const allSelected =
     rowSelection && allKeys.length > 0 && allKeys.every((k) => rowSelection.selectedKeys.includes(k))
 
@@ -76,6 +79,7 @@ export function DataTable<T extends Record<string, any>>({
                   <input
                     type="checkbox"
                     checked={allSelected || false}
+                    disabled={allKeys.length === 0}
                     onChange={toggleAll}
                     className="h-4 w-4 rounded border-input"
                   />
@@ -113,6 +117,7 @@ export function DataTable<T extends Record<string, any>>({
                         <input
                           type="checkbox"
                           checked={isSelected || false}
+                          disabled={!isSelectable(row)}
                           onChange={() => toggleRow(key)}
                           className="h-4 w-4 rounded border-input"
                         />
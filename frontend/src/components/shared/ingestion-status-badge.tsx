@@ -0,0 +1,13 @@
+import { Badge } from '@/components/ui/badge'
+import type { IngestionStatus } from '../../types/document'
+
+export function IngestionStatusBadge({ status }: { status: IngestionStatus }) {
+  switch (status) {
+    case 'COMPLETED':
+      return <Badge variant="outline">Ready</Badge>
+    case 'FAILED':
+      return <Badge variant="destructive">Failed</Badge>
+    default:
+      return <Badge variant="secondary">Processing...</Badge>
+  }
+}
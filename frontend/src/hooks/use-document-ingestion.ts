@@ -0,0 +1,53 @@
+import { useEffect, useState } from 'react';
+import type { Dispatch, SetStateAction } from 'react';
+import { toast } from 'sonner';
+import { fetchDocumentStatus } from '../api/documentApi';
+import type { DocumentStatusResponse, DocumentUploadResponse } from '../types/document';
+
+const POLL_INTERVAL_MS = 2000;
+
+export function isIngesting(document: DocumentUploadResponse): boolean {
+  return document.status === 'PENDING' || document.status === 'PROCESSING';
+}
+
+/**
+ * Polls the ingestion status of the listed documents that are still being processed.
+ * Documents that complete are updated in place; documents that fail are removed from
+ * the list with an error toast, as the document list no longer returns them.
+ */
+export function useDocumentIngestion(
+  documents: DocumentUploadResponse[],
+  setDocuments: Dispatch<SetStateAction<DocumentUploadResponse[]>>,
+): void {
+  const [round, setRound] = useState(0);
+  const ingestingIds = documents.filter(isIngesting).map(d => d.id).join(',');
+
+  useEffect(() => {
+    if (!ingestingIds) return;
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      const statuses = await Promise.all(
+        ingestingIds.split(',').map(id => fetchDocumentStatus(Number(id)).catch(() => null)),
+      );
+      if (cancelled) return;
+      const byId = new Map<number, DocumentStatusResponse>();
+      statuses.forEach(s => s && byId.set(s.id, s));
+      byId.forEach(s => {
+        if (s.status === 'FAILED') toast.error(s.error ?? 'A document could not be processed');
+      });
+      setDocuments(current =>
+        current
+          .filter(d => byId.get(d.id)?.status !== 'FAILED')
+          .map(d => {
+            const s = byId.get(d.id);
+            return s && s.status !== d.status ? { ...d, status: s.status } : d;
+          }),
+      );
+      setRound(r => r + 1);
+    }, POLL_INTERVAL_MS);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [ingestingIds, round, setDocuments]);
+}
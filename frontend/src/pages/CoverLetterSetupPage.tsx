@@ -7,12 +7,20 @@ import type { Column } from '@/components/shared/data-table'
 import { FileUploadDropzone } from '@/components/shared/file-upload-dropzone'
 import { PageHeader } from '@/components/shared/page-header'
 import { GenerationOverlay } from '@/components/shared/generation-overlay'
+import { IngestionStatusBadge } from '@/components/shared/ingestion-status-badge'
 import { fetchDocuments, uploadDocument } from '../api/documentApi'
 import { generateCoverLetter } from '../api/cover-letter-api'
-import type { DocumentUploadResponse } from '../types/document'
+import { useDocumentIngestion } from '../hooks/use-document-ingestion'
+import type { DocumentUploadResponse, IngestionStatus } from '../types/document'
 
 const docColumns: Column<DocumentUploadResponse>[] = [
   { key: 'originalName', header: 'File Name' },
+  {
+    key: 'status',
+    header: 'Status',
+    width: '130px',
+    render: (val) => <IngestionStatusBadge status={val as IngestionStatus} />,
+  },
   {
     key: 'createdAt',
     header: 'Uploaded',
@@ -48,6 +56,9 @@ export default function CoverLetterSetupPage() {
     loadCoverLetters()
   }, [])
 
+  useDocumentIngestion(resumes, setResumes)
+  useDocumentIngestion(coverLetters, setCoverLetters)
+
   const handleUploadResume = async (file: File) => {
     try {
       const uploaded = await uploadDocument(file, 'RESUME')
@@ -83,7 +94,12 @@ export default function CoverLetterSetupPage() {
     }
   }
 
-  const canGenerate = !!jdFile && !!selectedResumeId && !!selectedCoverLetterId
+  // An upload is selected right away but can only be used once it has been processed
+  const isReady = (docs: DocumentUploadResponse[], id: number | null) =>
+    docs.some((d) => d.id === id && d.status === 'COMPLETED')
+
+  const canGenerate =
+    !!jdFile && isReady(resumes, selectedResumeId) && isReady(coverLetters, selectedCoverLetterId)
 
   return (
     <>
@@ -109,6 +125,7 @@ export default function CoverLetterSetupPage() {
             selectedKeys: selectedResumeId !== null ? [selectedResumeId] : [],
             onChange: (keys) =>
               setSelectedResumeId(keys.length > 0 ? (keys[keys.length - 1] as number) : null),
+            isSelectable: (doc) => doc.status === 'COMPLETED',
           }}
         />
         <div className="mt-3">
@@ -130,6 +147,7 @@ export default function CoverLetterSetupPage() {
             selectedKeys: selectedCoverLetterId !== null ? [selectedCoverLetterId] : [],
             onChange: (keys) =>
               setSelectedCoverLetterId(keys.length > 0 ? (keys[keys.length - 1] as number) : null),
+            isSelectable: (doc) => doc.status === 'COMPLETED',
           }}
         />
         <div className="mt-3">
@@ -13,9 +13,11 @@ import {
 import { DataTable } from '@/components/shared/data-table'
 import type { Column } from '@/components/shared/data-table'
 import { PageHeader } from '@/components/shared/page-header'
+import { IngestionStatusBadge } from '@/components/shared/ingestion-status-badge'
 import { FileText, Upload } from 'lucide-react'
 import { fetchDocuments } from '../api/documentApi'
-import type { DocumentType, DocumentUploadResponse } from '../types/document'
+import { useDocumentIngestion } from '../hooks/use-document-ingestion'
+import type { DocumentType, DocumentUploadResponse, IngestionStatus } from '../types/document'
 
 function formatBytes(bytes: number): string {
   if (bytes === 0) return '0 B'
@@ -62,6 +64,12 @@ const columns: Column<DocumentUploadResponse>[] = [
     width: '100px',
     render: (val) => formatBytes(val as number),
   },
+  {
+    key: 'status',
+    header: 'Status',
+    width: '130px',
+    render: (val) => <IngestionStatusBadge status={val as IngestionStatus} />,
+  },
   {
     key: 'createdAt',
     header: 'Uploaded',
@@ -99,6 +107,8 @@ export default function DocumentListPage() {
     loadDocuments()
   }, [loadDocuments])
 
+  useDocumentIngestion(documents, setDocuments)
+
   return (
     <>
       <PageHeader title="My Documents">
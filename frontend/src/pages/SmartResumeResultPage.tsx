@@ -7,9 +7,12 @@ import { LoadingSpinner } from '@/components/shared/loading-spinner'
 import { ResumeDownloadButton } from '@/components/shared/resume-download-button'
 import { SmartResumePaper } from '@/components/resume/smart-resume-paper'
 import { HrValidationPanel } from '@/components/resume/hr-validation-panel'
+import { AtsKeywordPanel } from '@/components/resume/ats-keyword-panel'
 import { getSmartResume, regenerateSmartResume, downloadSmartResumeDocx, applyRecommendations } from '../api/smart-resume-api'
 import type { SmartGeneratedResumeResponse, RecommendationItem } from '../types/smart-resume'
 
+const VALIDATION_POLL_INTERVAL_MS = 3000
+
 export default function SmartResumeResultPage() {
   const { smartResumeId } = useParams<{ smartResumeId: string }>()
   const [resume, setResume] = useState<SmartGeneratedResumeResponse | null>(null)
@@ -27,6 +30,20 @@ export default function SmartResumeResultPage() {
       .finally(() => setLoading(false))
   }, [smartResumeId])
 
+  // HR validation runs in the background; refresh until it has finished
+  const validationPending = resume?.validationStatus === 'PENDING'
+  useEffect(() => {
+    if (!validationPending) return
+    const timer = setInterval(() => {
+      getSmartResume(Number(smartResumeId))
+        .then(latest => {
+          if (latest.validationStatus !== 'PENDING') setResume(latest)
+        })
+        .catch(() => {})
+    }, VALIDATION_POLL_INTERVAL_MS)
+    return () => clearInterval(timer)
+  }, [smartResumeId, validationPending])
+
   const handleRegenerate = async () => {
     setRegenerating(true)
     try {
@@ -97,16 +114,18 @@ export default function SmartResumeResultPage() {
         </div>
       </div>
 
-      {/* Right column: HR validation panel */}
-      {resume.validation && (
-        <div>
+      {/* Right column: instant keyword coverage, then the HR validation panel */}
+      <div className="space-y-6">
+        {resume.atsKeywordMatch && <AtsKeywordPanel keywordMatch={resume.atsKeywordMatch} />}
+        {validationPending && <LoadingSpinner label="Running HR validation..." className="py-8" />}
+        {resume.validation && (
           <HrValidationPanel
             validation={resume.validation}
             onApplySelected={handleApplyRecommendations}
             applyingRecommendations={applyingRecs}
           />
-        </div>
-      )}
+        )}
+      </div>
     </div>
   )
 }
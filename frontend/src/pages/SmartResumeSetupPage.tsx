@@ -7,9 +7,11 @@ import { DataTable } from '@/components/shared/data-table'
 import type { Column } from '@/components/shared/data-table'
 import { FileUploadDropzone } from '@/components/shared/file-upload-dropzone'
 import { PageHeader } from '@/components/shared/page-header'
+import { IngestionStatusBadge } from '@/components/shared/ingestion-status-badge'
 import { fetchDocuments } from '../api/documentApi'
 import { generateSmartResume } from '../api/smart-resume-api'
-import type { DocumentUploadResponse } from '../types/document'
+import { useDocumentIngestion } from '../hooks/use-document-ingestion'
+import type { DocumentUploadResponse, IngestionStatus } from '../types/document'
 
 const docColumns: Column<DocumentUploadResponse>[] = [
   {
@@ -26,6 +28,12 @@ const docColumns: Column<DocumentUploadResponse>[] = [
       </Badge>
     ),
   },
+  {
+    key: 'status',
+    header: 'Status',
+    width: '130px',
+    render: (val) => <IngestionStatusBadge status={val as IngestionStatus} />,
+  },
   {
     key: 'createdAt',
     header: 'Uploaded',
@@ -51,6 +59,8 @@ export default function SmartResumeSetupPage() {
       .catch(() => toast.error('Failed to load documents'))
   }, [])
 
+  useDocumentIngestion(documents, setDocuments)
+
   const handleGenerate = async () => {
     if (!jdFile || selectedDocIds.length === 0) return
     setLoading(true)
@@ -76,6 +86,7 @@ export default function SmartResumeSetupPage() {
         rowSelection={{
           selectedKeys: selectedDocIds,
           onChange: (keys) => setSelectedDocIds(keys as number[]),
+          isSelectable: (doc) => doc.status === 'COMPLETED',
         }}
       />
 
@@ -1,12 +1,21 @@
 export type DocumentType = 'RESUME' | 'COVER_LETTER';
 
+export type IngestionStatus = 'PENDING' | 'PROCESSING' | 'COMPLETED' | 'FAILED';
+
 export interface DocumentUploadResponse {
   id: number;
   fileName: string;
   originalName: string;
-  filePath: string;
   fileType: string;
   documentType: DocumentType;
   fileSize: number;
   createdAt: string;
+  status: IngestionStatus;
+}
+
+export interface DocumentStatusResponse {
+  id: number;
+  status: IngestionStatus;
+  stages: { stage: 'STORE' | 'HASH' | 'EXTRACT'; state: 'PENDING' | 'RUNNING' | 'DONE' | 'FAILED' }[];
+  error: string | null;
 }
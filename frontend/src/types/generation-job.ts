@@ -0,0 +1,22 @@
+export type GenerationJobStatus = 'QUEUED' | 'RUNNING' | 'SUCCEEDED' | 'FAILED';
+
+export type GenerationJobType =
+  | 'SMART_RESUME_GENERATE'
+  | 'SMART_RESUME_REGENERATE'
+  | 'SMART_RESUME_APPLY_RECOMMENDATIONS'
+  | 'COVER_LETTER_GENERATE'
+  | 'COVER_LETTER_EVALUATE';
+
+export interface GenerationJobResponse<T = unknown> {
+  id: number;
+  type: GenerationJobType;
+  status: GenerationJobStatus;
+  attempts: number;
+  maxAttempts: number;
+  nextAttemptAt: string | null;
+  resourceId: number | null;
+  result: T | null;
+  error: string | null;
+  createdAt: string;
+  completedAt: string | null;
+}
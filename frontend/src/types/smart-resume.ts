@@ -47,10 +47,20 @@ export interface HrValidationResponse {
   recommendations: RecommendationItem[];
 }
 
+export type HrValidationStatus = 'PENDING' | 'COMPLETED' | 'FAILED';
+
+export interface AtsKeywordMatchResponse {
+  coverage: number | null;   // 0.0 - 1.0, null when no JD term was recognised
+  matchedTerms: string[];
+  missingTerms: string[];
+}
+
 export interface SmartGeneratedResumeResponse {
   id: number;
   resumeContent: SmartResumeContent;
   validation: HrValidationResponse | null;
+  validationStatus: HrValidationStatus | null;
+  atsKeywordMatch: AtsKeywordMatchResponse | null;
   createdAt: string;
 }
 